@@ -0,0 +1,61 @@
+package com.uamishop.backend.catalogo.infrastructure.persistence;
+
+import com.uamishop.backend.catalogo.domain.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo ProductoEntity ↔ Producto de ProductoRepositoryImpl,
+ * ejecutado por cada fila en listados, búsquedas y exportación.
+ * No requiere base de datos: solo se usan los mappers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductoMapeoBenchmark {
+
+    private ProductoRepositoryImpl repositorio;
+    private ProductoEntity entidad;
+    private Producto producto;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        repositorio = new ProductoRepositoryImpl(null, null);
+        entidad = new ProductoEntity(
+                UUID.randomUUID(),
+                "Laptop 14 pulgadas",
+                "Laptop ligera con 16 GB de RAM",
+                new BigDecimal("18999.90"),
+                UUID.randomUUID(),
+                true,
+                LocalDateTime.now());
+        producto = repositorio.toDomain(entidad);
+    }
+
+    @Benchmark
+    public Producto toDomain() {
+        return repositorio.toDomain(entidad);
+    }
+
+    @Benchmark
+    public ProductoEntity toEntity() {
+        return repositorio.toEntity(producto);
+    }
+}
@@ -0,0 +1,83 @@
+package com.uamishop.backend.orden.domain;
+
+import com.uamishop.backend.shared.domain.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculos del agregado Orden que se ejecutan al crear la orden
+ * desde el carrito y al aplicar descuentos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrdenBenchmark {
+
+    @Param({"1", "20"})
+    private int items;
+
+    private DireccionEnvio direccion;
+    private ItemOrden[] lineas;
+    private Orden orden;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        direccion = DireccionEnvio.crear("Av. San Rafael Atlixco 186", "Iztapalapa", "CDMX", "09340", "5512345678");
+        lineas = new ItemOrden[items];
+        for (int i = 0; i < items; i++) {
+            lineas[i] = ItemOrden.crear(UUID.randomUUID(), "Producto " + i, "SKU-" + i,
+                    1 + i % 3, Money.centavos(12_950L + i * 100L));
+        }
+        orden = nuevaOrden();
+    }
+
+    private Orden nuevaOrden() {
+        Orden nueva = new Orden("ORD-0000000001", UUID.randomUUID(), direccion);
+        for (ItemOrden linea : lineas) {
+            nueva.agregarItem(linea);
+        }
+        return nueva;
+    }
+
+    /**
+     * Construye la orden y agrega todas las líneas (cada agregarItem
+     * recalcula el total, como ocurre al crear la orden desde el carrito).
+     */
+    @Benchmark
+    public Orden agregarItems() {
+        return nuevaOrden();
+    }
+
+    @Benchmark
+    public Money calcularSubtotal() {
+        return orden.calcularSubtotal();
+    }
+
+    @Benchmark
+    public Money aplicarDescuentoMonto() {
+        orden.aplicarDescuento(Money.pesos(10));
+        return orden.getTotal();
+    }
+
+    @Benchmark
+    public Money aplicarDescuentoPorcentaje() {
+        orden.aplicarDescuento(15.0);
+        return orden.getTotal();
+    }
+}
@@ -0,0 +1,152 @@
+package com.uamishop.backend.shared.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara Money (centavos en long) contra la representación anterior
+ * basada en BigDecimal en los caminos calientes:
+ *
+ * - subtotal de N líneas (precio * cantidad, sumado), como
+ *   Orden.calcularSubtotal y Carrito.calcularTotal.
+ * - conversión de la columna decimal al dominio, como
+ *   ProductoRepositoryImpl.toDomain (antes BigDecimal → double → BigDecimal).
+ *
+ * Ejecutar con el perfil jmh y el profiler de GC para ver bytes por operación:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"5", "20"})
+    private int lineas;
+
+    private Money[] precios;
+    private BigDecimal[] preciosDecimal;
+    private int[] cantidades;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        precios = new Money[lineas];
+        preciosDecimal = new BigDecimal[lineas];
+        cantidades = new int[lineas];
+        for (int i = 0; i < lineas; i++) {
+            long centavos = 100 + random.nextInt(500_000);
+            preciosDecimal[i] = BigDecimal.valueOf(centavos, 2);
+            precios[i] = Money.centavos(centavos);
+            cantidades[i] = 1 + random.nextInt(5);
+        }
+    }
+
+    // ── Subtotal de líneas ──
+
+    @Benchmark
+    public Money subtotalCentavos() {
+        long total = 0L;
+        for (int i = 0; i < lineas; i++) {
+            total = Math.addExact(total, Math.multiplyExact(precios[i].getCentavos(), cantidades[i]));
+        }
+        return Money.centavos(total);
+    }
+
+    @Benchmark
+    public Money subtotalMoneyEncadenado() {
+        Money total = Money.CERO;
+        for (int i = 0; i < lineas; i++) {
+            total = total.sumar(precios[i].multiplicar(cantidades[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public MoneyDecimal subtotalBigDecimalAnterior() {
+        MoneyDecimal total = MoneyDecimal.pesos(0);
+        for (int i = 0; i < lineas; i++) {
+            total = total.sumar(new MoneyDecimal(preciosDecimal[i], "MXN").multiplicar(cantidades[i]));
+        }
+        return total;
+    }
+
+    // ── Operaciones individuales ──
+
+    @Benchmark
+    public Money sumar() {
+        return precios[0].sumar(precios[lineas - 1]);
+    }
+
+    @Benchmark
+    public boolean restarYComparar() {
+        Money mayor = precios[0].esMayorQue(precios[1]) ? precios[0] : precios[1];
+        Money menor = mayor == precios[0] ? precios[1] : precios[0];
+        return mayor.restar(menor).esPositivo();
+    }
+
+    @Benchmark
+    public Money porcentaje() {
+        return precios[0].porcentaje(0.15);
+    }
+
+    // ── Conversión columna → dominio ──
+
+    @Benchmark
+    public Money conversionExacta() {
+        return Money.pesos(preciosDecimal[lineas - 1]);
+    }
+
+    @Benchmark
+    public MoneyDecimal conversionAnteriorViaDouble() {
+        return MoneyDecimal.pesos(preciosDecimal[lineas - 1].doubleValue());
+    }
+
+    /**
+     * Copia de la implementación anterior de Money (BigDecimal en cada
+     * operación), conservada solo como línea base del benchmark.
+     */
+    public static final class MoneyDecimal {
+        private final BigDecimal cantidad;
+        private final String moneda;
+
+        MoneyDecimal(BigDecimal cantidad, String moneda) {
+            if (cantidad.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("No se permiten cantidades negativas: " + cantidad);
+            }
+            this.cantidad = cantidad;
+            this.moneda = moneda;
+        }
+
+        static MoneyDecimal pesos(double cantidad) {
+            return new MoneyDecimal(BigDecimal.valueOf(cantidad), "MXN");
+        }
+
+        MoneyDecimal sumar(MoneyDecimal otro) {
+            if (!moneda.equals(otro.moneda)) {
+                throw new IllegalArgumentException("Monedas distintas");
+            }
+            return new MoneyDecimal(cantidad.add(otro.cantidad), moneda);
+        }
+
+        MoneyDecimal multiplicar(int factor) {
+            return new MoneyDecimal(cantidad.multiply(BigDecimal.valueOf(factor)), moneda);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.uamishop.backend.ventas.controller.dto;
+
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.ventas.domain.Carrito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo Carrito → CarritoResponseDTO, ejecutado en cada respuesta
+ * de los endpoints de carrito.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarritoMapperBenchmark {
+
+    @Param({"1", "20"})
+    private int items;
+
+    private Carrito carrito;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        carrito = new Carrito(ClienteId.generar());
+        for (int i = 0; i < items; i++) {
+            carrito.agregarProducto(new ProductoId(UUID.randomUUID()), 1 + i % 3, Money.centavos(4_999L + i * 100L));
+        }
+        carrito.aplicarDescuento(Money.pesos(5));
+    }
+
+    @Benchmark
+    public CarritoResponseDTO toDTO() {
+        return CarritoMapper.toDTO(carrito);
+    }
+}
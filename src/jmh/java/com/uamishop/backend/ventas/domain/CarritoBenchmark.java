@@ -0,0 +1,82 @@
+package com.uamishop.backend.ventas.domain;
+
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones del carrito sobre un carrito lleno (20 productos, el máximo
+ * permitido), que es el peor caso de la búsqueda lineal por producto.
+ *
+ * Cada invocación deja el carrito en el mismo estado en que lo encontró
+ * (cantidad 1 en todas las líneas) para que las mediciones sean estables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarritoBenchmark {
+
+    private static final int ITEMS_MAXIMOS = 20;
+
+    private Carrito carrito;
+    private ProductoId[] productos;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        carrito = new Carrito(ClienteId.generar());
+        productos = new ProductoId[ITEMS_MAXIMOS];
+        for (int i = 0; i < ITEMS_MAXIMOS; i++) {
+            productos[i] = new ProductoId(UUID.randomUUID());
+            carrito.agregarProducto(productos[i], 1, Money.centavos(1_999L + i * 250L));
+        }
+    }
+
+    // Recorre los productos para no medir siempre la primera posición
+    private ProductoId siguienteProducto() {
+        siguiente = (siguiente + 1) % ITEMS_MAXIMOS;
+        return productos[siguiente];
+    }
+
+    /**
+     * agregarProducto de un producto existente (suma cantidad) y
+     * modificarCantidad para regresar la línea a 1.
+     */
+    @Benchmark
+    public Carrito agregarProductoCarritoLleno() {
+        ProductoId producto = siguienteProducto();
+        carrito.agregarProducto(producto, 1, Money.pesos(10));
+        carrito.modificarCantidad(producto, 1);
+        return carrito;
+    }
+
+    @Benchmark
+    public Carrito modificarCantidadCarritoLleno() {
+        ProductoId producto = siguienteProducto();
+        carrito.modificarCantidad(producto, 5);
+        carrito.modificarCantidad(producto, 1);
+        return carrito;
+    }
+
+    @Benchmark
+    public Money calcularTotalCarritoLleno() {
+        return carrito.calcularTotal();
+    }
+}
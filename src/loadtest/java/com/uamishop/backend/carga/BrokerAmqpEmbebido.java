@@ -0,0 +1,56 @@
+package com.uamishop.backend.carga;
+
+import org.apache.qpid.server.SystemLauncher;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Broker AMQP 0-9-1 en memoria (Qpid Broker-J) para que la prueba de carga
+ * publique en RabbitMQ sin depender de un servidor externo.
+ */
+final class BrokerAmqpEmbebido implements AutoCloseable {
+
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int puerto;
+
+    private BrokerAmqpEmbebido(int puerto) {
+        this.puerto = puerto;
+    }
+
+    static BrokerAmqpEmbebido iniciar() throws Exception {
+        BrokerAmqpEmbebido broker = new BrokerAmqpEmbebido(puertoLibre());
+        URL configuracion = BrokerAmqpEmbebido.class.getResource("/qpid-carga.json");
+
+        Map<String, String> contexto = new HashMap<>();
+        contexto.put("qpid.amqp_port", String.valueOf(broker.puerto));
+        contexto.put("qpid.work_dir", Files.createTempDirectory("qpid-carga").toString());
+
+        Map<String, Object> atributos = new HashMap<>();
+        atributos.put("type", "Memory");
+        atributos.put("initialConfigurationLocation", configuracion.toExternalForm());
+        atributos.put("startupLoggedToSystemOut", false);
+        atributos.put("context", contexto);
+        broker.launcher.startup(atributos);
+        return broker;
+    }
+
+    int puerto() {
+        return puerto;
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+
+    static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.uamishop.backend.carga;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Servicio de catálogo simulado: responde GET /api/v1/productos/{id} para
+ * cualquier id con un producto disponible, como lo haría el microservicio
+ * de Catálogo. Así CatalogoApiHttpClient se ejercita completo (HTTP real)
+ * sin depender de otro proceso.
+ *
+ * La latencia simulada se controla con latenciaCatalogoMs.
+ */
+final class CatalogoSimulado implements AutoCloseable {
+
+    private static final String RUTA = "/api/v1/productos/";
+
+    private final HttpServer servidor;
+    private final long latenciaMs;
+
+    private CatalogoSimulado(HttpServer servidor, long latenciaMs) {
+        this.servidor = servidor;
+        this.latenciaMs = latenciaMs;
+    }
+
+    static CatalogoSimulado iniciar(long latenciaMs) throws IOException {
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        CatalogoSimulado catalogo = new CatalogoSimulado(servidor, latenciaMs);
+        servidor.createContext(RUTA, catalogo::responder);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.start();
+        return catalogo;
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    private void responder(HttpExchange intercambio) throws IOException {
+        try (intercambio) {
+            String id = intercambio.getRequestURI().getPath().substring(RUTA.length());
+            UUID productoId;
+            try {
+                productoId = UUID.fromString(id);
+            } catch (IllegalArgumentException e) {
+                intercambio.sendResponseHeaders(404, -1);
+                return;
+            }
+            esperar();
+
+            // Precio estable por producto, entre 100 y 1099 pesos
+            long precio = 100 + Math.floorMod(productoId.getLeastSignificantBits(), 1000);
+            byte[] cuerpo = ("{\"id\":\"" + productoId + "\",\"nombre\":\"Producto " + id.substring(0, 8)
+                    + "\",\"descripcion\":\"Simulado\",\"precio\":" + precio + ".00,\"activo\":true}")
+                    .getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().set("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        }
+    }
+
+    private void esperar() {
+        if (latenciaMs <= 0) {
+            return;
+        }
+        try {
+            // ±50% alrededor de la latencia configurada
+            Thread.sleep(latenciaMs / 2 + ThreadLocalRandom.current().nextLong(latenciaMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+    }
+}
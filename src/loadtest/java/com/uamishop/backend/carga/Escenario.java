@@ -0,0 +1,58 @@
+package com.uamishop.backend.carga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Secuencia de pasos que ejecuta un usuario virtual en cada iteración.
+ * Cada escenario tiene un peso relativo dentro de la mezcla de carga.
+ */
+final class Escenario {
+
+    final String nombre;
+    final int peso;
+    final List<Consumer<EjecutorPasos>> pasos = new ArrayList<>();
+
+    private Escenario(String nombre, int peso) {
+        this.nombre = nombre;
+        this.peso = peso;
+    }
+
+    static Escenario nombre(String nombre, int peso) {
+        return new Escenario(nombre, peso);
+    }
+
+    Escenario paso(Peticion peticion) {
+        pasos.add(ejecutor -> ejecutor.ejecutar(peticion));
+        return this;
+    }
+
+    /**
+     * Repite la petición; cada repetición evalúa de nuevo el cuerpo (p. ej. otro producto).
+     */
+    Escenario repetir(int veces, Peticion peticion) {
+        for (int i = 0; i < veces; i++) {
+            paso(peticion);
+        }
+        return this;
+    }
+
+    /**
+     * Tiempo de "lectura" del usuario entre pasos, uniforme entre min y max.
+     */
+    Escenario pausa(Duration min, Duration max) {
+        pasos.add(ejecutor -> ejecutor.pausar(min, max));
+        return this;
+    }
+
+    /**
+     * Lo que necesita un escenario para correr sus pasos.
+     */
+    interface EjecutorPasos {
+        void ejecutar(Peticion peticion);
+
+        void pausar(Duration min, Duration max);
+    }
+}
@@ -0,0 +1,75 @@
+package com.uamishop.backend.carga;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mezcla de carga del flujo de compra:
+ *
+ * - compra (peso 1): crea carrito, agrega 3 productos, lo consulta, hace
+ *   checkout, crea la orden, la confirma, paga y la marca como enviada.
+ * - navegacion (peso 3): listado completo, listado por categoría y detalle
+ *   de un producto, como un cliente que recorre el catálogo.
+ *
+ * Los nombres de las peticiones son los que aparecen en el reporte y en slo.properties.
+ */
+final class Escenarios {
+
+    private static final Duration PAUSA_MIN = Duration.ofMillis(50);
+    private static final Duration PAUSA_MAX = Duration.ofMillis(250);
+
+    private Escenarios() {
+    }
+
+    static List<Escenario> mezcla() {
+        return List.of(compra(), navegacion());
+    }
+
+    static Escenario compra() {
+        return Escenario.nombre("compra", 1)
+                .paso(Peticion.post("carrito.crear", "/api/v1/carritos")
+                        .cuerpo(s -> "{\"clienteId\":\"" + UUID.randomUUID() + "\"}")
+                        .esperar(201)
+                        .guardar("carritoId", "id"))
+                .pausa(PAUSA_MIN, PAUSA_MAX)
+                .repetir(3, Peticion.post("carrito.agregarProducto", "/api/v1/carritos/{carritoId}/productos")
+                        .cuerpo(s -> "{\"productoId\":\"" + s.datos().productoAlAzar() + "\","
+                                + "\"cantidad\":" + (1 + ThreadLocalRandom.current().nextInt(3)) + ","
+                                + "\"precioMonto\":100.00}"))
+                .paso(Peticion.get("carrito.obtener", "/api/v1/carritos/{carritoId}"))
+                .pausa(PAUSA_MIN, PAUSA_MAX)
+                .paso(Peticion.post("carrito.checkout", "/api/v1/carritos/{carritoId}/checkout"))
+                .paso(Peticion.post("orden.crearDesdeCarrito", "/api/v2/ordenes/{carritoId}/orden")
+                        .cuerpo(s -> direccion())
+                        .esperar(201)
+                        .guardar("ordenId", "id"))
+                .paso(Peticion.get("orden.obtener", "/api/v2/ordenes/{ordenId}"))
+                .paso(Peticion.post("orden.confirmar", "/api/v2/ordenes/{ordenId}/confirmar"))
+                .paso(Peticion.post("orden.procesarPago", "/api/v2/ordenes/{ordenId}/procesar-pago")
+                        .cuerpo(s -> "{\"referenciaPago\":\"PAG" + (10000000 + ThreadLocalRandom.current().nextInt(89999999)) + "\"}"))
+                .paso(Peticion.post("orden.marcarEnviada", "/api/v2/ordenes/{ordenId}/marcar-enviada")
+                        .cuerpo(s -> "{\"direccionEnvio\":" + direccion() + ","
+                                + "\"numeroGuia\":\"GUIA" + (1000000 + ThreadLocalRandom.current().nextInt(8999999)) + "\"}"));
+    }
+
+    static Escenario navegacion() {
+        return Escenario.nombre("navegacion", 3)
+                .paso(Peticion.get("producto.listar", "/api/v1/productos"))
+                .pausa(PAUSA_MIN, PAUSA_MAX)
+                .paso(Peticion.get("producto.listarPorCategoria", "/api/v1/productos?categoriaId={categoriaId}")
+                        .antes(s -> s.put("categoriaId", s.datos().categoriaAlAzar())))
+                .pausa(PAUSA_MIN, PAUSA_MAX)
+                .paso(Peticion.get("producto.obtener", "/api/v1/productos/{productoId}")
+                        .antes(s -> s.put("productoId", s.datos().productoAlAzar())));
+    }
+
+    private static String direccion() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"calle\":\"Av. San Rafael Atlixco\",\"numeroExterior\":\"186\","
+                + "\"codigoPostal\":\"" + (10000 + random.nextInt(89999)) + "\","
+                + "\"ciudad\":\"Ciudad de México\",\"estado\":\"CDMX\","
+                + "\"telefonoContacto\":\"55" + (10000000 + random.nextInt(89999999)) + "\"}";
+    }
+}
@@ -0,0 +1,193 @@
+package com.uamishop.backend.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga de modelo cerrado: cada usuario virtual es un hilo que
+ * elige un escenario según su peso, lo recorre completo y vuelve a empezar,
+ * hasta que termina el tiempo. Primero corre el calentamiento (JIT, pools,
+ * cachés) y al terminarlo se descartan las métricas.
+ *
+ * Si un paso falla (estado inesperado o error de red) se registra como error
+ * y se abandona la iteración, porque los pasos siguientes dependen de él.
+ */
+final class GeneradorCarga {
+
+    private static final Duration TIMEOUT_PETICION = Duration.ofSeconds(30);
+
+    private final String urlBase;
+    private final List<Escenario> escenarios;
+    private final Sesion.Datos datos;
+    private final Metricas metricas = new Metricas();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient cliente;
+    private final AtomicLong iteraciones = new AtomicLong();
+
+    GeneradorCarga(String urlBase, List<Escenario> escenarios, Sesion.Datos datos, int usuarios) {
+        this.urlBase = urlBase;
+        this.escenarios = escenarios;
+        this.datos = datos;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, usuarios / 4)))
+                .build();
+    }
+
+    /**
+     * Ejecuta la carga y devuelve las métricas de la ventana medida.
+     */
+    Map<String, Metricas.Resultado> ejecutar(int usuarios, Duration calentamiento, Duration duracion)
+            throws InterruptedException {
+
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + calentamiento.toNanos();
+        long fin = finCalentamiento + duracion.toNanos();
+
+        ExecutorService hilos = Executors.newFixedThreadPool(usuarios, r -> {
+            Thread hilo = new Thread(r, "usuario-virtual");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int i = 0; i < usuarios; i++) {
+            hilos.submit(() -> usuarioVirtual(fin));
+        }
+
+        esperarHasta(finCalentamiento);
+        metricas.reiniciar();
+        iteraciones.set(0);
+        esperarHasta(fin);
+
+        Map<String, Metricas.Resultado> resultados = metricas.cerrar(duracion);
+        hilos.shutdownNow();
+        hilos.awaitTermination(TIMEOUT_PETICION.toSeconds(), TimeUnit.SECONDS);
+        return resultados;
+    }
+
+    long iteraciones() {
+        return iteraciones.get();
+    }
+
+    private void usuarioVirtual(long fin) {
+        while (System.nanoTime() < fin && !Thread.currentThread().isInterrupted()) {
+            Escenario escenario = elegirEscenario();
+            Sesion sesion = new Sesion(datos);
+            try {
+                for (var paso : escenario.pasos) {
+                    paso.accept(new Ejecutor(sesion));
+                }
+                iteraciones.incrementAndGet();
+            } catch (PasoFallido e) {
+                // Ya quedó registrado como error del endpoint; siguiente iteración
+            }
+        }
+    }
+
+    private Escenario elegirEscenario() {
+        int total = escenarios.stream().mapToInt(e -> e.peso).sum();
+        int valor = ThreadLocalRandom.current().nextInt(total);
+        for (Escenario escenario : escenarios) {
+            valor -= escenario.peso;
+            if (valor < 0) {
+                return escenario;
+            }
+        }
+        return escenarios.get(escenarios.size() - 1);
+    }
+
+    private void esperarHasta(long nanos) throws InterruptedException {
+        long restante = nanos - System.nanoTime();
+        if (restante > 0) {
+            TimeUnit.NANOSECONDS.sleep(restante);
+        }
+    }
+
+    private final class Ejecutor implements Escenario.EjecutorPasos {
+
+        private final Sesion sesion;
+
+        private Ejecutor(Sesion sesion) {
+            this.sesion = sesion;
+        }
+
+        @Override
+        public void ejecutar(Peticion peticion) {
+            if (peticion.antes != null) {
+                peticion.antes.accept(sesion);
+            }
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlBase + peticion.resolverRuta(sesion)))
+                    .timeout(TIMEOUT_PETICION)
+                    .header("Accept", "application/json");
+            if (peticion.cuerpo != null) {
+                builder.header("Content-Type", "application/json")
+                        .method(peticion.metodo, HttpRequest.BodyPublishers.ofString(peticion.cuerpo.apply(sesion)));
+            } else {
+                builder.method(peticion.metodo, HttpRequest.BodyPublishers.noBody());
+            }
+
+            long inicio = System.nanoTime();
+            HttpResponse<byte[]> respuesta;
+            try {
+                respuesta = cliente.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            } catch (IOException e) {
+                metricas.registrar(peticion.nombre, System.nanoTime() - inicio, false);
+                throw new PasoFallido();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PasoFallido();
+            }
+            boolean exito = respuesta.statusCode() == peticion.estadoEsperado;
+            metricas.registrar(peticion.nombre, System.nanoTime() - inicio, exito);
+            if (!exito) {
+                throw new PasoFallido();
+            }
+            if (peticion.variableDestino != null) {
+                sesion.put(peticion.variableDestino, leerCampo(respuesta.body(), peticion.campoOrigen));
+            }
+        }
+
+        @Override
+        public void pausar(Duration min, Duration max) {
+            long milis = ThreadLocalRandom.current().nextLong(min.toMillis(), max.toMillis() + 1);
+            try {
+                Thread.sleep(milis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PasoFallido();
+            }
+        }
+
+        private String leerCampo(byte[] cuerpo, String campo) {
+            try {
+                JsonNode valor = objectMapper.readTree(cuerpo).get(campo);
+                if (valor == null) {
+                    throw new PasoFallido();
+                }
+                return valor.asText();
+            } catch (IOException e) {
+                throw new PasoFallido();
+            }
+        }
+    }
+
+    private static final class PasoFallido extends RuntimeException {
+        private PasoFallido() {
+            super(null, null, false, false);
+        }
+    }
+}
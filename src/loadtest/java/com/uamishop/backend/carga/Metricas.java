@@ -0,0 +1,80 @@
+package com.uamishop.backend.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias por endpoint en histogramas HdrHistogram (microsegundos, tres
+ * dígitos significativos). Recorder permite registrar desde todos los
+ * usuarios virtuales sin bloqueo y tomar el intervalo al final.
+ */
+final class Metricas {
+
+    private final ConcurrentHashMap<String, PorEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    void registrar(String endpoint, long nanos, boolean exito) {
+        PorEndpoint metricas = endpoints.computeIfAbsent(endpoint, e -> new PorEndpoint());
+        metricas.latencias.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        if (!exito) {
+            metricas.errores.increment();
+        }
+    }
+
+    /**
+     * Descarta lo registrado hasta ahora (fin del calentamiento).
+     */
+    void reiniciar() {
+        endpoints.values().forEach(metricas -> {
+            metricas.latencias.reset();
+            metricas.errores.reset();
+        });
+    }
+
+    /**
+     * Toma los histogramas acumulados desde el último reinicio, ordenados por endpoint.
+     */
+    Map<String, Resultado> cerrar(Duration medido) {
+        Map<String, Resultado> resultados = new TreeMap<>();
+        endpoints.forEach((endpoint, metricas) -> resultados.put(endpoint,
+                new Resultado(endpoint, metricas.latencias.getIntervalHistogram(), metricas.errores.sum(), medido)));
+        return resultados;
+    }
+
+    private static final class PorEndpoint {
+        private final Recorder latencias = new Recorder(3);
+        private final LongAdder errores = new LongAdder();
+    }
+
+    /**
+     * Resultado de un endpoint durante la ventana medida.
+     */
+    record Resultado(String endpoint, Histogram histograma, long errores, Duration medido) {
+
+        long peticiones() {
+            return histograma.getTotalCount();
+        }
+
+        double porSegundo() {
+            return peticiones() / (medido.toMillis() / 1000.0);
+        }
+
+        double tasaErrores() {
+            return peticiones() == 0 ? 0 : (double) errores / peticiones();
+        }
+
+        double percentilMs(double percentil) {
+            return histograma.getValueAtPercentile(percentil) / 1000.0;
+        }
+
+        double maximoMs() {
+            return histograma.getMaxValue() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.uamishop.backend.carga;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Un paso HTTP de un escenario, al estilo de Gatling:
+ *
+ *   Peticion.post("carrito.crear", "/api/v1/carritos")
+ *           .cuerpo(s -> "{\"clienteId\":\"" + UUID.randomUUID() + "\"}")
+ *           .esperar(201)
+ *           .guardar("carritoId", "id");
+ *
+ * La ruta admite variables de sesión entre llaves ("/api/v1/carritos/{carritoId}").
+ * El nombre agrupa las métricas y es la clave de los SLO.
+ */
+final class Peticion {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{(\\w+)}");
+
+    final String nombre;
+    final String metodo;
+    final String ruta;
+    Consumer<Sesion> antes;
+    Function<Sesion, String> cuerpo;
+    int estadoEsperado = 200;
+    String variableDestino;
+    String campoOrigen;
+
+    private Peticion(String nombre, String metodo, String ruta) {
+        this.nombre = nombre;
+        this.metodo = metodo;
+        this.ruta = ruta;
+    }
+
+    static Peticion get(String nombre, String ruta) {
+        return new Peticion(nombre, "GET", ruta);
+    }
+
+    static Peticion post(String nombre, String ruta) {
+        return new Peticion(nombre, "POST", ruta);
+    }
+
+    /**
+     * Prepara variables de sesión justo antes de enviar (p. ej. elegir un producto).
+     */
+    Peticion antes(Consumer<Sesion> antes) {
+        this.antes = antes;
+        return this;
+    }
+
+    Peticion cuerpo(Function<Sesion, String> cuerpo) {
+        this.cuerpo = cuerpo;
+        return this;
+    }
+
+    Peticion esperar(int estado) {
+        this.estadoEsperado = estado;
+        return this;
+    }
+
+    /**
+     * Guarda un campo de primer nivel del JSON de respuesta en la sesión.
+     */
+    Peticion guardar(String variable, String campo) {
+        this.variableDestino = variable;
+        this.campoOrigen = campo;
+        return this;
+    }
+
+    String resolverRuta(Sesion sesion) {
+        Matcher matcher = VARIABLE.matcher(ruta);
+        StringBuilder resultado = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(resultado, sesion.get(matcher.group(1)));
+        }
+        matcher.appendTail(resultado);
+        return resultado.toString();
+    }
+}
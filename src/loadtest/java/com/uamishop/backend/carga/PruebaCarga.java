@@ -0,0 +1,195 @@
+package com.uamishop.backend.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uamishop.backend.BackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prueba de carga autocontenida del flujo de compra.
+ *
+ * Levanta un broker AMQP en memoria, un catálogo simulado por HTTP y la
+ * aplicación completa (puerto aleatorio, H2 por defecto o MySQL con
+ * perfil=mysql); siembra categorías y productos, ejecuta la mezcla de
+ * {@link Escenarios} y compara los percentiles contra slo.properties.
+ *
+ *   mvn -Pcarga test-compile exec:exec -Dcarga.args="usuarios=50 duracion=PT2M"
+ *
+ * Argumentos (clave=valor): usuarios, duracion, calentamiento, productos,
+ * categorias, latenciaCatalogoMs, perfil, slo, salida.
+ *
+ * Deja en target/carga el resumen en CSV y la distribución completa de
+ * cada endpoint en formato .hgrm (HdrHistogram). Termina con código 1 si
+ * algún SLO no se cumple.
+ */
+public final class PruebaCarga {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> argumentos = leerArgumentos(args);
+        int usuarios = Integer.parseInt(argumentos.getOrDefault("usuarios", "20"));
+        Duration duracion = Duration.parse(argumentos.getOrDefault("duracion", "PT60S"));
+        Duration calentamiento = Duration.parse(argumentos.getOrDefault("calentamiento", "PT15S"));
+        int productos = Integer.parseInt(argumentos.getOrDefault("productos", "200"));
+        int categorias = Integer.parseInt(argumentos.getOrDefault("categorias", "10"));
+        long latenciaCatalogoMs = Long.parseLong(argumentos.getOrDefault("latenciaCatalogoMs", "5"));
+        String perfil = argumentos.get("perfil");
+        Path salida = Path.of(argumentos.getOrDefault("salida", "target/carga"));
+        Slo slo = Slo.cargar(argumentos.get("slo"));
+
+        List<String> violaciones;
+        try (BrokerAmqpEmbebido broker = BrokerAmqpEmbebido.iniciar();
+             CatalogoSimulado catalogo = CatalogoSimulado.iniciar(latenciaCatalogoMs);
+             ConfigurableApplicationContext aplicacion = iniciarAplicacion(broker, catalogo, perfil)) {
+
+            String urlBase = "http://127.0.0.1:" + aplicacion.getEnvironment().getProperty("local.server.port");
+            Sesion.Datos datos = sembrar(urlBase, categorias, productos);
+
+            System.out.printf(Locale.ROOT, "%nCarga: %d usuarios, calentamiento %s, medición %s (%s)%n",
+                    usuarios, calentamiento, duracion, perfil != null ? perfil : "h2");
+            GeneradorCarga generador = new GeneradorCarga(urlBase, Escenarios.mezcla(), datos, usuarios);
+            Map<String, Metricas.Resultado> resultados = generador.ejecutar(usuarios, calentamiento, duracion);
+
+            imprimir(resultados, generador.iteraciones(), System.out);
+            guardar(resultados, salida);
+            violaciones = slo.verificar(resultados.values());
+        }
+
+        if (!violaciones.isEmpty()) {
+            System.out.println("\nSLO no cumplidos:");
+            violaciones.forEach(v -> System.out.println("  - " + v));
+            System.exit(1);
+        }
+        System.out.println("\nTodos los SLO se cumplen.");
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacion(
+            BrokerAmqpEmbebido broker, CatalogoSimulado catalogo, String perfil) {
+
+        // Un perfil activo distinto de catalogo-local hace que Ventas y Orden
+        // consulten el catálogo por HTTP (CatalogoApiHttpClient)
+        List<String> perfiles = new ArrayList<>(List.of("carga"));
+        if (perfil != null) {
+            perfiles.add(perfil);
+        }
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(perfiles.toArray(String[]::new))
+                // Como argumentos de línea de comandos para que tengan prioridad sobre application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.rabbitmq.host=127.0.0.1",
+                        "--spring.rabbitmq.port=" + broker.puerto(),
+                        "--catalogo.service.url=" + catalogo.url(),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.uamishop=WARN",
+                        "--observabilidad.jfr.admin.habilitado=false");
+    }
+
+    // ── Datos ──
+
+    private static Sesion.Datos sembrar(String urlBase, int categorias, int productos)
+            throws IOException, InterruptedException {
+
+        HttpClient cliente = HttpClient.newHttpClient();
+        List<String> categoriaIds = new ArrayList<>();
+        for (int i = 0; i < categorias; i++) {
+            categoriaIds.add(crear(cliente, urlBase + "/api/v1/categorias", Map.of(
+                    "nombre", "Categoría de carga " + i,
+                    "descripcion", "Categoría generada por PruebaCarga")));
+        }
+        List<String> productoIds = new ArrayList<>();
+        for (int i = 0; i < productos; i++) {
+            productoIds.add(crear(cliente, urlBase + "/api/v1/productos", Map.of(
+                    "nombre", "Producto de carga " + i,
+                    "descripcion", "Producto generado por PruebaCarga",
+                    "precio", 100 + (i % 50) * 10,
+                    "categoriaId", categoriaIds.get(i % categorias))));
+        }
+        return new Sesion.Datos(List.copyOf(productoIds), List.copyOf(categoriaIds));
+    }
+
+    private static String crear(HttpClient cliente, String url, Map<String, Object> cuerpo)
+            throws IOException, InterruptedException {
+
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(cuerpo)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() != 201) {
+            throw new IllegalStateException("No se pudieron sembrar datos en " + url + ": "
+                    + respuesta.statusCode() + " " + respuesta.body());
+        }
+        return JSON.readTree(respuesta.body()).get("id").asText();
+    }
+
+    // ── Reporte ──
+
+    private static void imprimir(Map<String, Metricas.Resultado> resultados, long iteraciones, PrintStream salida) {
+        String formato = "%-28s %8s %7s %8s %9s %9s %9s %9s %9s%n";
+        salida.println();
+        salida.printf(Locale.ROOT, formato, "endpoint", "peticion", "errores", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        double total = 0;
+        for (Metricas.Resultado r : resultados.values()) {
+            total += r.porSegundo();
+            salida.printf(Locale.ROOT, "%-28s %8d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.peticiones(), r.errores(), r.porSegundo(),
+                    r.percentilMs(50), r.percentilMs(95), r.percentilMs(99), r.percentilMs(99.9), r.maximoMs());
+        }
+        salida.printf(Locale.ROOT, "%nTotal: %.1f req/s, %d escenarios completos%n", total, iteraciones);
+    }
+
+    private static void guardar(Map<String, Metricas.Resultado> resultados, Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(directorio.resolve("resumen.csv")))) {
+            csv.println("endpoint,peticiones,errores,req_s,p50_ms,p95_ms,p99_ms,p999_ms,max_ms");
+            for (Metricas.Resultado r : resultados.values()) {
+                csv.printf(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        r.endpoint(), r.peticiones(), r.errores(), r.porSegundo(),
+                        r.percentilMs(50), r.percentilMs(95), r.percentilMs(99), r.percentilMs(99.9), r.maximoMs());
+            }
+        }
+        for (Metricas.Resultado r : resultados.values()) {
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directorio.resolve(r.endpoint() + ".hgrm")))) {
+                // Valores registrados en microsegundos; el archivo queda en milisegundos
+                r.histograma().outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        System.out.println("Resultados en " + directorio.toAbsolutePath());
+    }
+
+    private static Map<String, String> leerArgumentos(String[] args) {
+        Map<String, String> argumentos = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (se espera clave=valor): " + arg);
+            }
+            argumentos.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        return argumentos;
+    }
+}
@@ -0,0 +1,50 @@
+package com.uamishop.backend.carga;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Estado de un usuario virtual durante una iteración de un escenario
+ * (ids extraídos de respuestas anteriores y datos del sembrado).
+ */
+final class Sesion {
+
+    private final Map<String, String> variables = new HashMap<>();
+    private final Datos datos;
+
+    Sesion(Datos datos) {
+        this.datos = datos;
+    }
+
+    String get(String variable) {
+        String valor = variables.get(variable);
+        if (valor == null) {
+            throw new IllegalStateException("Variable de sesión no definida: " + variable);
+        }
+        return valor;
+    }
+
+    void put(String variable, String valor) {
+        variables.put(variable, valor);
+    }
+
+    Datos datos() {
+        return datos;
+    }
+
+    /**
+     * Datos sembrados antes de la carga (ids de productos y categorías existentes).
+     */
+    record Datos(List<String> productoIds, List<String> categoriaIds) {
+
+        String productoAlAzar() {
+            return productoIds.get(ThreadLocalRandom.current().nextInt(productoIds.size()));
+        }
+
+        String categoriaAlAzar() {
+            return categoriaIds.get(ThreadLocalRandom.current().nextInt(categoriaIds.size()));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.uamishop.backend.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Objetivos de servicio que debe cumplir la prueba de carga (ver slo.properties).
+ * Cualquier violación hace que PruebaCarga termine con código de salida 1.
+ */
+final class Slo {
+
+    private final Properties umbrales;
+
+    private Slo(Properties umbrales) {
+        this.umbrales = umbrales;
+    }
+
+    /**
+     * Carga slo.properties del classpath o, si se indica, un archivo externo.
+     */
+    static Slo cargar(String archivo) throws IOException {
+        Properties umbrales = new Properties();
+        if (archivo != null) {
+            try (InputStream entrada = Files.newInputStream(Path.of(archivo))) {
+                umbrales.load(entrada);
+            }
+        } else {
+            try (InputStream entrada = Slo.class.getResourceAsStream("/slo.properties")) {
+                if (entrada == null) {
+                    throw new IllegalStateException("No se encontró slo.properties en el classpath");
+                }
+                umbrales.load(entrada);
+            }
+        }
+        return new Slo(umbrales);
+    }
+
+    /**
+     * Devuelve la descripción de cada umbral violado; lista vacía si todo cumple.
+     */
+    List<String> verificar(Collection<Metricas.Resultado> resultados) {
+        List<String> violaciones = new ArrayList<>();
+        double erroresMaximo = Double.parseDouble(umbrales.getProperty("errores.maximo", "0"));
+        double throughputMinimo = Double.parseDouble(umbrales.getProperty("throughput.minimo", "0"));
+        double p99Defecto = Double.parseDouble(umbrales.getProperty("p99.*", String.valueOf(Double.MAX_VALUE)));
+
+        double throughput = 0;
+        for (Metricas.Resultado resultado : resultados) {
+            throughput += resultado.porSegundo();
+
+            double p99Maximo = Double.parseDouble(
+                    umbrales.getProperty("p99." + resultado.endpoint(), String.valueOf(p99Defecto)));
+            double p99 = resultado.percentilMs(99.0);
+            if (p99 > p99Maximo) {
+                violaciones.add(String.format("%s: p99 %.1f ms > %.1f ms", resultado.endpoint(), p99, p99Maximo));
+            }
+            if (resultado.tasaErrores() > erroresMaximo) {
+                violaciones.add(String.format("%s: errores %.2f%% > %.2f%%",
+                        resultado.endpoint(), resultado.tasaErrores() * 100, erroresMaximo * 100));
+            }
+        }
+        if (throughput < throughputMinimo) {
+            violaciones.add(String.format("throughput total %.1f req/s < %.1f req/s", throughput, throughputMinimo));
+        }
+        return violaciones;
+    }
+}
@@ -0,0 +1,25 @@
+package com.uamishop.backend;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Conversores HTTP adicionales a JSON.
+ *
+ * El conversor CBOR se registra como bean para que Spring Boot lo agregue
+ * tanto a Spring MVC (respuestas con Accept: application/cbor) como a los
+ * RestTemplate construidos con RestTemplateBuilder. Se construye con el
+ * Jackson2ObjectMapperBuilder de Boot para compartir módulos y ajustes
+ * con el ObjectMapper JSON.
+ */
+@Configuration
+public class ConversoresHttpConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
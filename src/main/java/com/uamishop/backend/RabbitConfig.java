@@ -58,6 +58,8 @@ public class RabbitConfig {
             Jackson2JsonMessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        // Publicaciones instrumentadas con Micrometer (latencia y tasa por exchange)
+        template.setObservationEnabled(true);
         return template;
     }
 }
@@ -0,0 +1,22 @@
+package com.uamishop.backend;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Configuración del cliente HTTP usado para consumir otros servicios
+ * (p. ej. CatalogoApiHttpClient cuando el catálogo corre por separado).
+ *
+ * Se construye con RestTemplateBuilder para heredar la configuración
+ * de Spring Boot (conversores Jackson, timeouts, instrumentación).
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+        return builder.build();
+    }
+}
@@ -11,4 +11,7 @@ public interface CatalogoApi {
 
     List<ProductoResumen> listarPorCategoria(UUID categoriaId);
 
+    // Todas las categorías con su padre, para recorrer el árbol
+    List<CategoriaResumen> listarCategorias();
+
 }
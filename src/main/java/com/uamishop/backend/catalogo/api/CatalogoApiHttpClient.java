@@ -7,13 +7,17 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import com.uamishop.backend.shared.domain.Money;
 
 /**
@@ -24,10 +28,30 @@ import com.uamishop.backend.shared.domain.Money;
  *
  * Se activa cuando Catálogo está externalizado (perfil distinto a
  * catalogo-local).
+ *
+ * Pide CBOR (binario, más compacto y rápido de decodificar) y acepta JSON
+ * como alternativa por si el servicio remoto aún no lo soporta.
  */
 @Component
+@Profile("!catalogo-local")
 public class CatalogoApiHttpClient implements CatalogoApi {
 
+    private static final String PRODUCTO = "/api/v1/productos/{id}";
+    private static final String PRODUCTOS = "/api/v1/productos";
+    private static final String PRODUCTOS_POR_CATEGORIA = "/api/v1/productos?categoriaId={categoriaId}";
+    private static final String CATEGORIAS = "/api/v1/categorias";
+
+    // CBOR preferido; JSON con menor calidad como respaldo
+    private static final HttpEntity<Void> PETICION_BINARIA;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(
+                MediaType.APPLICATION_CBOR,
+                MediaType.parseMediaType("application/json;q=0.5")));
+        PETICION_BINARIA = new HttpEntity<>(headers);
+    }
+
     private final RestTemplate restTemplate;
     private final String catalogoBaseUrl;
 
@@ -43,9 +67,10 @@ public class CatalogoApiHttpClient implements CatalogoApi {
 
     @Override
     public ProductoResumen obtenerProducto(UUID productoId) {
-        String url = catalogoBaseUrl + "/api/v1/productos/" + productoId;
         try {
-            ResponseEntity<ProductoResponse> response = restTemplate.getForEntity(url, ProductoResponse.class);
+            ResponseEntity<ProductoResponse> response = restTemplate.exchange(
+                    catalogoBaseUrl + PRODUCTO, HttpMethod.GET, PETICION_BINARIA,
+                    ProductoResponse.class, productoId);
 
             if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
                 throw new RuntimeException("Producto no encontrado: " + productoId);
@@ -59,27 +84,37 @@ public class CatalogoApiHttpClient implements CatalogoApi {
 
     @Override
     public List<ProductoResumen> listarProductos() {
-        String url = catalogoBaseUrl + "/api/v1/productos";
+        return listar(catalogoBaseUrl + PRODUCTOS);
+    }
+
+    @Override
+    public List<ProductoResumen> listarPorCategoria(UUID categoriaId) {
+        return listar(catalogoBaseUrl + PRODUCTOS_POR_CATEGORIA, categoriaId);
+    }
+
+    @Override
+    public List<CategoriaResumen> listarCategorias() {
         try {
-            ResponseEntity<ProductoResponse[]> response = restTemplate.getForEntity(url, ProductoResponse[].class);
+            ResponseEntity<CategoriaResponse[]> response = restTemplate.exchange(
+                    catalogoBaseUrl + CATEGORIAS, HttpMethod.GET, PETICION_BINARIA, CategoriaResponse[].class);
 
             if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
                 return Collections.emptyList();
             }
 
             return Arrays.stream(response.getBody())
-                    .map(this::mapear)
+                    .map(dto -> new CategoriaResumen(dto.categoriaId(), dto.nombre(), dto.descripcion(),
+                            dto.categoriaPadreId()))
                     .toList();
         } catch (HttpClientErrorException e) {
             return Collections.emptyList();
         }
     }
 
-    @Override
-    public List<ProductoResumen> listarPorCategoria(UUID categoriaId) {
-        String url = catalogoBaseUrl + "/api/v1/productos?categoriaId=" + categoriaId;
+    private List<ProductoResumen> listar(String plantillaUrl, Object... variables) {
         try {
-            ResponseEntity<ProductoResponse[]> response = restTemplate.getForEntity(url, ProductoResponse[].class);
+            ResponseEntity<ProductoResponse[]> response = restTemplate.exchange(
+                    plantillaUrl, HttpMethod.GET, PETICION_BINARIA, ProductoResponse[].class, variables);
 
             if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
                 return Collections.emptyList();
@@ -103,19 +138,29 @@ public class CatalogoApiHttpClient implements CatalogoApi {
                 dto.nombre(),
                 dto.descripcion(),
                 Money.pesos(dto.precio()),
-                dto.disponible());
+                dto.disponible(),
+                dto.categoriaId());
     }
 
     // -------------------------------------------------------------------------
-    // DTO interno para deserializar la respuesta JSON del microservicio.
+    // DTO interno para deserializar la respuesta (CBOR o JSON) del microservicio.
     // Es privado: ningún otro módulo lo conoce ni depende de él.
+    // Los alias corresponden a los nombres de ProductoResponse del catálogo.
     // -------------------------------------------------------------------------
 
     private record ProductoResponse(
-            UUID productoId,
+            @JsonAlias("id") UUID productoId,
+            String nombre,
+            String descripcion,
+            BigDecimal precio,
+            @JsonAlias("activo") boolean disponible,
+            UUID categoriaId) {
+    }
+
+    private record CategoriaResponse(
+            @JsonAlias("id") UUID categoriaId,
             String nombre,
             String descripcion,
-            double precio,
-            boolean disponible) {
+            UUID categoriaPadreId) {
     }
 }
@@ -5,5 +5,6 @@ import java.util.UUID;
 public record CategoriaResumen(
         UUID categoriaId,
         String nombre,
-        String descripcion
+        String descripcion,
+        UUID categoriaPadreId // null en las categorías raíz
 ) {}
@@ -8,5 +8,6 @@ public record ProductoResumen(
         String nombre,
         String descripcion,
         Money precio,
-        boolean disponible
+        boolean disponible,
+        UUID categoriaId
 ) {}
\ No newline at end of file
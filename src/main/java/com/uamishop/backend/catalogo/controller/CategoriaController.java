@@ -13,10 +13,16 @@ import com.uamishop.backend.catalogo.service.CategoriaService;
 import com.uamishop.backend.catalogo.controller.dto.CategoriaRequest;
 import com.uamishop.backend.catalogo.controller.dto.CategoriaResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.uamishop.backend.shared.exception.ApiError;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import com.uamishop.backend.shared.web.CacheRespuestasSerializadas;
+import com.uamishop.backend.shared.web.PoliticasCache;
+import org.springframework.web.context.request.WebRequest;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -25,7 +31,6 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -44,16 +49,21 @@ public class CategoriaController {
 
     private final CategoriaService categoriaService;
 
+    private final CacheRespuestasSerializadas cacheRespuestas;
+
     /**
      * Constructor que inyecta el servicio.
      * Spring lo utiliza para inyección de dependencias.
      *
      * @param categoriaService Servicio de categorías
+     * @param cacheRespuestas Caché de respuestas ya serializadas
      */
-    public CategoriaController(CategoriaService categoriaService) {
+    public CategoriaController(CategoriaService categoriaService,
+                               CacheRespuestasSerializadas cacheRespuestas) {
 
         // Asigna el servicio recibido al atributo de la clase
         this.categoriaService = categoriaService;
+        this.cacheRespuestas = cacheRespuestas;
     }
 
     // =============================
@@ -151,19 +161,41 @@ public class CategoriaController {
      */
     @Operation(summary = "Listar todas las categorías")
 
-    @ApiResponse(
-            responseCode = "200",
-            description = "Lista de categorías obtenida correctamente"
-    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lista de categorías obtenida correctamente"
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Las categorías no han cambiado (ETag / Last-Modified)"
+            )
+    })
 
     /**
      * Responde a solicitudes GET sin parámetros.
+     * Soporta peticiones condicionales (If-None-Match / If-Modified-Since)
+     * y sirve el JSON (o gzip) ya serializado para la versión actual.
      */
-    @GetMapping
-    public ResponseEntity<List<CategoriaResponse>> listar() {
-
-        // Devuelve estado 200 con la lista de categorías
-        return ResponseEntity.ok(categoriaService.listar());
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+    public ResponseEntity<byte[]> listar(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+
+        // Se compara contra la versión agregada antes de construir la lista
+        VersionRecurso version = categoriaService.obtenerVersionListado();
+        if (webRequest.checkNotModified(cacheRespuestas.etag(version, accept, acceptEncoding),
+                version.ultimaModificacionMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(PoliticasCache.CATALOGO)
+                    .build();
+        }
+
+        // Devuelve estado 200 con la lista de categorías (solo se serializa en un fallo de caché)
+        return cacheRespuestas.responder(CategoriaService.RECURSO_CATEGORIAS, CategoriaService.LISTADO, version,
+                accept, acceptEncoding, PoliticasCache.CATALOGO,
+                categoriaService::listar);
     }
 
     // =============================
@@ -1,17 +1,29 @@
 package com.uamishop.backend.catalogo.controller;
 
+import com.uamishop.backend.catalogo.service.ProductoImportacionService;
 import com.uamishop.backend.catalogo.service.ProductoService;
+import com.uamishop.backend.catalogo.controller.dto.ImportacionProductosResponse;
+import com.uamishop.backend.catalogo.controller.dto.CambioPrecioMasivoRequest;
+import com.uamishop.backend.catalogo.controller.dto.OperacionMasivaResponse;
+import com.uamishop.backend.catalogo.controller.dto.SeleccionProductosRequest;
 import com.uamishop.backend.catalogo.controller.dto.ProductoRequest;
 import com.uamishop.backend.catalogo.controller.dto.ProductoResponse;
 
 import com.uamishop.backend.catalogo.service.ProductoEstadisticasService;
 import com.uamishop.backend.catalogo.controller.dto.ProductoEstadisticasResponse;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import com.uamishop.backend.shared.web.CacheRespuestasSerializadas;
+import com.uamishop.backend.shared.web.PoliticasCache;
 
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,8 +32,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -31,10 +46,15 @@ public class ProductoController {
 
         private final ProductoService productoService;
         private final ProductoEstadisticasService estadisticasService;
+        private final ProductoImportacionService importacionService;
+        private final CacheRespuestasSerializadas cacheRespuestas;
 
-        public ProductoController(ProductoService productoService, ProductoEstadisticasService estadisticasService) {
+        public ProductoController(ProductoService productoService, ProductoEstadisticasService estadisticasService,
+                        ProductoImportacionService importacionService, CacheRespuestasSerializadas cacheRespuestas) {
                 this.productoService = productoService;
                 this.estadisticasService = estadisticasService;
+                this.importacionService = importacionService;
+                this.cacheRespuestas = cacheRespuestas;
         }
 
         // =====================================================
@@ -54,6 +74,30 @@ public class ProductoController {
                                 .body(productoService.crear(request));
         }
 
+        // =====================================================
+        // IMPORTACIÓN MASIVA (CSV / NDJSON)
+        // =====================================================
+
+        @Operation(summary = "Importar productos de forma masiva",
+                        description = "Recibe el archivo en el cuerpo (text/csv o application/x-ndjson). "
+                                        + "Las filas inválidas se reportan y no detienen la importación.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Importación procesada", content = @Content(schema = @Schema(implementation = ImportacionProductosResponse.class))),
+                        @ApiResponse(responseCode = "422", description = "Encabezado CSV inválido"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @PostMapping(value = "/importar", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+        public ResponseEntity<ImportacionProductosResponse> importar(
+                        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                        InputStream cuerpo) throws IOException {
+
+                ProductoImportacionService.Formato formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                                ? ProductoImportacionService.Formato.NDJSON
+                                : ProductoImportacionService.Formato.CSV;
+
+                return ResponseEntity.ok(importacionService.importar(cuerpo, formato));
+        }
+
         // =====================================================
         // OBTENER POR ID
         // =====================================================
@@ -61,28 +105,104 @@ public class ProductoController {
         @Operation(summary = "Obtener producto por ID")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Producto encontrado", content = @Content(schema = @Schema(implementation = ProductoResponse.class))),
+                        @ApiResponse(responseCode = "304", description = "El producto no ha cambiado (ETag / Last-Modified)"),
                         @ApiResponse(responseCode = "422", description = "Regla de negocio violada"),
                         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
         })
-        @GetMapping("/{id}")
-        public ResponseEntity<ProductoResponse> obtenerPorId(
-                        @Parameter(description = "ID del producto") @PathVariable UUID id) {
+        @GetMapping(value = "/{id}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+        public ResponseEntity<byte[]> obtenerPorId(
+                        @Parameter(description = "ID del producto") @PathVariable UUID id,
+                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                        WebRequest webRequest) {
+
+                // Se valida contra la versión persistida antes de cargar y mapear el producto
+                VersionRecurso version = productoService.obtenerVersion(id);
+                if (webRequest.checkNotModified(cacheRespuestas.etag(version, accept, acceptEncoding),
+                                        version.ultimaModificacionMillis())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .cacheControl(PoliticasCache.CATALOGO)
+                                        .build();
+                }
 
-                return ResponseEntity.ok(productoService.obtenerPorId(id));
+                // JSON o CBOR (y gzip) ya serializado para esta versión; solo se mapea en un fallo de caché
+                return cacheRespuestas.responder(ProductoService.RECURSO_PRODUCTO, id.toString(), version,
+                                accept, acceptEncoding, PoliticasCache.CATALOGO,
+                                () -> productoService.obtenerPorId(id));
         }
 
         // =====================================================
         // LISTAR PRODUCTOS
         // =====================================================
 
-        @Operation(summary = "Listar todos los productos")
+        @Operation(summary = "Listar todos los productos",
+                        description = "Opcionalmente filtrados por categoría. Responde JSON, o CBOR si se pide "
+                                        + "con Accept: application/cbor (uso entre servicios).")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Lista de productos", content = @Content(schema = @Schema(implementation = ProductoResponse.class))),
+                        @ApiResponse(responseCode = "304", description = "El catálogo no ha cambiado (ETag / Last-Modified)"),
                         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
         })
-        @GetMapping
-        public ResponseEntity<List<ProductoResponse>> listar() {
-                return ResponseEntity.ok(productoService.listar());
+        @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE })
+        public ResponseEntity<byte[]> listar(
+                        @Parameter(description = "Filtra por categoría") @RequestParam(required = false) UUID categoriaId,
+                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                        WebRequest webRequest) {
+
+                VersionRecurso version = productoService.obtenerVersionCatalogo();
+                if (webRequest.checkNotModified(cacheRespuestas.etag(version, accept, acceptEncoding),
+                                        version.ultimaModificacionMillis())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .cacheControl(PoliticasCache.CATALOGO)
+                                        .build();
+                }
+
+                if (categoriaId != null) {
+                        return cacheRespuestas.responder(ProductoService.RECURSO_CATALOGO, categoriaId.toString(), version,
+                                        accept, acceptEncoding, PoliticasCache.CATALOGO,
+                                        () -> productoService.listarPorCategoria(categoriaId));
+                }
+                return cacheRespuestas.responder(ProductoService.RECURSO_CATALOGO, ProductoService.LISTADO, version,
+                                accept, acceptEncoding, PoliticasCache.CATALOGO,
+                                productoService::listar);
+        }
+
+        // =====================================================
+        // EXPORTAR CATÁLOGO (NDJSON)
+        // =====================================================
+
+        @Operation(summary = "Exportar el catálogo completo en NDJSON",
+                        description = "Transmite un producto por línea conforme se lee de la base de datos. "
+                                        + "Se comprime con gzip si el cliente envía Accept-Encoding: gzip.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Catálogo en formato NDJSON", content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = ProductoResponse.class))),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        public ResponseEntity<StreamingResponseBody> exportar(
+                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+                boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+                StreamingResponseBody cuerpo = salida -> {
+                        if (gzip) {
+                                GZIPOutputStream comprimido = new GZIPOutputStream(salida, 64 * 1024);
+                                productoService.exportarNdjson(comprimido);
+                                comprimido.finish();
+                        } else {
+                                productoService.exportarNdjson(salida);
+                        }
+                };
+
+                ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"productos.ndjson\"")
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                if (gzip) {
+                        respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+                return respuesta.body(cuerpo);
         }
 
         // =====================================================
@@ -134,6 +254,50 @@ public class ProductoController {
                 return ResponseEntity.noContent().build();
         }
 
+        // =====================================================
+        // OPERACIONES MASIVAS
+        // =====================================================
+
+        @Operation(summary = "Cambiar precios de forma masiva",
+                        description = "Ajuste por porcentaje o monto fijo sobre una categoría o lista de ids. "
+                                        + "Los productos que violarían RN-CAT-04/05 se omiten.")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Operación aplicada", content = @Content(schema = @Schema(implementation = OperacionMasivaResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Selección inválida, porcentaje fuera de (-100, 50] o monto cero"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @PatchMapping("/masivo/precio")
+        public ResponseEntity<OperacionMasivaResponse> cambiarPrecioMasivo(
+                        @Valid @RequestBody CambioPrecioMasivoRequest request) {
+                return ResponseEntity.ok(productoService.cambiarPrecioMasivo(request));
+        }
+
+        @Operation(summary = "Activar productos de forma masiva",
+                        description = "Activa los productos desactivados con precio válido")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Operación aplicada", content = @Content(schema = @Schema(implementation = OperacionMasivaResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Selección inválida"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @PatchMapping("/masivo/activar")
+        public ResponseEntity<OperacionMasivaResponse> activarMasivo(
+                        @Valid @RequestBody SeleccionProductosRequest request) {
+                return ResponseEntity.ok(productoService.cambiarDisponibilidadMasivo(request, true));
+        }
+
+        @Operation(summary = "Desactivar productos de forma masiva",
+                        description = "Desactiva los productos activos de la selección")
+        @ApiResponses({
+                        @ApiResponse(responseCode = "200", description = "Operación aplicada", content = @Content(schema = @Schema(implementation = OperacionMasivaResponse.class))),
+                        @ApiResponse(responseCode = "400", description = "Selección inválida"),
+                        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+        })
+        @PatchMapping("/masivo/desactivar")
+        public ResponseEntity<OperacionMasivaResponse> desactivarMasivo(
+                        @Valid @RequestBody SeleccionProductosRequest request) {
+                return ResponseEntity.ok(productoService.cambiarDisponibilidadMasivo(request, false));
+        }
+
         @Operation(summary = "Obtener productos más vendidos")
         @ApiResponses({
                         @ApiResponse(responseCode = "200", description = "Lista de productos más vendidos", content = @Content(schema = @Schema(implementation = ProductoResponse.class))),
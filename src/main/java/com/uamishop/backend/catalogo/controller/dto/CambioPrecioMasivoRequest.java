@@ -0,0 +1,64 @@
+/**
+ * @file CambioPrecioMasivoRequest.java
+ * @brief DTO para cambiar el precio de muchos productos a la vez.
+ */
+package com.uamishop.backend.catalogo.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * @record CambioPrecioMasivoRequest
+ * @brief Ajuste de precio por porcentaje o por monto fijo.
+ *
+ * Ejemplos:
+ * - tipo=PORCENTAJE, valor=-15 → 15% de descuento
+ * - tipo=MONTO, valor=20.50 → suma $20.50 a cada precio
+ *
+ * @param tipo Tipo de ajuste
+ * @param valor Porcentaje o monto (puede ser negativo)
+ * @param seleccion Productos afectados
+ */
+public record CambioPrecioMasivoRequest(
+
+        @NotNull(message = "El tipo de ajuste es obligatorio")
+        TipoAjuste tipo,
+
+        @NotNull(message = "El valor del ajuste es obligatorio")
+        BigDecimal valor,
+
+        @NotNull(message = "La selección de productos es obligatoria")
+        @Valid
+        SeleccionProductosRequest seleccion
+
+) {
+
+    private static final BigDecimal PORCENTAJE_MINIMO = new BigDecimal("-100");
+    private static final BigDecimal PORCENTAJE_MAXIMO = new BigDecimal("50");
+
+    /**
+     * RN-CAT-04 / RN-CAT-05: el precio no puede quedar en cero ni subir más del 50%.
+     */
+    @AssertTrue(message = "El porcentaje debe ser mayor a -100 y no mayor a 50")
+    public boolean isPorcentajeValido() {
+        return tipo != TipoAjuste.PORCENTAJE || valor == null
+                || (valor.compareTo(PORCENTAJE_MINIMO) > 0 && valor.compareTo(PORCENTAJE_MAXIMO) <= 0);
+    }
+
+    /**
+     * Regla: un ajuste por monto de cero no cambia nada.
+     */
+    @AssertTrue(message = "El monto del ajuste no puede ser cero")
+    public boolean isMontoValido() {
+        return tipo != TipoAjuste.MONTO || valor == null || valor.signum() != 0;
+    }
+
+    /** Tipos de ajuste de precio */
+    public enum TipoAjuste {
+        PORCENTAJE,
+        MONTO
+    }
+}
@@ -19,6 +19,7 @@ import java.util.UUID; // Clase que representa identificadores únicos universal
  * @param id Identificador único de la categoría
  * @param nombre Nombre de la categoría
  * @param descripcion Descripción de la categoría
+ * @param categoriaPadreId Identificador de la categoría padre (null si es raíz)
  */
 public record CategoriaResponse(
 
@@ -36,6 +37,11 @@ public record CategoriaResponse(
         /**
          * Descripción de la categoría.
          */
-        String descripcion
+        String descripcion,
+
+        /**
+         * Identificador de la categoría padre; null en las categorías raíz.
+         */
+        UUID categoriaPadreId
 
 ){}
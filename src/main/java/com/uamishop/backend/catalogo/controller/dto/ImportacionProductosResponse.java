@@ -0,0 +1,35 @@
+/**
+ * @file ImportacionProductosResponse.java
+ * @brief DTO con el reporte de una importación masiva de productos.
+ */
+package com.uamishop.backend.catalogo.controller.dto;
+
+import java.util.List;
+
+/**
+ * @record ImportacionProductosResponse
+ * @brief Resumen de la importación y errores por fila.
+ *
+ * @param filasProcesadas Filas de datos leídas (sin contar encabezado ni líneas vacías)
+ * @param productosImportados Productos insertados correctamente
+ * @param filasRechazadas Filas que no pasaron validación o no se pudieron guardar
+ * @param errores Detalle de las filas rechazadas (limitado a las primeras)
+ * @param erroresTruncados true si hubo más errores de los que se detallan
+ */
+public record ImportacionProductosResponse(
+        long filasProcesadas,
+        long productosImportados,
+        long filasRechazadas,
+        List<ErrorFilaImportacion> errores,
+        boolean erroresTruncados
+) {
+
+    /**
+     * @record ErrorFilaImportacion
+     * @brief Error asociado a una fila del archivo importado.
+     *
+     * @param fila Número de línea en el archivo (1 = primera línea)
+     * @param mensaje Motivo del rechazo
+     */
+    public record ErrorFilaImportacion(long fila, String mensaje) {}
+}
@@ -0,0 +1,20 @@
+/**
+ * @file OperacionMasivaResponse.java
+ * @brief DTO con el resultado de una operación masiva sobre productos.
+ */
+package com.uamishop.backend.catalogo.controller.dto;
+
+/**
+ * @record OperacionMasivaResponse
+ *
+ * @param productosSeleccionados Productos que coincidieron con la selección
+ * @param productosActualizados Productos modificados
+ * @param productosOmitidos Productos que no cumplían las reglas (p. ej. aumento mayor al 50%)
+ * @param lotes Número de lotes (transacciones) ejecutados
+ */
+public record OperacionMasivaResponse(
+        long productosSeleccionados,
+        long productosActualizados,
+        long productosOmitidos,
+        int lotes
+) {}
@@ -0,0 +1,37 @@
+/**
+ * @file SeleccionProductosRequest.java
+ * @brief DTO que selecciona un conjunto de productos para una operación masiva.
+ */
+package com.uamishop.backend.catalogo.controller.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @record SeleccionProductosRequest
+ * @brief Selección por categoría o por lista de ids (exactamente uno de los dos).
+ *
+ * @param categoriaId Todos los productos de esta categoría
+ * @param productoIds Lista explícita de productos
+ */
+public record SeleccionProductosRequest(
+
+        UUID categoriaId,
+
+        @Size(max = 100000, message = "No se pueden seleccionar más de 100000 productos por id")
+        List<UUID> productoIds
+
+) {
+
+    /**
+     * Regla: se debe indicar la categoría o la lista de ids, pero no ambas.
+     */
+    @AssertTrue(message = "Indique categoriaId o productoIds (solo uno)")
+    public boolean isSeleccionValida() {
+        boolean porLista = productoIds != null && !productoIds.isEmpty();
+        return (categoriaId != null) != porLista;
+    }
+}
@@ -111,7 +111,7 @@ public class Producto {
             throw new IllegalArgumentException("La descripción no puede exceder 500 caracteres");
         }
 
-        if (precio.getCantidad().doubleValue() <= 0) {
+        if (!precio.esPositivo()) {
             throw new IllegalArgumentException("El precio debe ser mayor a cero");
         }
 
@@ -177,16 +177,12 @@ public class Producto {
      */
     public void cambiarPrecio(Money nuevoPrecio) {
 
-        if (nuevoPrecio.getCantidad().doubleValue() < 0) {
+        if (nuevoPrecio.getCentavos() < 0) {
             throw new IllegalArgumentException("El precio no puede ser negativo");
         }
 
-        double incremento = nuevoPrecio.getCantidad()
-                .subtract(precio.getCantidad())
-                .divide(precio.getCantidad())
-                .doubleValue();
-
-        if (incremento > 0.5) {
+        // nuevo > 1.5 * actual, comparado en centavos sin división
+        if (Math.multiplyExact(nuevoPrecio.getCentavos(), 2L) > Math.multiplyExact(precio.getCentavos(), 3L)) {
             throw new IllegalArgumentException("El precio no puede aumentar más del 50%");
         }
 
@@ -233,7 +229,7 @@ public class Producto {
             throw new IllegalStateException("El producto debe tener al menos una imagen");
         }
 
-        if (precio.getCantidad().doubleValue() <= 0) {
+        if (!precio.esPositivo()) {
             throw new IllegalStateException("El producto debe tener un precio válido");
         }
 
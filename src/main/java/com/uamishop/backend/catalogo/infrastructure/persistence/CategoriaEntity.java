@@ -12,10 +12,18 @@
 package com.uamishop.backend.catalogo.infrastructure.persistence;
 
 // Anotaciones JPA
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
@@ -31,9 +39,14 @@ import java.util.UUID;
  *  └── categoria_padre_id (UUID)
  *
  * Esta clase es distinta a la entidad de dominio Categoria.
+ *
+ * Datos de referencia: se guardan en la caché de segundo nivel
+ * (región catalogo.categorias, READ_WRITE).
  */
 @Entity
 @Table(name = "categorias")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo.categorias")
 public class CategoriaEntity {
 
     /**
@@ -52,6 +65,14 @@ public class CategoriaEntity {
     /** Identificador de categoría padre (relación jerárquica) */
     private UUID categoriaPadreId;
 
+    /** Versión optimista; también alimenta el ETag del listado */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /** Fecha de la última escritura (cabecera Last-Modified) */
+    private LocalDateTime fechaActualizacion;
+
     /**
      * Constructor vacío requerido por JPA.
      *
@@ -79,6 +100,23 @@ public class CategoriaEntity {
         this.categoriaPadreId = categoriaPadreId;
     }
 
+    /**
+     * Actualiza el estado persistido desde el dominio sobre la
+     * instancia cargada, para que Hibernate incremente la versión.
+     */
+    public void actualizar(String nombre, String descripcion, UUID categoriaPadreId) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.categoriaPadreId = categoriaPadreId;
+    }
+
+    /** Registra la fecha de la última escritura */
+    @PrePersist
+    @PreUpdate
+    void registrarActualizacion() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
     /** @return UUID identificador */
     public UUID getId() {
         return id;
@@ -98,4 +136,14 @@ public class CategoriaEntity {
     public UUID getCategoriaPadreId() {
         return categoriaPadreId;
     }
+
+    /** @return versión optimista */
+    public long getVersion() {
+        return version;
+    }
+
+    /** @return fecha de la última escritura */
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
 }
@@ -15,6 +15,7 @@ package com.uamishop.backend.catalogo.infrastructure.persistence;
 
 import com.uamishop.backend.catalogo.domain.Categoria;
 import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.VersionRecurso;
 import com.uamishop.backend.catalogo.repository.CategoriaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -49,7 +50,8 @@ public class CategoriaRepositoryImpl implements CategoriaRepository {
     /**
      * Guarda una categoría en la base de datos.
      *
-     * Convierte el objeto de dominio a entidad JPA antes de persistir.
+     * Si ya existe se actualiza la entidad cargada (respeta @Version);
+     * en caso contrario se convierte el objeto de dominio a entidad JPA.
      *
      * @param categoria objeto del dominio
      * @return la misma categoría persistida
@@ -57,7 +59,17 @@ public class CategoriaRepositoryImpl implements CategoriaRepository {
     @Override
     public Categoria save(Categoria categoria) {
 
-        CategoriaEntity entity = toEntity(categoria);
+        CategoriaEntity entity = jpaRepository.findById(categoria.getId().valor())
+                .map(existente -> {
+                    existente.actualizar(
+                            categoria.getNombre(),
+                            categoria.getDescripcion(),
+                            categoria.getCategoriaPadreId() != null
+                                    ? categoria.getCategoriaPadreId().valor()
+                                    : null);
+                    return existente;
+                })
+                .orElseGet(() -> toEntity(categoria));
         jpaRepository.save(entity);
 
         return categoria;
@@ -115,6 +127,16 @@ public class CategoriaRepositoryImpl implements CategoriaRepository {
         return jpaRepository.existsById(id.valor());
     }
 
+    /**
+     * Obtiene la versión agregada de todas las categorías.
+     *
+     * @return versión de la colección
+     */
+    @Override
+    public VersionRecurso findVersionColeccion() {
+        return jpaRepository.findVersionColeccion();
+    }
+
     // =============================
     // MAPPERS
     // =============================
@@ -9,8 +9,14 @@
  */
 package com.uamishop.backend.catalogo.infrastructure.persistence;
 
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -35,4 +41,35 @@ import java.util.UUID;
  */
 public interface JpaCategoriaRepository
         extends JpaRepository<CategoriaEntity, UUID> {
+
+    /**
+     * Todas las categorías, desde la caché de consultas.
+     *
+     * La caché guarda solo los ids; las entidades salen de la región
+     * catalogo.categorias. Cualquier escritura en la tabla invalida el resultado.
+     *
+     * @return lista de categorías
+     */
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalogo.consultas")
+    })
+    List<CategoriaEntity> findAll();
+
+    /**
+     * Obtiene la versión agregada de todas las categorías
+     * (número de filas, suma de versiones y última modificación).
+     *
+     * Se guarda en la caché de consultas hasta la siguiente escritura en la tabla.
+     *
+     * @return versión de la colección completa
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalogo.consultas")
+    })
+    @Query("select new com.uamishop.backend.shared.domain.VersionRecurso(count(c), sum(c.version), max(c.fechaActualizacion)) "
+            + "from CategoriaEntity c")
+    VersionRecurso findVersionColeccion();
 }
\ No newline at end of file
@@ -9,10 +9,22 @@
  */
 package com.uamishop.backend.catalogo.infrastructure.persistence;
 
+import com.uamishop.backend.shared.domain.VersionRecurso;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * @interface JpaProductoRepository
@@ -46,8 +58,138 @@ public interface JpaProductoRepository
      *
      * SELECT * FROM productos WHERE categoria_id = ?
      *
+     * No se marca como cacheable: el resultado guarda solo ids y, con
+     * categorías grandes, los que ya salieron de la región catalogo.productos
+     * se cargarían uno por uno.
+     *
      * @param categoriaId identificador de la categoría
      * @return lista de productos pertenecientes a esa categoría
      */
     List<ProductoEntity> findByCategoriaId(UUID categoriaId);
+
+    /**
+     * Obtiene solo la versión y la fecha de actualización de un producto.
+     *
+     * Consulta mínima usada para peticiones condicionales (ETag / 304).
+     *
+     * @param id identificador del producto
+     * @return versión del producto si existe
+     */
+    @Query("select new com.uamishop.backend.shared.domain.VersionRecurso(p.id, p.version, p.fechaActualizacion) "
+            + "from ProductoEntity p where p.id = :id")
+    Optional<VersionRecurso> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Obtiene la versión agregada del catálogo de productos:
+     * número de filas, suma de versiones y última modificación.
+     *
+     * Recorre toda la tabla, así que se guarda en la caché de consultas;
+     * cualquier escritura en productos (incluidos los UPDATE masivos) la invalida.
+     *
+     * @return versión de la colección completa
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalogo.consultas")
+    })
+    @Query("select new com.uamishop.backend.shared.domain.VersionRecurso(count(p), sum(p.version), max(p.fechaActualizacion)) "
+            + "from ProductoEntity p")
+    VersionRecurso findVersionColeccion();
+
+    /**
+     * Recorre todos los productos con un cursor de solo avance.
+     *
+     * - fetchSize: filas que el driver trae por viaje a la base de datos
+     *   (en MySQL requiere useCursorFetch=true en la URL).
+     * - readOnly: Hibernate no guarda instantáneas para dirty checking.
+     *
+     * El Stream debe consumirse dentro de una transacción y cerrarse.
+     *
+     * @return stream perezoso de entidades
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from ProductoEntity p")
+    Stream<ProductoEntity> streamAll();
+
+    // =====================================================
+    // OPERACIONES MASIVAS (UPDATE por conjuntos)
+    // =====================================================
+
+    /**
+     * Ids de una categoría en orden, a partir de un id dado (paginación por llave).
+     *
+     * @param categoriaId categoría
+     * @param despuesDe último id del lote anterior (null para el primero)
+     * @param pagina tamaño del lote
+     */
+    @Query("select p.id from ProductoEntity p "
+            + "where p.categoriaId = :categoriaId and (:despuesDe is null or p.id > :despuesDe) "
+            + "order by p.id")
+    List<UUID> findIdsByCategoria(@Param("categoriaId") UUID categoriaId,
+                                  @Param("despuesDe") UUID despuesDe,
+                                  Pageable pagina);
+
+    /**
+     * Multiplica el precio por un factor (redondeado a 2 decimales).
+     *
+     * Solo se actualizan precios que sigan siendo positivos y que no
+     * aumenten más del 50% (RN-CAT-04 / RN-CAT-05). Se incrementa la
+     * versión para invalidar los ETag.
+     *
+     * @return número de filas actualizadas
+     */
+    @Modifying
+    @Query("update ProductoEntity p "
+            + "set p.precio = round(p.precio * :factor, 2), p.version = p.version + 1, p.fechaActualizacion = :ahora "
+            + "where p.id in :ids and round(p.precio * :factor, 2) > 0 "
+            + "and round(p.precio * :factor, 2) <= p.precio * 1.5")
+    int multiplicarPrecio(@Param("ids") List<UUID> ids,
+                          @Param("factor") BigDecimal factor,
+                          @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Suma un monto (positivo o negativo) al precio, con las mismas
+     * reglas que multiplicarPrecio.
+     *
+     * @return número de filas actualizadas
+     */
+    @Modifying
+    @Query("update ProductoEntity p "
+            + "set p.precio = p.precio + :monto, p.version = p.version + 1, p.fechaActualizacion = :ahora "
+            + "where p.id in :ids and p.precio + :monto > 0 "
+            + "and p.precio + :monto <= p.precio * 1.5")
+    int sumarPrecio(@Param("ids") List<UUID> ids,
+                    @Param("monto") BigDecimal monto,
+                    @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Activa productos desactivados con precio válido (RN-CAT-10).
+     *
+     * @return número de filas actualizadas
+     */
+    @Modifying
+    @Query("update ProductoEntity p "
+            + "set p.disponible = true, p.version = p.version + 1, p.fechaActualizacion = :ahora "
+            + "where p.id in :ids and p.disponible = false and p.precio > 0")
+    int activar(@Param("ids") List<UUID> ids, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Desactiva productos activos (RN-CAT-08: los ya desactivados se omiten).
+     *
+     * @return número de filas actualizadas
+     */
+    @Modifying
+    @Query("update ProductoEntity p "
+            + "set p.disponible = false, p.version = p.version + 1, p.fechaActualizacion = :ahora "
+            + "where p.id in :ids and p.disponible = true")
+    int desactivar(@Param("ids") List<UUID> ids, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Ids del subconjunto que sí existe (para reportar seleccionados).
+     */
+    @Query("select p.id from ProductoEntity p where p.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") List<UUID> ids);
 }
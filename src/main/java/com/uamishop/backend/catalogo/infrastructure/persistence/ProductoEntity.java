@@ -21,6 +21,8 @@ package com.uamishop.backend.catalogo.infrastructure.persistence;
 
 import java.time.LocalDateTime;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -31,12 +33,17 @@ import java.util.UUID;
  * Anotaciones principales:
  * - @Entity → Indica que esta clase es una entidad JPA.
  * - @Table → Especifica el nombre de la tabla asociada.
+ * - @Cache → Caché de segundo nivel (región catalogo.productos, ver ehcache.xml).
+ *   READ_WRITE: las escrituras bloquean la entrada hasta el commit, así
+ *   ninguna transacción lee de la caché un estado no confirmado.
  *
  * Esta entidad es utilizada por Hibernate (implementación de JPA)
  * para mapear registros de la tabla "productos".
  */
 @Entity
 @Table(name = "productos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo.productos")
 public class ProductoEntity {
 
     /**
@@ -88,6 +95,23 @@ public class ProductoEntity {
      */
     private LocalDateTime fechaCreacion;
 
+    /**
+     * Versión para control de concurrencia optimista.
+     *
+     * Hibernate la incrementa en cada UPDATE; también se usa
+     * para calcular el ETag del producto sin cargarlo completo.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Fecha y hora de la última escritura (alta o modificación).
+     *
+     * Alimenta la cabecera Last-Modified.
+     */
+    private LocalDateTime fechaActualizacion;
+
     /**
      * Constructor vacío requerido por JPA.
      *
@@ -126,6 +150,33 @@ public class ProductoEntity {
         this.fechaCreacion = fechaCreacion;
     }
 
+    /**
+     * Actualiza el estado persistido desde el dominio.
+     *
+     * Se modifica la instancia cargada (en lugar de crear una nueva)
+     * para que Hibernate respete e incremente la versión.
+     */
+    public void actualizar(String nombre,
+                           String descripcion,
+                           BigDecimal precio,
+                           UUID categoriaId,
+                           boolean disponible) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.precio = precio;
+        this.categoriaId = categoriaId;
+        this.disponible = disponible;
+    }
+
+    /**
+     * Registra la fecha de la última escritura.
+     */
+    @PrePersist
+    @PreUpdate
+    void registrarActualizacion() {
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
     /**
      * @return identificador único del producto
      */
@@ -174,4 +225,18 @@ public class ProductoEntity {
     public LocalDateTime getFechaCreacion() {
         return fechaCreacion;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return versión optimista del registro
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return fecha de la última escritura
+     */
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+}
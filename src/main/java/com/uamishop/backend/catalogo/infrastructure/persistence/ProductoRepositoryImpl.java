@@ -25,11 +25,20 @@ import com.uamishop.backend.catalogo.repository.ProductoRepository;
 import com.uamishop.backend.shared.domain.CategoriaId;
 import com.uamishop.backend.shared.domain.ProductoId;
 import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @class ProductoRepositoryImpl
@@ -50,20 +59,31 @@ public class ProductoRepositoryImpl implements ProductoRepository {
      */
     private final JpaProductoRepository jpaRepository;
 
+    /**
+     * EntityManager de la transacción actual.
+     *
+     * Se usa para desprender (detach) las entidades ya recorridas
+     * en los recorridos por cursor.
+     */
+    private final EntityManager entityManager;
+
     /**
      * Constructor con inyección de dependencias.
      *
      * @param jpaRepository repositorio JPA generado por Spring
+     * @param entityManager EntityManager compartido (proxy transaccional)
      */
-    public ProductoRepositoryImpl(JpaProductoRepository jpaRepository) {
+    public ProductoRepositoryImpl(JpaProductoRepository jpaRepository, EntityManager entityManager) {
         this.jpaRepository = jpaRepository;
+        this.entityManager = entityManager;
     }
 
     /**
      * Guarda un producto en la base de datos.
      *
      * Flujo:
-     * 1. Convierte el objeto de dominio a entidad JPA.
+     * 1. Si ya existe, actualiza la entidad cargada (respeta @Version);
+     *    si no, convierte el objeto de dominio a una entidad nueva.
      * 2. Llama a jpaRepository.save().
      * 3. Convierte el resultado nuevamente a dominio.
      *
@@ -72,11 +92,45 @@ public class ProductoRepositoryImpl implements ProductoRepository {
      */
     @Override
     public Producto save(Producto producto) {
-        ProductoEntity entity = toEntity(producto);
+        ProductoEntity entity = jpaRepository.findById(producto.getId().valor())
+                .map(existente -> {
+                    existente.actualizar(
+                            producto.getNombre(),
+                            producto.getDescripcion(),
+                            producto.getPrecio().getCantidad(),
+                            producto.getCategoriaId().valor(),
+                            producto.isDisponible());
+                    return existente;
+                })
+                .orElseGet(() -> toEntity(producto));
         ProductoEntity saved = jpaRepository.save(entity);
         return toDomain(saved);
     }
 
+    /**
+     * Inserta un lote de productos nuevos.
+     *
+     * Se usa persist (sin SELECT previo) y un flush al final, de modo que
+     * Hibernate agrupa los INSERT según hibernate.jdbc.batch_size.
+     * Después se limpia el contexto de persistencia para que la memoria
+     * no crezca entre lotes.
+     *
+     * Los productos importados no se copian a la caché de segundo nivel:
+     * una importación masiva desplazaría de la región a los productos
+     * que sí se consultan.
+     *
+     * @param productos productos recién creados
+     */
+    @Override
+    public void insertarLote(List<Producto> productos) {
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        for (Producto producto : productos) {
+            entityManager.persist(toEntity(producto));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     /**
      * Busca un producto por su identificador.
      *
@@ -102,6 +156,24 @@ public class ProductoRepositoryImpl implements ProductoRepository {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recorre todos los productos con un cursor JDBC.
+     *
+     * Cada entidad se desprende del contexto de persistencia en cuanto
+     * se convierte a dominio, de modo que la memoria se mantiene plana
+     * sin importar el tamaño del catálogo.
+     *
+     * @return stream perezoso de productos (debe cerrarse)
+     */
+    @Override
+    public Stream<Producto> streamAll() {
+        return jpaRepository.streamAll()
+                .map(entity -> {
+                    entityManager.detach(entity);
+                    return toDomain(entity);
+                });
+    }
+
     /**
      * Busca productos pertenecientes a una categoría específica.
      *
@@ -140,6 +212,71 @@ public class ProductoRepositoryImpl implements ProductoRepository {
         return jpaRepository.existsById(id.valor());
     }
 
+    /**
+     * Obtiene la versión persistida de un producto.
+     *
+     * @param id identificador del producto
+     * @return Optional con la versión si existe
+     */
+    @Override
+    public Optional<VersionRecurso> findVersionById(ProductoId id) {
+        return jpaRepository.findVersionById(id.valor());
+    }
+
+    /**
+     * Obtiene la versión agregada del catálogo de productos.
+     *
+     * @return versión de la colección
+     */
+    @Override
+    public VersionRecurso findVersionColeccion() {
+        return jpaRepository.findVersionColeccion();
+    }
+
+    // =====================================================
+    // OPERACIONES MASIVAS
+    // =====================================================
+
+    @Override
+    public List<ProductoId> findIdsByCategoria(CategoriaId categoriaId, ProductoId despuesDe, int limite) {
+        return jpaRepository.findIdsByCategoria(
+                        categoriaId.valor(),
+                        despuesDe != null ? despuesDe.valor() : null,
+                        PageRequest.of(0, limite))
+                .stream()
+                .map(ProductoId::new)
+                .toList();
+    }
+
+    @Override
+    public List<ProductoId> findExistentes(List<ProductoId> ids) {
+        return jpaRepository.findExistingIds(toUuids(ids))
+                .stream()
+                .map(ProductoId::new)
+                .toList();
+    }
+
+    @Override
+    public int ajustarPrecioPorFactor(List<ProductoId> ids, BigDecimal factor) {
+        return jpaRepository.multiplicarPrecio(toUuids(ids), factor, LocalDateTime.now());
+    }
+
+    @Override
+    public int ajustarPrecioPorMonto(List<ProductoId> ids, BigDecimal monto) {
+        return jpaRepository.sumarPrecio(toUuids(ids), monto, LocalDateTime.now());
+    }
+
+    @Override
+    public int cambiarDisponibilidad(List<ProductoId> ids, boolean disponible) {
+        return disponible
+                ? jpaRepository.activar(toUuids(ids), LocalDateTime.now())
+                : jpaRepository.desactivar(toUuids(ids), LocalDateTime.now());
+    }
+
+    private static List<UUID> toUuids(List<ProductoId> ids) {
+        return ids.stream().map(ProductoId::valor).toList();
+    }
+
     // =====================================================
     // MAPPERS
     // =====================================================
@@ -154,7 +291,7 @@ public class ProductoRepositoryImpl implements ProductoRepository {
      * @param producto objeto de dominio
      * @return entidad JPA
      */
-    private ProductoEntity toEntity(Producto producto) {
+    ProductoEntity toEntity(Producto producto) {
         return new ProductoEntity(
                 producto.getId().valor(),
                 producto.getNombre(),
@@ -180,12 +317,12 @@ public class ProductoRepositoryImpl implements ProductoRepository {
      * @param entity entidad JPA
      * @return agregado Producto del dominio
      */
-    private Producto toDomain(ProductoEntity entity) {
+    Producto toDomain(ProductoEntity entity) {
         return Producto.reconstruir(
                 new ProductoId(entity.getId()),
                 entity.getNombre(),
                 entity.getDescripcion(),
-                Money.pesos(entity.getPrecio().doubleValue()),
+                Money.pesos(entity.getPrecio()),
                 new CategoriaId(entity.getCategoriaId()),
                 entity.isDisponible(),
                 entity.getFechaCreacion()
@@ -0,0 +1,22 @@
+package com.uamishop.backend.catalogo.listener;
+
+import com.uamishop.backend.catalogo.service.ProductoService;
+import com.uamishop.backend.shared.event.ProductosActualizadosEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheRespuestasListener {
+
+    private final ProductoService productoService;
+
+    public CacheRespuestasListener(ProductoService productoService) {
+        this.productoService = productoService;
+    }
+
+    // Las operaciones masivas publican un evento por lote ya confirmado
+    @EventListener
+    public void onProductosActualizados(ProductosActualizadosEvent event) {
+        productoService.invalidarCache(event.productoIds());
+    }
+}
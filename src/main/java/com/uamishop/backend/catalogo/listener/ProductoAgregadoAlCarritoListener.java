@@ -2,6 +2,9 @@ package com.uamishop.backend.catalogo.listener;
 
 import com.uamishop.backend.catalogo.service.ProductoEstadisticasService;
 import com.uamishop.backend.shared.event.ProductoAgregadoAlCarritoEvent;
+import com.uamishop.backend.shared.observabilidad.ListenerAsyncJfrEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza.TrazaActiva;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,15 +15,26 @@ import org.springframework.scheduling.annotation.Async;
 public class ProductoAgregadoAlCarritoListener {
 
     private final ProductoEstadisticasService estadisticasService;
+    private final PropagacionTraza propagacionTraza;
 
-    public ProductoAgregadoAlCarritoListener(ProductoEstadisticasService estadisticasService) {
+    public ProductoAgregadoAlCarritoListener(ProductoEstadisticasService estadisticasService, PropagacionTraza propagacionTraza) {
         this.estadisticasService = estadisticasService;
+        this.propagacionTraza = propagacionTraza;
     }
 
     @EventListener
     @Async // Listener ejecuta un hido distinto
     @Transactional(propagation = Propagation.REQUIRES_NEW) // Manejamos una transaccion nueva
     public void onProductoAgregadoAlCarrito(ProductoAgregadoAlCarritoEvent event) {
-        estadisticasService.registrarVenta(event.productoId(), event.cantidad());
+        ListenerAsyncJfrEvent jfr = ListenerAsyncJfrEvent.iniciar(
+                "ProductoAgregadoAlCarritoListener", event.eventId(), event.occurredAt());
+        boolean exito = false;
+        // Continúa la traza de quien publicó el evento
+        try (TrazaActiva traza = propagacionTraza.continuar("ProductoAgregadoAlCarritoListener", event.traceparent())) {
+            estadisticasService.registrarVenta(event.productoId(), event.cantidad());
+            exito = true;
+        } finally {
+            jfr.terminar(exito);
+        }
     }
 }
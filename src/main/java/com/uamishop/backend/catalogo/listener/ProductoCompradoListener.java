@@ -2,6 +2,9 @@ package com.uamishop.backend.catalogo.listener;
 
 import com.uamishop.backend.catalogo.service.ProductoEstadisticasService;
 import com.uamishop.backend.shared.event.ProductoCompradoEvent;
+import com.uamishop.backend.shared.observabilidad.ListenerAsyncJfrEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza.TrazaActiva;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,9 +15,11 @@ import org.springframework.scheduling.annotation.Async;
 public class ProductoCompradoListener {
 
     private final ProductoEstadisticasService estadisticasService;
+    private final PropagacionTraza propagacionTraza;
 
-    public ProductoCompradoListener(ProductoEstadisticasService estadisticasService) {
+    public ProductoCompradoListener(ProductoEstadisticasService estadisticasService, PropagacionTraza propagacionTraza) {
         this.estadisticasService = estadisticasService;
+        this.propagacionTraza = propagacionTraza;
     }
 
     @EventListener
@@ -22,6 +27,15 @@ public class ProductoCompradoListener {
     @Transactional(propagation = Propagation.REQUIRES_NEW) // Manejamos una subtransaccion
     // Si la tabla falla, la accion de agregar al carrito se mantiene funcionando
     public void onProductoComprado(ProductoCompradoEvent event) {
-        event.items().forEach(item -> estadisticasService.registrarVenta(item.productoId(), item.cantidad()));
+        ListenerAsyncJfrEvent jfr = ListenerAsyncJfrEvent.iniciar(
+                "ProductoCompradoListener", event.eventId(), event.occurredAt());
+        boolean exito = false;
+        // Continúa la traza de quien publicó el evento
+        try (TrazaActiva traza = propagacionTraza.continuar("ProductoCompradoListener", event.traceparent())) {
+            event.items().forEach(item -> estadisticasService.registrarVenta(item.productoId(), item.cantidad()));
+            exito = true;
+        } finally {
+            jfr.terminar(exito);
+        }
     }
 }
@@ -25,6 +25,7 @@ package com.uamishop.backend.catalogo.repository;
 
 import com.uamishop.backend.catalogo.domain.Categoria;
 import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.VersionRecurso;
 
 import java.util.List;
 import java.util.Optional;
@@ -81,4 +82,11 @@ public interface CategoriaRepository {
      * @return true si existe, false en caso contrario
      */
     boolean existsById(CategoriaId id);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene la versión agregada de todas las categorías.
+     *
+     * @return versión de la colección
+     */
+    VersionRecurso findVersionColeccion();
+}
@@ -3,9 +3,12 @@ package com.uamishop.backend.catalogo.repository;
 import com.uamishop.backend.catalogo.domain.*;
 import com.uamishop.backend.shared.domain.CategoriaId;
 import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.shared.domain.VersionRecurso;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * @interface ProductoRepository
@@ -30,6 +33,16 @@ public interface ProductoRepository {
      */
     Producto save(Producto producto);
 
+    /**
+     * Inserta un lote de productos nuevos en una sola ida por JDBC batch.
+     *
+     * Debe llamarse dentro de una transacción. Los productos no deben
+     * existir previamente (no se hace merge ni verificación de versión).
+     *
+     * @param productos productos recién creados
+     */
+    void insertarLote(List<Producto> productos);
+
     /**
      * Busca un producto por su identificador.
      *
@@ -45,6 +58,17 @@ public interface ProductoRepository {
      */
     List<Producto> findAll();
 
+    /**
+     * Recorre todos los productos de forma perezosa (cursor),
+     * sin materializar el catálogo completo en memoria.
+     *
+     * Debe consumirse dentro de una transacción y cerrarse
+     * (try-with-resources).
+     *
+     * @return stream de productos del dominio
+     */
+    Stream<Producto> streamAll();
+
     /**
      * Busca productos pertenecientes a una categoría específica.
      *
@@ -67,4 +91,64 @@ public interface ProductoRepository {
      * @return true si existe, false en caso contrario
      */
     boolean existsById(ProductoId id);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene la versión persistida de un producto sin reconstruirlo.
+     *
+     * @param id identificador del producto
+     * @return Optional con la versión si el producto existe
+     */
+    Optional<VersionRecurso> findVersionById(ProductoId id);
+
+    /**
+     * Obtiene la versión agregada de todos los productos.
+     *
+     * @return versión de la colección
+     */
+    VersionRecurso findVersionColeccion();
+
+    // ===== OPERACIONES MASIVAS =====
+    // Se ejecutan como UPDATE por conjuntos dentro de la transacción del llamador.
+
+    /**
+     * Obtiene un lote de ids de una categoría, ordenados, posteriores a un id dado.
+     *
+     * @param categoriaId categoría
+     * @param despuesDe último id del lote anterior (null para el primer lote)
+     * @param limite tamaño máximo del lote
+     * @return ids del lote (vacío al terminar)
+     */
+    List<ProductoId> findIdsByCategoria(CategoriaId categoriaId, ProductoId despuesDe, int limite);
+
+    /**
+     * Filtra una lista de ids dejando solo los que existen.
+     *
+     * @param ids ids solicitados
+     * @return ids existentes
+     */
+    List<ProductoId> findExistentes(List<ProductoId> ids);
+
+    /**
+     * Multiplica el precio de los productos por un factor,
+     * respetando RN-CAT-04 y RN-CAT-05.
+     *
+     * @return número de productos actualizados
+     */
+    int ajustarPrecioPorFactor(List<ProductoId> ids, BigDecimal factor);
+
+    /**
+     * Suma un monto (positivo o negativo) al precio de los productos,
+     * respetando RN-CAT-04 y RN-CAT-05.
+     *
+     * @return número de productos actualizados
+     */
+    int ajustarPrecioPorMonto(List<ProductoId> ids, BigDecimal monto);
+
+    /**
+     * Activa o desactiva los productos que estén en el estado contrario.
+     * La activación exige precio mayor a cero (RN-CAT-10).
+     *
+     * @return número de productos actualizados
+     */
+    int cambiarDisponibilidad(List<ProductoId> ids, boolean disponible);
+}
@@ -1,11 +1,15 @@
 package com.uamishop.backend.catalogo.service;
 
 import com.uamishop.backend.catalogo.api.CatalogoApi;
+import com.uamishop.backend.catalogo.api.CategoriaResumen;
+import com.uamishop.backend.catalogo.domain.Categoria;
 import com.uamishop.backend.catalogo.domain.Producto;
 import com.uamishop.backend.shared.domain.ProductoId;
 import com.uamishop.backend.catalogo.api.ProductoResumen;
+import com.uamishop.backend.catalogo.repository.CategoriaRepository;
 import com.uamishop.backend.catalogo.repository.ProductoRepository;
 import com.uamishop.backend.shared.domain.CategoriaId;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -17,12 +21,15 @@ import java.util.stream.Collectors;
  * NO debe ser usada directamente por otros módulos.
  */
 @Service
+@Profile("catalogo-local")
 public class CatalogoService implements CatalogoApi {
 
     private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
 
-    public CatalogoService(ProductoRepository productoRepository) {
+    public CatalogoService(ProductoRepository productoRepository, CategoriaRepository categoriaRepository) {
         this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
     }
 
     @Override
@@ -53,13 +60,31 @@ public class CatalogoService implements CatalogoApi {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<CategoriaResumen> listarCategorias() {
+        return categoriaRepository.findAll()
+                .stream()
+                .map(this::mapear)
+                .collect(Collectors.toList());
+    }
+
     private ProductoResumen mapear(Producto producto) {
         return new ProductoResumen(
                 producto.getId().getValor(),  // convertimos a UUID
                 producto.getNombre(),
                 producto.getDescripcion(),
                 producto.getPrecio(),
-                producto.isDisponible()
+                producto.isDisponible(),
+                producto.getCategoriaId() != null ? producto.getCategoriaId().valor() : null
+        );
+    }
+
+    private CategoriaResumen mapear(Categoria categoria) {
+        return new CategoriaResumen(
+                categoria.getId().valor(),
+                categoria.getNombre(),
+                categoria.getDescripcion(),
+                categoria.getCategoriaPadreId() != null ? categoria.getCategoriaPadreId().valor() : null
         );
     }
 }
\ No newline at end of file
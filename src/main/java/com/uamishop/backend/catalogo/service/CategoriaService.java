@@ -21,7 +21,10 @@ package com.uamishop.backend.catalogo.service;
 import com.uamishop.backend.catalogo.repository.CategoriaRepository;
 import com.uamishop.backend.catalogo.domain.Categoria;
 import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import com.uamishop.backend.shared.web.CacheRespuestasSerializadas;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 import com.uamishop.backend.catalogo.controller.dto.CategoriaRequest;
@@ -51,13 +54,27 @@ public class CategoriaService {
      */
     private final CategoriaRepository categoriaRepository;
 
+    /**
+     * Caché de respuestas JSON ya serializadas del listado.
+     */
+    private final CacheRespuestasSerializadas cacheRespuestas;
+
+    /**
+     * Recurso del listado en la caché de respuestas serializadas.
+     */
+    public static final String RECURSO_CATEGORIAS = "categorias";
+    public static final String LISTADO = "*";
+
     /**
      * Constructor con inyección de dependencias.
      *
      * @param categoriaRepository contrato del repositorio
+     * @param cacheRespuestas caché de respuestas serializadas
      */
-    public CategoriaService(CategoriaRepository categoriaRepository) {
+    public CategoriaService(CategoriaRepository categoriaRepository,
+                            CacheRespuestasSerializadas cacheRespuestas) {
         this.categoriaRepository = categoriaRepository;
+        this.cacheRespuestas = cacheRespuestas;
     }
 
     // =====================================================
@@ -85,6 +102,7 @@ public class CategoriaService {
         );
 
         categoriaRepository.save(categoria);
+        cacheRespuestas.invalidar(RECURSO_CATEGORIAS, LISTADO);
 
         return toResponse(categoria);
     }
@@ -101,6 +119,7 @@ public class CategoriaService {
      * @param id identificador UUID
      * @return CategoriaResponse
      */
+    @Transactional(readOnly = true)
     public CategoriaResponse obtenerPorId(UUID id) {
 
         Categoria categoria = categoriaRepository.findById(
@@ -132,6 +151,7 @@ public class CategoriaService {
      * @param request datos actualizados
      * @return CategoriaResponse
      */
+    @Transactional
     public CategoriaResponse actualizar(UUID id, CategoriaRequest request) {
 
         Categoria categoria = categoriaRepository.findById(
@@ -146,6 +166,7 @@ public class CategoriaService {
         );
 
         categoriaRepository.save(categoria);
+        cacheRespuestas.invalidar(RECURSO_CATEGORIAS, LISTADO);
 
         return toResponse(categoria);
     }
@@ -159,6 +180,7 @@ public class CategoriaService {
      *
      * @return lista de CategoriaResponse
      */
+    @Transactional(readOnly = true)
     public List<CategoriaResponse> listar() {
 
         return categoriaRepository.findAll()
@@ -167,6 +189,17 @@ public class CategoriaService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene la versión agregada del listado de categorías,
+     * usada para responder 304 sin reconstruir la lista.
+     *
+     * @return versión de la colección
+     */
+    @Transactional(readOnly = true)
+    public VersionRecurso obtenerVersionListado() {
+        return categoriaRepository.findVersionColeccion();
+    }
+
     // =====================================================
     // ELIMINAR
     // =====================================================
@@ -178,6 +211,7 @@ public class CategoriaService {
      */
     public void eliminar(UUID id) {
         categoriaRepository.deleteById(new CategoriaId(id));
+        cacheRespuestas.invalidar(RECURSO_CATEGORIAS, LISTADO);
     }
 
     // =====================================================
@@ -194,7 +228,8 @@ public class CategoriaService {
         return new CategoriaResponse(
                 categoria.getId().valor(),
                 categoria.getNombre(),
-                categoria.getDescripcion()
+                categoria.getDescripcion(),
+                categoria.getCategoriaPadreId() != null ? categoria.getCategoriaPadreId().valor() : null
         );
     }
 }
@@ -0,0 +1,380 @@
+/**
+ * @file ProductoImportacionService.java
+ * @brief Servicio de aplicación para la importación masiva de productos.
+ *
+ * Procesa archivos CSV o NDJSON de proveedores sin cargarlos completos
+ * en memoria:
+ *
+ * 1. Lee el archivo línea por línea y agrupa las filas en lotes.
+ * 2. Valida cada lote en paralelo (Bean Validation + reglas del dominio).
+ * 3. Resuelve categorías desde un mapa en memoria cargado una sola vez.
+ * 4. Inserta los productos válidos de cada lote en una transacción propia
+ *    usando JDBC batch.
+ *
+ * Las filas inválidas no detienen la importación; se reportan con su
+ * número de línea.
+ */
+package com.uamishop.backend.catalogo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uamishop.backend.catalogo.controller.dto.ImportacionProductosResponse;
+import com.uamishop.backend.catalogo.controller.dto.ImportacionProductosResponse.ErrorFilaImportacion;
+import com.uamishop.backend.catalogo.controller.dto.ProductoRequest;
+import com.uamishop.backend.catalogo.domain.Categoria;
+import com.uamishop.backend.catalogo.domain.Producto;
+import com.uamishop.backend.catalogo.repository.CategoriaRepository;
+import com.uamishop.backend.catalogo.repository.ProductoRepository;
+import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * @class ProductoImportacionService
+ * @brief Orquesta la importación por lotes de productos.
+ */
+@Service
+public class ProductoImportacionService {
+
+    /** Formatos de archivo aceptados */
+    public enum Formato {
+        CSV,
+        NDJSON
+    }
+
+    /** Filas por lote (validación en paralelo + una transacción por lote) */
+    static final int TAMANO_LOTE = 1000;
+
+    /** Máximo de errores detallados en el reporte */
+    static final int MAX_ERRORES_DETALLADOS = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor con inyección de dependencias.
+     */
+    public ProductoImportacionService(ProductoRepository productoRepository,
+                                      CategoriaRepository categoriaRepository,
+                                      Validator validator,
+                                      ObjectMapper objectMapper,
+                                      TransactionTemplate transactionTemplate) {
+        this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // =====================================================
+    // IMPORTAR
+    // =====================================================
+
+    /**
+     * Importa productos desde un flujo CSV o NDJSON.
+     *
+     * CSV: la primera línea es el encabezado y debe incluir las columnas
+     * nombre, descripcion, precio y categoriaId (en cualquier orden).
+     * Los campos pueden ir entre comillas dobles; no se admiten saltos
+     * de línea dentro de un campo.
+     *
+     * NDJSON: un objeto JSON por línea con los mismos campos.
+     *
+     * @param entrada contenido del archivo (no se cierra)
+     * @param formato formato del archivo
+     * @return reporte con totales y errores por fila
+     */
+    public ImportacionProductosResponse importar(InputStream entrada, Formato formato) throws IOException {
+
+        // Las categorías se resuelven en memoria: una sola consulta para todo el archivo
+        Map<UUID, CategoriaId> categorias = categoriaRepository.findAll()
+                .stream()
+                .collect(Collectors.toMap(c -> c.getId().valor(), Categoria::getId));
+
+        BufferedReader lector = new BufferedReader(
+                new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+
+        Map<String, Integer> columnas = null;
+        long numeroLinea = 0;
+
+        if (formato == Formato.CSV) {
+            String encabezado = lector.readLine();
+            numeroLinea++;
+            columnas = leerEncabezado(encabezado);
+        }
+
+        Reporte reporte = new Reporte();
+        List<FilaCruda> lote = new ArrayList<>(TAMANO_LOTE);
+        String linea;
+
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            lote.add(new FilaCruda(numeroLinea, linea));
+            if (lote.size() == TAMANO_LOTE) {
+                procesarLote(lote, formato, columnas, categorias, reporte);
+                lote = new ArrayList<>(TAMANO_LOTE);
+            }
+        }
+        if (!lote.isEmpty()) {
+            procesarLote(lote, formato, columnas, categorias, reporte);
+        }
+
+        return reporte.aResponse();
+    }
+
+    // =====================================================
+    // PROCESAMIENTO POR LOTES
+    // =====================================================
+
+    /**
+     * Valida un lote en paralelo e inserta los productos válidos
+     * en una transacción propia.
+     */
+    private void procesarLote(List<FilaCruda> lote,
+                              Formato formato,
+                              Map<String, Integer> columnas,
+                              Map<UUID, CategoriaId> categorias,
+                              Reporte reporte) {
+
+        List<ResultadoFila> resultados = lote.parallelStream()
+                .map(fila -> validarFila(fila, formato, columnas, categorias))
+                .toList();
+
+        List<Producto> validos = new ArrayList<>(resultados.size());
+        List<ResultadoFila> aceptadas = new ArrayList<>(resultados.size());
+        for (ResultadoFila resultado : resultados) {
+            reporte.filasProcesadas++;
+            if (resultado.producto() != null) {
+                validos.add(resultado.producto());
+                aceptadas.add(resultado);
+            } else {
+                reporte.rechazar(resultado.linea(), resultado.error());
+            }
+        }
+
+        if (validos.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> productoRepository.insertarLote(validos));
+            reporte.productosImportados += validos.size();
+        } catch (RuntimeException e) {
+            // Si el lote falla en base de datos, se revierte completo y se reportan sus filas
+            String mensaje = "No se pudo guardar el lote: " + e.getMessage();
+            for (ResultadoFila resultado : aceptadas) {
+                reporte.rechazar(resultado.linea(), mensaje);
+            }
+        }
+    }
+
+    /**
+     * Convierte y valida una fila. Se ejecuta en paralelo, por lo que
+     * solo usa componentes sin estado compartido mutable.
+     */
+    private ResultadoFila validarFila(FilaCruda fila,
+                                      Formato formato,
+                                      Map<String, Integer> columnas,
+                                      Map<UUID, CategoriaId> categorias) {
+        try {
+            ProductoRequest request = formato == Formato.CSV
+                    ? leerFilaCsv(fila.contenido(), columnas)
+                    : objectMapper.readValue(fila.contenido(), ProductoRequest.class);
+
+            Set<ConstraintViolation<ProductoRequest>> violaciones = validator.validate(request);
+            if (!violaciones.isEmpty()) {
+                String mensaje = violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                return ResultadoFila.error(fila.linea(), mensaje);
+            }
+
+            CategoriaId categoriaId = categorias.get(request.categoriaId());
+            if (categoriaId == null) {
+                return ResultadoFila.error(fila.linea(), "La categoría especificada no existe");
+            }
+
+            Producto producto = Producto.crear(
+                    request.nombre(),
+                    request.descripcion(),
+                    Money.pesos(request.precio()),
+                    categoriaId);
+
+            return new ResultadoFila(fila.linea(), producto, null);
+
+        } catch (IllegalArgumentException e) {
+            return ResultadoFila.error(fila.linea(), e.getMessage());
+        } catch (ArithmeticException e) {
+            // Money guarda centavos en un long: un precio enorme no cabe
+            return ResultadoFila.error(fila.linea(), "El precio está fuera del rango permitido");
+        } catch (JsonProcessingException e) {
+            return ResultadoFila.error(fila.linea(), "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    // =====================================================
+    // LECTURA CSV
+    // =====================================================
+
+    /**
+     * Interpreta el encabezado CSV y valida las columnas obligatorias.
+     */
+    private Map<String, Integer> leerEncabezado(String encabezado) {
+
+        if (encabezado == null) {
+            throw new BusinessRuleException("ARCHIVO_VACIO", "El archivo CSV no contiene encabezado");
+        }
+
+        List<String> nombres = separarCsv(encabezado.replace("\uFEFF", ""));
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.put(nombres.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String requerida : List.of("nombre", "descripcion", "precio", "categoriaid")) {
+            if (!columnas.containsKey(requerida)) {
+                throw new BusinessRuleException(
+                        "ENCABEZADO_INVALIDO",
+                        "Falta la columna obligatoria '" + requerida + "' en el encabezado CSV");
+            }
+        }
+        return columnas;
+    }
+
+    /**
+     * Convierte una línea CSV en un ProductoRequest.
+     */
+    private ProductoRequest leerFilaCsv(String linea, Map<String, Integer> columnas) {
+
+        List<String> campos = separarCsv(linea);
+
+        String precio = campo(campos, columnas.get("precio"));
+        String categoria = campo(campos, columnas.get("categoriaid"));
+
+        BigDecimal precioDecimal;
+        UUID categoriaId;
+        try {
+            precioDecimal = precio == null || precio.isBlank() ? null : new BigDecimal(precio.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Precio inválido: " + precio);
+        }
+        try {
+            categoriaId = categoria == null || categoria.isBlank() ? null : UUID.fromString(categoria.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("categoriaId inválido: " + categoria);
+        }
+
+        return new ProductoRequest(
+                campo(campos, columnas.get("nombre")),
+                campo(campos, columnas.get("descripcion")),
+                precioDecimal,
+                categoriaId);
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice < campos.size() ? campos.get(indice) : null;
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles
+     * ("" dentro de un campo entrecomillado representa una comilla).
+     */
+    static List<String> separarCsv(String linea) {
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    // =====================================================
+    // TIPOS INTERNOS
+    // =====================================================
+
+    /** Línea leída del archivo, aún sin interpretar */
+    private record FilaCruda(long linea, String contenido) {}
+
+    /** Resultado de validar una fila: producto listo o mensaje de error */
+    private record ResultadoFila(long linea, Producto producto, String error) {
+
+        static ResultadoFila error(long linea, String mensaje) {
+            return new ResultadoFila(linea, null, mensaje);
+        }
+    }
+
+    /** Acumulador del reporte (se actualiza solo desde el hilo que lee el archivo) */
+    private static final class Reporte {
+
+        private long filasProcesadas;
+        private long productosImportados;
+        private long filasRechazadas;
+        private final List<ErrorFilaImportacion> errores = new ArrayList<>();
+
+        void rechazar(long linea, String mensaje) {
+            filasRechazadas++;
+            if (errores.size() < MAX_ERRORES_DETALLADOS) {
+                errores.add(new ErrorFilaImportacion(linea, mensaje));
+            }
+        }
+
+        ImportacionProductosResponse aResponse() {
+            errores.sort((a, b) -> Long.compare(a.fila(), b.fila()));
+            return new ImportacionProductosResponse(
+                    filasProcesadas,
+                    productosImportados,
+                    filasRechazadas,
+                    List.copyOf(errores),
+                    filasRechazadas > errores.size());
+        }
+    }
+}
@@ -6,13 +6,30 @@ import com.uamishop.backend.shared.domain.ProductoId;
 import com.uamishop.backend.catalogo.domain.*;
 import com.uamishop.backend.shared.domain.CategoriaId;
 import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.VersionRecurso;
 import com.uamishop.backend.catalogo.controller.dto.*;
 import com.uamishop.backend.catalogo.exception.BusinessRuleException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.uamishop.backend.shared.event.ProductosActualizadosEvent;
+import com.uamishop.backend.shared.web.CacheRespuestasSerializadas;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductoService {
@@ -20,20 +37,43 @@ public class ProductoService {
         private final ProductoRepository productoRepository;
         private final CategoriaRepository categoriaRepository;
         private final ProductoEstadisticasService estadisticasService;
+        private final ObjectWriter productoWriter;
+        private final TransactionTemplate transactionTemplate;
+        private final ApplicationEventPublisher eventPublisher;
+        private final CacheRespuestasSerializadas cacheRespuestas;
+
+        // Recursos en la caché de respuestas serializadas ("*" = listado completo)
+        public static final String RECURSO_PRODUCTO = "producto";
+        public static final String RECURSO_CATALOGO = "productos";
+        public static final String LISTADO = "*";
+
+        // Productos por lote en operaciones masivas: cada lote es una transacción corta
+        static final int TAMANO_LOTE_MASIVO = 500;
 
         public ProductoService(
                         ProductoRepository productoRepository,
                         CategoriaRepository categoriaRepository,
-                        ProductoEstadisticasService estadisticasService) {
+                        ProductoEstadisticasService estadisticasService,
+                        ObjectMapper objectMapper,
+                        TransactionTemplate transactionTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        CacheRespuestasSerializadas cacheRespuestas) {
                 this.productoRepository = productoRepository;
                 this.categoriaRepository = categoriaRepository;
                 this.estadisticasService = estadisticasService;
+                this.transactionTemplate = transactionTemplate;
+                this.eventPublisher = eventPublisher;
+                this.cacheRespuestas = cacheRespuestas;
+                // Sin AUTO_CLOSE_TARGET: cada producto se escribe sobre el mismo flujo de salida
+                this.productoWriter = objectMapper.writerFor(ProductoResponse.class)
+                                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
         }
 
         // =====================================================
         // CREAR PRODUCTO
         // =====================================================
 
+        @Transactional
         public ProductoResponse crear(ProductoRequest request) {
 
                 // ✅ Validación de regla de negocio: precio obligatorio y mayor a 0
@@ -54,10 +94,11 @@ public class ProductoService {
                 Producto producto = Producto.crear(
                                 request.nombre(),
                                 request.descripcion(),
-                                Money.pesos(request.precio().doubleValue()),
+                                Money.pesos(request.precio()),
                                 categoria.getId());
 
                 productoRepository.save(producto);
+                cacheRespuestas.invalidarRecurso(RECURSO_CATALOGO);
 
                 return toResponse(producto);
         }
@@ -66,6 +107,7 @@ public class ProductoService {
         // ACTUALIZAR PRODUCTO
         // =====================================================
 
+        @Transactional
         public ProductoResponse actualizar(UUID id, ProductoRequest request) {
 
                 Producto producto = productoRepository.findById(
@@ -87,10 +129,11 @@ public class ProductoService {
                         }
 
                         producto.cambiarPrecio(
-                                        Money.pesos(request.precio().doubleValue()));
+                                        Money.pesos(request.precio()));
                 }
 
                 productoRepository.save(producto);
+                invalidarCache(id);
 
                 return toResponse(producto);
         }
@@ -99,6 +142,7 @@ public class ProductoService {
         // ACTIVAR PRODUCTO
         // =====================================================
 
+        @Transactional
         public void activar(UUID id) {
 
                 Producto producto = productoRepository.findById(
@@ -109,12 +153,14 @@ public class ProductoService {
 
                 producto.activar();
                 productoRepository.save(producto);
+                invalidarCache(id);
         }
 
         // =====================================================
         // DESACTIVAR PRODUCTO
         // =====================================================
 
+        @Transactional
         public void desactivar(UUID id) {
 
                 Producto producto = productoRepository.findById(
@@ -125,12 +171,124 @@ public class ProductoService {
 
                 producto.desactivar();
                 productoRepository.save(producto);
+                invalidarCache(id);
+        }
+
+        /**
+         * Libera las respuestas serializadas del producto y de los listados del catálogo.
+         * Las entradas están ligadas a la versión, así que esto solo
+         * adelanta la liberación de memoria.
+         */
+        public void invalidarCache(UUID id) {
+                invalidarCache(List.of(id));
+        }
+
+        public void invalidarCache(Collection<UUID> ids) {
+                ids.forEach(id -> cacheRespuestas.invalidar(RECURSO_PRODUCTO, id.toString()));
+                cacheRespuestas.invalidarRecurso(RECURSO_CATALOGO);
+        }
+
+        // =====================================================
+        // OPERACIONES MASIVAS
+        // =====================================================
+
+        // El rango del porcentaje y el monto distinto de cero se validan en CambioPrecioMasivoRequest
+        public OperacionMasivaResponse cambiarPrecioMasivo(CambioPrecioMasivoRequest request) {
+
+                BigDecimal valor = request.valor();
+
+                if (request.tipo() == CambioPrecioMasivoRequest.TipoAjuste.PORCENTAJE) {
+                        BigDecimal factor = BigDecimal.ONE.add(valor.movePointLeft(2));
+                        return ejecutarPorLotes(request.seleccion(), "PRECIO",
+                                        ids -> productoRepository.ajustarPrecioPorFactor(ids, factor));
+                }
+
+                return ejecutarPorLotes(request.seleccion(), "PRECIO",
+                                ids -> productoRepository.ajustarPrecioPorMonto(ids, valor));
+        }
+
+        public OperacionMasivaResponse cambiarDisponibilidadMasivo(SeleccionProductosRequest seleccion,
+                        boolean disponible) {
+
+                return ejecutarPorLotes(seleccion, disponible ? "ACTIVAR" : "DESACTIVAR",
+                                ids -> productoRepository.cambiarDisponibilidad(ids, disponible));
+        }
+
+        /**
+         * Recorre la selección en lotes acotados. Cada lote se actualiza con
+         * un UPDATE por conjuntos en su propia transacción (bloqueos cortos)
+         * y, si cambió algo, publica una sola notificación con sus ids.
+         */
+        private OperacionMasivaResponse ejecutarPorLotes(SeleccionProductosRequest seleccion,
+                        String operacion,
+                        ToIntFunction<List<ProductoId>> actualizacion) {
+
+                long seleccionados = 0;
+                long actualizados = 0;
+                int lotes = 0;
+
+                if (seleccion.categoriaId() != null) {
+
+                        CategoriaId categoriaId = new CategoriaId(seleccion.categoriaId());
+                        ProductoId ultimo = null;
+                        List<ProductoId> lote;
+
+                        do {
+                                lote = productoRepository.findIdsByCategoria(categoriaId, ultimo, TAMANO_LOTE_MASIVO);
+                                if (lote.isEmpty()) {
+                                        break;
+                                }
+                                seleccionados += lote.size();
+                                actualizados += actualizarLote(lote, operacion, actualizacion);
+                                lotes++;
+                                ultimo = lote.get(lote.size() - 1);
+                        } while (lote.size() == TAMANO_LOTE_MASIVO);
+
+                } else {
+
+                        List<ProductoId> ids = seleccion.productoIds().stream()
+                                        .distinct()
+                                        .map(ProductoId::new)
+                                        .toList();
+
+                        for (int inicio = 0; inicio < ids.size(); inicio += TAMANO_LOTE_MASIVO) {
+                                List<ProductoId> lote = productoRepository.findExistentes(
+                                                ids.subList(inicio, Math.min(inicio + TAMANO_LOTE_MASIVO, ids.size())));
+                                if (lote.isEmpty()) {
+                                        continue;
+                                }
+                                seleccionados += lote.size();
+                                actualizados += actualizarLote(lote, operacion, actualizacion);
+                                lotes++;
+                        }
+                }
+
+                return new OperacionMasivaResponse(seleccionados, actualizados, seleccionados - actualizados, lotes);
+        }
+
+        private int actualizarLote(List<ProductoId> lote,
+                        String operacion,
+                        ToIntFunction<List<ProductoId>> actualizacion) {
+
+                Integer filas = transactionTemplate.execute(status -> actualizacion.applyAsInt(lote));
+                int actualizadas = filas != null ? filas : 0;
+
+                // Una notificación por lote, después del commit
+                if (actualizadas > 0) {
+                        eventPublisher.publishEvent(new ProductosActualizadosEvent(
+                                        UUID.randomUUID(),
+                                        Instant.now(),
+                                        operacion,
+                                        lote.stream().map(ProductoId::valor).toList()));
+                }
+                return actualizadas;
         }
 
         // =====================================================
         // OBTENER POR ID
         // =====================================================
 
+        @Transactional(readOnly = true)
         public ProductoResponse obtenerPorId(UUID id) {
 
                 Producto producto = productoRepository.findById(
@@ -142,10 +300,29 @@ public class ProductoService {
                 return toResponse(producto);
         }
 
+        // =====================================================
+        // VERSIONES (PETICIONES CONDICIONALES)
+        // =====================================================
+
+        @Transactional(readOnly = true)
+        public VersionRecurso obtenerVersion(UUID id) {
+
+                return productoRepository.findVersionById(new ProductoId(id))
+                                .orElseThrow(() -> new BusinessRuleException(
+                                                "PRODUCTO_NO_ENCONTRADO",
+                                                "El producto no existe"));
+        }
+
+        @Transactional(readOnly = true)
+        public VersionRecurso obtenerVersionCatalogo() {
+                return productoRepository.findVersionColeccion();
+        }
+
         // =====================================================
         // LISTAR TODOS
         // =====================================================
 
+        @Transactional(readOnly = true)
         public List<ProductoResponse> listar() {
 
                 return productoRepository.findAll()
@@ -154,6 +331,46 @@ public class ProductoService {
                                 .collect(Collectors.toList());
         }
 
+        @Transactional(readOnly = true)
+        public List<ProductoResponse> listarPorCategoria(UUID categoriaId) {
+
+                return productoRepository.findByCategoriaId(new CategoriaId(categoriaId))
+                                .stream()
+                                .map(this::toResponse)
+                                .collect(Collectors.toList());
+        }
+
+        // =====================================================
+        // EXPORTAR CATÁLOGO (NDJSON)
+        // =====================================================
+
+        /**
+         * Escribe el catálogo completo como NDJSON (un producto por línea).
+         *
+         * Los productos se leen con un cursor y se escriben conforme llegan,
+         * por lo que la memoria usada no depende del tamaño del catálogo.
+         * El flujo de salida no se cierra (lo gestiona el llamador).
+         *
+         * @return número de productos exportados
+         */
+        @Transactional(readOnly = true)
+        public long exportarNdjson(OutputStream salida) throws IOException {
+
+                BufferedOutputStream buffer = new BufferedOutputStream(salida, 64 * 1024);
+                long total = 0;
+
+                try (Stream<Producto> productos = productoRepository.streamAll()) {
+                        for (Producto producto : (Iterable<Producto>) productos::iterator) {
+                                productoWriter.writeValue(buffer, toResponse(producto));
+                                buffer.write('\n');
+                                total++;
+                        }
+                }
+
+                buffer.flush();
+                return total;
+        }
+
         // =====================================================
         // MAPPER DOMAIN → DTO
         // =====================================================
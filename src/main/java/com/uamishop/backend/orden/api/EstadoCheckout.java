@@ -0,0 +1,31 @@
+// Estado de una solicitud de checkout asíncrono (GET /api/v2/ordenes/checkout/{id}).
+
+package com.uamishop.backend.orden.api;
+
+import com.uamishop.backend.orden.domain.SolicitudCheckout;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record EstadoCheckout(
+        UUID solicitudId,
+        UUID carritoId,
+        String estado, // PENDIENTE | COMPLETADA | FALLIDA
+        UUID ordenId, // solo COMPLETADA
+        String error, // último error (FALLIDA, o PENDIENTE en espera de reintento)
+        int intentos,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaActualizacion) {
+
+    public static EstadoCheckout desde(SolicitudCheckout solicitud) {
+        return new EstadoCheckout(
+                solicitud.getId(),
+                solicitud.getCarritoId(),
+                solicitud.getEstado().name(),
+                solicitud.getOrdenId(),
+                solicitud.getError(),
+                solicitud.getIntentos(),
+                solicitud.getFechaCreacion(),
+                solicitud.getFechaActualizacion());
+    }
+}
@@ -0,0 +1,25 @@
+// Filtros de la exportación de órdenes (GET /api/v2/ordenes/exportar).
+
+package com.uamishop.backend.orden.api;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+
+import java.time.LocalDate;
+
+/**
+ * Órdenes creadas entre desde y hasta (inclusive), opcionalmente en un estado.
+ * Se valida al construirse, antes de empezar a escribir la respuesta.
+ */
+public record FiltroExportacion(
+        LocalDate desde,
+        LocalDate hasta,
+        EstadoOrden estado, // null: todos
+        boolean incluirArchivadas) {
+
+    public FiltroExportacion {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new BusinessRuleException("RANGO_INVALIDO", "desde y hasta son obligatorios y desde <= hasta");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+// Página del historial de estados de una orden (del cambio más antiguo al más reciente).
+
+package com.uamishop.backend.orden.api;
+
+import com.uamishop.backend.orden.domain.CambioEstado;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record HistorialOrden(
+        UUID ordenId,
+        int pagina,
+        int tamano,
+        boolean hayMas,
+        List<Cambio> cambios) {
+
+    public record Cambio(
+            int secuencia,
+            String estadoAnterior,
+            String estadoNuevo,
+            String motivo,
+            LocalDateTime fechaCambio) {
+
+        public static Cambio desde(CambioEstado cambio) {
+            return new Cambio(
+                    cambio.getSecuencia(),
+                    cambio.getEstadoAnterior().name(),
+                    cambio.getEstadoNuevo().name(),
+                    cambio.getMotivo(),
+                    cambio.getFechaCambio());
+        }
+    }
+}
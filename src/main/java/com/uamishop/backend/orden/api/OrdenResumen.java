@@ -16,7 +16,8 @@ public record OrdenResumen(
         Money subtotal,
         Money descuento,
         Money total,
-        LocalDateTime fechaCreacion) {
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaActualizacion) {
 
     /** Factory: construye un OrdenResumen a partir de la entidad de dominio. */
     public static OrdenResumen desde(Orden orden) {
@@ -24,9 +25,10 @@ public record OrdenResumen(
                 orden.getId().valor(),
                 orden.getClienteId(),
                 orden.getEstado().name(),
-                orden.calcularSubtotal(),
+                orden.getSubtotal(),
                 orden.getDescuento(),
                 orden.getTotal(),
-                orden.getFechaCreacion());
+                orden.getFechaCreacion(),
+                orden.getFechaActualizacion());
     }
 }
@@ -6,25 +6,82 @@ package com.uamishop.backend.orden.api;
 
 
 import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.shared.domain.VersionRecurso;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
 
 public interface OrdenesApi {
 
+    /** Formatos aceptados por aplicarTransiciones */
+    enum FormatoTransiciones {
+        JSON, // arreglo JSON
+        NDJSON // un objeto por línea
+    }
+
+    /** Formatos de salida de exportar */
+    enum FormatoExportacion {
+        CSV, // con encabezado
+        NDJSON // un objeto por línea
+    }
+
     // ── Consultas ─────────────────────────────────────────────────────────────
 
     /** Devuelve el resumen público de una orden por su ID. */
     OrdenResumen obtenerOrden(UUID ordenId);
 
-    /** Devuelve el resumen público de todas las órdenes. */
+    /**
+     * Igual que obtenerOrden; con incluirArchivadas, si la orden ya no está
+     * entre las vigentes se busca en el archivo (órdenes cerradas antiguas).
+     */
+    OrdenResumen obtenerOrden(UUID ordenId, boolean incluirArchivadas);
+
+    /**
+     * Devuelve la versión persistida de una orden (ETag / Last-Modified)
+     * sin cargar el agregado.
+     */
+    VersionRecurso obtenerVersion(UUID ordenId);
+
+    /** Igual que obtenerVersion; con incluirArchivadas también busca en el archivo. */
+    VersionRecurso obtenerVersion(UUID ordenId, boolean incluirArchivadas);
+
+    /** Devuelve el resumen público de todas las órdenes, de la más reciente a la más antigua. */
     List<OrdenResumen> listarOrdenes();
 
+    /**
+     * Órdenes de un cliente y/o en un estado, de la más reciente a la más antigua.
+     * Un filtro nulo no restringe.
+     */
+    List<OrdenResumen> buscarOrdenes(UUID clienteId, EstadoOrden estado);
+
+    /**
+     * Igual que buscarOrdenes; con incluirArchivadas agrega las órdenes
+     * archivadas que cumplan los filtros, en el mismo orden.
+     */
+    List<OrdenResumen> buscarOrdenes(UUID clienteId, EstadoOrden estado, boolean incluirArchivadas);
+
     /**
      * Devuelve la lista de filas de datos (vista ampliada) de todas las órdenes.
+     * Arma la lista completa en memoria; para volúmenes grandes usar exportar.
      */
     List<DatosResumen> listarDatos();
 
+    /**
+     * Página del historial de estados de una orden, del cambio más antiguo al
+     * más reciente. No carga la orden.
+     */
+    HistorialOrden obtenerHistorial(UUID ordenId, int pagina, int tamano);
+
+    /**
+     * Igual que obtenerHistorial; con incluirArchivadas, si la orden ya no está
+     * entre las vigentes, lee su historial de historial_estados_archivo.
+     */
+    HistorialOrden obtenerHistorial(UUID ordenId, int pagina, int tamano, boolean incluirArchivadas);
+
     // ── Comandos ──────────────────────────────────────────────────────────────
 
     /** Crea una orden vacía para un cliente. */
@@ -33,6 +90,17 @@ public interface OrdenesApi {
     /** Crea una orden a partir de un carrito existente. */
     OrdenResumen crearDesdeCarrito(UUID carritoId, DireccionEnvio direccionEnvio);
 
+    /**
+     * Solicita crear la orden de un carrito sin esperar a que termine.
+     * Con orden.checkout-asincrono.habilitado la solicitud queda en cola y
+     * la procesa un hilo de ProcesadorCheckout; sin él, la orden se crea en
+     * esta misma llamada y la solicitud vuelve ya COMPLETADA.
+     */
+    EstadoCheckout encolarCheckout(UUID carritoId, DireccionEnvio direccionEnvio);
+
+    /** Estado de una solicitud de checkout; ResourceNotFoundException si no existe. */
+    EstadoCheckout obtenerCheckout(UUID solicitudId);
+
     /** Confirma una orden en estado PENDIENTE. */
     OrdenResumen confirmar(UUID ordenId);
 
@@ -50,4 +118,23 @@ public interface OrdenesApi {
 
     /** Cancela una orden indicando el motivo. */
     OrdenResumen cancelar(UUID ordenId, String motivo);
+
+    /**
+     * Aplica en lote transiciones de fulfilment ({ordenId, transicion, guia}).
+     * La entrada se lee en streaming y se procesa por lotes en paralelo;
+     * una entrada inválida no detiene las demás y queda en el reporte.
+     *
+     * @param entrada contenido del cuerpo (no se cierra)
+     */
+    ReporteTransiciones aplicarTransiciones(InputStream entrada, FormatoTransiciones formato) throws IOException;
+
+    /**
+     * Escribe las órdenes que cumplen el filtro conforme se leen de la base,
+     * por fecha de creación; las archivadas, si se piden, van después de las
+     * vigentes. La memoria usada no depende del número de órdenes.
+     *
+     * @param salida destino (no se cierra)
+     * @return número de órdenes exportadas
+     */
+    long exportar(FiltroExportacion filtro, FormatoExportacion formato, OutputStream salida) throws IOException;
 }
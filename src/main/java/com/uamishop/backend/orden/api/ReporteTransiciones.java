@@ -0,0 +1,40 @@
+// Reporte de una aplicación masiva de transiciones: totales y resultado por orden.
+// Los resultados van en el orden de la entrada (posicion = elemento del arreglo o línea NDJSON).
+
+package com.uamishop.backend.orden.api;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ReporteTransiciones(
+        long procesadas,
+        long aplicadas,
+        long sinCambios,
+        long rechazadas,
+        List<ResultadoTransicion> resultados) {
+
+    public enum Resultado {
+        APLICADA,
+        SIN_CAMBIOS, // la orden ya estaba en el estado destino (reenvío de una confirmación)
+        RECHAZADA
+    }
+
+    /**
+     * @param posicion   posición de la entrada (1 = primera)
+     * @param ordenId    orden solicitada (null si la entrada no se pudo leer)
+     * @param transicion transición solicitada
+     * @param resultado  qué pasó con la entrada
+     * @param estado     estado de la orden tras procesar la entrada (null si no existe)
+     * @param mensaje    motivo del rechazo o de que no hubiera cambios
+     */
+    public record ResultadoTransicion(
+            long posicion,
+            UUID ordenId,
+            TransicionOrden transicion,
+            Resultado resultado,
+            EstadoOrden estado,
+            String mensaje) {
+    }
+}
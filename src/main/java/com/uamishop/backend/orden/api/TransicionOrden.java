@@ -0,0 +1,21 @@
+// Transiciones de fulfilment que se pueden aplicar en lote (almacenes y paqueterías).
+
+package com.uamishop.backend.orden.api;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+
+public enum TransicionOrden {
+    MARCAR_EN_PROCESO(EstadoOrden.PREPARACION),
+    MARCAR_ENVIADA(EstadoOrden.ENVIADA), // requiere guía
+    MARCAR_ENTREGADA(EstadoOrden.ENTREGADA);
+
+    private final EstadoOrden estadoDestino;
+
+    TransicionOrden(EstadoOrden estadoDestino) {
+        this.estadoDestino = estadoDestino;
+    }
+
+    public EstadoOrden estadoDestino() {
+        return estadoDestino;
+    }
+}
@@ -0,0 +1,247 @@
+package com.uamishop.backend.orden.archivo;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mueve las órdenes cerradas (ENTREGADA o CANCELADA) cuya última
+ * modificación es anterior a orden.archivo.retencion a tablas de archivo:
+ *
+ *   ordenes           -> ordenes_archivo
+ *   items_orden       -> items_orden_archivo       (+ fecha_creacion_orden)
+ *   historial_estados -> historial_estados_archivo (+ fecha_creacion_orden)
+ *   orden_resumen     -> orden_resumen_archivo     (OrdenResumenArchivada)
+ *
+ * Así las tablas vigentes y sus índices solo crecen con las órdenes activas
+ * y las recientes. Cada lote (orden.archivo.tamano-lote órdenes) se copia y
+ * se borra en una sola transacción; entre lotes hay una pausa para no
+ * acaparar la base. Si otro nodo archiva las mismas órdenes a la vez, el
+ * borrado no cuadra, el lote se revierte y la corrida termina.
+ *
+ * Las tablas de archivo se crean al arrancar con las columnas de las
+ * vigentes, sin llaves foráneas. Si después se agrega una columna a una
+ * tabla vigente, hay que agregarla también a su archivo: mientras falte,
+ * archivar falla en lugar de perder datos. Con
+ * orden.archivo.particiones-mensuales (MySQL) se particionan por mes de
+ * creación de la orden; ver ParticionesMensuales.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ArchivadorOrdenes {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivadorOrdenes.class);
+
+    static final List<String> ESTADOS_CERRADOS = List.of(EstadoOrden.ENTREGADA.name(), EstadoOrden.CANCELADA.name());
+
+    // Tablas con la fecha de la orden para particionar; las hijas la copian de ordenes
+    private static final String FECHA_ORDEN = "fecha_creacion_orden";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final Duration retencion;
+    private final int tamanoLote;
+    private final Duration pausaEntreLotes;
+    private final Duration intervalo;
+    private final boolean habilitado;
+    private final ParticionesMensuales particiones;
+    private ScheduledExecutorService programador;
+
+    public ArchivadorOrdenes(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+            @Value("${orden.archivo.habilitado:true}") boolean habilitado,
+            @Value("${orden.archivo.retencion:90d}") Duration retencion,
+            @Value("${orden.archivo.intervalo:1h}") Duration intervalo,
+            @Value("${orden.archivo.tamano-lote:500}") int tamanoLote,
+            @Value("${orden.archivo.pausa-entre-lotes:200ms}") Duration pausaEntreLotes,
+            @Value("${orden.archivo.particiones-mensuales:false}") boolean particionesMensuales) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("orden.archivo.tamano-lote debe ser positivo");
+        }
+        this.jdbc = jdbc;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.retencion = retencion;
+        this.intervalo = intervalo;
+        this.tamanoLote = tamanoLote;
+        this.pausaEntreLotes = pausaEntreLotes;
+        this.particiones = particionesMensuales ? new ParticionesMensuales(jdbc) : null;
+    }
+
+    /**
+     * Crea las tablas de archivo que falten y, si está habilitado, programa
+     * el archivado cada orden.archivo.intervalo (la primera corrida, un
+     * intervalo después de arrancar).
+     */
+    @PostConstruct
+    void preparar() {
+        crearSiFalta("ordenes_archivo", "select * from ordenes where 1 = 0", "id", "fecha_creacion");
+        crearSiFalta("items_orden_archivo", "select h.*, o.fecha_creacion as " + FECHA_ORDEN
+                + " from items_orden h join ordenes o on o.id = h.orden_id where 1 = 0", "orden_id", FECHA_ORDEN);
+        crearSiFalta("historial_estados_archivo", "select h.*, o.fecha_creacion as " + FECHA_ORDEN
+                + " from historial_estados h join ordenes o on o.id = h.orden_id where 1 = 0", "orden_id", FECHA_ORDEN);
+
+        if (habilitado) {
+            programador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "archivador-ordenes");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            programador.scheduleWithFixedDelay(this::archivarProgramado,
+                    intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        if (programador != null) {
+            programador.shutdownNow();
+        }
+    }
+
+    /**
+     * Archiva, lote por lote, todas las órdenes cerradas fuera de la retención.
+     *
+     * @return número de órdenes archivadas
+     */
+    public synchronized long archivar() {
+        LocalDateTime corte = LocalDateTime.now().minus(retencion);
+        if (particiones != null) {
+            particiones.asegurarHasta("ordenes_archivo", corte);
+            particiones.asegurarHasta("items_orden_archivo", corte);
+            particiones.asegurarHasta("historial_estados_archivo", corte);
+        }
+
+        long archivadas = 0;
+        while (true) {
+            int lote;
+            try {
+                lote = transacciones.execute(status -> archivarLote(corte));
+            } catch (OptimisticLockingFailureException e) {
+                log.info("Archivado interrumpido: {}", e.getMessage());
+                break;
+            }
+            archivadas += lote;
+            if (lote < tamanoLote) {
+                break;
+            }
+            try {
+                Thread.sleep(pausaEntreLotes.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (archivadas > 0) {
+            log.info("Archivadas {} órdenes cerradas antes de {}", archivadas, corte);
+        }
+        return archivadas;
+    }
+
+    private void archivarProgramado() {
+        try {
+            archivar();
+        } catch (RuntimeException e) {
+            // Sin capturar, el programador dejaría de ejecutar las siguientes corridas
+            log.error("Falló el archivado de órdenes", e);
+        }
+    }
+
+    private int archivarLote(LocalDateTime corte) {
+        List<Object> ids = jdbc.queryForList(
+                "select id from ordenes where estado in (?, ?) and fecha_actualizacion < ? "
+                        + "order by fecha_actualizacion limit ?",
+                Object.class, ESTADOS_CERRADOS.get(0), ESTADOS_CERRADOS.get(1), Timestamp.valueOf(corte), tamanoLote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String marcadores = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Object[] parametros = ids.toArray();
+
+        // Primero las copias: las hijas toman la fecha de la orden, que aún existe
+        copiar("ordenes", "ordenes_archivo", "id", false, marcadores, parametros);
+        copiar("items_orden", "items_orden_archivo", "orden_id", true, marcadores, parametros);
+        copiar("historial_estados", "historial_estados_archivo", "orden_id", true, marcadores, parametros);
+        copiar("orden_resumen", "orden_resumen_archivo", "orden_id", false, marcadores, parametros);
+
+        jdbc.update("delete from orden_resumen where orden_id in (" + marcadores + ")", parametros);
+        jdbc.update("delete from historial_estados where orden_id in (" + marcadores + ")", parametros);
+        jdbc.update("delete from items_orden where orden_id in (" + marcadores + ")", parametros);
+        List<Object> conEstados = new ArrayList<>(ids);
+        conEstados.addAll(ESTADOS_CERRADOS);
+        int borradas = jdbc.update("delete from ordenes where id in (" + marcadores + ") and estado in (?, ?)",
+                conEstados.toArray());
+        if (borradas != ids.size()) {
+            throw new OptimisticLockingFailureException("se archivaron o modificaron " + (ids.size() - borradas)
+                    + " de " + ids.size() + " órdenes del lote en otra transacción");
+        }
+        return borradas;
+    }
+
+    private void copiar(String origen, String archivo, String llave, boolean conFechaOrden,
+            String marcadores, Object[] ids) {
+        List<String> columnas = columnas(origen);
+        List<String> faltantes = new ArrayList<>(columnas);
+        faltantes.removeAll(columnas(archivo));
+        if (!faltantes.isEmpty()) {
+            throw new IllegalStateException("La tabla " + archivo + " no tiene las columnas " + faltantes
+                    + " de " + origen + "; agréguelas antes de archivar");
+        }
+        String destino = String.join(", ", columnas);
+        String seleccion = "h." + String.join(", h.", columnas);
+        String sql = conFechaOrden
+                ? "insert into " + archivo + " (" + destino + ", " + FECHA_ORDEN + ") select " + seleccion
+                        + ", o.fecha_creacion from " + origen + " h join ordenes o on o.id = h.orden_id"
+                        + " where h." + llave + " in (" + marcadores + ")"
+                : "insert into " + archivo + " (" + destino + ") select " + seleccion
+                        + " from " + origen + " h where h." + llave + " in (" + marcadores + ")";
+        jdbc.update(sql, ids);
+    }
+
+    private List<String> columnas(String tabla) {
+        return jdbc.query("select * from " + tabla + " where 1 = 0", rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            List<String> nombres = new ArrayList<>(meta.getColumnCount());
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                nombres.add(meta.getColumnLabel(i).toLowerCase(Locale.ROOT));
+            }
+            return nombres;
+        });
+    }
+
+    private void crearSiFalta(String tabla, String seleccion, String columnaIndice, String columnaParticion) {
+        try {
+            jdbc.queryForObject("select count(*) from " + tabla + " where 1 = 0", Long.class);
+            return;
+        } catch (BadSqlGrammarException e) {
+            // No existe todavía
+        }
+        jdbc.execute("create table " + tabla + " as " + seleccion);
+        jdbc.execute("create index idx_" + tabla + "_" + columnaIndice + " on " + tabla + " (" + columnaIndice + ")");
+        if (particiones != null) {
+            particiones.particionar(tabla, columnaParticion);
+        }
+        log.info("Creada la tabla de archivo {}", tabla);
+    }
+}
@@ -0,0 +1,71 @@
+package com.uamishop.backend.orden.archivo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Particiones por rango mensual (MySQL, RANGE COLUMNS) de las tablas de archivo.
+ *
+ * Cada tabla arranca con una sola partición pmax (MAXVALUE). Antes de cada
+ * corrida del archivador se parte pmax para crear la partición del mes del
+ * corte y las que falten entre la última y esa; como solo se archivan
+ * órdenes anteriores al corte, pmax está vacía y partirla es inmediato.
+ * La primera partición recoge además todo lo anterior a su mes.
+ *
+ * Purgar un mes de archivo es entonces un ALTER TABLE ... DROP PARTITION
+ * p202401, sin recorrer filas.
+ *
+ * Las tablas vigentes no se particionan: MySQL no admite llaves foráneas en
+ * tablas particionadas y exige la columna de partición en toda llave única
+ * (id, numero_orden). Su tamaño lo acota el archivado.
+ */
+final class ParticionesMensuales {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionesMensuales.class);
+
+    private static final DateTimeFormatter MES = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PMAX = "pmax";
+
+    private final JdbcTemplate jdbc;
+
+    ParticionesMensuales(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Particiona una tabla recién creada (vacía) por la columna de fecha. */
+    void particionar(String tabla, String columna) {
+        jdbc.execute("alter table " + tabla + " partition by range columns (" + columna + ") "
+                + "(partition " + PMAX + " values less than (maxvalue))");
+    }
+
+    /** Crea las particiones mensuales que falten hasta la del mes de la fecha dada. */
+    void asegurarHasta(String tabla, LocalDateTime fecha) {
+        List<String> nombres = jdbc.queryForList(
+                "select partition_name from information_schema.partitions "
+                        + "where table_schema = database() and table_name = ? and partition_name is not null",
+                String.class, tabla);
+        if (!nombres.contains(PMAX)) {
+            log.warn("La tabla {} no está particionada por mes; se archiva sin particiones", tabla);
+            return;
+        }
+        YearMonth hasta = YearMonth.from(fecha);
+        YearMonth mes = nombres.stream()
+                .filter(nombre -> !nombre.equals(PMAX))
+                .map(nombre -> YearMonth.parse(nombre.substring(1), MES))
+                .max(YearMonth::compareTo)
+                .map(ultima -> ultima.plusMonths(1))
+                .orElse(hasta);
+        for (; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            jdbc.execute("alter table " + tabla + " reorganize partition " + PMAX + " into ("
+                    + "partition p" + mes.format(MES) + " values less than ('" + mes.plusMonths(1).atDay(1) + "'), "
+                    + "partition " + PMAX + " values less than (maxvalue))");
+            log.info("Creada la partición p{} de {}", mes.format(MES), tabla);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Proyección de una fila de resumen para la exportación. Se construye en la
+ * consulta (select new), así que no pasa por el contexto de persistencia.
+ */
+public record FilaExportacionOrden(
+        String numeroOrden,
+        UUID ordenId,
+        UUID clienteId,
+        EstadoOrden estado,
+        LocalDateTime fechaCreacion,
+        BigDecimal total,
+        String moneda,
+        int items,
+        String direccion,
+        String telefono,
+        String metodoPago,
+        String formaPago) {
+
+    // La consulta entrega el total en centavos (Money.cantidad, ver CentavosConverter)
+    public FilaExportacionOrden(String numeroOrden, UUID ordenId, UUID clienteId, EstadoOrden estado,
+            LocalDateTime fechaCreacion, Long totalCentavos, String moneda, int items, String direccion,
+            String telefono, String metodoPago, String formaPago) {
+        this(numeroOrden, ordenId, clienteId, estado, fechaCreacion,
+                totalCentavos != null ? BigDecimal.valueOf(totalCentavos, 2) : null,
+                moneda, items, direccion, telefono, metodoPago, formaPago);
+    }
+}
@@ -0,0 +1,160 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.api.DatosResumen;
+import com.uamishop.backend.orden.api.OrdenResumen;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.domain.ResumenPago;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columnas de una fila de resumen de orden, compartidas por orden_resumen
+ * (órdenes vigentes) y orden_resumen_archivo (órdenes archivadas).
+ */
+@MappedSuperclass
+public abstract class FilaOrdenResumen {
+
+    @Id
+    @Column(name = "orden_id")
+    private UUID ordenId;
+
+    @Column(name = "numero_orden")
+    private String numeroOrden;
+
+    @Column(name = "cliente_id", nullable = false)
+    private UUID clienteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoOrden estado;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "cantidad", column = @Column(name = "subtotal_monto")),
+            @AttributeOverride(name = "moneda", column = @Column(name = "subtotal_moneda"))
+    })
+    private Money subtotal;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "cantidad", column = @Column(name = "descuento_monto")),
+            @AttributeOverride(name = "moneda", column = @Column(name = "descuento_moneda"))
+    })
+    private Money descuento;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "cantidad", column = @Column(name = "total_monto")),
+            @AttributeOverride(name = "moneda", column = @Column(name = "total_moneda"))
+    })
+    private Money total;
+
+    @Column(name = "items")
+    private int items;
+
+    // ── Campos de DatosResumen, ya formateados ──
+
+    @Column(name = "direccion")
+    private String direccion;
+
+    @Column(name = "telefono")
+    private String telefono;
+
+    @Column(name = "metodo_pago")
+    private String metodoPago;
+
+    @Column(name = "forma_pago")
+    private String formaPago;
+
+    @Column(name = "fecha", length = 10)
+    private String fecha;
+
+    @Column(name = "hora", length = 18)
+    private String hora;
+
+    // ── Fechas y versión de la orden (ETag de /api/v2/ordenes/{id}) ──
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    @Column(name = "version_orden", nullable = false)
+    private long versionOrden;
+
+    protected FilaOrdenResumen() {
+    }
+
+    FilaOrdenResumen(UUID ordenId) {
+        this.ordenId = ordenId;
+    }
+
+    /**
+     * Copia el estado actual del agregado. La orden debe estar ya
+     * sincronizada con la base (flush) para que versión y fecha coincidan.
+     */
+    void actualizar(Orden orden) {
+        this.numeroOrden = orden.getNumeroOrden();
+        this.clienteId = orden.getClienteId();
+        this.estado = orden.getEstado();
+        this.subtotal = orden.getSubtotal();
+        this.descuento = orden.getDescuento();
+        this.total = orden.getTotal();
+        this.items = orden.getItems().size();
+        this.fechaCreacion = orden.getFechaCreacion();
+        this.fechaActualizacion = orden.getFechaActualizacion();
+        this.versionOrden = orden.getVersion();
+
+        DireccionEnvio dir = orden.getDireccionEnvio();
+        this.direccion = dir != null ? dir.toString() : "";
+        this.telefono = dir != null ? dir.getTelefonoContacto() : "";
+
+        ResumenPago pago = orden.getResumenPago();
+        this.metodoPago = pago != null && pago.getMetodoPago() != null ? pago.getMetodoPago() : "";
+        this.formaPago = pago != null && pago.getReferenciaExterna() != null ? pago.getReferenciaExterna() : "";
+
+        this.fecha = fechaCreacion != null ? fechaCreacion.toLocalDate().toString() : "";
+        this.hora = fechaCreacion != null ? fechaCreacion.toLocalTime().toString() : "";
+    }
+
+    public OrdenResumen aResumen() {
+        return new OrdenResumen(ordenId, clienteId, estado.name(), subtotal, descuento, total,
+                fechaCreacion, fechaActualizacion);
+    }
+
+    public DatosResumen aDatos() {
+        return new DatosResumen(
+                clienteId,
+                "", // nombre – no disponible en la orden
+                "", // apellido – no disponible en la orden
+                estado.name(),
+                direccion,
+                telefono,
+                metodoPago,
+                formaPago,
+                fecha,
+                hora);
+    }
+
+    public VersionRecurso aVersion() {
+        return new VersionRecurso(ordenId, versionOrden, fechaActualizacion);
+    }
+
+    public UUID getOrdenId() {
+        return ordenId;
+    }
+}
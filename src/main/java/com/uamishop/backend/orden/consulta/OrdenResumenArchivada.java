@@ -0,0 +1,24 @@
+package com.uamishop.backend.orden.consulta;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Fila de resumen de una orden archivada (ArchivadorOrdenes la mueve aquí
+ * desde orden_resumen junto con la orden). Solo lectura; las consultas la
+ * usan únicamente cuando se piden órdenes archivadas.
+ */
+@Entity
+@Immutable
+@Table(name = "orden_resumen_archivo", indexes = {
+        @Index(name = "idx_orden_resumen_archivo_cliente", columnList = "cliente_id, fecha_creacion"),
+        @Index(name = "idx_orden_resumen_archivo_estado", columnList = "estado, fecha_creacion"),
+        @Index(name = "idx_orden_resumen_archivo_fecha", columnList = "fecha_creacion")
+})
+public class OrdenResumenArchivada extends FilaOrdenResumen {
+
+    protected OrdenResumenArchivada() {
+    }
+}
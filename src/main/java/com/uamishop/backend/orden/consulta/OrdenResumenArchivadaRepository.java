@@ -0,0 +1,47 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Consultas sobre orden_resumen_archivo; mismas formas que OrdenResumenVistaRepository.
+ */
+@Repository
+public interface OrdenResumenArchivadaRepository extends JpaRepository<OrdenResumenArchivada, UUID> {
+
+    List<OrdenResumenArchivada> findAllByOrderByFechaCreacionDesc();
+
+    List<OrdenResumenArchivada> findByClienteIdOrderByFechaCreacionDesc(UUID clienteId);
+
+    List<OrdenResumenArchivada> findByEstadoOrderByFechaCreacionDesc(EstadoOrden estado);
+
+    List<OrdenResumenArchivada> findByClienteIdAndEstadoOrderByFechaCreacionDesc(UUID clienteId, EstadoOrden estado);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.uamishop.backend.orden.consulta.FilaExportacionOrden(a.numeroOrden, a.ordenId, "
+            + "a.clienteId, a.estado, a.fechaCreacion, a.total.cantidad, a.total.moneda, a.items, "
+            + "a.direccion, a.telefono, a.metodoPago, a.formaPago) "
+            + "from OrdenResumenArchivada a where a.fechaCreacion >= :desde and a.fechaCreacion < :hasta "
+            + "order by a.fechaCreacion")
+    Stream<FilaExportacionOrden> exportar(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.uamishop.backend.orden.consulta.FilaExportacionOrden(a.numeroOrden, a.ordenId, "
+            + "a.clienteId, a.estado, a.fechaCreacion, a.total.cantidad, a.total.moneda, a.items, "
+            + "a.direccion, a.telefono, a.metodoPago, a.formaPago) "
+            + "from OrdenResumenArchivada a where a.fechaCreacion >= :desde and a.fechaCreacion < :hasta and a.estado = :estado "
+            + "order by a.fechaCreacion")
+    Stream<FilaExportacionOrden> exportarPorEstado(@Param("estado") EstadoOrden estado,
+            @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+}
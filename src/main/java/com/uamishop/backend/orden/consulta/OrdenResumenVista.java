@@ -0,0 +1,58 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.domain.Orden;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.util.UUID;
+
+/**
+ * Modelo de lectura de una orden: una fila por orden con lo que necesitan
+ * los listados (OrdenResumen y DatosResumen), ya formateado.
+ *
+ * Se escribe en la misma transacción que la orden (ProyeccionOrdenResumen),
+ * así que nunca va por detrás del agregado. Las consultas no tocan
+ * items_orden ni historial_estados: su costo no depende del tamaño de la orden.
+ */
+@Entity
+@Table(name = "orden_resumen", indexes = {
+        @Index(name = "idx_orden_resumen_cliente", columnList = "cliente_id, fecha_creacion"),
+        @Index(name = "idx_orden_resumen_estado", columnList = "estado, fecha_creacion"),
+        @Index(name = "idx_orden_resumen_fecha", columnList = "fecha_creacion")
+})
+public class OrdenResumenVista extends FilaOrdenResumen implements Persistable<UUID> {
+
+    // Las filas nuevas se insertan con persist, sin el SELECT previo de merge
+    @Transient
+    private boolean nueva;
+
+    protected OrdenResumenVista() {
+    }
+
+    OrdenResumenVista(Orden orden) {
+        super(orden.getId().valor());
+        this.nueva = true;
+        actualizar(orden);
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        this.nueva = false;
+    }
+
+    @Override
+    public UUID getId() {
+        return getOrdenId();
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+}
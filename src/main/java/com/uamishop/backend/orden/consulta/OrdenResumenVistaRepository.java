@@ -0,0 +1,58 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Consultas sobre orden_resumen; cada una usa uno de los índices de la tabla.
+ */
+@Repository
+public interface OrdenResumenVistaRepository extends JpaRepository<OrdenResumenVista, UUID> {
+
+    List<OrdenResumenVista> findAllByOrderByFechaCreacionDesc();
+
+    List<OrdenResumenVista> findByClienteIdOrderByFechaCreacionDesc(UUID clienteId);
+
+    List<OrdenResumenVista> findByEstadoOrderByFechaCreacionDesc(EstadoOrden estado);
+
+    List<OrdenResumenVista> findByClienteIdAndEstadoOrderByFechaCreacionDesc(UUID clienteId, EstadoOrden estado);
+
+    /**
+     * Filas creadas en [desde, hasta) como proyección, con un cursor de solo
+     * avance (fetchSize; en MySQL requiere useCursorFetch=true en la URL).
+     * El Stream debe consumirse dentro de una transacción y cerrarse.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.uamishop.backend.orden.consulta.FilaExportacionOrden(v.numeroOrden, v.ordenId, "
+            + "v.clienteId, v.estado, v.fechaCreacion, v.total.cantidad, v.total.moneda, v.items, "
+            + "v.direccion, v.telefono, v.metodoPago, v.formaPago) "
+            + "from OrdenResumenVista v where v.fechaCreacion >= :desde and v.fechaCreacion < :hasta "
+            + "order by v.fechaCreacion")
+    Stream<FilaExportacionOrden> exportar(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.uamishop.backend.orden.consulta.FilaExportacionOrden(v.numeroOrden, v.ordenId, "
+            + "v.clienteId, v.estado, v.fechaCreacion, v.total.cantidad, v.total.moneda, v.items, "
+            + "v.direccion, v.telefono, v.metodoPago, v.formaPago) "
+            + "from OrdenResumenVista v where v.fechaCreacion >= :desde and v.fechaCreacion < :hasta and v.estado = :estado "
+            + "order by v.fechaCreacion")
+    Stream<FilaExportacionOrden> exportarPorEstado(@Param("estado") EstadoOrden estado,
+            @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    /** Filas cuya orden ya no existe (solo en la reconstrucción). */
+    @Modifying
+    @Query("delete from OrdenResumenVista v where not exists (select 1 from Orden o where o.id = v.ordenId)")
+    int eliminarHuerfanas();
+}
@@ -0,0 +1,122 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene orden_resumen a partir del agregado Orden.
+ *
+ * - registrar: en la misma transacción que el comando, justo después de
+ *   guardar la orden; si la transacción se revierte, la fila también.
+ * - reconstruir: recorre todas las órdenes en lotes y rehace sus filas.
+ *   Se usa tras cargas que escriben ordenes por fuera de JPA (generador
+ *   de datos, migraciones) y al arrancar si las tablas no cuadran
+ *   (orden.resumen.reconstruir-al-arrancar).
+ */
+@Component
+public class ProyeccionOrdenResumen {
+
+    private static final Logger log = LoggerFactory.getLogger(ProyeccionOrdenResumen.class);
+
+    private static final int TAMANO_LOTE = 500;
+
+    private final OrdenResumenVistaRepository vistaRepository;
+    private final OrdenJpaRepository ordenRepository;
+    private final TransactionTemplate transacciones;
+    private final boolean reconstruirAlArrancar;
+
+    public ProyeccionOrdenResumen(OrdenResumenVistaRepository vistaRepository,
+            OrdenJpaRepository ordenRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${orden.resumen.reconstruir-al-arrancar:true}") boolean reconstruirAlArrancar) {
+        this.vistaRepository = vistaRepository;
+        this.ordenRepository = ordenRepository;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.reconstruirAlArrancar = reconstruirAlArrancar;
+    }
+
+    /**
+     * Inserta o actualiza la fila de una orden ya sincronizada con la base.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Orden orden) {
+        vistaRepository.findById(orden.getId().valor())
+                .ifPresentOrElse(
+                        vista -> vista.actualizar(orden),
+                        () -> vistaRepository.save(new OrdenResumenVista(orden)));
+    }
+
+    /**
+     * Igual que registrar, para varias órdenes con una sola lectura de sus filas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarLote(Collection<Orden> ordenes) {
+        List<UUID> ids = ordenes.stream().map(orden -> orden.getId().valor()).toList();
+        Map<UUID, OrdenResumenVista> existentes = vistaRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(OrdenResumenVista::getOrdenId, Function.identity()));
+        for (Orden orden : ordenes) {
+            OrdenResumenVista vista = existentes.get(orden.getId().valor());
+            if (vista != null) {
+                vista.actualizar(orden);
+            } else {
+                vistaRepository.save(new OrdenResumenVista(orden));
+            }
+        }
+    }
+
+    /**
+     * Rehace orden_resumen desde ordenes; cada lote en su propia transacción.
+     *
+     * @return número de órdenes proyectadas
+     */
+    public long reconstruir() {
+        long proyectadas = 0;
+        UUID ultimo = null;
+        List<UUID> lote;
+        do {
+            lote = ordenRepository.buscarIdsDespuesDe(ultimo, PageRequest.of(0, TAMANO_LOTE));
+            if (lote.isEmpty()) {
+                break;
+            }
+            List<UUID> ids = lote;
+            transacciones.executeWithoutResult(status -> registrarLote(ordenRepository.findAllById(ids)));
+            proyectadas += lote.size();
+            ultimo = lote.get(lote.size() - 1);
+        } while (lote.size() == TAMANO_LOTE);
+
+        Integer huerfanas = transacciones.execute(status -> vistaRepository.eliminarHuerfanas());
+        log.info("orden_resumen reconstruida: {} órdenes, {} filas huérfanas eliminadas", proyectadas, huerfanas);
+        return proyectadas;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarAlArrancar() {
+        if (!reconstruirAlArrancar) {
+            return;
+        }
+        long ordenes = ordenRepository.count();
+        long filas = vistaRepository.count();
+        if (ordenes != filas) {
+            log.info("orden_resumen tiene {} filas para {} órdenes; se reconstruye", filas, ordenes);
+            reconstruir();
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.uamishop.backend.orden.controller;
 
+import com.uamishop.backend.orden.api.EstadoCheckout;
+import com.uamishop.backend.orden.api.FiltroExportacion;
+import com.uamishop.backend.orden.api.HistorialOrden;
 import com.uamishop.backend.orden.api.OrdenesApi;
 import com.uamishop.backend.orden.api.OrdenResumen;
+import com.uamishop.backend.orden.api.ReporteTransiciones;
 import com.uamishop.backend.orden.controller.dto.*;
 import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.shared.domain.VersionRecurso;
 import com.uamishop.backend.shared.exception.ApiError;
+import com.uamishop.backend.shared.web.PoliticasCache;
 
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,10 +22,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,6 +53,8 @@ public class OrdenControllerV2 {
         // Solo conoce la API pública del módulo
         private final OrdenesApi ordenesApi;
 
+        private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
         public OrdenControllerV2(OrdenesApi ordenesApi) {
                 this.ordenesApi = ordenesApi;
         }
@@ -80,35 +99,152 @@ public class OrdenControllerV2 {
                                 .body(OrdenResponseDTO.fromResumen(resumen));
         }
 
+        // ── POST /api/v2/ordenes/{id}/checkout ────────────────────────────────────
+
+        @Operation(summary = "Checkout asíncrono desde carrito", description = "Encola la creación de la orden del carrito y responde "
+                        + "de inmediato con la URL de estado (cabecera Location). Si el modo asíncrono está deshabilitado, "
+                        + "la orden se crea en la misma petición y la solicitud vuelve COMPLETADA.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "202", description = "Solicitud aceptada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstadoCheckout.class))),
+                        @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+                        @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+        })
+        @PostMapping("/{id}/checkout")
+        public ResponseEntity<EstadoCheckout> encolarCheckout(
+                        @PathVariable UUID id,
+                        @Valid @RequestBody DireccionEnvioRequest request) {
+
+                DireccionEnvio direccion = DireccionEnvio.crear(
+                                request.calle(),
+                                request.ciudad(),
+                                request.estado(),
+                                request.codigoPostal(),
+                                request.telefonoContacto());
+
+                EstadoCheckout estado = ordenesApi.encolarCheckout(id, direccion);
+                return ResponseEntity.accepted()
+                                .location(URI.create("/api/v2/ordenes/checkout/" + estado.solicitudId()))
+                                .body(estado);
+        }
+
+        // ── GET /api/v2/ordenes/checkout/{solicitudId} ────────────────────────────
+
+        @Operation(summary = "Estado de un checkout asíncrono", description = "PENDIENTE mientras está en cola; COMPLETADA con ordenId, o FALLIDA con el error")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Estado de la solicitud", content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstadoCheckout.class))),
+                        @ApiResponse(responseCode = "404", description = "Solicitud no encontrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+                        @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+        })
+        @GetMapping("/checkout/{solicitudId}")
+        public ResponseEntity<EstadoCheckout> obtenerCheckout(@PathVariable UUID solicitudId) {
+                return ResponseEntity.ok()
+                                .cacheControl(CacheControl.noStore())
+                                .body(ordenesApi.obtenerCheckout(solicitudId));
+        }
+
         // ── GET /api/v2/ordenes/{id} ──────────────────────────────────────────────
 
-        @Operation(summary = "Obtener orden por ID", description = "Busca una orden por su UUID")
+        @Operation(summary = "Obtener orden por ID", description = "Busca una orden por su UUID; con incluirArchivadas=true también entre las archivadas")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Orden encontrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrdenResponseDTO.class))),
+                        @ApiResponse(responseCode = "304", description = "La orden no ha cambiado (ETag / Last-Modified)"),
                         @ApiResponse(responseCode = "404", description = "Orden no encontrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
                         @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
         })
         @GetMapping("/{id}")
-        public ResponseEntity<OrdenResponseDTO> obtenerPorId(@PathVariable UUID id) {
-                OrdenResumen resumen = ordenesApi.obtenerOrden(id);
-                return ResponseEntity.ok(OrdenResponseDTO.fromResumen(resumen));
+        public ResponseEntity<OrdenResponseDTO> obtenerPorId(
+                        @PathVariable UUID id,
+                        @RequestParam(defaultValue = "false") boolean incluirArchivadas,
+                        WebRequest webRequest) {
+                // Validación condicional con la versión de orden_resumen, antes de armar el cuerpo
+                VersionRecurso version = ordenesApi.obtenerVersion(id, incluirArchivadas);
+                if (webRequest.checkNotModified(version.etag(), version.ultimaModificacionMillis())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                        .cacheControl(PoliticasCache.ORDENES)
+                                        .build();
+                }
+
+                OrdenResumen resumen = ordenesApi.obtenerOrden(id, incluirArchivadas);
+                return ResponseEntity.ok()
+                                .cacheControl(PoliticasCache.ORDENES)
+                                .body(OrdenResponseDTO.fromResumen(resumen));
+        }
+
+        // ── GET /api/v2/ordenes/{id}/historial ────────────────────────────────────
+
+        @Operation(summary = "Historial de estados", description = "Página del historial de cambios de estado, del más antiguo al más reciente; con incluirArchivadas=true también de las órdenes archivadas")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Página del historial", content = @Content(mediaType = "application/json", schema = @Schema(implementation = HistorialOrden.class))),
+                        @ApiResponse(responseCode = "404", description = "Orden no encontrada", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+                        @ApiResponse(responseCode = "422", description = "Parámetros de página inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+                        @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+        })
+        @GetMapping("/{id}/historial")
+        public ResponseEntity<HistorialOrden> obtenerHistorial(
+                        @PathVariable UUID id,
+                        @RequestParam(defaultValue = "0") int pagina,
+                        @RequestParam(defaultValue = "20") int tamano,
+                        @RequestParam(defaultValue = "false") boolean incluirArchivadas) {
+                return ResponseEntity.ok(ordenesApi.obtenerHistorial(id, pagina, tamano, incluirArchivadas));
         }
 
         // ── GET /api/v2/ordenes ───────────────────────────────────────────────────
 
-        @Operation(summary = "Listar todas las órdenes", description = "Retorna el resumen de todas las órdenes")
+        @Operation(summary = "Listar órdenes", description = "Retorna el resumen de las órdenes, opcionalmente de un cliente y/o en un estado; con incluirArchivadas=true agrega las archivadas")
         @ApiResponses(value = {
                         @ApiResponse(responseCode = "200", description = "Órdenes encontradas", content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrdenResponseDTO.class))),
                         @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
         })
         @GetMapping
-        public ResponseEntity<List<OrdenResponseDTO>> listarTodas() {
-                List<OrdenResponseDTO> response = ordenesApi.listarOrdenes().stream()
+        public ResponseEntity<List<OrdenResponseDTO>> listarTodas(
+                        @RequestParam(required = false) UUID clienteId,
+                        @RequestParam(required = false) EstadoOrden estado,
+                        @RequestParam(defaultValue = "false") boolean incluirArchivadas) {
+                List<OrdenResumen> resumenes = clienteId == null && estado == null && !incluirArchivadas
+                                ? ordenesApi.listarOrdenes()
+                                : ordenesApi.buscarOrdenes(clienteId, estado, incluirArchivadas);
+                List<OrdenResponseDTO> response = resumenes.stream()
                                 .map(OrdenResponseDTO::fromResumen)
                                 .toList();
                 return ResponseEntity.ok(response);
         }
 
+        // ── GET /api/v2/ordenes/exportar ──────────────────────────────────────────
+
+        @Operation(summary = "Exportar órdenes", description = "Transmite las órdenes creadas entre desde y hasta (inclusive), "
+                        + "opcionalmente en un estado, conforme se leen de la base. CSV por defecto; NDJSON con "
+                        + "Accept: application/x-ndjson. Con incluirArchivadas=true las archivadas van al final.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Órdenes en CSV o NDJSON", content = {
+                                        @Content(mediaType = "text/csv"),
+                                        @Content(mediaType = "application/x-ndjson") }),
+                        @ApiResponse(responseCode = "422", description = "Rango de fechas inválido", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+                        @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+        })
+        @GetMapping("/exportar")
+        public ResponseEntity<StreamingResponseBody> exportar(
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                        @RequestParam(required = false) EstadoOrden estado,
+                        @RequestParam(defaultValue = "false") boolean incluirArchivadas,
+                        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+                // Se valida aquí: una vez iniciado el streaming ya no se puede responder 422
+                FiltroExportacion filtro = new FiltroExportacion(desde, hasta, estado, incluirArchivadas);
+                boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+                OrdenesApi.FormatoExportacion formato = ndjson
+                                ? OrdenesApi.FormatoExportacion.NDJSON
+                                : OrdenesApi.FormatoExportacion.CSV;
+
+                StreamingResponseBody cuerpo = salida -> ordenesApi.exportar(filtro, formato, salida);
+                return ResponseEntity.ok()
+                                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : TEXT_CSV)
+                                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ordenes-" + desde + "-" + hasta
+                                                + (ndjson ? ".ndjson" : ".csv") + "\"")
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                                .body(cuerpo);
+        }
+
         // ── POST /api/v2/ordenes/{id}/confirmar ───────────────────────────────────
 
         @Operation(summary = "Confirmar una orden", description = "Confirma una orden en estado PENDIENTE")
@@ -183,6 +319,27 @@ public class OrdenControllerV2 {
                 return ResponseEntity.ok(OrdenResponseDTO.fromResumen(resumen));
         }
 
+        // ── POST /api/v2/ordenes/transiciones ─────────────────────────────────────
+
+        @Operation(summary = "Aplicar transiciones en lote", description = "Recibe un arreglo JSON o NDJSON de {ordenId, transicion, guia} "
+                        + "(MARCAR_EN_PROCESO, MARCAR_ENVIADA, MARCAR_ENTREGADA) y devuelve el resultado de cada orden. "
+                        + "Las entradas inválidas se reportan y no detienen las demás.")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Transiciones procesadas", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReporteTransiciones.class))),
+                        @ApiResponse(responseCode = "422", description = "El cuerpo no es un arreglo JSON", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+                        @ApiResponse(responseCode = "500", description = "Error interno", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+        })
+        @PostMapping(value = "/transiciones", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+        public ResponseEntity<ReporteTransiciones> aplicarTransiciones(
+                        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                        InputStream cuerpo) throws IOException {
+
+                OrdenesApi.FormatoTransiciones formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                                ? OrdenesApi.FormatoTransiciones.NDJSON
+                                : OrdenesApi.FormatoTransiciones.JSON;
+                return ResponseEntity.ok(ordenesApi.aplicarTransiciones(cuerpo, formato));
+        }
+
         // ── POST /api/v2/ordenes/{id}/cancelar ───────────────────────────────────
 
         @Operation(summary = "Cancelar una orden", description = "Cancela una orden indicando el motivo")
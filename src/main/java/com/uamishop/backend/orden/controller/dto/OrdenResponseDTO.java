@@ -24,6 +24,6 @@ public record OrdenResponseDTO(
                 resumen.descuento() != null ? resumen.descuento().getCantidad().doubleValue() : 0.0,
                 resumen.total() != null ? resumen.total().getCantidad().doubleValue() : 0.0,
                 resumen.fechaCreacion(),
-                LocalDateTime.now());
+                resumen.fechaActualizacion());
     }
 }
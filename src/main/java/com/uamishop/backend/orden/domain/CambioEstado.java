@@ -1,17 +1,50 @@
 package com.uamishop.backend.orden.domain;
 
-import jakarta.persistence.Embeddable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
- * Value Object que representa un cambio de estado en el historial de una orden.
+ * Cambio de estado en el historial de una orden.
  * RN-ORD-06: Se debe registrar cada cambio de estado en el historial.
+ *
+ * Historial append-only: cada transición inserta una fila con la siguiente
+ * secuencia de su orden y nunca se modifica ni se borra. La llave
+ * (orden_id, secuencia) es también el orden de lectura del historial.
  */
-@Embeddable
+@Entity
+@Immutable
+@Table(name = "historial_estados")
+@IdClass(CambioEstado.Clave.class)
 public class CambioEstado {
+
+    @Id
+    @Column(name = "orden_id")
+    private UUID ordenId;
+
+    // 1 = primer cambio de la orden
+    @Id
+    @Column(name = "secuencia")
+    private int secuencia;
+
+    // Lado dueño de Orden.historialEstados; la columna se escribe desde ordenId
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "orden_id", insertable = false, updatable = false)
+    private Orden orden;
+
     private LocalDateTime fechaCambio;
 
     @Enumerated(EnumType.STRING)
@@ -26,19 +59,28 @@ public class CambioEstado {
     protected CambioEstado() {
     }
 
-    private CambioEstado(EstadoOrden estadoAnterior, EstadoOrden estadoNuevo, String motivo) {
+    private CambioEstado(Orden orden, int secuencia, EstadoOrden estadoAnterior, EstadoOrden estadoNuevo,
+            String motivo) {
+        this.orden = orden;
+        this.ordenId = orden.getId().valor();
+        this.secuencia = secuencia;
         this.fechaCambio = LocalDateTime.now();
         this.estadoAnterior = estadoAnterior;
         this.estadoNuevo = estadoNuevo;
         this.motivo = motivo;
     }
 
-    public static CambioEstado registrar(EstadoOrden estadoAnterior, EstadoOrden estadoNuevo, String motivo) {
-        return new CambioEstado(estadoAnterior, estadoNuevo, motivo);
+    static CambioEstado registrar(Orden orden, int secuencia, EstadoOrden estadoAnterior, EstadoOrden estadoNuevo,
+            String motivo) {
+        return new CambioEstado(orden, secuencia, estadoAnterior, estadoNuevo, motivo);
     }
 
-    public static CambioEstado registrar(EstadoOrden estadoAnterior, EstadoOrden estadoNuevo) {
-        return new CambioEstado(estadoAnterior, estadoNuevo, null);
+    public UUID getOrdenId() {
+        return ordenId;
+    }
+
+    public int getSecuencia() {
+        return secuencia;
     }
 
     public LocalDateTime getFechaCambio() {
@@ -64,14 +106,12 @@ public class CambioEstado {
         if (o == null || getClass() != o.getClass())
             return false;
         CambioEstado that = (CambioEstado) o;
-        return Objects.equals(fechaCambio, that.fechaCambio) &&
-                estadoAnterior == that.estadoAnterior &&
-                estadoNuevo == that.estadoNuevo;
+        return secuencia == that.secuencia && Objects.equals(ordenId, that.ordenId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fechaCambio, estadoAnterior, estadoNuevo);
+        return Objects.hash(ordenId, secuencia);
     }
 
     @Override
@@ -82,4 +122,32 @@ public class CambioEstado {
                 fechaCambio,
                 motivo != null ? " - " + motivo : "");
     }
+
+    /** Llave compuesta (orden_id, secuencia) */
+    public static class Clave implements Serializable {
+        private UUID ordenId;
+        private int secuencia;
+
+        protected Clave() {
+        }
+
+        public Clave(UUID ordenId, int secuencia) {
+            this.ordenId = ordenId;
+            this.secuencia = secuencia;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Clave that))
+                return false;
+            return secuencia == that.secuencia && Objects.equals(ordenId, that.ordenId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ordenId, secuencia);
+        }
+    }
 }
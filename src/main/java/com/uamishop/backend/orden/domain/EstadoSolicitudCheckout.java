@@ -0,0 +1,7 @@
+package com.uamishop.backend.orden.domain;
+
+public enum EstadoSolicitudCheckout {
+    PENDIENTE, // en cola o en proceso
+    COMPLETADA, // la orden se creó
+    FALLIDA // no se pudo crear la orden; ver error
+}
@@ -3,6 +3,8 @@ package com.uamishop.backend.orden.domain;
 import com.uamishop.backend.shared.domain.Money;
 import jakarta.persistence.*;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -36,11 +38,17 @@ public class ItemOrden {
     })
     private Money precioUnitario;
 
+    // Categoría del producto y sus ancestros al comprarse, separados por coma;
+    // null en los items anteriores a la columna
+    @Column(name = "ruta_categorias", length = 4000)
+    private String rutaCategorias;
+
     // Constructor sin argumentos requerido por JPA
     protected ItemOrden() {
     }
 
-    private ItemOrden(UUID productoId, String nombreProducto, String sku, int cantidad, Money precioUnitario) {
+    private ItemOrden(UUID productoId, String nombreProducto, String sku, int cantidad, Money precioUnitario,
+            List<UUID> rutaCategorias) {
         if (cantidad <= 0) {
             throw new IllegalArgumentException("La cantidad debe ser mayor a cero");
         }
@@ -56,15 +64,31 @@ public class ItemOrden {
         this.sku = sku;
         this.cantidad = cantidad;
         this.precioUnitario = precioUnitario;
+        this.rutaCategorias = rutaCategorias.isEmpty() ? "" : String.join(",",
+                rutaCategorias.stream().map(UUID::toString).toList());
     }
 
     public static ItemOrden crear(UUID productoId, String nombreProducto, String sku,
             int cantidad, Money precioUnitario) {
-        return new ItemOrden(productoId, nombreProducto, sku, cantidad, precioUnitario);
+        return crear(productoId, nombreProducto, sku, cantidad, precioUnitario, List.of());
+    }
+
+    /**
+     * @param rutaCategorias categoría del producto seguida de sus ancestros, tal
+     *                       como estaban al comprarse (vacía si no se conoce)
+     */
+    public static ItemOrden crear(UUID productoId, String nombreProducto, String sku,
+            int cantidad, Money precioUnitario, List<UUID> rutaCategorias) {
+        return new ItemOrden(productoId, nombreProducto, sku, cantidad, precioUnitario, rutaCategorias);
     }
 
     public Money calcularSubtotal() {
-        return precioUnitario.multiplicar(cantidad);
+        return Money.centavos(calcularSubtotalCentavos());
+    }
+
+    // Subtotal en centavos, sin crear objetos intermedios (usado por Orden)
+    long calcularSubtotalCentavos() {
+        return Math.multiplyExact(precioUnitario.getCentavos(), cantidad);
     }
 
     public ItemOrdenId getId() {
@@ -91,6 +115,13 @@ public class ItemOrden {
         return precioUnitario;
     }
 
+    public List<UUID> getRutaCategorias() {
+        if (rutaCategorias == null || rutaCategorias.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(rutaCategorias.split(",")).map(UUID::fromString).toList();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
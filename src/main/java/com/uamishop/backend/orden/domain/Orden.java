@@ -2,6 +2,7 @@ package com.uamishop.backend.orden.domain;
 
 import com.uamishop.backend.shared.domain.Money;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -18,21 +19,26 @@ import java.util.UUID;
  * una orden.
  */
 @Entity
-@Table(name = "ordenes")
+// El índice por estado y fecha de actualización sirve al ArchivadorOrdenes
+@Table(name = "ordenes", indexes = @Index(name = "idx_ordenes_estado_actualizacion",
+        columnList = "estado, fecha_actualizacion"))
 public class Orden {
 
     @Id
     @Column(name = "id")
     private UUID id;
 
-    @Column(name = "numero_orden")
+    // Asignado por NumeradorOrdenes; único entre todos los nodos
+    @Column(name = "numero_orden", nullable = false, unique = true, updatable = false)
     private String numeroOrden;
 
     @Column(name = "cliente_id")
     private UUID clienteId;
 
+    // Al cargar varias ordenes, items e historial se leen en lotes (evita N+1)
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @JoinColumn(name = "orden_id", nullable = false)
+    @BatchSize(size = 50)
     private List<ItemOrden> items = new ArrayList<>();
 
     @Embedded
@@ -53,6 +59,7 @@ public class Orden {
     @Embedded
     private InfoEnvio infoEnvio;
 
+    // Subtotal acumulado; se actualiza en cada agregarItem (no se recalcula al leer)
     @Embedded
     private Money subtotal;
 
@@ -81,26 +88,46 @@ public class Orden {
     @Column(name = "fecha_creacion")
     private LocalDateTime fechaCreacion;
 
-    // Historial de cambios de estado
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "historial_estados", joinColumns = @JoinColumn(name = "orden_id"))
+    // Fecha de la última modificación (cabecera Last-Modified)
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    // Versión optimista; se incrementa en cada escritura y alimenta el ETag.
+    // Nula hasta el primer guardado: así Spring Data persiste las órdenes nuevas
+    // en vez de hacer merge (el id es asignado)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Historial de cambios de estado: append-only y perezoso. Agregar un cambio
+    // no lo carga (colección inversa) y el flush inserta solo la fila nueva;
+    // se consulta paginado desde HistorialEstadosRepository
+    @OneToMany(mappedBy = "orden", cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
+    @OrderBy("secuencia")
     private List<CambioEstado> historialEstados;
 
+    // Secuencia del último cambio de estado registrado
+    @Column(name = "cambios_estado", nullable = false)
+    private int cambiosEstado;
+
     // Constructor sin argumentos requerido por JPA
     protected Orden() {
     }
 
-    // Constructor para crear una nueva orden con dirección de envío
-    public Orden(UUID clienteId, DireccionEnvio direccionEnvio) {
+    // Constructor para crear una nueva orden con su número y dirección de envío
+    public Orden(String numeroOrden, UUID clienteId, DireccionEnvio direccionEnvio) {
+        if (numeroOrden == null || numeroOrden.isBlank()) {
+            throw new IllegalArgumentException("El número de orden es obligatorio");
+        }
         this.id = UUID.randomUUID();
-        this.numeroOrden = "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        this.numeroOrden = numeroOrden;
         this.clienteId = clienteId;
         this.items = new ArrayList<>();
         this.estado = EstadoOrden.PENDIENTE;
         this.direccionEnvio = direccionEnvio;
-        this.subtotal = Money.pesos(0);
-        this.total = Money.pesos(0);
-        this.descuento = Money.pesos(0);
+        this.subtotal = Money.CERO;
+        this.total = Money.CERO;
+        this.descuento = Money.CERO;
         this.fechaCreacion = LocalDateTime.now();
         this.referenciaPago = ResumenPago.pendiente();
         this.historialEstados = new ArrayList<>();
@@ -252,8 +279,8 @@ public class Orden {
         this.estado = nuevoEstado;
 
         // Registra el cambio en el historial
-        CambioEstado cambio = CambioEstado.registrar(estadoAnterior, nuevoEstado, motivo);
-        this.historialEstados.add(cambio);
+        this.cambiosEstado++;
+        this.historialEstados.add(CambioEstado.registrar(this, cambiosEstado, estadoAnterior, nuevoEstado, motivo));
     }
 
     // Getters
@@ -289,12 +316,20 @@ public class Orden {
         return infoEnvio;
     }
 
-    // Calcula el subtotal de la orden sumando el subtotal de cada item
+    /**
+     * Devuelve el subtotal de la orden.
+     * El valor se mantiene al agregar items, por lo que la lectura es O(1).
+     */
     public Money calcularSubtotal() {
-        // Devuelve el subtotal de la orden
-        return items.stream()
-                .map(ItemOrden::calcularSubtotal)
-                .reduce(Money.pesos(0), Money::sumar);
+        // Órdenes guardadas antes de persistir el subtotal: se recalcula una vez
+        if (subtotal == null || (!subtotal.esPositivo() && !items.isEmpty())) {
+            this.subtotal = recalcularSubtotal();
+        }
+        return subtotal;
+    }
+
+    public Money getSubtotal() {
+        return calcularSubtotal();
     }
 
     // Agrega un item a la orden
@@ -303,8 +338,11 @@ public class Orden {
         if (item == null) {
             throw new IllegalArgumentException("El item no puede ser nulo");
         }
-        // Agrega el item a la orden
+        // Agrega el item a la orden y acumula su subtotal
+        Money subtotalActual = calcularSubtotal();
         this.items.add(item);
+        this.subtotal = Money.centavos(
+                Math.addExact(subtotalActual.getCentavos(), item.calcularSubtotalCentavos()));
         this.total = calcularTotal();
     }
 
@@ -339,10 +377,8 @@ public class Orden {
 
         Money subtotal = calcularSubtotal();
 
-        // calcular descuento manualmente para evitar conflictos internos
-        double montoDescuento = subtotal.getCantidad().doubleValue() * (porcentaje / 100.0);
-
-        Money descuentoCalculado = Money.pesos(montoDescuento);
+        // calcular descuento en centavos (redondeo HALF_UP)
+        Money descuentoCalculado = subtotal.porcentaje(porcentaje / 100.0);
 
         // usamos directamente el setter sin volver a validar estado
         this.descuento = descuentoCalculado;
@@ -351,24 +387,24 @@ public class Orden {
 
     // Devuelve el descuento de la orden
     public Money getDescuento() {
-        return descuento != null ? descuento : Money.pesos(0);
+        return descuento != null ? descuento : Money.CERO;
     }
 
     // Devuelve el total de la orden
     public Money getTotal() {
-        return total != null ? total : Money.pesos(0);
+        return total != null ? total : Money.CERO;
     }
 
     /**
-     * Calcula el total de la orden sumando los subtotales de todos los items.
+     * Calcula el total de la orden a partir del subtotal acumulado.
      */
     private Money calcularTotal() {
         // Si no hay items, devolvemos 0
         if (items.isEmpty()) {
-            return Money.pesos(0);
+            return Money.CERO;
         }
 
-        // Calculamos el subtotal de la orden
+        // Subtotal acumulado de la orden
         Money subtotal = calcularSubtotal();
 
         // Si no hay descuento o es mayor al subtotal (safety check), devolvemos
@@ -384,6 +420,15 @@ public class Orden {
         return subtotal.restar(descuento);
     }
 
+    // Suma los subtotales de todos los items (solo para órdenes sin subtotal persistido)
+    private Money recalcularSubtotal() {
+        long centavos = 0L;
+        for (ItemOrden item : items) {
+            centavos = Math.addExact(centavos, item.calcularSubtotalCentavos());
+        }
+        return Money.centavos(centavos);
+    }
+
     // Valida que el estado de la orden sea válido
     private void validarEstado() {
         // Si el estado actual no es PENDIENTE, lanza una excepción
@@ -398,8 +443,23 @@ public class Orden {
         return fechaCreacion;
     }
 
-    public List<CambioEstado> getHistorialEstados() {
-        return historialEstados;
+    public int getCambiosEstado() {
+        return cambiosEstado;
+    }
+
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+
+    public long getVersion() {
+        return version != null ? version : 0L;
+    }
+
+    // Registra la fecha de la última escritura
+    @PrePersist
+    @PreUpdate
+    void registrarActualizacion() {
+        this.fechaActualizacion = LocalDateTime.now();
     }
 
     // Devuelve el hash code de la orden
@@ -0,0 +1,193 @@
+package com.uamishop.backend.orden.domain;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.AttributeOverrides;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Solicitud de checkout asíncrono: crear la orden de un carrito fuera del
+ * hilo de la petición. La tabla es la cola; los hilos de ProcesadorCheckout
+ * toman la siguiente PENDIENTE con SELECT ... FOR UPDATE SKIP LOCKED.
+ *
+ * Una solicitud fallida por un error transitorio (base de datos, broker)
+ * sigue PENDIENTE hasta proximoIntento; por una regla de negocio queda FALLIDA.
+ */
+@Entity
+@Table(name = "solicitudes_checkout", indexes = {
+        @Index(name = "idx_solicitudes_checkout_estado", columnList = "estado, fecha_creacion"),
+        @Index(name = "idx_solicitudes_checkout_carrito", columnList = "carrito_id, estado")
+})
+public class SolicitudCheckout implements Persistable<UUID> {
+
+    private static final int MAX_ERROR = 500;
+
+    @Id
+    private UUID id;
+
+    @Column(name = "carrito_id", nullable = false)
+    private UUID carritoId;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "estado", column = @Column(name = "direccion_estado"))
+    })
+    private DireccionEnvio direccionEnvio;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoSolicitudCheckout estado;
+
+    @Column(name = "orden_id")
+    private UUID ordenId;
+
+    @Column(name = "error", length = MAX_ERROR)
+    private String error;
+
+    @Column(name = "intentos", nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    // Contexto W3C de quien encoló (null si no hay traza)
+    @Column(name = "traceparent", length = 55)
+    private String traceparent;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    // Las solicitudes nuevas se insertan con persist, sin el SELECT previo de merge
+    @Transient
+    private boolean nueva;
+
+    // Constructor sin argumentos requerido por JPA
+    protected SolicitudCheckout() {
+    }
+
+    private SolicitudCheckout(UUID carritoId, DireccionEnvio direccionEnvio, String traceparent) {
+        this.id = UUID.randomUUID();
+        this.carritoId = carritoId;
+        this.direccionEnvio = direccionEnvio;
+        this.estado = EstadoSolicitudCheckout.PENDIENTE;
+        this.traceparent = traceparent;
+        this.fechaCreacion = LocalDateTime.now();
+        this.fechaActualizacion = fechaCreacion;
+        this.proximoIntento = fechaCreacion;
+        this.nueva = true;
+    }
+
+    public static SolicitudCheckout encolar(UUID carritoId, DireccionEnvio direccionEnvio, String traceparent) {
+        if (carritoId == null) {
+            throw new IllegalArgumentException("El carrito es obligatorio");
+        }
+        return new SolicitudCheckout(carritoId, direccionEnvio, traceparent);
+    }
+
+    public void completar(UUID ordenId) {
+        validarPendiente();
+        this.estado = EstadoSolicitudCheckout.COMPLETADA;
+        this.ordenId = ordenId;
+        this.error = null;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    /** Deja la solicitud en cola para otro intento a partir de la fecha dada. */
+    public void reintentar(String error, LocalDateTime proximoIntento) {
+        validarPendiente();
+        this.intentos++;
+        this.error = recortar(error);
+        this.proximoIntento = proximoIntento;
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    public void fallar(String error) {
+        validarPendiente();
+        this.intentos++;
+        this.estado = EstadoSolicitudCheckout.FALLIDA;
+        this.error = recortar(error);
+        this.fechaActualizacion = LocalDateTime.now();
+    }
+
+    public boolean isPendiente() {
+        return estado == EstadoSolicitudCheckout.PENDIENTE;
+    }
+
+    private void validarPendiente() {
+        if (!isPendiente()) {
+            throw new IllegalStateException("La solicitud de checkout ya está " + estado);
+        }
+    }
+
+    private static String recortar(String error) {
+        return error != null && error.length() > MAX_ERROR ? error.substring(0, MAX_ERROR) : error;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        this.nueva = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getCarritoId() {
+        return carritoId;
+    }
+
+    public DireccionEnvio getDireccionEnvio() {
+        return direccionEnvio;
+    }
+
+    public EstadoSolicitudCheckout getEstado() {
+        return estado;
+    }
+
+    public UUID getOrdenId() {
+        return ordenId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public String getTraceparent() {
+        return traceparent;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public LocalDateTime getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+}
@@ -0,0 +1,51 @@
+package com.uamishop.backend.orden.listener;
+
+import com.uamishop.backend.RabbitConfig;
+import com.uamishop.backend.shared.event.ProductoCompradoEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza.TrazaActiva;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Envía ProductoCompradoEvent a RabbitMQ una vez confirmada la transacción
+ * que creó la orden. Enviarlo dentro de la transacción dejaba en el broker
+ * mensajes de órdenes revertidas y, con los reintentos de
+ * ProcesadorCheckout, un mensaje por intento.
+ *
+ * Si el broker no responde, el mensaje se registra en el log y se pierde;
+ * la orden ya quedó creada.
+ */
+@Component
+public class ProductoCompradoPublicador {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoCompradoPublicador.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final PropagacionTraza propagacionTraza;
+
+    public ProductoCompradoPublicador(RabbitTemplate rabbitTemplate, PropagacionTraza propagacionTraza) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.propagacionTraza = propagacionTraza;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Async
+    public void onProductoComprado(ProductoCompradoEvent event) {
+        // Continúa la traza de quien publicó el evento
+        try (TrazaActiva traza = propagacionTraza.continuar("ProductoCompradoPublicador", event.traceparent())) {
+            rabbitTemplate.convertAndSend(
+                    RabbitConfig.EVENTS_EXCHANGE,
+                    RabbitConfig.RK_PRODUCTO_COMPRADO,
+                    event);
+        } catch (AmqpException e) {
+            log.warn("No se pudo enviar ProductoComprado de la orden {}: {}", event.ordenId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.uamishop.backend.orden.repository;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Contador de una numeración reservada por bloques (hi/lo).
+ *
+ * valor es el último número ya reservado por algún nodo; reservar un bloque
+ * es sumarle su tamaño con un solo UPDATE, que serializa a los nodos en la fila.
+ */
+@Entity
+@Table(name = "contadores_numeracion")
+public class ContadorNumeracion {
+
+    @Id
+    @Column(name = "nombre", length = 50)
+    private String nombre;
+
+    @Column(name = "valor", nullable = false)
+    private long valor;
+
+    // Constructor sin argumentos requerido por JPA
+    protected ContadorNumeracion() {
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getValor() {
+        return valor;
+    }
+}
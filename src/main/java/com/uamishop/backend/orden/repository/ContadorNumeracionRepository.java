@@ -0,0 +1,25 @@
+package com.uamishop.backend.orden.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ContadorNumeracionRepository extends JpaRepository<ContadorNumeracion, String> {
+
+    /** Suma cantidad al contador; 0 si todavía no existe. La fila queda bloqueada hasta el commit. */
+    @Modifying
+    @Query("update ContadorNumeracion c set c.valor = c.valor + :cantidad where c.nombre = :nombre")
+    int incrementar(@Param("nombre") String nombre, @Param("cantidad") long cantidad);
+
+    /** Valor actual leído de la base (no del contexto de persistencia). */
+    @Query("select c.valor from ContadorNumeracion c where c.nombre = :nombre")
+    long valor(@Param("nombre") String nombre);
+
+    /** Crea el contador; falla por llave duplicada si otro nodo lo creó antes. */
+    @Modifying
+    @Query(value = "insert into contadores_numeracion (nombre, valor) values (:nombre, :valor)", nativeQuery = true)
+    void crear(@Param("nombre") String nombre, @Param("valor") long valor);
+}
@@ -0,0 +1,32 @@
+package com.uamishop.backend.orden.repository;
+
+import com.uamishop.backend.orden.domain.CambioEstado;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface HistorialEstadosRepository extends JpaRepository<CambioEstado, CambioEstado.Clave> {
+
+    /**
+     * Cambios posteriores a una secuencia, en orden. Las secuencias son
+     * consecutivas, así que una página es un rango de la llave (sin OFFSET).
+     */
+    List<CambioEstado> findByOrdenIdAndSecuenciaGreaterThanOrderBySecuenciaAsc(
+            UUID ordenId, int despuesDe, Pageable pagina);
+
+    /**
+     * Misma consulta sobre historial_estados_archivo, que tiene las columnas de
+     * historial_estados (ver ArchivadorOrdenes) y la misma llave.
+     */
+    @Query(value = "select orden_id, secuencia, fecha_cambio, estado_anterior, estado_nuevo, motivo "
+            + "from historial_estados_archivo where orden_id = :ordenId and secuencia > :despuesDe "
+            + "order by secuencia", nativeQuery = true)
+    List<CambioEstado> buscarArchivados(@Param("ordenId") UUID ordenId, @Param("despuesDe") int despuesDe,
+            Pageable pagina);
+}
@@ -1,11 +1,26 @@
 package com.uamishop.backend.orden.repository;
 
 import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrdenJpaRepository extends JpaRepository<Orden, UUID> {
 
+    /** Solo versión y fecha de actualización; no carga items ni historial. */
+    @Query("select new com.uamishop.backend.shared.domain.VersionRecurso(o.id, o.version, o.fechaActualizacion) "
+            + "from Orden o where o.id = :id")
+    Optional<VersionRecurso> buscarVersion(@Param("id") UUID id);
+
+    /** Ids en orden a partir de uno dado (paginación por llave, para recorrer todas las órdenes). */
+    @Query("select o.id from Orden o where (:despuesDe is null or o.id > :despuesDe) order by o.id")
+    List<UUID> buscarIdsDespuesDe(@Param("despuesDe") UUID despuesDe, Pageable pagina);
 }
@@ -0,0 +1,38 @@
+package com.uamishop.backend.orden.repository;
+
+import com.uamishop.backend.orden.domain.EstadoSolicitudCheckout;
+import com.uamishop.backend.orden.domain.SolicitudCheckout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SolicitudCheckoutRepository extends JpaRepository<SolicitudCheckout, UUID> {
+
+    /**
+     * Toma y bloquea la solicitud PENDIENTE más antigua lista para procesarse.
+     *
+     * - SKIP LOCKED: las que otro hilo o nodo ya tiene bloqueadas se saltan
+     *   en lugar de esperar.
+     * - Solo se toma la primera pendiente de cada carrito: mientras una está
+     *   en proceso (bloqueada y aún PENDIENTE), las posteriores del mismo
+     *   carrito quedan fuera, así que un carrito se procesa de a una.
+     *
+     * El bloqueo dura lo que la transacción del llamador.
+     */
+    @Query(value = "select s.* from solicitudes_checkout s "
+            + "where s.estado = 'PENDIENTE' and s.proximo_intento <= :ahora "
+            + "and not exists (select 1 from solicitudes_checkout p "
+            + "    where p.carrito_id = s.carrito_id and p.estado = 'PENDIENTE' "
+            + "    and (p.fecha_creacion < s.fecha_creacion or (p.fecha_creacion = s.fecha_creacion and p.id < s.id))) "
+            + "order by s.fecha_creacion "
+            + "limit 1 for update skip locked", nativeQuery = true)
+    Optional<SolicitudCheckout> reclamarSiguiente(@Param("ahora") LocalDateTime ahora);
+
+    Optional<SolicitudCheckout> findFirstByCarritoIdAndEstado(UUID carritoId, EstadoSolicitudCheckout estado);
+}
@@ -0,0 +1,101 @@
+package com.uamishop.backend.orden.service;
+
+import com.uamishop.backend.catalogo.api.CatalogoApi;
+import com.uamishop.backend.catalogo.api.CategoriaResumen;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Categoría de cada producto y cadena de categorías padre, consultadas a
+ * CatalogoApi y guardadas en memoria durante orden.categorias.vigencia.
+ *
+ * El checkout guarda la ruta en cada ItemOrden, así que la venta y su
+ * cancelación suman y restan en las mismas categorías aunque el producto o
+ * el árbol cambien en medio. Al vencer se vuelven a pedir las categorías y
+ * se olvidan las categorías de producto ya resueltas. Una consulta fallida
+ * no se guarda: el siguiente checkout del producto la repite.
+ */
+@Component
+class ArbolCategorias {
+
+    private static final Logger log = LoggerFactory.getLogger(ArbolCategorias.class);
+
+    private final CatalogoApi catalogoApi;
+    private final Duration vigencia;
+    private final Map<UUID, Optional<UUID>> categoriaDeProducto = new ConcurrentHashMap<>();
+    private volatile Map<UUID, UUID> padres = Map.of();
+    private volatile Instant cargado = Instant.MIN;
+
+    ArbolCategorias(CatalogoApi catalogoApi,
+            @Value("${orden.categorias.vigencia:5m}") Duration vigencia) {
+        this.catalogoApi = catalogoApi;
+        this.vigencia = vigencia;
+    }
+
+    /**
+     * Categoría del producto seguida de sus ancestros hasta la raíz; vacía si
+     * el producto no tiene categoría o el catálogo no respondió.
+     */
+    List<UUID> ruta(UUID productoId) {
+        refrescarSiVencio();
+        Optional<UUID> categoria = categoriaDeProducto.get(productoId);
+        if (categoria == null) {
+            try {
+                categoria = Optional.ofNullable(catalogoApi.obtenerProducto(productoId).categoriaId());
+            } catch (RuntimeException e) {
+                log.warn("No se pudo obtener la categoría del producto {}: {}", productoId, e.getMessage());
+                return List.of();
+            }
+            categoriaDeProducto.put(productoId, categoria);
+        }
+        List<UUID> ruta = new ArrayList<>();
+        Map<UUID, UUID> actuales = padres;
+        UUID actual = categoria.orElse(null);
+        // El límite protege de un ciclo en los datos del catálogo
+        while (actual != null && ruta.size() <= actuales.size()) {
+            ruta.add(actual);
+            actual = actuales.get(actual);
+        }
+        return ruta;
+    }
+
+    private void refrescarSiVencio() {
+        if (Instant.now().isBefore(cargado.plus(vigencia))) {
+            return;
+        }
+        synchronized (this) {
+            if (Instant.now().isBefore(cargado.plus(vigencia))) {
+                return;
+            }
+            List<CategoriaResumen> categorias;
+            try {
+                categorias = catalogoApi.listarCategorias();
+            } catch (RuntimeException e) {
+                // Se conserva el árbol anterior y se reintenta en la siguiente llamada
+                log.warn("No se pudieron obtener las categorías: {}", e.getMessage());
+                return;
+            }
+            Map<UUID, UUID> nuevos = new HashMap<>();
+            for (CategoriaResumen categoria : categorias) {
+                if (categoria.categoriaPadreId() != null) {
+                    nuevos.put(categoria.categoriaId(), categoria.categoriaPadreId());
+                }
+            }
+            padres = nuevos;
+            categoriaDeProducto.clear();
+            cargado = Instant.now();
+        }
+    }
+}
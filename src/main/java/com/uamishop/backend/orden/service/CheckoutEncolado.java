@@ -0,0 +1,7 @@
+package com.uamishop.backend.orden.service;
+
+import java.util.UUID;
+
+/** Aviso interno: hay una solicitud nueva en solicitudes_checkout. */
+record CheckoutEncolado(UUID solicitudId) {
+}
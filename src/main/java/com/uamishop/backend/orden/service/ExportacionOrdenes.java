@@ -0,0 +1,138 @@
+package com.uamishop.backend.orden.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uamishop.backend.orden.api.FiltroExportacion;
+import com.uamishop.backend.orden.api.OrdenesApi.FormatoExportacion;
+import com.uamishop.backend.orden.consulta.FilaExportacionOrden;
+import com.uamishop.backend.orden.consulta.OrdenResumenArchivadaRepository;
+import com.uamishop.backend.orden.consulta.OrdenResumenVistaRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Exporta órdenes en CSV o NDJSON para back-office.
+ *
+ * Lee orden_resumen (y orden_resumen_archivo si se pide) con un cursor de
+ * solo avance y proyecciones: cada fila se escribe en cuanto llega y no
+ * queda referenciada, así que exportar un año de órdenes usa la misma
+ * memoria que exportar un día. Direcciones y fechas ya vienen formateadas
+ * en el modelo de lectura.
+ *
+ * Debe llamarse dentro de una transacción de solo lectura (la del cursor).
+ */
+@Component
+class ExportacionOrdenes {
+
+    static final String ENCABEZADO_CSV = "numero_orden,orden_id,cliente_id,estado,fecha_creacion,total,moneda,"
+            + "items,direccion,telefono,metodo_pago,forma_pago";
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final OrdenResumenVistaRepository resumenRepository;
+    private final OrdenResumenArchivadaRepository archivoRepository;
+    private final ObjectWriter filaWriter;
+
+    ExportacionOrdenes(OrdenResumenVistaRepository resumenRepository,
+            OrdenResumenArchivadaRepository archivoRepository,
+            ObjectMapper objectMapper) {
+        this.resumenRepository = resumenRepository;
+        this.archivoRepository = archivoRepository;
+        // Sin flush por fila: el buffer decide cuándo se envía al cliente
+        this.filaWriter = objectMapper.writerFor(FilaExportacionOrden.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /** Escribe las filas del filtro; la salida no se cierra. */
+    long exportar(FiltroExportacion filtro, FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+        LocalDateTime desde = filtro.desde().atStartOfDay();
+        LocalDateTime hasta = filtro.hasta().plusDays(1).atStartOfDay();
+
+        if (formato == FormatoExportacion.CSV) {
+            escritor.write(ENCABEZADO_CSV);
+            escritor.write('\n');
+        }
+        long total;
+        try (Stream<FilaExportacionOrden> filas = filtro.estado() != null
+                ? resumenRepository.exportarPorEstado(filtro.estado(), desde, hasta)
+                : resumenRepository.exportar(desde, hasta)) {
+            total = escribir(filas, formato, escritor);
+        }
+        if (filtro.incluirArchivadas()) {
+            try (Stream<FilaExportacionOrden> filas = filtro.estado() != null
+                    ? archivoRepository.exportarPorEstado(filtro.estado(), desde, hasta)
+                    : archivoRepository.exportar(desde, hasta)) {
+                total += escribir(filas, formato, escritor);
+            }
+        }
+        escritor.flush();
+        return total;
+    }
+
+    private long escribir(Stream<FilaExportacionOrden> filas, FormatoExportacion formato, Writer escritor)
+            throws IOException {
+        long total = 0;
+        for (FilaExportacionOrden fila : (Iterable<FilaExportacionOrden>) filas::iterator) {
+            if (formato == FormatoExportacion.CSV) {
+                escribirCsv(fila, escritor);
+            } else {
+                filaWriter.writeValue(escritor, fila);
+            }
+            escritor.write('\n');
+            total++;
+        }
+        return total;
+    }
+
+    private static void escribirCsv(FilaExportacionOrden fila, Writer escritor) throws IOException {
+        escritor.write(fila.numeroOrden() != null ? fila.numeroOrden() : "");
+        escritor.write(',');
+        escritor.write(fila.ordenId().toString());
+        escritor.write(',');
+        escritor.write(fila.clienteId().toString());
+        escritor.write(',');
+        escritor.write(fila.estado().name());
+        escritor.write(',');
+        escritor.write(fila.fechaCreacion() != null ? fila.fechaCreacion().toString() : "");
+        escritor.write(',');
+        escritor.write(fila.total() != null ? fila.total().toPlainString() : "");
+        escritor.write(',');
+        escritor.write(fila.moneda() != null ? fila.moneda() : "");
+        escritor.write(',');
+        escritor.write(Integer.toString(fila.items()));
+        escritor.write(',');
+        campo(fila.direccion(), escritor);
+        escritor.write(',');
+        campo(fila.telefono(), escritor);
+        escritor.write(',');
+        campo(fila.metodoPago(), escritor);
+        escritor.write(',');
+        campo(fila.formaPago(), escritor);
+    }
+
+    // RFC 4180: entre comillas si trae separador, comillas o saltos de línea
+    private static void campo(String valor, Writer escritor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(valor.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
@@ -0,0 +1,107 @@
+package com.uamishop.backend.orden.service;
+
+import com.uamishop.backend.orden.repository.ContadorNumeracionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asigna números de orden legibles ("ORD-0000001234") sin colisiones entre nodos.
+ *
+ * Cada nodo reserva bloques de números en contadores_numeracion (hi/lo) y los
+ * reparte con un incremento atómico en memoria: solo hay un viaje a la base
+ * cada orden.numeracion.tamano-bloque órdenes. Los números son crecientes
+ * dentro de cada nodo; entre nodos se intercalan por bloques, y los que queden
+ * sin usar al detener un nodo (o en transacciones revertidas) se pierden.
+ *
+ * Los números anteriores ("ORD-" + 8 hexadecimales) no chocan con los nuevos,
+ * que siempre tienen al menos 10 dígitos.
+ */
+@Component
+public class NumeradorOrdenes {
+
+    static final String CONTADOR = "numero_orden";
+
+    private final ContadorNumeracionRepository contadores;
+    private final TransactionTemplate nuevaTransaccion;
+    private final int tamanoBloque;
+    private volatile Bloque bloque;
+
+    public NumeradorOrdenes(ContadorNumeracionRepository contadores,
+            PlatformTransactionManager transactionManager,
+            @Value("${orden.numeracion.tamano-bloque:1000}") int tamanoBloque) {
+        if (tamanoBloque < 1) {
+            throw new IllegalArgumentException("orden.numeracion.tamano-bloque debe ser positivo");
+        }
+        this.contadores = contadores;
+        // La reserva se confirma aunque la transacción de la orden se revierta
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    /**
+     * Siguiente número de orden; solo consulta la base al agotarse el bloque.
+     */
+    public String siguiente() {
+        while (true) {
+            Bloque actual = bloque;
+            if (actual != null) {
+                long numero = actual.siguiente.getAndIncrement();
+                if (numero <= actual.ultimo) {
+                    return formatear(numero);
+                }
+            }
+            // Un solo hilo reserva el bloque nuevo; los demás reintentan con él
+            synchronized (this) {
+                if (bloque == actual) {
+                    long primero = reservar(tamanoBloque);
+                    bloque = new Bloque(primero, primero + tamanoBloque - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva cantidad números consecutivos fuera de los bloques del nodo
+     * (cargas masivas).
+     *
+     * @return el primero de los números reservados
+     */
+    public long reservar(long cantidad) {
+        try {
+            return nuevaTransaccion.execute(status -> reservarEnTransaccion(cantidad));
+        } catch (DataIntegrityViolationException e) {
+            // Otro nodo creó el contador al mismo tiempo; ahora el UPDATE sí lo encuentra
+            return nuevaTransaccion.execute(status -> reservarEnTransaccion(cantidad));
+        }
+    }
+
+    public static String formatear(long numero) {
+        return String.format("ORD-%010d", numero);
+    }
+
+    private long reservarEnTransaccion(long cantidad) {
+        if (contadores.incrementar(CONTADOR, cantidad) == 0) {
+            contadores.crear(CONTADOR, cantidad);
+            return 1;
+        }
+        return contadores.valor(CONTADOR) - cantidad + 1;
+    }
+
+    /** Rango [siguiente, ultimo] reservado por este nodo */
+    private static final class Bloque {
+        private final AtomicLong siguiente;
+        private final long ultimo;
+
+        private Bloque(long primero, long ultimo) {
+            this.siguiente = new AtomicLong(primero);
+            this.ultimo = ultimo;
+        }
+    }
+}
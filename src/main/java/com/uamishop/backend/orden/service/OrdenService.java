@@ -3,25 +3,52 @@ package com.uamishop.backend.orden.service;
 import com.uamishop.backend.shared.exception.DomainException;
 import com.uamishop.backend.ventas.api.CarritoResumen;
 import com.uamishop.backend.ventas.api.VentasApi;
-import com.uamishop.backend.RabbitConfig;
 import com.uamishop.backend.orden.api.DatosResumen;
+import com.uamishop.backend.orden.api.EstadoCheckout;
+import com.uamishop.backend.orden.api.FiltroExportacion;
+import com.uamishop.backend.orden.api.HistorialOrden;
 import com.uamishop.backend.orden.api.OrdenesApi;
 import com.uamishop.backend.orden.api.OrdenResumen;
+import com.uamishop.backend.orden.api.ReporteTransiciones;
+import com.uamishop.backend.orden.consulta.FilaOrdenResumen;
+import com.uamishop.backend.orden.consulta.OrdenResumenArchivada;
+import com.uamishop.backend.orden.consulta.OrdenResumenArchivadaRepository;
+import com.uamishop.backend.orden.consulta.OrdenResumenVista;
+import com.uamishop.backend.orden.consulta.OrdenResumenVistaRepository;
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.CambioEstado;
 import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.EstadoOrden;
 import com.uamishop.backend.orden.domain.ItemOrden;
 import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.domain.SolicitudCheckout;
+import com.uamishop.backend.orden.repository.HistorialEstadosRepository;
 import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.repository.SolicitudCheckoutRepository;
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+import com.uamishop.backend.shared.exception.ResourceNotFoundException;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import com.uamishop.backend.shared.observabilidad.PasoCheckoutJfrEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.uamishop.backend.shared.event.OrdenCanceladaEvent;
 import com.uamishop.backend.shared.event.OrdenCreadaEvent;
 
 import com.uamishop.backend.shared.event.ProductoCompradoEvent;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Implementación del servicio de órdenes.
@@ -36,68 +63,182 @@ public class OrdenService implements OrdenesApi {
 
     // ── Dependencias ──────────────────────────────────────────────────────────
 
+    // Nombre de la operación en los eventos JFR del checkout
+    private static final String CREAR_DESDE_CARRITO = "crearDesdeCarrito";
+
+    private static final int MAX_TAMANO_PAGINA_HISTORIAL = 200;
+
     private final OrdenJpaRepository ordenRepository;
+    private final HistorialEstadosRepository historialRepository;
     private final VentasApi ventasApi;
     private final ApplicationEventPublisher eventPublisher;
-    private final RabbitTemplate rabbitTemplate;
-
-    public OrdenService(OrdenJpaRepository ordenRepository, VentasApi ventasApi,
-            ApplicationEventPublisher eventPublisher, RabbitTemplate rabbitTemplate) {
+    private final PropagacionTraza propagacionTraza;
+    private final OrdenResumenVistaRepository resumenRepository;
+    private final OrdenResumenArchivadaRepository archivoRepository;
+    private final ProyeccionOrdenResumen proyeccionResumen;
+    private final TransicionesMasivasOrden transicionesMasivas;
+    private final NumeradorOrdenes numerador;
+    private final ExportacionOrdenes exportacion;
+    private final SolicitudCheckoutRepository solicitudRepository;
+    private final ArbolCategorias arbolCategorias;
+    private final boolean checkoutAsincrono;
+
+    public OrdenService(OrdenJpaRepository ordenRepository, HistorialEstadosRepository historialRepository,
+            VentasApi ventasApi,
+            ApplicationEventPublisher eventPublisher,
+            PropagacionTraza propagacionTraza, OrdenResumenVistaRepository resumenRepository,
+            ProyeccionOrdenResumen proyeccionResumen, TransicionesMasivasOrden transicionesMasivas,
+            NumeradorOrdenes numerador, OrdenResumenArchivadaRepository archivoRepository,
+            ExportacionOrdenes exportacion, SolicitudCheckoutRepository solicitudRepository,
+            ArbolCategorias arbolCategorias,
+            @Value("${orden.checkout-asincrono.habilitado:false}") boolean checkoutAsincrono) {
         this.ordenRepository = ordenRepository;
+        this.historialRepository = historialRepository;
         this.ventasApi = ventasApi;
         this.eventPublisher = eventPublisher;
-        this.rabbitTemplate = rabbitTemplate;
+        this.propagacionTraza = propagacionTraza;
+        this.resumenRepository = resumenRepository;
+        this.proyeccionResumen = proyeccionResumen;
+        this.transicionesMasivas = transicionesMasivas;
+        this.numerador = numerador;
+        this.archivoRepository = archivoRepository;
+        this.exportacion = exportacion;
+        this.solicitudRepository = solicitudRepository;
+        this.arbolCategorias = arbolCategorias;
+        this.checkoutAsincrono = checkoutAsincrono;
     }
 
     // ── Métodos públicos (contrato de OrdenesApi) ─────────────────────────────
 
+    // Las consultas leen orden_resumen (modelo de lectura); nunca cargan items ni historial
+
     @Override
     @Transactional(readOnly = true)
     public OrdenResumen obtenerOrden(UUID ordenId) {
-        return OrdenResumen.desde(buscarPorId(ordenId));
+        return obtenerOrden(ordenId, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrdenResumen obtenerOrden(UUID ordenId, boolean incluirArchivadas) {
+        return buscarResumen(ordenId, incluirArchivadas).aResumen();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionRecurso obtenerVersion(UUID ordenId) {
+        return obtenerVersion(ordenId, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VersionRecurso obtenerVersion(UUID ordenId, boolean incluirArchivadas) {
+        return buscarResumen(ordenId, incluirArchivadas).aVersion();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrdenResumen> listarOrdenes() {
-        return todasLasOrdenes().stream()
-                .map(OrdenResumen::desde)
+        return resumenRepository.findAllByOrderByFechaCreacionDesc().stream()
+                .map(OrdenResumenVista::aResumen)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrdenResumen> buscarOrdenes(UUID clienteId, EstadoOrden estado) {
+        return buscarOrdenes(clienteId, estado, false);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrdenResumen> buscarOrdenes(UUID clienteId, EstadoOrden estado, boolean incluirArchivadas) {
+        List<OrdenResumenVista> filas;
+        if (clienteId != null && estado != null) {
+            filas = resumenRepository.findByClienteIdAndEstadoOrderByFechaCreacionDesc(clienteId, estado);
+        } else if (clienteId != null) {
+            filas = resumenRepository.findByClienteIdOrderByFechaCreacionDesc(clienteId);
+        } else if (estado != null) {
+            filas = resumenRepository.findByEstadoOrderByFechaCreacionDesc(estado);
+        } else {
+            filas = resumenRepository.findAllByOrderByFechaCreacionDesc();
+        }
+        if (!incluirArchivadas) {
+            return filas.stream().map(OrdenResumenVista::aResumen).toList();
+        }
+
+        List<OrdenResumenArchivada> archivadas;
+        if (clienteId != null && estado != null) {
+            archivadas = archivoRepository.findByClienteIdAndEstadoOrderByFechaCreacionDesc(clienteId, estado);
+        } else if (clienteId != null) {
+            archivadas = archivoRepository.findByClienteIdOrderByFechaCreacionDesc(clienteId);
+        } else if (estado != null) {
+            archivadas = archivoRepository.findByEstadoOrderByFechaCreacionDesc(estado);
+        } else {
+            archivadas = archivoRepository.findAllByOrderByFechaCreacionDesc();
+        }
+        // Ambas listas ya vienen ordenadas; se intercalan por fecha de creación
+        return Stream.concat(filas.stream(), archivadas.stream())
+                .map(FilaOrdenResumen::aResumen)
+                .sorted(Comparator.comparing(OrdenResumen::fechaCreacion,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
                 .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<DatosResumen> listarDatos() {
-        return todasLasOrdenes().stream()
-                .map(this::mapearDatosResumen)
+        return resumenRepository.findAllByOrderByFechaCreacionDesc().stream()
+                .map(OrdenResumenVista::aDatos)
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public HistorialOrden obtenerHistorial(UUID ordenId, int pagina, int tamano) {
+        return obtenerHistorial(ordenId, pagina, tamano, false);
+    }
+
+    // Rango de la llave (orden_id, secuencia); una fila de más indica si hay otra página
+    @Override
+    @Transactional(readOnly = true)
+    public HistorialOrden obtenerHistorial(UUID ordenId, int pagina, int tamano, boolean incluirArchivadas) {
+        if (pagina < 0 || tamano < 1 || tamano > MAX_TAMANO_PAGINA_HISTORIAL) {
+            throw new BusinessRuleException("PAGINA_INVALIDA",
+                    "pagina debe ser >= 0 y tamano estar entre 1 y " + MAX_TAMANO_PAGINA_HISTORIAL);
+        }
+        // Una página más allá de cualquier secuencia posible simplemente viene vacía
+        int despuesDe = (int) Math.min((long) pagina * tamano, Integer.MAX_VALUE);
+        PageRequest limite = PageRequest.of(0, tamano + 1);
+        List<CambioEstado> cambios = historialRepository.findByOrdenIdAndSecuenciaGreaterThanOrderBySecuenciaAsc(
+                ordenId, despuesDe, limite);
+        if (cambios.isEmpty() && !resumenRepository.existsById(ordenId)) {
+            // El archivador mueve el historial y la fila de resumen en la misma transacción
+            if (!incluirArchivadas || !archivoRepository.existsById(ordenId)) {
+                throw new ResourceNotFoundException("Orden no encontrada con id: " + ordenId);
+            }
+            cambios = historialRepository.buscarArchivados(ordenId, despuesDe, limite);
+        }
+        boolean hayMas = cambios.size() > tamano;
+        return new HistorialOrden(ordenId, pagina, tamano, hayMas,
+                cambios.stream().limit(tamano).map(HistorialOrden.Cambio::desde).toList());
+    }
+
     @Override
     @Transactional
     public OrdenResumen crear(UUID clienteId, DireccionEnvio direccionEnvio) {
-        Orden orden = new Orden(clienteId, direccionEnvio);
-        Orden guardada = ordenRepository.save(orden);
+        Orden orden = new Orden(numerador.siguiente(), clienteId, direccionEnvio);
+        Orden guardada = guardarNueva(orden);
 
-        eventPublisher.publishEvent(new ProductoCompradoEvent(
+        ProductoCompradoEvent productoComprado = new ProductoCompradoEvent(
                 UUID.randomUUID(),
                 Instant.now(),
                 guardada.getId().valor(),
                 clienteId,
-                guardada.getItems().stream()
-                        .map(item -> new ProductoCompradoEvent.ItemComprado(
-                                item.getProductoId(),
-                                item.getSku(),
-                                item.getCantidad(),
-                                item.getPrecioUnitario().getCantidad(),
-                                item.getPrecioUnitario().getMoneda()))
-                        .toList()));
-
-        // Publicar evento via RabbitMQ
-        rabbitTemplate.convertAndSend(
-                RabbitConfig.EVENTS_EXCHANGE,
-                RabbitConfig.RK_PRODUCTO_COMPRADO,
-                eventPublisher);
+                itemsComprados(guardada),
+                propagacionTraza.traceparentActual());
+        // ProductoCompradoPublicador lo envía a RabbitMQ después del commit
+        eventPublisher.publishEvent(productoComprado);
 
         return OrdenResumen.desde(guardada);
     }
@@ -105,63 +246,89 @@ public class OrdenService implements OrdenesApi {
     @Override
     @Transactional
     public OrdenResumen crearDesdeCarrito(UUID carritoId, DireccionEnvio direccionEnvio) {
+        PasoCheckoutJfrEvent total = PasoCheckoutJfrEvent.iniciar(CREAR_DESDE_CARRITO, PasoCheckoutJfrEvent.TOTAL);
+
         // 1. Obtener el resumen del carrito a través de la API pública de Ventas
+        PasoCheckoutJfrEvent consulta = PasoCheckoutJfrEvent.iniciar(CREAR_DESDE_CARRITO, "obtenerCarrito");
         CarritoResumen carrito = ventasApi.obtenerResumen(carritoId);
+        consulta.carrito(carritoId).terminar();
 
         // 2. Construir la Orden con los datos del carrito
-        Orden orden = new Orden(carrito.clienteId().getValor(), direccionEnvio);
+        Orden orden = new Orden(numerador.siguiente(), carrito.clienteId().getValor(), direccionEnvio);
 
+        // Cada item guarda las categorías de su producto: la cancelación resta de las mismas
         for (CarritoResumen.ItemCarritoResumen itemCarrito : carrito.items()) {
             ItemOrden itemOrden = ItemOrden.crear(
                     itemCarrito.productoId().valor(),
                     itemCarrito.nombreProducto(),
                     itemCarrito.sku(),
                     itemCarrito.cantidad(),
-                    itemCarrito.precioUnitario());
+                    itemCarrito.precioUnitario(),
+                    arbolCategorias.ruta(itemCarrito.productoId().valor()));
             orden.agregarItem(itemOrden);
         }
 
         // 3. Guardar la orden
-        Orden guardada = ordenRepository.save(orden);
+        PasoCheckoutJfrEvent guardado = PasoCheckoutJfrEvent.iniciar(CREAR_DESDE_CARRITO, "guardarOrden");
+        Orden guardada = guardarNueva(orden);
+        guardado.orden(guardada.getId().valor()).terminar();
 
         // 4. Publicar evento para que Ventas complete el checkout
+        PasoCheckoutJfrEvent publicacion = PasoCheckoutJfrEvent.iniciar(CREAR_DESDE_CARRITO, "publicarEventos");
         eventPublisher.publishEvent(new OrdenCreadaEvent(
                 UUID.randomUUID(),
                 Instant.now(),
                 guardada.getId().valor(),
                 carritoId,
-                carrito.clienteId().getValor()));
+                carrito.clienteId().getValor(),
+                propagacionTraza.traceparentActual()));
 
-        // 5. Publicar evento de productos comprados
-        eventPublisher.publishEvent(new ProductoCompradoEvent(
+        // 5. Publicar evento de productos comprados (ProductoCompradoPublicador lo
+        //    envía a RabbitMQ después del commit)
+        ProductoCompradoEvent productoComprado = new ProductoCompradoEvent(
                 UUID.randomUUID(),
                 Instant.now(),
                 guardada.getId().valor(),
                 guardada.getClienteId(),
-                guardada.getItems().stream()
-                        .map(item -> new ProductoCompradoEvent.ItemComprado(
-                                item.getProductoId(),
-                                item.getSku(),
-                                item.getCantidad(),
-                                item.getPrecioUnitario().getCantidad(),
-                                item.getPrecioUnitario().getMoneda()))
-                        .toList()));
-
-        // 6. Publicaer evento via RabbitMQ
-        rabbitTemplate.convertAndSend(
-                RabbitConfig.EVENTS_EXCHANGE,
-                RabbitConfig.RK_PRODUCTO_COMPRADO,
-                eventPublisher);
+                itemsComprados(guardada),
+                propagacionTraza.traceparentActual());
+        eventPublisher.publishEvent(productoComprado);
+        publicacion.terminar();
 
+        total.carrito(carritoId).orden(guardada.getId().valor()).terminar();
         return OrdenResumen.desde(guardada);
     }
 
+    @Override
+    @Transactional
+    public EstadoCheckout encolarCheckout(UUID carritoId, DireccionEnvio direccionEnvio) {
+        SolicitudCheckout solicitud = SolicitudCheckout.encolar(carritoId, direccionEnvio,
+                propagacionTraza.traceparentActual());
+        if (checkoutAsincrono) {
+            solicitudRepository.save(solicitud);
+            // Despierta a un hilo de ProcesadorCheckout en cuanto la solicitud se confirma
+            eventPublisher.publishEvent(new CheckoutEncolado(solicitud.getId()));
+        } else {
+            solicitud.completar(crearDesdeCarrito(carritoId, direccionEnvio).ordenId());
+            solicitudRepository.save(solicitud);
+        }
+        return EstadoCheckout.desde(solicitud);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstadoCheckout obtenerCheckout(UUID solicitudId) {
+        return solicitudRepository.findById(solicitudId)
+                .map(EstadoCheckout::desde)
+                .orElseThrow(() -> new ResourceNotFoundException("Solicitud de checkout no encontrada: " + solicitudId));
+    }
+
     @Override
     @Transactional
     public OrdenResumen confirmar(UUID ordenId) {
         Orden orden = buscarPorId(ordenId);
         orden.confirmar();
-        return OrdenResumen.desde(ordenRepository.save(orden));
+        return OrdenResumen.desde(guardar(orden));
     }
 
     @Override
@@ -169,7 +336,7 @@ public class OrdenService implements OrdenesApi {
     public OrdenResumen procesarPago(UUID ordenId, String referenciaPago) {
         Orden orden = buscarPorId(ordenId);
         orden.procesarPago(referenciaPago);
-        return OrdenResumen.desde(ordenRepository.save(orden));
+        return OrdenResumen.desde(guardar(orden));
     }
 
     @Override
@@ -177,7 +344,7 @@ public class OrdenService implements OrdenesApi {
     public OrdenResumen marcarEnProceso(UUID ordenId) {
         Orden orden = buscarPorId(ordenId);
         orden.marcarEnProceso();
-        return OrdenResumen.desde(ordenRepository.save(orden));
+        return OrdenResumen.desde(guardar(orden));
     }
 
     @Override
@@ -185,7 +352,7 @@ public class OrdenService implements OrdenesApi {
     public OrdenResumen marcarEnviada(UUID ordenId, String numeroGuia) {
         Orden orden = buscarPorId(ordenId);
         orden.marcarEnviada(numeroGuia);
-        return OrdenResumen.desde(ordenRepository.save(orden));
+        return OrdenResumen.desde(guardar(orden));
     }
 
     @Override
@@ -193,7 +360,7 @@ public class OrdenService implements OrdenesApi {
     public OrdenResumen marcarEntregada(UUID ordenId) {
         Orden orden = buscarPorId(ordenId);
         orden.marcarEntregada();
-        return OrdenResumen.desde(ordenRepository.save(orden));
+        return OrdenResumen.desde(guardar(orden));
     }
 
     @Override
@@ -201,7 +368,32 @@ public class OrdenService implements OrdenesApi {
     public OrdenResumen cancelar(UUID ordenId, String motivo) {
         Orden orden = buscarPorId(ordenId);
         orden.cancelar(motivo);
-        return OrdenResumen.desde(ordenRepository.save(orden));
+        guardar(orden);
+
+        // Reportes descuenta la venta con las mismas líneas y categorías que la sumaron
+        eventPublisher.publishEvent(new OrdenCanceladaEvent(
+                UUID.randomUUID(),
+                Instant.now(),
+                ordenId,
+                orden.getClienteId(),
+                itemsComprados(orden),
+                propagacionTraza.traceparentActual()));
+        return OrdenResumen.desde(orden);
+    }
+
+    // Sin @Transactional: cada lote abre la suya en el pool de TransicionesMasivasOrden
+    @Override
+    public ReporteTransiciones aplicarTransiciones(InputStream entrada, FormatoTransiciones formato)
+            throws IOException {
+        return transicionesMasivas.aplicar(entrada, formato);
+    }
+
+    // La transacción dura lo que el cursor: toda la escritura de la respuesta
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(FiltroExportacion filtro, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        return exportacion.exportar(filtro, formato, salida);
     }
 
     // ── Métodos internos (package-private – solo visibles dentro del package) ──
@@ -216,47 +408,45 @@ public class OrdenService implements OrdenesApi {
                 .orElseThrow(() -> new DomainException("Orden no encontrada con id: " + ordenId));
     }
 
-    /** Devuelve todas las órdenes como entidades de dominio (uso interno). */
-    @Transactional(readOnly = true)
-    List<Orden> todasLasOrdenes() {
-        return ordenRepository.findAll();
+    /**
+     * Persiste una orden nueva y crea su fila en orden_resumen en la misma transacción.
+     */
+    private Orden guardarNueva(Orden orden) {
+        Orden guardada = ordenRepository.saveAndFlush(orden);
+        proyeccionResumen.registrar(guardada);
+        return guardada;
     }
 
-    // ── Mappers privados ──────────────────────────────────────────────────────
-
-    private DatosResumen mapearDatosResumen(Orden orden) {
-        DireccionEnvio dir = orden.getDireccionEnvio();
-        String fecha = orden.getFechaCreacion() != null
-                ? orden.getFechaCreacion().toLocalDate().toString()
-                : "";
-        String hora = orden.getFechaCreacion() != null
-                ? orden.getFechaCreacion().toLocalTime().toString()
-                : "";
-        String direccion = dir != null ? dir.toString() : "";
-        String telefono = dir != null ? dir.getTelefonoContacto() : "";
-        String estadoDir = dir != null ? dir.getEstado() : "";
-
-        String metodoPago = "";
-        String formaPago = "";
-        if (orden.getResumenPago() != null) {
-            metodoPago = orden.getResumenPago().getMetodoPago() != null
-                    ? orden.getResumenPago().getMetodoPago()
-                    : "";
-            formaPago = orden.getResumenPago().getReferenciaExterna() != null
-                    ? orden.getResumenPago().getReferenciaExterna()
-                    : "";
-        }
+    /**
+     * Escribe los cambios de una orden cargada en esta transacción y actualiza su
+     * fila en orden_resumen. La orden ya está gestionada, así que basta el flush
+     * (que asigna la versión y la fecha que copia la proyección); un merge
+     * intentaría resolver los cambios de historial que aún no se insertan.
+     */
+    private Orden guardar(Orden orden) {
+        ordenRepository.flush();
+        proyeccionResumen.registrar(orden);
+        return orden;
+    }
 
-        return new DatosResumen(
-                orden.getClienteId(),
-                "", // nombre – no disponible en la entidad Orden
-                "", // apellido – no disponible en la entidad Orden
-                orden.getEstado().name(),
-                direccion,
-                telefono,
-                metodoPago,
-                formaPago,
-                fecha,
-                hora);
+    // Líneas de la orden tal como las publican los eventos ProductoCompradoEvent
+    private static List<ProductoCompradoEvent.ItemComprado> itemsComprados(Orden orden) {
+        return orden.getItems().stream()
+                .map(item -> new ProductoCompradoEvent.ItemComprado(
+                        item.getProductoId(),
+                        item.getSku(),
+                        item.getCantidad(),
+                        item.getPrecioUnitario().getCantidad(),
+                        item.getPrecioUnitario().getMoneda(),
+                        item.getRutaCategorias()))
+                .toList();
+    }
+
+    private FilaOrdenResumen buscarResumen(UUID ordenId, boolean incluirArchivadas) {
+        Optional<? extends FilaOrdenResumen> fila = resumenRepository.findById(ordenId);
+        if (fila.isEmpty() && incluirArchivadas) {
+            fila = archivoRepository.findById(ordenId);
+        }
+        return fila.orElseThrow(() -> new DomainException("Orden no encontrada con id: " + ordenId));
     }
 }
@@ -0,0 +1,209 @@
+package com.uamishop.backend.orden.service;
+
+import com.uamishop.backend.orden.api.OrdenResumen;
+import com.uamishop.backend.orden.domain.EstadoSolicitudCheckout;
+import com.uamishop.backend.orden.domain.SolicitudCheckout;
+import com.uamishop.backend.orden.repository.SolicitudCheckoutRepository;
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+import com.uamishop.backend.shared.exception.DomainException;
+import com.uamishop.backend.shared.exception.ResourceNotFoundException;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza.TrazaActiva;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Procesa las solicitudes de checkout asíncrono (solicitudes_checkout) con
+ * un pool fijo de hilos, independiente de los hilos de Tomcat: la petición
+ * solo inserta la solicitud y responde 202, y el ritmo de creación de
+ * órdenes lo marca orden.checkout-asincrono.hilos.
+ *
+ * Cada hilo, en una sola transacción:
+ * 1. Toma la siguiente solicitud con FOR UPDATE SKIP LOCKED (varios hilos
+ *    y nodos comparten la cola sin esperarse; un carrito, de a una).
+ * 2. Crea la orden con OrdenService.crearDesdeCarrito; si el carrito ya
+ *    tiene una solicitud COMPLETADA (doble clic, reintento del cliente),
+ *    no crea otra y devuelve esa misma orden.
+ * 3. Marca la solicitud COMPLETADA.
+ * Si el nodo cae a la mitad, todo se revierte y la solicitud sigue en cola:
+ * nunca queda una orden sin su solicitud completada ni al revés.
+ *
+ * Un error de negocio deja la solicitud FALLIDA; uno transitorio la
+ * reintenta con espera creciente (orden.checkout-asincrono.pausa-reintento)
+ * hasta orden.checkout-asincrono.max-intentos.
+ *
+ * Sin solicitudes, cada hilo espera orden.checkout-asincrono.intervalo-sondeo
+ * o hasta que se encola una en este nodo. Cada hilo ocupa una conexión del
+ * pool mientras procesa.
+ */
+@Component
+class ProcesadorCheckout {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesadorCheckout.class);
+
+    private final OrdenService ordenService;
+    private final SolicitudCheckoutRepository solicitudRepository;
+    private final PropagacionTraza propagacionTraza;
+    private final TransactionTemplate transacciones;
+    private final boolean habilitado;
+    private final int hilos;
+    private final Duration intervaloSondeo;
+    private final int maxIntentos;
+    private final Duration pausaReintento;
+    private final Semaphore senal = new Semaphore(0);
+    private ExecutorService ejecutor;
+
+    ProcesadorCheckout(OrdenService ordenService, SolicitudCheckoutRepository solicitudRepository,
+            PropagacionTraza propagacionTraza, PlatformTransactionManager transactionManager,
+            @Value("${orden.checkout-asincrono.habilitado:false}") boolean habilitado,
+            @Value("${orden.checkout-asincrono.hilos:4}") int hilos,
+            @Value("${orden.checkout-asincrono.intervalo-sondeo:500ms}") Duration intervaloSondeo,
+            @Value("${orden.checkout-asincrono.max-intentos:5}") int maxIntentos,
+            @Value("${orden.checkout-asincrono.pausa-reintento:2s}") Duration pausaReintento) {
+        if (hilos < 1 || maxIntentos < 1) {
+            throw new IllegalArgumentException("orden.checkout-asincrono.hilos y max-intentos deben ser positivos");
+        }
+        this.ordenService = ordenService;
+        this.solicitudRepository = solicitudRepository;
+        this.propagacionTraza = propagacionTraza;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.hilos = hilos;
+        this.intervaloSondeo = intervaloSondeo;
+        this.maxIntentos = maxIntentos;
+        this.pausaReintento = pausaReintento;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        AtomicInteger numero = new AtomicInteger();
+        ejecutor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "checkout-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int i = 0; i < hilos; i++) {
+            ejecutor.submit(this::trabajar);
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void onCheckoutEncolado(CheckoutEncolado event) {
+        senal.release();
+    }
+
+    private void trabajar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (!procesarSiguiente()) {
+                    senal.tryAcquire(intervaloSondeo.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Falla al tomar o al registrar el resultado (p. ej. base caída): se espera un sondeo
+                log.warn("Error procesando la cola de checkout: {}", e.getMessage());
+                try {
+                    Thread.sleep(intervaloSondeo.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Procesa la siguiente solicitud lista, si hay.
+     *
+     * @return false si la cola no tenía nada que procesar
+     */
+    boolean procesarSiguiente() {
+        AtomicReference<SolicitudCheckout> tomada = new AtomicReference<>();
+        try {
+            return Boolean.TRUE.equals(transacciones.execute(status -> {
+                Optional<SolicitudCheckout> siguiente = solicitudRepository.reclamarSiguiente(LocalDateTime.now());
+                if (siguiente.isEmpty()) {
+                    return false;
+                }
+                SolicitudCheckout solicitud = siguiente.get();
+                tomada.set(solicitud);
+                // Continúa la traza de la petición que encoló
+                try (TrazaActiva traza = propagacionTraza.continuar("ProcesadorCheckout", solicitud.getTraceparent())) {
+                    // Las solicitudes de un carrito van de a una, así que la consulta no compite con otra
+                    Optional<SolicitudCheckout> anterior = solicitudRepository.findFirstByCarritoIdAndEstado(
+                            solicitud.getCarritoId(), EstadoSolicitudCheckout.COMPLETADA);
+                    if (anterior.isPresent()) {
+                        solicitud.completar(anterior.get().getOrdenId());
+                    } else {
+                        OrdenResumen orden = ordenService.crearDesdeCarrito(solicitud.getCarritoId(),
+                                solicitud.getDireccionEnvio());
+                        solicitud.completar(orden.ordenId());
+                    }
+                }
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            if (tomada.get() == null) {
+                throw e;
+            }
+            registrarFallo(tomada.get(), e);
+            return true;
+        }
+    }
+
+    // La transacción del intento ya se revirtió; el resultado se guarda en otra
+    private void registrarFallo(SolicitudCheckout intento, RuntimeException e) {
+        transacciones.executeWithoutResult(status -> solicitudRepository.findById(intento.getId())
+                .filter(SolicitudCheckout::isPendiente)
+                .ifPresent(solicitud -> {
+                    int intentos = solicitud.getIntentos() + 1;
+                    if (esDefinitivo(e) || intentos >= maxIntentos) {
+                        solicitud.fallar(e.getMessage());
+                        log.warn("Checkout del carrito {} fallido tras {} intento(s): {}",
+                                solicitud.getCarritoId(), intentos, e.getMessage());
+                    } else {
+                        solicitud.reintentar(e.getMessage(),
+                                LocalDateTime.now().plus(pausaReintento.multipliedBy(intentos)));
+                        log.info("Checkout del carrito {} se reintentará (intento {}): {}",
+                                solicitud.getCarritoId(), intentos, e.getMessage());
+                    }
+                }));
+    }
+
+    // Reglas del dominio y datos inválidos: reintentar daría el mismo resultado
+    private static boolean esDefinitivo(RuntimeException e) {
+        return e instanceof BusinessRuleException
+                || e instanceof DomainException
+                || e instanceof ResourceNotFoundException
+                || e instanceof IllegalArgumentException
+                || e instanceof IllegalStateException;
+    }
+}
@@ -0,0 +1,341 @@
+package com.uamishop.backend.orden.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uamishop.backend.orden.api.OrdenesApi.FormatoTransiciones;
+import com.uamishop.backend.orden.api.ReporteTransiciones;
+import com.uamishop.backend.orden.api.ReporteTransiciones.Resultado;
+import com.uamishop.backend.orden.api.ReporteTransiciones.ResultadoTransicion;
+import com.uamishop.backend.orden.api.TransicionOrden;
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica transiciones de fulfilment en lote (confirmaciones de envío y
+ * entrega que llegan por miles desde almacenes y paqueterías).
+ *
+ * 1. Lee la entrada en streaming y agrupa las entradas en lotes.
+ * 2. Cada lote se procesa en un hilo del pool, en su propia transacción:
+ *    una consulta para todas sus órdenes (items e historial en lotes),
+ *    reglas del dominio por orden y un solo flush con JDBC batch.
+ * 3. orden_resumen se actualiza en la misma transacción del lote.
+ *
+ * Si un lote falla al guardarse (p. ej. la misma orden en dos lotes
+ * concurrentes y conflicto de versión), se reintenta orden por orden para
+ * aislar las que fallan. Una orden repetida dentro del mismo lote se procesa
+ * en el orden de la entrada; repetida en lotes distintos, sin orden garantizado.
+ *
+ * Solo hay unos pocos lotes en vuelo a la vez, así que la memoria no crece
+ * con el tamaño del archivo (salvo el propio reporte).
+ *
+ * - orden.transiciones-masivas.tamano-lote: entradas por lote / transacción.
+ * - orden.transiciones-masivas.paralelismo: lotes simultáneos (cada uno
+ *   ocupa una conexión del pool mientras dura).
+ */
+@Component
+class TransicionesMasivasOrden {
+
+    private static final Logger log = LoggerFactory.getLogger(TransicionesMasivasOrden.class);
+
+    private final OrdenJpaRepository ordenRepository;
+    private final ProyeccionOrdenResumen proyeccionResumen;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transacciones;
+    private final ExecutorService ejecutor;
+    private final int tamanoLote;
+    private final int paralelismo;
+
+    TransicionesMasivasOrden(OrdenJpaRepository ordenRepository,
+            ProyeccionOrdenResumen proyeccionResumen,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${orden.transiciones-masivas.tamano-lote:500}") int tamanoLote,
+            @Value("${orden.transiciones-masivas.paralelismo:4}") int paralelismo) {
+        if (tamanoLote < 1 || paralelismo < 1) {
+            throw new IllegalArgumentException("tamano-lote y paralelismo deben ser positivos");
+        }
+        this.ordenRepository = ordenRepository;
+        this.proyeccionResumen = proyeccionResumen;
+        this.objectMapper = objectMapper;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+        this.paralelismo = paralelismo;
+        AtomicInteger hilos = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(paralelismo, r -> {
+            Thread hilo = new Thread(r, "transiciones-orden-" + hilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    ReporteTransiciones aplicar(InputStream entrada, FormatoTransiciones formato) throws IOException {
+        Despacho despacho = new Despacho();
+        if (formato == FormatoTransiciones.NDJSON) {
+            leerNdjson(entrada, despacho);
+        } else {
+            leerArreglo(entrada, despacho);
+        }
+        return despacho.terminar();
+    }
+
+    @PreDestroy
+    void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    // =====================================================
+    // LECTURA
+    // =====================================================
+
+    private void leerNdjson(InputStream entrada, Despacho despacho) throws IOException {
+        BufferedReader lector = new BufferedReader(
+                new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+        long numeroLinea = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            if (!linea.isBlank()) {
+                String contenido = linea;
+                despacho.agregar(interpretar(numeroLinea, () -> objectMapper.readTree(contenido)));
+            }
+        }
+    }
+
+    // El arreglo se recorre elemento por elemento; nunca se materializa completo
+    private void leerArreglo(InputStream entrada, Despacho despacho) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(entrada);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new BusinessRuleException("FORMATO_INVALIDO", "Se espera un arreglo JSON de transiciones");
+        }
+        long posicion = 0;
+        try {
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                posicion++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    despacho.agregar(Entrada.invalida(posicion, "Se espera un objeto {ordenId, transicion, guia}"));
+                    continue;
+                }
+                JsonNode nodo = parser.readValueAsTree();
+                despacho.agregar(interpretar(posicion, () -> nodo));
+            }
+        } catch (JsonProcessingException e) {
+            // Un error de sintaxis impide seguir leyendo; lo ya leído se procesa igual
+            despacho.agregar(Entrada.invalida(posicion + 1,
+                    "JSON inválido, se detuvo la lectura: " + e.getOriginalMessage()));
+        }
+    }
+
+    private Entrada interpretar(long posicion, LectorNodo lector) {
+        try {
+            Solicitud solicitud = objectMapper.treeToValue(lector.leer(), Solicitud.class);
+            if (solicitud == null || solicitud.ordenId() == null || solicitud.transicion() == null) {
+                return Entrada.invalida(posicion, "ordenId y transicion son obligatorios");
+            }
+            return new Entrada(posicion, solicitud, null);
+        } catch (JsonProcessingException e) {
+            return Entrada.invalida(posicion, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    // =====================================================
+    // PROCESAMIENTO POR LOTES
+    // =====================================================
+
+    private List<ResultadoTransicion> procesarLote(List<Entrada> lote) {
+        try {
+            return transacciones.execute(status -> aplicarLote(lote));
+        } catch (RuntimeException e) {
+            log.warn("Falló un lote de {} transiciones ({}); se reintenta orden por orden",
+                    lote.size(), e.getMessage());
+            List<ResultadoTransicion> resultados = new ArrayList<>(lote.size());
+            for (Entrada entrada : lote) {
+                try {
+                    resultados.addAll(transacciones.execute(status -> aplicarLote(List.of(entrada))));
+                } catch (RuntimeException individual) {
+                    resultados.add(rechazo(entrada, null, "No se pudo guardar: " + individual.getMessage()));
+                }
+            }
+            return resultados;
+        }
+    }
+
+    private List<ResultadoTransicion> aplicarLote(List<Entrada> lote) {
+        Set<UUID> ids = lote.stream().map(entrada -> entrada.solicitud().ordenId()).collect(Collectors.toSet());
+        Map<UUID, Orden> ordenes = ordenRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(orden -> orden.getId().valor(), Function.identity()));
+
+        List<ResultadoTransicion> resultados = new ArrayList<>(lote.size());
+        Map<UUID, Orden> modificadas = new LinkedHashMap<>();
+        for (Entrada entrada : lote) {
+            Orden orden = ordenes.get(entrada.solicitud().ordenId());
+            ResultadoTransicion resultado = aplicarTransicion(entrada, orden);
+            if (resultado.resultado() == Resultado.APLICADA) {
+                modificadas.put(entrada.solicitud().ordenId(), orden);
+            }
+            resultados.add(resultado);
+        }
+
+        if (!modificadas.isEmpty()) {
+            // El flush asigna versión y fecha de actualización antes de proyectar
+            ordenRepository.flush();
+            proyeccionResumen.registrarLote(modificadas.values());
+        }
+        return resultados;
+    }
+
+    private ResultadoTransicion aplicarTransicion(Entrada entrada, Orden orden) {
+        if (orden == null) {
+            return rechazo(entrada, null, "Orden no encontrada");
+        }
+        EstadoOrden actual = orden.getEstado();
+        EstadoOrden destino = entrada.solicitud().transicion().estadoDestino();
+        if (actual == destino) {
+            return new ResultadoTransicion(entrada.posicion(), entrada.solicitud().ordenId(),
+                    entrada.solicitud().transicion(), Resultado.SIN_CAMBIOS, actual,
+                    "La orden ya estaba en " + actual);
+        }
+        if (!actual.puedeTransicionarA(destino)) {
+            return rechazo(entrada, actual, String.format("Transición de estado inválida: %s -> %s", actual, destino));
+        }
+
+        // Las reglas restantes (guía obligatoria, etc.) las valida el dominio sin modificar la orden
+        try {
+            switch (entrada.solicitud().transicion()) {
+                case MARCAR_EN_PROCESO -> orden.marcarEnProceso();
+                case MARCAR_ENVIADA -> orden.marcarEnviada(entrada.solicitud().guia());
+                case MARCAR_ENTREGADA -> orden.marcarEntregada();
+            }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return rechazo(entrada, actual, e.getMessage());
+        }
+        return new ResultadoTransicion(entrada.posicion(), entrada.solicitud().ordenId(),
+                entrada.solicitud().transicion(), Resultado.APLICADA, orden.getEstado(), null);
+    }
+
+    private static ResultadoTransicion rechazo(Entrada entrada, EstadoOrden estado, String mensaje) {
+        Solicitud solicitud = entrada.solicitud();
+        return new ResultadoTransicion(entrada.posicion(),
+                solicitud != null ? solicitud.ordenId() : null,
+                solicitud != null ? solicitud.transicion() : null,
+                Resultado.RECHAZADA, estado, mensaje);
+    }
+
+    // =====================================================
+    // TIPOS INTERNOS
+    // =====================================================
+
+    /** Elemento de la entrada: { "ordenId": ..., "transicion": "MARCAR_ENVIADA", "guia": ... } */
+    record Solicitud(UUID ordenId, TransicionOrden transicion, String guia) {}
+
+    /** Entrada leída: solicitud válida o error de lectura */
+    private record Entrada(long posicion, Solicitud solicitud, String error) {
+
+        static Entrada invalida(long posicion, String mensaje) {
+            return new Entrada(posicion, null, mensaje);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LectorNodo {
+        JsonNode leer() throws JsonProcessingException;
+    }
+
+    /**
+     * Agrupa las entradas en lotes, los envía al pool y junta los resultados.
+     * Se usa solo desde el hilo que lee la entrada.
+     */
+    private final class Despacho {
+
+        private List<Entrada> lote = new ArrayList<>(tamanoLote);
+        private final Deque<Future<List<ResultadoTransicion>>> enVuelo = new ArrayDeque<>();
+        private final List<ResultadoTransicion> resultados = new ArrayList<>();
+
+        void agregar(Entrada entrada) {
+            if (entrada.error() != null) {
+                resultados.add(rechazo(entrada, null, entrada.error()));
+                return;
+            }
+            lote.add(entrada);
+            if (lote.size() == tamanoLote) {
+                enviar();
+            }
+        }
+
+        ReporteTransiciones terminar() {
+            if (!lote.isEmpty()) {
+                enviar();
+            }
+            while (!enVuelo.isEmpty()) {
+                recoger(enVuelo.poll());
+            }
+
+            resultados.sort(Comparator.comparingLong(ResultadoTransicion::posicion));
+            Map<Resultado, Long> totales = resultados.stream()
+                    .collect(Collectors.groupingBy(ResultadoTransicion::resultado, Collectors.counting()));
+            return new ReporteTransiciones(
+                    resultados.size(),
+                    totales.getOrDefault(Resultado.APLICADA, 0L),
+                    totales.getOrDefault(Resultado.SIN_CAMBIOS, 0L),
+                    totales.getOrDefault(Resultado.RECHAZADA, 0L),
+                    List.copyOf(resultados));
+        }
+
+        private void enviar() {
+            List<Entrada> enviado = lote;
+            lote = new ArrayList<>(tamanoLote);
+            enVuelo.add(ejecutor.submit(() -> procesarLote(enviado)));
+            // Contrapresión: no leer más de lo que el pool puede procesar
+            while (enVuelo.size() > paralelismo) {
+                recoger(enVuelo.poll());
+            }
+        }
+
+        private void recoger(Future<List<ResultadoTransicion>> pendiente) {
+            try {
+                resultados.addAll(pendiente.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Se interrumpió el procesamiento de transiciones", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falló el procesamiento de un lote de transiciones", e.getCause());
+            }
+        }
+    }
+}
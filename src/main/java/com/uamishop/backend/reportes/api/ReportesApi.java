@@ -0,0 +1,24 @@
+// API pública del módulo de Reportes.
+// Los reportes se leen de tablas ya sumadas por día; nunca recorren ordenes ni items_orden.
+
+package com.uamishop.backend.reportes.api;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReportesApi {
+
+    /**
+     * Ventas por día y producto entre desde y hasta (inclusive), ordenadas por día.
+     * Con productoId nulo, de todos los productos.
+     */
+    List<VentasDiarias> ventasPorProducto(LocalDate desde, LocalDate hasta, UUID productoId);
+
+    /**
+     * Ventas por día y categoría entre desde y hasta (inclusive), ordenadas por día.
+     * Cada categoría acumula las ventas de todas sus subcategorías.
+     * Con categoriaId nulo, de todas las categorías.
+     */
+    List<VentasDiarias> ventasPorCategoria(LocalDate desde, LocalDate hasta, UUID categoriaId);
+}
@@ -0,0 +1,16 @@
+// DTO público del módulo de Reportes: ventas de un día para un producto o una categoría.
+
+package com.uamishop.backend.reportes.api;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record VentasDiarias(
+        LocalDate dia,
+        UUID id, // productoId o categoriaId, según el reporte
+        String moneda,
+        long ordenes,
+        long unidades,
+        BigDecimal ingresos) {
+}
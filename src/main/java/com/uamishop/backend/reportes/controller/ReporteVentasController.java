@@ -0,0 +1,68 @@
+package com.uamishop.backend.reportes.controller;
+
+import com.uamishop.backend.reportes.api.ReportesApi;
+import com.uamishop.backend.reportes.api.VentasDiarias;
+import com.uamishop.backend.shared.exception.ApiError;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reportes de ventas por día, leídos de los acumulados (no de las órdenes).
+ *
+ * Depende exclusivamente de ReportesApi.
+ */
+@Tag(name = "Reportes", description = "Ventas acumuladas por día, producto y categoría")
+@RestController
+@RequestMapping("/api/v1/reportes/ventas")
+public class ReporteVentasController {
+
+    private final ReportesApi reportesApi;
+
+    public ReporteVentasController(ReportesApi reportesApi) {
+        this.reportesApi = reportesApi;
+    }
+
+    @Operation(summary = "Ventas por producto", description = "Órdenes, unidades e ingresos por día y producto entre desde y hasta (inclusive)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Filas del reporte, por día"),
+            @ApiResponse(responseCode = "422", description = "Rango de fechas inválido",
+                content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping("/productos")
+    public ResponseEntity<List<VentasDiarias>> porProducto(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) UUID productoId) {
+        return ResponseEntity.ok(reportesApi.ventasPorProducto(desde, hasta, productoId));
+    }
+
+    @Operation(summary = "Ventas por categoría", description = "Órdenes, unidades e ingresos por día y categoría (incluye subcategorías) entre desde y hasta (inclusive)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Filas del reporte, por día"),
+            @ApiResponse(responseCode = "422", description = "Rango de fechas inválido",
+                content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping("/categorias")
+    public ResponseEntity<List<VentasDiarias>> porCategoria(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) UUID categoriaId) {
+        return ResponseEntity.ok(reportesApi.ventasPorCategoria(desde, hasta, categoriaId));
+    }
+}
@@ -0,0 +1,36 @@
+package com.uamishop.backend.reportes.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de un día ya sumados; las filas solo cambian con incrementos
+ * atómicos (ver VentaDiariaProductoRepository.incrementar), nunca se
+ * reescriben desde la entidad.
+ */
+@MappedSuperclass
+public abstract class VentaDiaria {
+
+    @Column(name = "ordenes", nullable = false)
+    private long ordenes;
+
+    @Column(name = "unidades", nullable = false)
+    private long unidades;
+
+    @Column(name = "ingresos", nullable = false, precision = 19, scale = 2)
+    private BigDecimal ingresos = BigDecimal.ZERO;
+
+    public long getOrdenes() {
+        return ordenes;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public BigDecimal getIngresos() {
+        return ingresos;
+    }
+}
@@ -0,0 +1,77 @@
+package com.uamishop.backend.reportes.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Ventas de una categoría (incluidas sus subcategorías) en un día y una moneda.
+ */
+@Entity
+@Table(name = "ventas_diarias_categoria", indexes = @Index(name = "idx_ventas_diarias_categoria_categoria",
+        columnList = "categoria_id, dia"))
+@IdClass(VentaDiariaCategoria.Clave.class)
+public class VentaDiariaCategoria extends VentaDiaria {
+
+    @Id
+    @Column(name = "dia")
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "categoria_id")
+    private UUID categoriaId;
+
+    @Id
+    @Column(name = "moneda", length = 3)
+    private String moneda;
+
+    // Constructor sin argumentos requerido por JPA
+    protected VentaDiariaCategoria() {
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public UUID getCategoriaId() {
+        return categoriaId;
+    }
+
+    public String getMoneda() {
+        return moneda;
+    }
+
+    public static class Clave implements Serializable {
+        private LocalDate dia;
+        private UUID categoriaId;
+        private String moneda;
+
+        protected Clave() {
+        }
+
+        public Clave(LocalDate dia, UUID categoriaId, String moneda) {
+            this.dia = dia;
+            this.categoriaId = categoriaId;
+            this.moneda = moneda;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave otra && Objects.equals(dia, otra.dia)
+                    && Objects.equals(categoriaId, otra.categoriaId) && Objects.equals(moneda, otra.moneda);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, categoriaId, moneda);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.uamishop.backend.reportes.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Ventas de un producto en un día y una moneda.
+ */
+@Entity
+@Table(name = "ventas_diarias_producto", indexes = @Index(name = "idx_ventas_diarias_producto_producto",
+        columnList = "producto_id, dia"))
+@IdClass(VentaDiariaProducto.Clave.class)
+public class VentaDiariaProducto extends VentaDiaria {
+
+    @Id
+    @Column(name = "dia")
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "producto_id")
+    private UUID productoId;
+
+    @Id
+    @Column(name = "moneda", length = 3)
+    private String moneda;
+
+    // Constructor sin argumentos requerido por JPA
+    protected VentaDiariaProducto() {
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public UUID getProductoId() {
+        return productoId;
+    }
+
+    public String getMoneda() {
+        return moneda;
+    }
+
+    public static class Clave implements Serializable {
+        private LocalDate dia;
+        private UUID productoId;
+        private String moneda;
+
+        protected Clave() {
+        }
+
+        public Clave(LocalDate dia, UUID productoId, String moneda) {
+            this.dia = dia;
+            this.productoId = productoId;
+            this.moneda = moneda;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Clave otra && Objects.equals(dia, otra.dia)
+                    && Objects.equals(productoId, otra.productoId) && Objects.equals(moneda, otra.moneda);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, productoId, moneda);
+        }
+    }
+}
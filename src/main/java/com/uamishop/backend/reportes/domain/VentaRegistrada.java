@@ -0,0 +1,38 @@
+package com.uamishop.backend.reportes.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Orden cuya venta ya se sumó a los acumulados, y el día en que se sumó.
+ * Una cancelación solo resta si encuentra (y borra) la fila de su orden:
+ * así no se restan órdenes anteriores al módulo ni se resta dos veces.
+ */
+@Entity
+@Table(name = "ventas_registradas")
+public class VentaRegistrada {
+
+    @Id
+    @Column(name = "orden_id")
+    private UUID ordenId;
+
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+
+    // Constructor sin argumentos requerido por JPA
+    protected VentaRegistrada() {
+    }
+
+    public UUID getOrdenId() {
+        return ordenId;
+    }
+
+    public LocalDate getDia() {
+        return dia;
+    }
+}
@@ -0,0 +1,71 @@
+package com.uamishop.backend.reportes.listener;
+
+import com.uamishop.backend.reportes.service.ReportesService;
+import com.uamishop.backend.shared.event.OrdenCanceladaEvent;
+import com.uamishop.backend.shared.event.ProductoCompradoEvent;
+import com.uamishop.backend.shared.observabilidad.ListenerAsyncJfrEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza.TrazaActiva;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Actualiza los acumulados de ventas cuando una orden se confirma en la base
+ * (creación o cancelación); si la transacción de la orden se revierte, no
+ * se cuenta.
+ */
+@Component
+public class VentasReporteListener {
+
+    private final ReportesService reportesService;
+    private final PropagacionTraza propagacionTraza;
+
+    public VentasReporteListener(ReportesService reportesService, PropagacionTraza propagacionTraza) {
+        this.reportesService = reportesService;
+        this.propagacionTraza = propagacionTraza;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Async
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductoComprado(ProductoCompradoEvent event) {
+        ListenerAsyncJfrEvent jfr = ListenerAsyncJfrEvent.iniciar(
+                "VentasReporteListener", event.eventId(), event.occurredAt());
+        boolean exito = false;
+        // Continúa la traza de quien publicó el evento
+        try (TrazaActiva traza = propagacionTraza.continuar("VentasReporteListener", event.traceparent())) {
+            reportesService.registrarVenta(event.ordenId(), dia(event.occurredAt()), event.items());
+            exito = true;
+        } finally {
+            jfr.terminar(exito);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Async
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrdenCancelada(OrdenCanceladaEvent event) {
+        ListenerAsyncJfrEvent jfr = ListenerAsyncJfrEvent.iniciar(
+                "VentasReporteListener", event.eventId(), event.occurredAt());
+        boolean exito = false;
+        try (TrazaActiva traza = propagacionTraza.continuar("VentasReporteListener", event.traceparent())) {
+            reportesService.registrarCancelacion(event.ordenId(), event.items());
+            exito = true;
+        } finally {
+            jfr.terminar(exito);
+        }
+    }
+
+    // Mismo huso que fecha_creacion de las órdenes
+    private static LocalDate dia(Instant instante) {
+        return LocalDate.ofInstant(instante, ZoneId.systemDefault());
+    }
+}
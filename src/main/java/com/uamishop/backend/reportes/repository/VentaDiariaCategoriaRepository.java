@@ -0,0 +1,36 @@
+package com.uamishop.backend.reportes.repository;
+
+import com.uamishop.backend.reportes.domain.VentaDiariaCategoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VentaDiariaCategoriaRepository extends JpaRepository<VentaDiariaCategoria, VentaDiariaCategoria.Clave> {
+
+    List<VentaDiariaCategoria> findByDiaBetweenOrderByDiaAscCategoriaIdAsc(LocalDate desde, LocalDate hasta);
+
+    List<VentaDiariaCategoria> findByCategoriaIdAndDiaBetweenOrderByDiaAsc(UUID categoriaId, LocalDate desde,
+            LocalDate hasta);
+
+    /** Suma los deltas a la fila; 0 si todavía no existe. La fila queda bloqueada hasta el commit. */
+    @Modifying
+    @Query("update VentaDiariaCategoria v set v.ordenes = v.ordenes + :ordenes, v.unidades = v.unidades + :unidades, "
+            + "v.ingresos = v.ingresos + :ingresos "
+            + "where v.dia = :dia and v.categoriaId = :categoriaId and v.moneda = :moneda")
+    int incrementar(@Param("dia") LocalDate dia, @Param("categoriaId") UUID categoriaId, @Param("moneda") String moneda,
+            @Param("ordenes") long ordenes, @Param("unidades") long unidades, @Param("ingresos") BigDecimal ingresos);
+
+    /** Crea la fila en cero; falla por llave duplicada si otra transacción la creó antes. */
+    @Modifying
+    @Query(value = "insert into ventas_diarias_categoria (dia, categoria_id, moneda, ordenes, unidades, ingresos) "
+            + "values (:dia, :categoriaId, :moneda, 0, 0, 0)", nativeQuery = true)
+    void crear(@Param("dia") LocalDate dia, @Param("categoriaId") UUID categoriaId, @Param("moneda") String moneda);
+}
@@ -0,0 +1,36 @@
+package com.uamishop.backend.reportes.repository;
+
+import com.uamishop.backend.reportes.domain.VentaDiariaProducto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VentaDiariaProductoRepository extends JpaRepository<VentaDiariaProducto, VentaDiariaProducto.Clave> {
+
+    List<VentaDiariaProducto> findByDiaBetweenOrderByDiaAscProductoIdAsc(LocalDate desde, LocalDate hasta);
+
+    List<VentaDiariaProducto> findByProductoIdAndDiaBetweenOrderByDiaAsc(UUID productoId, LocalDate desde,
+            LocalDate hasta);
+
+    /** Suma los deltas a la fila; 0 si todavía no existe. La fila queda bloqueada hasta el commit. */
+    @Modifying
+    @Query("update VentaDiariaProducto v set v.ordenes = v.ordenes + :ordenes, v.unidades = v.unidades + :unidades, "
+            + "v.ingresos = v.ingresos + :ingresos "
+            + "where v.dia = :dia and v.productoId = :productoId and v.moneda = :moneda")
+    int incrementar(@Param("dia") LocalDate dia, @Param("productoId") UUID productoId, @Param("moneda") String moneda,
+            @Param("ordenes") long ordenes, @Param("unidades") long unidades, @Param("ingresos") BigDecimal ingresos);
+
+    /** Crea la fila en cero; falla por llave duplicada si otra transacción la creó antes. */
+    @Modifying
+    @Query(value = "insert into ventas_diarias_producto (dia, producto_id, moneda, ordenes, unidades, ingresos) "
+            + "values (:dia, :productoId, :moneda, 0, 0, 0)", nativeQuery = true)
+    void crear(@Param("dia") LocalDate dia, @Param("productoId") UUID productoId, @Param("moneda") String moneda);
+}
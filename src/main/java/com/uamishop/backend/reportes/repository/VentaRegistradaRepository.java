@@ -0,0 +1,25 @@
+package com.uamishop.backend.reportes.repository;
+
+import com.uamishop.backend.reportes.domain.VentaRegistrada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+public interface VentaRegistradaRepository extends JpaRepository<VentaRegistrada, UUID> {
+
+    /** Falla por llave duplicada si la venta de la orden ya se registró. */
+    @Modifying
+    @Query(value = "insert into ventas_registradas (orden_id, dia) values (:ordenId, :dia)", nativeQuery = true)
+    void registrar(@Param("ordenId") UUID ordenId, @Param("dia") LocalDate dia);
+
+    /** 0 si otra transacción ya la borró. */
+    @Modifying
+    @Query("delete from VentaRegistrada v where v.ordenId = :ordenId")
+    int borrar(@Param("ordenId") UUID ordenId);
+}
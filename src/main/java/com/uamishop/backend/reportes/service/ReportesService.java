@@ -0,0 +1,189 @@
+package com.uamishop.backend.reportes.service;
+
+import com.uamishop.backend.reportes.api.ReportesApi;
+import com.uamishop.backend.reportes.api.VentasDiarias;
+import com.uamishop.backend.reportes.domain.VentaDiariaCategoria;
+import com.uamishop.backend.reportes.domain.VentaDiariaProducto;
+import com.uamishop.backend.reportes.domain.VentaRegistrada;
+import com.uamishop.backend.reportes.repository.VentaDiariaCategoriaRepository;
+import com.uamishop.backend.reportes.repository.VentaDiariaProductoRepository;
+import com.uamishop.backend.reportes.repository.VentaRegistradaRepository;
+import com.uamishop.backend.shared.event.ProductoCompradoEvent.ItemComprado;
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Mantiene y consulta los acumulados de ventas por día:
+ * - ventas_diarias_producto: día × producto × moneda;
+ * - ventas_diarias_categoria: día × categoría × moneda, donde cada venta
+ *   suma en la categoría del producto y en todos sus ancestros, según la
+ *   ruta que el checkout guardó en cada item (ItemComprado.categorias).
+ *
+ * Cada orden aplica un delta por fila (una orden, sus unidades y su
+ * importe; con signo negativo al cancelarse) con un UPDATE atómico, así que
+ * varias órdenes del mismo día no se pisan. Las filas faltantes se crean
+ * antes, en cero y en su propia transacción. Las filas se actualizan en
+ * orden de llave para que dos órdenes concurrentes no se bloqueen en cruz.
+ *
+ * Cada venta sumada deja una fila en ventas_registradas; la cancelación
+ * resta en el día de esa fila y la borra. Una orden sin fila (anterior al
+ * módulo o ya cancelada) no resta nada.
+ */
+@Service
+public class ReportesService implements ReportesApi {
+
+    private static final Comparator<Clave> ORDEN_CLAVES = Comparator.comparing(Clave::id).thenComparing(Clave::moneda);
+
+    private final VentaDiariaProductoRepository productoRepository;
+    private final VentaDiariaCategoriaRepository categoriaRepository;
+    private final VentaRegistradaRepository registradaRepository;
+    private final TransactionTemplate nuevaTransaccion;
+    private final int maxDiasConsulta;
+
+    public ReportesService(VentaDiariaProductoRepository productoRepository,
+            VentaDiariaCategoriaRepository categoriaRepository,
+            VentaRegistradaRepository registradaRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${reportes.max-dias-consulta:366}") int maxDiasConsulta) {
+        this.productoRepository = productoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.registradaRepository = registradaRepository;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxDiasConsulta = maxDiasConsulta;
+    }
+
+    // ── Consultas (contrato de ReportesApi) ───────────────────────────────────
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentasDiarias> ventasPorProducto(LocalDate desde, LocalDate hasta, UUID productoId) {
+        validarRango(desde, hasta);
+        List<VentaDiariaProducto> filas = productoId != null
+                ? productoRepository.findByProductoIdAndDiaBetweenOrderByDiaAsc(productoId, desde, hasta)
+                : productoRepository.findByDiaBetweenOrderByDiaAscProductoIdAsc(desde, hasta);
+        return filas.stream()
+                .map(v -> new VentasDiarias(v.getDia(), v.getProductoId(), v.getMoneda(),
+                        v.getOrdenes(), v.getUnidades(), v.getIngresos()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentasDiarias> ventasPorCategoria(LocalDate desde, LocalDate hasta, UUID categoriaId) {
+        validarRango(desde, hasta);
+        List<VentaDiariaCategoria> filas = categoriaId != null
+                ? categoriaRepository.findByCategoriaIdAndDiaBetweenOrderByDiaAsc(categoriaId, desde, hasta)
+                : categoriaRepository.findByDiaBetweenOrderByDiaAscCategoriaIdAsc(desde, hasta);
+        return filas.stream()
+                .map(v -> new VentasDiarias(v.getDia(), v.getCategoriaId(), v.getMoneda(),
+                        v.getOrdenes(), v.getUnidades(), v.getIngresos()))
+                .toList();
+    }
+
+    // ── Actualización incremental (listener de eventos) ───────────────────────
+
+    /** Suma una orden a los acumulados de su día; si ya se sumó, no hace nada. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVenta(UUID ordenId, LocalDate dia, List<ItemComprado> items) {
+        if (registradaRepository.existsById(ordenId)) {
+            return;
+        }
+        // Si el mismo evento llega dos veces a la par, la llave duplicada revierte el segundo
+        registradaRepository.registrar(ordenId, dia);
+        aplicar(dia, items, 1);
+    }
+
+    /**
+     * Resta una orden cancelada de los acumulados del día en que se sumó; si
+     * su venta no se sumó, no hace nada.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCancelacion(UUID ordenId, List<ItemComprado> items) {
+        Optional<VentaRegistrada> venta = registradaRepository.findById(ordenId);
+        if (venta.isEmpty() || registradaRepository.borrar(ordenId) == 0) {
+            return;
+        }
+        aplicar(venta.get().getDia(), items, -1);
+    }
+
+    private void aplicar(LocalDate dia, List<ItemComprado> items, int signo) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Clave, Delta> porProducto = new TreeMap<>(ORDEN_CLAVES);
+        Map<Clave, Delta> porCategoria = new TreeMap<>(ORDEN_CLAVES);
+        for (ItemComprado item : items) {
+            Delta delta = new Delta(item.cantidad(), item.precioUnitario().multiply(BigDecimal.valueOf(item.cantidad())));
+            porProducto.merge(new Clave(item.productoId(), item.moneda()), delta, Delta::sumar);
+            for (UUID categoria : item.categorias()) {
+                porCategoria.merge(new Clave(categoria, item.moneda()), delta, Delta::sumar);
+            }
+        }
+
+        asegurarFilas(dia, porProducto, porCategoria);
+        // La orden cuenta una vez por fila aunque tenga varias líneas del mismo producto o categoría
+        porProducto.forEach((clave, delta) -> productoRepository.incrementar(dia, clave.id(), clave.moneda(),
+                signo, signo * delta.unidades(), delta.ingresos().multiply(BigDecimal.valueOf(signo))));
+        porCategoria.forEach((clave, delta) -> categoriaRepository.incrementar(dia, clave.id(), clave.moneda(),
+                signo, signo * delta.unidades(), delta.ingresos().multiply(BigDecimal.valueOf(signo))));
+    }
+
+    // Fuera de la transacción del evento: un INSERT duplicado la dejaría marcada para rollback
+    private void asegurarFilas(LocalDate dia, Map<Clave, Delta> porProducto, Map<Clave, Delta> porCategoria) {
+        try {
+            nuevaTransaccion.executeWithoutResult(status -> crearFaltantes(dia, porProducto, porCategoria));
+        } catch (DataIntegrityViolationException e) {
+            // Otra transacción creó alguna a la vez; las demás siguen faltando
+            nuevaTransaccion.executeWithoutResult(status -> crearFaltantes(dia, porProducto, porCategoria));
+        }
+    }
+
+    private void crearFaltantes(LocalDate dia, Map<Clave, Delta> porProducto, Map<Clave, Delta> porCategoria) {
+        for (Clave clave : porProducto.keySet()) {
+            if (!productoRepository.existsById(new VentaDiariaProducto.Clave(dia, clave.id(), clave.moneda()))) {
+                productoRepository.crear(dia, clave.id(), clave.moneda());
+            }
+        }
+        for (Clave clave : porCategoria.keySet()) {
+            if (!categoriaRepository.existsById(new VentaDiariaCategoria.Clave(dia, clave.id(), clave.moneda()))) {
+                categoriaRepository.crear(dia, clave.id(), clave.moneda());
+            }
+        }
+    }
+
+    private void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)
+                || ChronoUnit.DAYS.between(desde, hasta) >= maxDiasConsulta) {
+            throw new BusinessRuleException("RANGO_INVALIDO",
+                    "desde y hasta son obligatorios, desde <= hasta, y el rango no puede pasar de "
+                            + maxDiasConsulta + " días");
+        }
+    }
+
+    private record Clave(UUID id, String moneda) {
+    }
+
+    private record Delta(long unidades, BigDecimal ingresos) {
+        Delta sumar(Delta otro) {
+            return new Delta(unidades + otro.unidades, ingresos.add(otro.ingresos));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.uamishop.backend.shared.datos;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.ventas.domain.EstadoCarrito;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Volúmenes y distribuciones del generador de datos sintéticos.
+ *
+ * Las distribuciones de estados son pesos relativos (no tienen que sumar 100)
+ * y se escriben como "ESTADO:peso,ESTADO:peso" en application-generador-datos.properties.
+ *
+ * @param categoriasRaiz         categorías sin padre
+ * @param subcategoriasPorNivel  hijas de cada categoría en cada nivel
+ * @param nivelesCategorias      profundidad del árbol (1 = solo raíces)
+ * @param productos              productos, repartidos entre las categorías hoja
+ * @param sesgoPopularidad       exponente Zipf de la popularidad (0 = uniforme, ~1 = pocos productos concentran la demanda)
+ * @param proporcionDisponibles  fracción de productos activos
+ * @param clientes               clientes distintos a los que pertenecen carritos y órdenes
+ * @param carritos               carritos
+ * @param estadosCarrito         pesos de cada EstadoCarrito
+ * @param ordenes                órdenes
+ * @param estadosOrden           pesos del estado final de cada orden
+ * @param maxItems               máximo de líneas por carrito u orden
+ * @param diasHistoria           las fechas de creación se reparten en los últimos N días
+ * @param semilla                misma semilla, mismos datos (ids incluidos)
+ * @param tamanoLote             filas por executeBatch / transacción
+ * @param limpiar                borra los datos existentes antes de generar
+ */
+public record ConfiguracionGeneradorDatos(
+        int categoriasRaiz,
+        int subcategoriasPorNivel,
+        int nivelesCategorias,
+        int productos,
+        double sesgoPopularidad,
+        double proporcionDisponibles,
+        int clientes,
+        int carritos,
+        Map<EstadoCarrito, Integer> estadosCarrito,
+        int ordenes,
+        Map<EstadoOrden, Integer> estadosOrden,
+        int maxItems,
+        int diasHistoria,
+        long semilla,
+        int tamanoLote,
+        boolean limpiar) {
+
+    public ConfiguracionGeneradorDatos {
+        if (categoriasRaiz < 1 || nivelesCategorias < 1 || (nivelesCategorias > 1 && subcategoriasPorNivel < 1)) {
+            throw new IllegalArgumentException("Se requiere al menos una categoría hoja");
+        }
+        if (productos < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un producto");
+        }
+        if (clientes < 1 || maxItems < 1 || diasHistoria < 1 || tamanoLote < 1) {
+            throw new IllegalArgumentException("clientes, maxItems, diasHistoria y tamanoLote deben ser positivos");
+        }
+        if (sesgoPopularidad < 0 || proporcionDisponibles < 0 || proporcionDisponibles > 1) {
+            throw new IllegalArgumentException("sesgoPopularidad debe ser >= 0 y proporcionDisponibles estar entre 0 y 1");
+        }
+        // EnumMap: orden de iteración fijo, necesario para que la semilla reproduzca los datos
+        estadosCarrito = Collections.unmodifiableMap(new EnumMap<>(estadosCarrito));
+        estadosOrden = Collections.unmodifiableMap(new EnumMap<>(estadosOrden));
+    }
+
+    /**
+     * Interpreta "ACTIVO:40,ABANDONADO:20"; los estados omitidos tienen peso 0.
+     */
+    public static <E extends Enum<E>> Map<E, Integer> distribucion(Class<E> tipo, String texto) {
+        Map<E, Integer> pesos = new EnumMap<>(tipo);
+        for (String parte : texto.split(",")) {
+            String[] claveValor = parte.trim().split(":");
+            if (claveValor.length != 2) {
+                throw new IllegalArgumentException("Distribución inválida (se espera ESTADO:peso): " + parte);
+            }
+            int peso = Integer.parseInt(claveValor[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo en la distribución: " + parte);
+            }
+            pesos.put(Enum.valueOf(tipo, claveValor[0].trim()), peso);
+        }
+        if (pesos.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("La distribución no tiene ningún peso positivo: " + texto);
+        }
+        return pesos;
+    }
+}
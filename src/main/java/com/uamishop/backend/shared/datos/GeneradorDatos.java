@@ -0,0 +1,631 @@
+package com.uamishop.backend.shared.datos;
+
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.orden.domain.EstadoPago;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.ventas.domain.EstadoCarrito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Carga masiva de datos sintéticos directamente por JDBC (executeBatch), sin
+ * pasar por la API REST ni por JPA, para tener volúmenes de producción en
+ * benchmarks y revisiones de planes de consulta.
+ *
+ * Genera, en este orden:
+ * - árbol de categorías (categoria_padre_id) con productos solo en las hojas;
+ * - productos con popularidad sesgada (Zipf): unos pocos concentran la mayoría
+ *   de las apariciones en carritos y órdenes, como en un catálogo real;
+ * - carritos en cada EstadoCarrito, con sus items;
+ * - órdenes con items e historial_estados que siguen las transiciones válidas
+ *   de EstadoOrden hasta el estado final sorteado;
+ * - producto_estadisticas consistentes con los carritos y órdenes generados.
+ *
+ * Los ids se derivan de la semilla: con la misma configuración se obtienen
+ * exactamente los mismos datos. Las tablas deben estar vacías salvo que se
+ * pida limpiar.
+ *
+ * Memoria: además del lote en curso, ~40 bytes por producto para acumular
+ * las estadísticas (unos 40 MB por millón de productos).
+ */
+public class GeneradorDatos {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatos.class);
+
+    private static final String MXN = "MXN";
+
+    // Espacios de ids independientes por tipo de fila
+    private static final long ID_CATEGORIA = 1;
+    private static final long ID_PRODUCTO = 2;
+    private static final long ID_CLIENTE = 3;
+    private static final long ID_CARRITO = 4;
+    private static final long ID_ITEM_CARRITO = 5;
+    private static final long ID_ORDEN = 6;
+    private static final long ID_ITEM_ORDEN = 7;
+    private static final long ID_PRECIO = 9;
+
+    // Hijas primero, para respetar las llaves foráneas
+    private static final List<String> TABLAS = List.of(
+            "solicitudes_checkout",
+            "orden_resumen_archivo", "historial_estados_archivo", "items_orden_archivo", "ordenes_archivo",
+            "orden_resumen", "historial_estados", "items_orden", "ordenes",
+            "items_carrito", "carritos",
+            "producto_estadisticas", "productos", "categorias");
+
+    private static final String[][] CIUDADES = {
+            {"Ciudad de México", "CDMX"}, {"Guadalajara", "Jalisco"}, {"Monterrey", "Nuevo León"},
+            {"Puebla", "Puebla"}, {"Mérida", "Yucatán"}, {"Querétaro", "Querétaro"},
+            {"Toluca", "Estado de México"}, {"León", "Guanajuato"}, {"Tijuana", "Baja California"},
+            {"Oaxaca", "Oaxaca"}
+    };
+
+    private static final String[] MOTIVOS_CANCELACION = {
+            "El cliente solicitó la cancelación",
+            "Pago rechazado por el banco emisor",
+            "Producto sin existencias en almacén",
+            "Dirección de envío fuera de cobertura"
+    };
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final ConfiguracionGeneradorDatos config;
+    private final NumeradorOrdenes numerador;
+    private final SplittableRandom random;
+    private final LocalDateTime ahora = LocalDateTime.now().withNano(0);
+
+    private final List<UUID> categoriasHoja = new ArrayList<>();
+    private final long multiplicadorPopularidad;
+
+    // Estadísticas acumuladas por índice de producto
+    private final long[] ventas;
+    private final long[] unidadesVendidas;
+    private final long[] vecesAgregado;
+    private final long[] ultimaVenta;
+    private final long[] ultimoAgregado;
+
+    public GeneradorDatos(JdbcTemplate jdbc, TransactionTemplate transacciones, ConfiguracionGeneradorDatos config,
+            NumeradorOrdenes numerador) {
+        this.jdbc = jdbc;
+        this.transacciones = transacciones;
+        this.config = config;
+        this.numerador = numerador;
+        this.random = new SplittableRandom(config.semilla());
+        this.multiplicadorPopularidad = coprimo(config.productos());
+        int productos = config.productos();
+        this.ventas = new long[productos];
+        this.unidadesVendidas = new long[productos];
+        this.vecesAgregado = new long[productos];
+        this.ultimaVenta = new long[productos];
+        this.ultimoAgregado = new long[productos];
+    }
+
+    /**
+     * Genera todo el conjunto de datos y devuelve cuántas filas se insertaron por tabla.
+     */
+    public Resumen generar() {
+        long inicio = System.nanoTime();
+        if (config.limpiar()) {
+            limpiar();
+        } else {
+            verificarTablasVacias();
+        }
+
+        long categorias = generarCategorias();
+        long productos = generarProductos();
+        long[] carritos = generarCarritos();
+        long[] ordenes = generarOrdenes();
+        long estadisticas = generarEstadisticas();
+
+        Resumen resumen = new Resumen(categorias, productos, carritos[0], carritos[1],
+                ordenes[0], ordenes[1], ordenes[2], estadisticas, Duration.ofNanos(System.nanoTime() - inicio));
+        log.info("Datos generados: {}", resumen);
+        return resumen;
+    }
+
+    // ── Catálogo ──
+
+    private long generarCategorias() {
+        try (Lote lote = new Lote("categorias",
+                "insert into categorias (id, nombre, descripcion, categoria_padre_id, version, fecha_actualizacion) "
+                        + "values (?, ?, ?, ?, 0, ?)", null)) {
+
+            List<UUID> nivel = new ArrayList<>();
+            long indice = 0;
+            for (int i = 0; i < config.categoriasRaiz(); i++) {
+                UUID id = uuid(ID_CATEGORIA, indice++);
+                lote.agregar(bytes(id), "Categoría " + (i + 1), "Categoría raíz generada", null, timestamp(ahora));
+                nivel.add(id);
+            }
+            for (int profundidad = 2; profundidad <= config.nivelesCategorias(); profundidad++) {
+                List<UUID> siguiente = new ArrayList<>(nivel.size() * config.subcategoriasPorNivel());
+                for (UUID padre : nivel) {
+                    for (int i = 0; i < config.subcategoriasPorNivel(); i++) {
+                        UUID id = uuid(ID_CATEGORIA, indice++);
+                        lote.agregar(bytes(id), "Subcategoría " + indice, "Subcategoría de nivel " + profundidad,
+                                bytes(padre), timestamp(ahora));
+                        siguiente.add(id);
+                    }
+                }
+                nivel = siguiente;
+            }
+            categoriasHoja.addAll(nivel);
+            return lote.total();
+        }
+    }
+
+    private long generarProductos() {
+        try (Lote lote = new Lote("productos",
+                "insert into productos (id, nombre, descripcion, precio, categoria_id, disponible, version, "
+                        + "fecha_creacion, fecha_actualizacion) values (?, ?, ?, ?, ?, ?, 0, ?, ?)", null)) {
+
+            for (int i = 0; i < config.productos(); i++) {
+                LocalDateTime creacion = fechaEnHistoria();
+                lote.agregar(bytes(uuid(ID_PRODUCTO, i)), nombreProducto(i),
+                        "Producto sintético para pruebas de rendimiento",
+                        BigDecimal.valueOf(precioCentavos(i), 2),
+                        bytes(categoriasHoja.get(i % categoriasHoja.size())),
+                        random.nextDouble() < config.proporcionDisponibles(),
+                        timestamp(creacion), timestamp(creacion));
+            }
+            return lote.total();
+        }
+    }
+
+    // ── Ventas ──
+
+    private long[] generarCarritos() {
+        Sorteo<EstadoCarrito> estados = new Sorteo<>(config.estadosCarrito());
+        try (Lote carritos = new Lote("carritos",
+                "insert into carritos (id, cliente_id, estado, subtotal_monto, subtotal_moneda, "
+                        + "descuento_monto, descuento_moneda) values (?, ?, ?, ?, ?, 0, ?)", null);
+             Lote items = new Lote("items_carrito",
+                     "insert into items_carrito (id, carrito_id, producto_id, nombre_producto, cantidad_items, "
+                             + "precio_unitario_monto, precio_unitario_moneda) values (?, ?, ?, ?, ?, ?, ?)", carritos)) {
+
+            long indiceItem = 0;
+            for (int i = 0; i < config.carritos(); i++) {
+                EstadoCarrito estado = estados.sortear();
+                UUID carritoId = uuid(ID_CARRITO, i);
+                // Solo un carrito ACTIVO puede estar vacío
+                int minimo = estado == EstadoCarrito.ACTIVO ? 0 : 1;
+                int lineas = minimo + random.nextInt(config.maxItems() + 1 - minimo);
+                long epoch = epoch(fechaEnHistoria());
+
+                long subtotal = 0;
+                List<Object[]> filasItems = new ArrayList<>(lineas);
+                for (int producto : productosDistintos(lineas)) {
+                    int cantidad = cantidad();
+                    long precio = precioCentavos(producto);
+                    subtotal += precio * cantidad;
+                    registrarAgregado(producto, epoch);
+                    filasItems.add(new Object[] {bytes(uuid(ID_ITEM_CARRITO, indiceItem++)), bytes(carritoId),
+                            bytes(uuid(ID_PRODUCTO, producto)), nombreProducto(producto), cantidad,
+                            BigDecimal.valueOf(precio, 2), MXN});
+                }
+                // El carrito va antes que sus items: un lote hijo lleno vacía primero al padre
+                carritos.agregar(bytes(carritoId), bytes(cliente()), estado.name(),
+                        BigDecimal.valueOf(subtotal, 2), MXN, MXN);
+                filasItems.forEach(items::agregar);
+            }
+            return new long[] {carritos.total(), items.total()};
+        }
+    }
+
+    // ── Órdenes ──
+
+    private long[] generarOrdenes() {
+        Sorteo<EstadoOrden> estados = new Sorteo<>(config.estadosOrden());
+        // Del mismo contador que la aplicación, para que las órdenes creadas después no repitan números
+        long primerNumero = numerador.reservar(config.ordenes());
+        try (Lote ordenes = new Lote("ordenes",
+                "insert into ordenes (id, numero_orden, cliente_id, estado, "
+                        + "calle, ciudad, direccion_estado, codigo_postal, pais, telefono_contacto, "
+                        + "ref_pago_metodo, ref_pago_codigo, ref_pago_estado, ref_pago_fecha, "
+                        + "proveedor_logistico, numero_guia, fecha_estimada_entrega, "
+                        + "cantidad, moneda, descuento_monto, descuento_moneda, total_cantidad, total_moneda, "
+                        + "fecha_creacion, fecha_actualizacion, version, cambios_estado) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?)", null);
+             Lote items = new Lote("items_orden",
+                     "insert into items_orden (item_id, orden_id, producto_id, nombre_producto, cantidad, "
+                             + "precio_cantidad, precio_moneda) values (?, ?, ?, ?, ?, ?, ?)", ordenes);
+             Lote historial = new Lote("historial_estados",
+                     "insert into historial_estados (orden_id, secuencia, estado_anterior, estado_nuevo, fecha_cambio, motivo) "
+                             + "values (?, ?, ?, ?, ?, ?)", ordenes)) {
+
+            long indiceItem = 0;
+            for (int i = 0; i < config.ordenes(); i++) {
+                UUID ordenId = uuid(ID_ORDEN, i);
+                LocalDateTime creacion = fechaEnHistoria();
+                long epochCreacion = epoch(creacion);
+
+                // La orden nace de un carrito: cada línea cuenta como agregado y como venta
+                long subtotal = 0;
+                List<Object[]> filasItems = new ArrayList<>(config.maxItems());
+                for (int producto : productosDistintos(1 + random.nextInt(config.maxItems()))) {
+                    int cantidad = cantidad();
+                    long precio = precioCentavos(producto);
+                    subtotal += precio * cantidad;
+                    registrarAgregado(producto, epochCreacion);
+                    registrarVenta(producto, cantidad, epochCreacion);
+                    filasItems.add(new Object[] {bytes(uuid(ID_ITEM_ORDEN, indiceItem++)), bytes(ordenId),
+                            bytes(uuid(ID_PRODUCTO, producto)), nombreProducto(producto), cantidad,
+                            BigDecimal.valueOf(precio, 2), MXN});
+                }
+
+                // Recorre el diagrama de estados hasta el estado final sorteado
+                List<EstadoOrden> camino = camino(estados.sortear());
+                List<Object[]> filasHistorial = new ArrayList<>(camino.size());
+                LocalDateTime fecha = creacion;
+                LocalDateTime fechaPago = null;
+                LocalDateTime fechaEnvio = null;
+                String referenciaPago = null;
+                String guia = null;
+                for (int paso = 1; paso < camino.size(); paso++) {
+                    EstadoOrden anterior = camino.get(paso - 1);
+                    EstadoOrden nuevo = camino.get(paso);
+                    fecha = siguienteFecha(fecha);
+                    String motivo = switch (nuevo) {
+                        case CONFIRMADA -> "Orden confirmada por el cliente";
+                        case PREPARACION -> {
+                            fechaPago = fecha;
+                            referenciaPago = "PAG" + (10_000_000 + random.nextInt(90_000_000));
+                            yield "Pago procesado con referencia: " + referenciaPago;
+                        }
+                        case ENVIADA -> {
+                            fechaEnvio = fecha;
+                            guia = "GUIA" + (1_000_000 + random.nextInt(9_000_000));
+                            yield "Orden enviada con guía: " + guia;
+                        }
+                        case ENTREGADA -> "Orden entregada al cliente";
+                        case CANCELADA -> MOTIVOS_CANCELACION[random.nextInt(MOTIVOS_CANCELACION.length)];
+                        case PENDIENTE -> throw new IllegalStateException("PENDIENTE no es destino de una transición");
+                    };
+                    filasHistorial.add(new Object[] {bytes(ordenId), paso, anterior.name(), nuevo.name(), timestamp(fecha), motivo});
+                }
+
+                String[] ciudad = CIUDADES[random.nextInt(CIUDADES.length)];
+                BigDecimal total = BigDecimal.valueOf(subtotal, 2);
+                ordenes.agregar(bytes(ordenId), NumeradorOrdenes.formatear(primerNumero + i), bytes(cliente()), camino.get(camino.size() - 1).name(),
+                        "Calle " + (1 + random.nextInt(500)) + " #" + (1 + random.nextInt(300)),
+                        ciudad[0], ciudad[1], String.valueOf(10_000 + random.nextInt(90_000)), "México",
+                        "55" + (10_000_000 + random.nextInt(90_000_000)),
+                        fechaPago != null ? "PAGO" : null,
+                        referenciaPago,
+                        (fechaPago != null ? EstadoPago.COMPLETADO : EstadoPago.PENDIENTE).name(),
+                        timestamp(fechaPago),
+                        fechaEnvio != null ? "" : null,
+                        guia,
+                        fechaEnvio != null ? timestamp(fechaEnvio.plusDays(3)) : null,
+                        total, MXN, MXN, total, MXN,
+                        timestamp(creacion), timestamp(fecha),
+                        // Cada transición fue un guardado con @Version y una fila del historial
+                        camino.size() - 1, camino.size() - 1);
+                filasItems.forEach(items::agregar);
+                filasHistorial.forEach(historial::agregar);
+            }
+            return new long[] {ordenes.total(), items.total(), historial.total()};
+        }
+    }
+
+    // Estados recorridos desde PENDIENTE hasta el final; las cancelaciones
+    // ocurren desde cualquier estado que las permita
+    private List<EstadoOrden> camino(EstadoOrden destino) {
+        List<EstadoOrden> camino = new ArrayList<>(List.of(EstadoOrden.PENDIENTE));
+        if (destino == EstadoOrden.CANCELADA) {
+            List<EstadoOrden> cancelables = new ArrayList<>();
+            for (EstadoOrden estado : EstadoOrden.values()) {
+                if (estado.puedeTransicionarA(EstadoOrden.CANCELADA)) {
+                    cancelables.add(estado);
+                }
+            }
+            EstadoOrden desde = cancelables.get(random.nextInt(cancelables.size()));
+            avanzarHasta(camino, desde);
+            camino.add(EstadoOrden.CANCELADA);
+        } else {
+            avanzarHasta(camino, destino);
+        }
+        return camino;
+    }
+
+    private static void avanzarHasta(List<EstadoOrden> camino, EstadoOrden destino) {
+        EstadoOrden[] flujo = {EstadoOrden.PENDIENTE, EstadoOrden.CONFIRMADA, EstadoOrden.PREPARACION,
+                EstadoOrden.ENVIADA, EstadoOrden.ENTREGADA};
+        for (int i = 1; i < flujo.length && camino.get(camino.size() - 1) != destino; i++) {
+            camino.add(flujo[i]);
+        }
+    }
+
+    // ── Estadísticas ──
+
+    private long generarEstadisticas() {
+        try (Lote lote = new Lote("producto_estadisticas",
+                "insert into producto_estadisticas (producto_id, ventas_totales, cantidad_vendida, "
+                        + "veces_agregado_al_carrito, ultima_venta_at, ultima_agregado_al_carrito_at) "
+                        + "values (?, ?, ?, ?, ?, ?)", null)) {
+
+            for (int i = 0; i < config.productos(); i++) {
+                if (vecesAgregado[i] == 0 && ventas[i] == 0) {
+                    continue;
+                }
+                lote.agregar(bytes(uuid(ID_PRODUCTO, i)), ventas[i], unidadesVendidas[i], vecesAgregado[i],
+                        instante(ultimaVenta[i]), instante(ultimoAgregado[i]));
+            }
+            return lote.total();
+        }
+    }
+
+    private void registrarAgregado(int producto, long epoch) {
+        vecesAgregado[producto]++;
+        ultimoAgregado[producto] = Math.max(ultimoAgregado[producto], epoch);
+    }
+
+    private void registrarVenta(int producto, int cantidad, long epoch) {
+        ventas[producto]++;
+        unidadesVendidas[producto] += cantidad;
+        ultimaVenta[producto] = Math.max(ultimaVenta[producto], epoch);
+    }
+
+    // ── Limpieza ──
+
+    private void limpiar() {
+        for (String tabla : TABLAS) {
+            int filas = jdbc.update("delete from " + tabla);
+            log.info("Borradas {} filas de {}", filas, tabla);
+        }
+    }
+
+    private void verificarTablasVacias() {
+        for (String tabla : TABLAS) {
+            Long filas = jdbc.queryForObject("select count(*) from " + tabla, Long.class);
+            if (filas != null && filas > 0) {
+                throw new IllegalStateException("La tabla " + tabla + " ya tiene " + filas
+                        + " filas; use generador-datos.limpiar=true para reemplazarlas");
+            }
+        }
+    }
+
+    // ── Sorteos ──
+
+    /**
+     * Índice de producto con popularidad Zipf de exponente s: se invierte la
+     * distribución continua de la ley de potencias sobre los rangos 1..N y el
+     * rango se dispersa con una permutación lineal, para que los productos
+     * populares no sean los primeros insertados ni los de una sola categoría.
+     */
+    private int productoPopular() {
+        int n = config.productos();
+        double s = config.sesgoPopularidad();
+        double u = random.nextDouble();
+        double rango;
+        if (Math.abs(s - 1.0) < 1e-9) {
+            rango = Math.pow(n + 1.0, u);
+        } else {
+            double e = 1.0 - s;
+            rango = Math.pow((Math.pow(n + 1.0, e) - 1.0) * u + 1.0, 1.0 / e);
+        }
+        long indice = Math.min(n - 1L, Math.max(0L, (long) rango - 1L));
+        return (int) ((indice * multiplicadorPopularidad + 7919L) % n);
+    }
+
+    private int[] productosDistintos(int cantidad) {
+        int lineas = Math.min(cantidad, config.productos());
+        int[] productos = new int[lineas];
+        for (int i = 0; i < lineas; i++) {
+            int candidato;
+            boolean repetido;
+            int intentos = 0;
+            do {
+                candidato = intentos++ < 20 ? productoPopular() : random.nextInt(config.productos());
+                repetido = false;
+                for (int j = 0; j < i; j++) {
+                    repetido |= productos[j] == candidato;
+                }
+            } while (repetido);
+            productos[i] = candidato;
+        }
+        return productos;
+    }
+
+    // 1 unidad es lo más común; rara vez más de 3
+    private int cantidad() {
+        double u = random.nextDouble();
+        return u < 0.7 ? 1 : u < 0.9 ? 2 : u < 0.97 ? 3 : 4 + random.nextInt(3);
+    }
+
+    private UUID cliente() {
+        return uuid(ID_CLIENTE, random.nextInt(config.clientes()));
+    }
+
+    private LocalDateTime fechaEnHistoria() {
+        return ahora.minusSeconds(random.nextLong(config.diasHistoria() * 86_400L));
+    }
+
+    // Entre 1 y 48 horas después, sin pasar de ahora
+    private LocalDateTime siguienteFecha(LocalDateTime fecha) {
+        LocalDateTime siguiente = fecha.plusMinutes(60 + random.nextInt(47 * 60));
+        return siguiente.isAfter(ahora) ? ahora : siguiente;
+    }
+
+    // ── Valores derivados de la semilla ──
+
+    // Precio estable por producto, entre 20 y 20,000 pesos con más productos baratos (log-uniforme)
+    private long precioCentavos(int producto) {
+        double u = (mezclar(config.semilla() ^ (ID_PRECIO << 56) ^ producto) >>> 11) * 0x1.0p-53;
+        return Math.round(Math.exp(Math.log(20) + u * (Math.log(20_000) - Math.log(20))) * 100);
+    }
+
+    private static String nombreProducto(int producto) {
+        return "Producto " + (producto + 1);
+    }
+
+    /**
+     * UUID versión 4 determinista: el mezclador es biyectivo, así que
+     * (tipo, índice) distintos nunca colisionan.
+     */
+    private UUID uuid(long tipo, long indice) {
+        long alto = mezclar(config.semilla() ^ (tipo << 56) ^ indice);
+        long bajo = mezclar(alto ^ 0x9E3779B97F4A7C15L);
+        alto = (alto & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        bajo = (bajo & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(alto, bajo);
+    }
+
+    // Finalizador de SplitMix64
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Multiplicador coprimo con n cercano a n·φ, para la permutación de popularidad
+    private static long coprimo(int n) {
+        long candidato = Math.max(1L, (long) (n * 0.6180339887)) | 1L;
+        while (mcd(candidato, n) != 1) {
+            candidato += 2;
+        }
+        return candidato;
+    }
+
+    private static long mcd(long a, long b) {
+        return b == 0 ? a : mcd(b, a % b);
+    }
+
+    // ── Conversión a columnas ──
+
+    // Los UUID se envían como 16 bytes: H2 los convierte a UUID y en MySQL son BINARY(16)
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static Timestamp timestamp(LocalDateTime fecha) {
+        return fecha != null ? Timestamp.valueOf(fecha) : null;
+    }
+
+    private static long epoch(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static Timestamp instante(long epoch) {
+        return epoch > 0 ? Timestamp.valueOf(LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC)) : null;
+    }
+
+    /**
+     * Filas acumuladas para una sentencia; se envían con executeBatch en una
+     * transacción cada vez que se llena el lote. Un lote hijo vacía primero a
+     * su padre, para que las llaves foráneas siempre encuentren la fila.
+     */
+    private final class Lote implements AutoCloseable {
+
+        private final String tabla;
+        private final String sql;
+        private final Lote padre;
+        private final List<Object[]> filas;
+        private long total;
+
+        private Lote(String tabla, String sql, Lote padre) {
+            this.tabla = tabla;
+            this.sql = sql;
+            this.padre = padre;
+            this.filas = new ArrayList<>(config.tamanoLote());
+        }
+
+        private void agregar(Object... fila) {
+            filas.add(fila);
+            if (filas.size() >= config.tamanoLote()) {
+                vaciar();
+            }
+        }
+
+        private void vaciar() {
+            if (padre != null) {
+                padre.vaciar();
+            }
+            if (filas.isEmpty()) {
+                return;
+            }
+            transacciones.executeWithoutResult(estado -> jdbc.batchUpdate(sql, filas));
+            long antes = total;
+            total += filas.size();
+            filas.clear();
+            // Avance cada ~100 mil filas
+            if (antes / 100_000 != total / 100_000) {
+                log.info("{}: {} filas", tabla, total);
+            }
+        }
+
+        // Incluye las filas pendientes: las envía antes de contar
+        private long total() {
+            vaciar();
+            return total;
+        }
+
+        @Override
+        public void close() {
+            vaciar();
+        }
+    }
+
+    /**
+     * Sorteo ponderado sobre los estados de una distribución.
+     */
+    private final class Sorteo<E extends Enum<E>> {
+
+        private final List<E> estados = new ArrayList<>();
+        private final List<Integer> acumulados = new ArrayList<>();
+        private final int total;
+
+        private Sorteo(Map<E, Integer> pesos) {
+            int acumulado = 0;
+            for (Map.Entry<E, Integer> peso : pesos.entrySet()) {
+                if (peso.getValue() > 0) {
+                    acumulado += peso.getValue();
+                    estados.add(peso.getKey());
+                    acumulados.add(acumulado);
+                }
+            }
+            this.total = acumulado;
+        }
+
+        private E sortear() {
+            int valor = random.nextInt(total);
+            for (int i = 0; i < estados.size(); i++) {
+                if (valor < acumulados.get(i)) {
+                    return estados.get(i);
+                }
+            }
+            return estados.get(estados.size() - 1);
+        }
+    }
+
+    /**
+     * Filas insertadas por tabla.
+     */
+    public record Resumen(
+            long categorias,
+            long productos,
+            long carritos,
+            long itemsCarrito,
+            long ordenes,
+            long itemsOrden,
+            long cambiosEstado,
+            long estadisticas,
+            Duration duracion) {
+    }
+}
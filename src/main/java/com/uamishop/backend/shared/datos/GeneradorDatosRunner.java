@@ -0,0 +1,94 @@
+package com.uamishop.backend.shared.datos;
+
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.ventas.domain.EstadoCarrito;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ejecuta el {@link GeneradorDatos} al arrancar con el perfil generador-datos,
+ * una vez que Hibernate ya creó o actualizó el esquema.
+ *
+ * Volúmenes y distribuciones en application-generador-datos.properties; se
+ * pueden sobrescribir en la línea de comandos, p. ej. contra MySQL:
+ *
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=mysql,generador-datos \
+ *       -Dspring-boot.run.arguments="--generador-datos.productos=2000000 --generador-datos.ordenes=10000000"
+ *
+ * Con generador-datos.salir=true (por omisión) la aplicación termina al acabar.
+ */
+@Component
+@Profile("generador-datos")
+public class GeneradorDatosRunner implements ApplicationRunner {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final ConfigurableApplicationContext contexto;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ProyeccionOrdenResumen proyeccionResumen;
+    private final NumeradorOrdenes numerador;
+    private final ConfiguracionGeneradorDatos config;
+    private final boolean salir;
+
+    public GeneradorDatosRunner(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            ConfigurableApplicationContext contexto,
+            EntityManagerFactory entityManagerFactory,
+            ProyeccionOrdenResumen proyeccionResumen,
+            NumeradorOrdenes numerador,
+            @Value("${generador-datos.categorias-raiz}") int categoriasRaiz,
+            @Value("${generador-datos.subcategorias-por-nivel}") int subcategoriasPorNivel,
+            @Value("${generador-datos.niveles-categorias}") int nivelesCategorias,
+            @Value("${generador-datos.productos}") int productos,
+            @Value("${generador-datos.sesgo-popularidad}") double sesgoPopularidad,
+            @Value("${generador-datos.proporcion-disponibles}") double proporcionDisponibles,
+            @Value("${generador-datos.clientes}") int clientes,
+            @Value("${generador-datos.carritos}") int carritos,
+            @Value("${generador-datos.estados-carrito}") String estadosCarrito,
+            @Value("${generador-datos.ordenes}") int ordenes,
+            @Value("${generador-datos.estados-orden}") String estadosOrden,
+            @Value("${generador-datos.max-items}") int maxItems,
+            @Value("${generador-datos.dias-historia}") int diasHistoria,
+            @Value("${generador-datos.semilla}") long semilla,
+            @Value("${generador-datos.tamano-lote}") int tamanoLote,
+            @Value("${generador-datos.limpiar}") boolean limpiar,
+            @Value("${generador-datos.salir}") boolean salir) {
+        this.jdbc = jdbc;
+        this.transacciones = new TransactionTemplate(transactionManager);
+        this.contexto = contexto;
+        this.entityManagerFactory = entityManagerFactory;
+        this.proyeccionResumen = proyeccionResumen;
+        this.numerador = numerador;
+        this.salir = salir;
+        this.config = new ConfiguracionGeneradorDatos(
+                categoriasRaiz, subcategoriasPorNivel, nivelesCategorias,
+                productos, sesgoPopularidad, proporcionDisponibles,
+                clientes,
+                carritos, ConfiguracionGeneradorDatos.distribucion(EstadoCarrito.class, estadosCarrito),
+                ordenes, ConfiguracionGeneradorDatos.distribucion(EstadoOrden.class, estadosOrden),
+                maxItems, diasHistoria, semilla, tamanoLote, limpiar);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        new GeneradorDatos(jdbc, transacciones, config, numerador).generar();
+        // Las filas se escribieron por JDBC: ni la caché de segundo nivel ni orden_resumen se enteraron
+        entityManagerFactory.getCache().evictAll();
+        proyeccionResumen.reconstruir();
+        if (salir) {
+            System.exit(SpringApplication.exit(contexto, () -> 0));
+        }
+    }
+}
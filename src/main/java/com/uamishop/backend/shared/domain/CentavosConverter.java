@@ -0,0 +1,23 @@
+package com.uamishop.backend.shared.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+
+/**
+ * Convierte los centavos de {@link Money} (long) a la columna decimal
+ * existente y viceversa, manteniendo el esquema sin cambios.
+ */
+@Converter
+public class CentavosConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long centavos) {
+        return centavos != null ? BigDecimal.valueOf(centavos, 2) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal cantidad) {
+        return cantidad != null ? Money.aCentavos(cantidad) : 0L;
+    }
+}
@@ -1,55 +1,111 @@
 package com.uamishop.backend.shared.domain;
 
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embeddable;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
 
 /**
  * Value Object para manejar dinero de forma segura.
  * Evita problemas de precisión que ocurren con 'double'.
+ *
+ * Internamente guarda el monto en unidades mínimas (centavos) como long:
+ * sumar, restar, multiplicar y comparar no crean BigDecimal, y los montos
+ * frecuentes (pesos enteros de 0 a 1000) se reutilizan desde una caché.
+ * En base de datos se sigue persistiendo como decimal en la columna
+ * "cantidad" (ver {@link CentavosConverter}), por lo que los
+ * @AttributeOverride existentes no cambian.
  */
 @Embeddable
 public class Money {
-    private final BigDecimal cantidad;
+
+    private static final String MXN = "MXN";
+    private static final int ESCALA = 2;
+    private static final long CENTAVOS_POR_PESO = 100L;
+
+    // Pesos enteros cacheados: 0, 1, ..., 1000 MXN
+    private static final int PESOS_CACHEADOS = 1000;
+    private static final Money[] CACHE = new Money[PESOS_CACHEADOS + 1];
+
+    static {
+        for (int i = 0; i <= PESOS_CACHEADOS; i++) {
+            CACHE[i] = new Money(i * CENTAVOS_POR_PESO, MXN);
+        }
+    }
+
+    public static final Money CERO = CACHE[0];
+
+    @Convert(converter = CentavosConverter.class)
+    private final long cantidad;
     private final String moneda;
 
     // Constructor para JPA (protegido para que nadie más lo use)
     protected Money() {
-        this.cantidad = null;
+        this.cantidad = 0L;
         this.moneda = null;
     }
 
     // Constructor privado
-    private Money(BigDecimal cantidad, String moneda) {
+    private Money(long centavos, String moneda) {
         // RN-VO-02: No se permiten saldos negativos
-        if (cantidad.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("No se permiten cantidades negativas: " + cantidad);
+        if (centavos < 0) {
+            throw new IllegalArgumentException(
+                    "No se permiten cantidades negativas: " + BigDecimal.valueOf(centavos, ESCALA));
         }
-        this.cantidad = cantidad;
+        this.cantidad = centavos;
         this.moneda = moneda;
     }
 
-    // Fabrica estática para crear pesos
+    // Fabrica estática para crear pesos a partir de centavos (sin conversión)
+    public static Money centavos(long centavos) {
+        return deCentavos(centavos, MXN);
+    }
+
+    // Fabrica estática para crear pesos enteros
+    public static Money pesos(long pesos) {
+        return deCentavos(Math.multiplyExact(pesos, CENTAVOS_POR_PESO), MXN);
+    }
+
+    // Fabrica estática exacta desde BigDecimal (redondea a centavos HALF_UP)
+    public static Money pesos(BigDecimal cantidad) {
+        return deCentavos(aCentavos(cantidad), MXN);
+    }
+
+    // Fabrica estática para crear pesos desde double (redondea a centavos HALF_UP)
     public static Money pesos(double cantidad) {
-        return new Money(BigDecimal.valueOf(cantidad), "MXN");
+        return pesos(BigDecimal.valueOf(cantidad));
     }
 
     public Money porcentaje(double porcentaje) {
-        return new Money(this.cantidad.multiply(BigDecimal.valueOf(porcentaje)), this.moneda);
+        BigDecimal resultado = BigDecimal.valueOf(this.cantidad)
+                .multiply(BigDecimal.valueOf(porcentaje))
+                .setScale(0, RoundingMode.HALF_UP);
+        return deCentavos(resultado.longValueExact(), this.moneda);
     }
 
     // Metodo para sumar dinero (valida que sea la misma moneda)
     public Money sumar(Money otro) {
         validarMoneda(otro);
-        return new Money(this.cantidad.add(otro.cantidad), this.moneda);
+        if (otro.cantidad == 0) {
+            return this;
+        }
+        return deCentavos(Math.addExact(this.cantidad, otro.cantidad), this.moneda);
     }
 
     public Money multiplicar(int factor) {
-        return new Money(this.cantidad.multiply(BigDecimal.valueOf(factor)), this.moneda);
+        if (factor == 1) {
+            return this;
+        }
+        return deCentavos(Math.multiplyExact(this.cantidad, factor), this.moneda);
     }
 
     public Money restar(Money otro) {
         validarMoneda(otro);
-        return new Money(this.cantidad.subtract(otro.cantidad), this.moneda);
+        if (otro.cantidad == 0) {
+            return this;
+        }
+        return deCentavos(Math.subtractExact(this.cantidad, otro.cantidad), this.moneda);
     }
 
     private void validarMoneda(Money otro) {
@@ -60,20 +116,65 @@ public class Money {
 
     // Métodos de comparación para reglas de negocio
     public boolean esPositivo() {
-        return this.cantidad.compareTo(BigDecimal.ZERO) > 0;
+        return this.cantidad > 0;
     }
 
     public boolean esMayorQue(Money otro) {
         validarMoneda(otro);
-        return this.cantidad.compareTo(otro.cantidad) > 0;
+        return this.cantidad > otro.cantidad;
     }
 
+    /**
+     * Monto en pesos con dos decimales.
+     * Crea un BigDecimal en cada llamada: usar solo en los bordes
+     * (DTOs, persistencia); para cálculos preferir {@link #getCentavos()}.
+     */
     public BigDecimal getCantidad() {
+        return BigDecimal.valueOf(cantidad, ESCALA);
+    }
+
+    public long getCentavos() {
         return cantidad;
     }
 
     public String getMoneda() {
         return moneda;
     }
-}
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money otro)) {
+            return false;
+        }
+        return cantidad == otro.cantidad && Objects.equals(moneda, otro.moneda);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(cantidad) + (moneda != null ? moneda.hashCode() : 0);
+    }
+
+    @Override
+    public String toString() {
+        return getCantidad().toPlainString() + " " + moneda;
+    }
+
+    // Reutiliza la instancia cacheada para pesos enteros en MXN
+    private static Money deCentavos(long centavos, String moneda) {
+        if (centavos >= 0
+                && centavos <= PESOS_CACHEADOS * CENTAVOS_POR_PESO
+                && centavos % CENTAVOS_POR_PESO == 0
+                && MXN.equals(moneda)) {
+            return CACHE[(int) (centavos / CENTAVOS_POR_PESO)];
+        }
+        return new Money(centavos, moneda);
+    }
+
+    // Conversión exacta BigDecimal → centavos
+    static long aCentavos(BigDecimal cantidad) {
+        return cantidad.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
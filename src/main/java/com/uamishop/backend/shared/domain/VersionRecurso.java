@@ -0,0 +1,59 @@
+package com.uamishop.backend.shared.domain;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * @class VersionRecurso
+ * @brief Value Object con la versión persistida de un recurso o colección.
+ *
+ * Se obtiene con una consulta mínima (sin cargar ni mapear el agregado)
+ * y permite a los controladores resolver peticiones condicionales
+ * (If-None-Match / If-Modified-Since) antes de construir la respuesta.
+ *
+ * - clave: identifica el recurso (UUID) o la colección (número de filas).
+ * - version: columna @Version del recurso, o suma de versiones de la colección.
+ * - ultimaModificacion: fecha de la última escritura (puede ser null en
+ *   registros anteriores a la columna).
+ */
+public record VersionRecurso(String clave, long version, LocalDateTime ultimaModificacion) {
+
+    /**
+     * Versión de un recurso individual.
+     * Usado por las consultas JPQL con expresión constructora.
+     */
+    public VersionRecurso(UUID id, Long version, LocalDateTime ultimaModificacion) {
+        this(id.toString(), version != null ? version : 0L, ultimaModificacion);
+    }
+
+    /**
+     * Versión agregada de una colección completa.
+     * Cualquier alta, baja o modificación altera el total, la suma
+     * de versiones o la fecha máxima.
+     */
+    public VersionRecurso(Long total, Long sumaVersiones, LocalDateTime ultimaModificacion) {
+        this("n" + total, sumaVersiones != null ? sumaVersiones : 0L, ultimaModificacion);
+    }
+
+    /**
+     * ETag fuerte derivado únicamente de la versión persistida.
+     */
+    public String etag() {
+        long marca = ultimaModificacion != null
+                ? ultimaModificacionMillis()
+                : 0L;
+        return "\"" + clave + "-" + Long.toHexString(version) + "-" + Long.toHexString(marca) + "\"";
+    }
+
+    /**
+     * Fecha de última modificación en milisegundos epoch,
+     * o -1 si no se conoce (Spring la ignora en ese caso).
+     */
+    public long ultimaModificacionMillis() {
+        if (ultimaModificacion == null) {
+            return -1L;
+        }
+        return ultimaModificacion.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
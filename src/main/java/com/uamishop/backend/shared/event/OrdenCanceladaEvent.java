@@ -0,0 +1,15 @@
+package com.uamishop.backend.shared.event;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record OrdenCanceladaEvent(
+        UUID eventId,
+        Instant occurredAt,
+        UUID ordenId,
+        UUID clienteId,
+        List<ProductoCompradoEvent.ItemComprado> items, // Con las categorías guardadas al comprarse
+        String traceparent // Contexto W3C de quien publicó (null si no hay traza)
+) {
+}
@@ -8,6 +8,7 @@ public record OrdenCreadaEvent(
         Instant occurredAt,
         UUID ordenId,
         UUID carritoId,
-        UUID clienteId
+        UUID clienteId,
+        String traceparent // Contexto W3C de quien publicó (null si no hay traza)
 ) {
 }
\ No newline at end of file
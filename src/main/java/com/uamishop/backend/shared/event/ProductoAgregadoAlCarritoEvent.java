@@ -12,5 +12,6 @@ public record ProductoAgregadoAlCarritoEvent(
    UUID carritoId,
    int cantidad,
    BigDecimal precioUnitario,
-   String moneda
+   String moneda,
+   String traceparent // Contexto W3C de quien publicó (null si no hay traza)
 ) {}
@@ -12,13 +12,20 @@ public record ProductoCompradoEvent(
    Instant occurredAt,
    UUID ordenId,
    UUID clienteId,
-   List<ItemComprado> items
+   List<ItemComprado> items,
+   String traceparent // Contexto W3C de quien publicó (null si no hay traza)
 ) {
    public record ItemComprado(
        UUID productoId,
        String sku,
        int cantidad,
        BigDecimal precioUnitario,
-       String moneda
-   ) {}
+       String moneda,
+       List<UUID> categorias // Categoría del producto y sus ancestros al comprarse, hasta la raíz
+   ) {
+       public ItemComprado {
+           // Los mensajes anteriores a este campo llegan sin él
+           categorias = categorias != null ? List.copyOf(categorias) : List.of();
+       }
+   }
 }
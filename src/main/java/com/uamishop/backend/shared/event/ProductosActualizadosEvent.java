@@ -0,0 +1,20 @@
+package com.uamishop.backend.shared.event;
+
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * Notificación agrupada de cambios en el catálogo.
+ *
+ * Las operaciones masivas publican un solo evento por lote
+ * (no uno por producto) con los ids que realmente cambiaron.
+ */
+public record ProductosActualizadosEvent(
+   UUID eventId,
+   Instant occurredAt,
+   String operacion,
+   List<UUID> productoIds
+) {}
@@ -0,0 +1,81 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import com.uamishop.backend.shared.observabilidad.GrabacionJfrService.EstadoGrabacionJfr;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Endpoint de administración para perfilar con Java Flight Recorder bajo demanda.
+ *
+ * - POST   /admin/jfr/grabacion          inicia (duración y configuración opcionales)
+ * - DELETE /admin/jfr/grabacion          detiene
+ * - GET    /admin/jfr/grabacion          estado
+ * - GET    /admin/jfr/grabacion/volcado  descarga el .jfr (abrir con JDK Mission Control)
+ *
+ * Apagado por defecto: expone datos de perfilado (pilas, hilos, propiedades)
+ * y escribe archivos en el servidor, así que se habilita solo donde haga falta con
+ * observabilidad.jfr.admin.habilitado=true.
+ */
+@Tag(name = "Administración", description = "Grabaciones de Java Flight Recorder")
+@RestController
+@RequestMapping("/api/v1/admin/jfr/grabacion")
+@ConditionalOnProperty(name = "observabilidad.jfr.admin.habilitado", havingValue = "true", matchIfMissing = false)
+public class GrabacionJfrController {
+
+    private final GrabacionJfrService grabacionService;
+
+    public GrabacionJfrController(GrabacionJfrService grabacionService) {
+        this.grabacionService = grabacionService;
+    }
+
+    @Operation(summary = "Iniciar grabación JFR", description = "duracion en formato ISO-8601 (p. ej. PT2M); configuracion: default | profile")
+    @PostMapping
+    public EstadoGrabacionJfr iniciar(
+            @RequestParam(required = false) Duration duracion,
+            @RequestParam(defaultValue = "default") String configuracion) {
+        return grabacionService.iniciar(duracion, configuracion);
+    }
+
+    @Operation(summary = "Detener grabación JFR")
+    @DeleteMapping
+    public EstadoGrabacionJfr detener() {
+        return grabacionService.detener();
+    }
+
+    @Operation(summary = "Estado de la grabación JFR")
+    @GetMapping
+    public EstadoGrabacionJfr estado() {
+        return grabacionService.estado();
+    }
+
+    @Operation(summary = "Descargar la grabación JFR")
+    @GetMapping("/volcado")
+    public ResponseEntity<StreamingResponseBody> volcar() {
+        Path archivo = grabacionService.volcar();
+        StreamingResponseBody cuerpo = salida -> {
+            try {
+                Files.copy(archivo, salida);
+            } finally {
+                Files.deleteIfExists(archivo);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(archivo.getFileName().toString())
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+}
@@ -0,0 +1,145 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import com.uamishop.backend.shared.exception.BusinessRuleException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * @class GrabacionJfrService
+ * @brief Controla una única grabación de Java Flight Recorder bajo demanda.
+ *
+ * Pensado para perfilar producción de forma segura:
+ * - Solo puede haber una grabación a la vez.
+ * - Toda grabación termina sola al cumplir su duración (con tope en
+ *   observabilidad.jfr.duracion-maxima) y su buffer en disco está acotado
+ *   por observabilidad.jfr.tamano-maximo.
+ * - Usa las configuraciones estándar del JDK ("default" ~1% de overhead,
+ *   "profile" algo más detallada) más los eventos propios del checkout.
+ */
+@Service
+public class GrabacionJfrService {
+
+    static final String NOMBRE = "uamishop";
+
+    private final Duration duracionMaxima;
+    private final DataSize tamanoMaximo;
+
+    private Recording grabacion;
+
+    public GrabacionJfrService(
+            @Value("${observabilidad.jfr.duracion-maxima:15m}") Duration duracionMaxima,
+            @Value("${observabilidad.jfr.tamano-maximo:200MB}") DataSize tamanoMaximo) {
+        this.duracionMaxima = duracionMaxima;
+        this.tamanoMaximo = tamanoMaximo;
+    }
+
+    /**
+     * Inicia una grabación nueva; descarta la anterior si ya había terminado.
+     *
+     * @param duracion      tiempo tras el que se detiene sola (null = máximo)
+     * @param configuracion "default" o "profile"
+     */
+    public synchronized EstadoGrabacionJfr iniciar(Duration duracion, String configuracion) {
+        if (grabacion != null && grabacion.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Ya hay una grabación JFR en curso");
+        }
+        cerrar();
+
+        Duration efectiva = duracion == null || duracion.compareTo(duracionMaxima) > 0
+                ? duracionMaxima
+                : duracion;
+
+        Recording nueva = new Recording(configuracion(configuracion));
+        nueva.setName(NOMBRE);
+        nueva.enable(PasoCheckoutJfrEvent.class);
+        nueva.enable(ListenerAsyncJfrEvent.class);
+        nueva.setDuration(efectiva);
+        nueva.setMaxSize(tamanoMaximo.toBytes());
+        nueva.setToDisk(true);
+        nueva.start();
+        grabacion = nueva;
+        return estado();
+    }
+
+    /**
+     * Detiene la grabación en curso; los datos se conservan para volcarlos.
+     */
+    public synchronized EstadoGrabacionJfr detener() {
+        if (grabacion == null) {
+            throw new IllegalStateException("No hay ninguna grabación JFR");
+        }
+        if (grabacion.getState() == RecordingState.RUNNING) {
+            grabacion.stop();
+        }
+        return estado();
+    }
+
+    /**
+     * Vuelca la grabación (en curso o detenida) a un archivo temporal.
+     * Quien lo llama es responsable de borrarlo.
+     */
+    public synchronized Path volcar() {
+        if (grabacion == null || grabacion.getState() == RecordingState.NEW
+                || grabacion.getState() == RecordingState.CLOSED) {
+            throw new IllegalStateException("No hay ninguna grabación JFR para volcar");
+        }
+        try {
+            Path archivo = Files.createTempFile(NOMBRE + "-", ".jfr");
+            grabacion.dump(archivo);
+            return archivo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo volcar la grabación JFR", e);
+        }
+    }
+
+    public synchronized EstadoGrabacionJfr estado() {
+        if (grabacion == null) {
+            return EstadoGrabacionJfr.SIN_GRABACION;
+        }
+        return new EstadoGrabacionJfr(
+                grabacion.getState().name(),
+                grabacion.getStartTime(),
+                grabacion.getDuration(),
+                grabacion.getSize());
+    }
+
+    @PreDestroy
+    synchronized void cerrar() {
+        if (grabacion != null) {
+            grabacion.close();
+            grabacion = null;
+        }
+    }
+
+    private static Configuration configuracion(String nombre) {
+        String efectiva = nombre == null || nombre.isBlank() ? "default" : nombre;
+        if (!efectiva.equals("default") && !efectiva.equals("profile")) {
+            throw new BusinessRuleException("Configuración JFR no soportada: " + nombre);
+        }
+        try {
+            return Configuration.getConfiguration(efectiva);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("No se pudo cargar la configuración JFR " + efectiva, e);
+        }
+    }
+
+    /**
+     * Estado de la grabación expuesto por el endpoint de administración.
+     */
+    public record EstadoGrabacionJfr(String estado, Instant inicio, Duration duracion, long bytes) {
+        static final EstadoGrabacionJfr SIN_GRABACION = new EstadoGrabacionJfr("SIN_GRABACION", null, null, 0);
+    }
+}
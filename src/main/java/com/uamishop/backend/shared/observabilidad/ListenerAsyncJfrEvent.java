@@ -0,0 +1,60 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @class ListenerAsyncJfrEvent
+ * @brief Evento de Java Flight Recorder para la ejecución de un listener @Async.
+ *
+ * Además de la duración del listener registra la espera desde que se
+ * publicó el evento de dominio (occurredAt) hasta que el executor lo tomó,
+ * lo que separa el tiempo en cola del tiempo de trabajo.
+ */
+@Name("uamishop.ListenerAsync")
+@Label("Listener asíncrono")
+@Category({"UAMIShop", "Eventos"})
+@Description("Ejecución de un listener de eventos de dominio en el executor async")
+@StackTrace(false)
+public class ListenerAsyncJfrEvent extends Event {
+
+    @Label("Listener")
+    String listener;
+
+    @Label("Evento")
+    String eventoId;
+
+    @Label("Espera en cola")
+    @Timespan(Timespan.MILLISECONDS)
+    long esperaMillis;
+
+    @Label("Éxito")
+    boolean exito;
+
+    public static ListenerAsyncJfrEvent iniciar(String listener, UUID eventoId, Instant publicadoEn) {
+        ListenerAsyncJfrEvent evento = new ListenerAsyncJfrEvent();
+        evento.begin();
+        if (evento.isEnabled()) {
+            evento.listener = listener;
+            evento.eventoId = eventoId != null ? eventoId.toString() : null;
+            evento.esperaMillis = publicadoEn != null
+                    ? Duration.between(publicadoEn, Instant.now()).toMillis()
+                    : -1;
+        }
+        return evento;
+    }
+
+    public void terminar(boolean exito) {
+        this.exito = exito;
+        commit();
+    }
+}
@@ -0,0 +1,63 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * @class MemoriaSpanExporter
+ * @brief Exportador de spans en memoria (sustituto local de un colector OTLP).
+ *
+ * Guarda los últimos N spans en un buffer circular; se consultan por
+ * traceId en /api/v1/admin/trazas/{traceId}. Útil en desarrollo y pruebas.
+ */
+public class MemoriaSpanExporter implements SpanExporter {
+
+    private final Deque<SpanResumen> spans = new ArrayDeque<>();
+    private final int capacidad;
+
+    public MemoriaSpanExporter(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> lote) {
+        for (SpanData span : lote) {
+            if (spans.size() >= capacidad) {
+                spans.removeFirst();
+            }
+            spans.addLast(SpanResumen.desde(span));
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * Spans de una traza ordenados por inicio.
+     */
+    public synchronized List<SpanResumen> buscarTraza(String traceId) {
+        return spans.stream()
+                .filter(span -> span.traceId().equals(traceId))
+                .sorted(Comparator.comparing(SpanResumen::inicio))
+                .toList();
+    }
+
+    public synchronized List<SpanResumen> todos() {
+        return List.copyOf(spans);
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
@@ -0,0 +1,87 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @class MetricasApiModulosAspect
+ * @brief Mide cada llamada a las APIs públicas entre módulos.
+ *
+ * Registra el timer "modulo.api" (percentiles 50/95/99 e histograma para
+ * Prometheus) para todos los métodos de CatalogoApi, VentasApi, OrdenesApi y ReportesApi,
+ * sin importar la implementación activa (embebida o cliente HTTP).
+ *
+ * Etiquetas:
+ * - modulo: catalogo | ventas | ordenes | reportes
+ * - metodo: nombre del método de la interfaz
+ * - excepcion: clase simple de la excepción, o "none"
+ *
+ * Los timers se guardan por combinación de etiquetas para no construir
+ * y buscar el medidor en el registro en cada llamada.
+ */
+@Aspect
+@Component
+public class MetricasApiModulosAspect {
+
+    static final String METRICA = "modulo.api";
+
+    private final MeterRegistry registry;
+    private final ConcurrentHashMap<ClaveTimer, Timer> timers = new ConcurrentHashMap<>();
+
+    public MetricasApiModulosAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(* com.uamishop.backend.catalogo.api.CatalogoApi.*(..))")
+    public Object medirCatalogo(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir("catalogo", joinPoint);
+    }
+
+    @Around("execution(* com.uamishop.backend.ventas.api.VentasApi.*(..))")
+    public Object medirVentas(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir("ventas", joinPoint);
+    }
+
+    @Around("execution(* com.uamishop.backend.orden.api.OrdenesApi.*(..))")
+    public Object medirOrdenes(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir("ordenes", joinPoint);
+    }
+
+    @Around("execution(* com.uamishop.backend.reportes.api.ReportesApi.*(..))")
+    public Object medirReportes(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir("reportes", joinPoint);
+    }
+
+    private Object medir(String modulo, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample muestra = Timer.start(registry);
+        String excepcion = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            muestra.stop(timer(modulo, joinPoint.getSignature().getName(), excepcion));
+        }
+    }
+
+    private Timer timer(String modulo, String metodo, String excepcion) {
+        return timers.computeIfAbsent(new ClaveTimer(modulo, metodo, excepcion), clave -> Timer.builder(METRICA)
+                .description("Latencia de las llamadas a las APIs entre módulos")
+                .tag("modulo", clave.modulo())
+                .tag("metodo", clave.metodo())
+                .tag("excepcion", clave.excepcion())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private record ClaveTimer(String modulo, String metodo, String excepcion) {
+    }
+}
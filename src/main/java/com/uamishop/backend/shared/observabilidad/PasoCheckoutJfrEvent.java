@@ -0,0 +1,85 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * @class PasoCheckoutJfrEvent
+ * @brief Evento de Java Flight Recorder para un paso del camino de checkout.
+ *
+ * Cada paso (consulta al catálogo, guardado, publicación de eventos, envío
+ * a RabbitMQ) se registra con su duración y los ids involucrados. El paso
+ * "total" cubre la operación completa, así que en JMC se puede ver qué
+ * fracción de la latencia de cada llamada corresponde a cada paso.
+ *
+ * Si la grabación no tiene habilitado el evento, begin/commit no escriben
+ * nada y los ids no se convierten a texto.
+ *
+ * Uso:
+ *   PasoCheckoutJfrEvent paso = PasoCheckoutJfrEvent.iniciar("crearDesdeCarrito", "guardarOrden");
+ *   ...
+ *   paso.orden(id).terminar();
+ */
+@Name("uamishop.PasoCheckout")
+@Label("Paso de checkout")
+@Category({"UAMIShop", "Checkout"})
+@Description("Duración de un paso de agregarProducto / crearDesdeCarrito")
+@StackTrace(false)
+public class PasoCheckoutJfrEvent extends Event {
+
+    public static final String TOTAL = "total";
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("Paso")
+    String paso;
+
+    @Label("Carrito")
+    String carritoId;
+
+    @Label("Orden")
+    String ordenId;
+
+    @Label("Producto")
+    String productoId;
+
+    public static PasoCheckoutJfrEvent iniciar(String operacion, String paso) {
+        PasoCheckoutJfrEvent evento = new PasoCheckoutJfrEvent();
+        evento.operacion = operacion;
+        evento.paso = paso;
+        evento.begin();
+        return evento;
+    }
+
+    public PasoCheckoutJfrEvent carrito(UUID id) {
+        if (isEnabled() && id != null) {
+            this.carritoId = id.toString();
+        }
+        return this;
+    }
+
+    public PasoCheckoutJfrEvent orden(UUID id) {
+        if (isEnabled() && id != null) {
+            this.ordenId = id.toString();
+        }
+        return this;
+    }
+
+    public PasoCheckoutJfrEvent producto(UUID id) {
+        if (isEnabled() && id != null) {
+            this.productoId = id.toString();
+        }
+        return this;
+    }
+
+    public void terminar() {
+        commit();
+    }
+}
@@ -0,0 +1,83 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @class PropagacionTraza
+ * @brief Lleva el contexto de traza W3C dentro de los eventos de dominio.
+ *
+ * Las llamadas HTTP (RestTemplate) y los mensajes AMQP (RabbitTemplate)
+ * ya propagan la cabecera "traceparent" por la instrumentación de Spring.
+ * Los eventos de dominio (OrdenCreadaEvent, ProductoCompradoEvent,
+ * ProductoAgregadoAlCarritoEvent) la llevan además como campo del payload:
+ * así el listener continúa la misma traza aunque el evento llegue por otro
+ * hilo, se reintente o se consuma en otro servicio a partir del JSON.
+ *
+ * Si el tracing está deshabilitado (p. ej. en pruebas) todo es no-op.
+ */
+@Component
+public class PropagacionTraza {
+
+    static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public PropagacionTraza(ObjectProvider<Tracer> tracer, ObjectProvider<Propagator> propagator) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+    }
+
+    /**
+     * Cabecera traceparent del span actual, o null si no hay traza activa.
+     */
+    public String traceparentActual() {
+        Span actual = tracer.currentSpan();
+        if (actual == null) {
+            return null;
+        }
+        Map<String, String> carrier = new HashMap<>(4);
+        propagator.inject(actual.context(), carrier, Map::put);
+        return carrier.get(TRACEPARENT);
+    }
+
+    /**
+     * Abre un span hijo del traceparent recibido (o de la traza actual si no
+     * viene ninguno) y lo deja como span actual hasta cerrar el resultado.
+     *
+     * Uso:
+     *   try (var traza = propagacionTraza.continuar("OrdenCreadaListener", event.traceparent())) { ... }
+     */
+    public TrazaActiva continuar(String nombre, String traceparent) {
+        Span span = traceparent == null
+                ? tracer.nextSpan().name(nombre).start()
+                : propagator.extract(Map.of(TRACEPARENT, traceparent), Map::get).name(nombre).start();
+        return new TrazaActiva(span, tracer.withSpan(span));
+    }
+
+    /**
+     * Span abierto por {@link #continuar}; cerrarlo lo termina y restaura el anterior.
+     */
+    public static final class TrazaActiva implements AutoCloseable {
+        private final Span span;
+        private final Tracer.SpanInScope alcance;
+
+        private TrazaActiva(Span span, Tracer.SpanInScope alcance) {
+            this.span = span;
+            this.alcance = alcance;
+        }
+
+        @Override
+        public void close() {
+            alcance.close();
+            span.end();
+        }
+    }
+}
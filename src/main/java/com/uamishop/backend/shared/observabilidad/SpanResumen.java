@@ -0,0 +1,42 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vista plana de un span exportado, usada por los exportadores de memoria
+ * y archivo (una línea JSON por span).
+ */
+public record SpanResumen(
+        String traceId,
+        String spanId,
+        String parentSpanId,
+        String nombre,
+        String tipo,
+        Instant inicio,
+        long duracionMicros,
+        boolean error,
+        Map<String, String> atributos) {
+
+    static SpanResumen desde(SpanData span) {
+        Map<String, String> atributos = new LinkedHashMap<>();
+        span.getAttributes().forEach((clave, valor) -> atributos.put(clave.getKey(), String.valueOf(valor)));
+        String padre = span.getParentSpanId();
+        return new SpanResumen(
+                span.getTraceId(),
+                span.getSpanId(),
+                SpanId.isValid(padre) ? padre : null,
+                span.getName(),
+                span.getKind().name(),
+                Instant.ofEpochSecond(0, span.getStartEpochNanos()),
+                TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()),
+                span.getStatus().getStatusCode() == StatusCode.ERROR,
+                atributos);
+    }
+}
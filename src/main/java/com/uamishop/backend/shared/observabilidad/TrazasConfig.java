@@ -0,0 +1,46 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.nio.file.Path;
+
+/**
+ * @class TrazasConfig
+ * @brief Propagación de contexto a los hilos @Async y exportador de spans.
+ *
+ * - ContextPropagatingTaskDecorator: Spring Boot lo aplica al executor
+ *   de @Async, así los listeners heredan el span (y el MDC) del hilo que
+ *   publicó el evento.
+ * - observabilidad.trazas.exportador elige el exportador local:
+ *   "memoria" (por defecto) o "archivo". Para un colector real basta con
+ *   agregar opentelemetry-exporter-otlp y management.otlp.tracing.endpoint;
+ *   Spring Boot registra todos los SpanExporter disponibles.
+ */
+@Configuration
+public class TrazasConfig {
+
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "observabilidad.trazas.exportador", havingValue = "memoria", matchIfMissing = true)
+    public MemoriaSpanExporter memoriaSpanExporter(
+            @Value("${observabilidad.trazas.memoria.capacidad:10000}") int capacidad) {
+        return new MemoriaSpanExporter(capacidad);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "observabilidad.trazas.exportador", havingValue = "archivo")
+    public ArchivoSpanExporter archivoSpanExporter(
+            @Value("${observabilidad.trazas.archivo:logs/trazas.jsonl}") Path archivo,
+            ObjectMapper objectMapper) {
+        return new ArchivoSpanExporter(archivo, objectMapper);
+    }
+}
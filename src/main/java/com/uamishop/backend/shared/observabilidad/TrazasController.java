@@ -0,0 +1,39 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Consulta de trazas del exportador en memoria (solo si está activo).
+ *
+ * Apagado por defecto: los spans exponen URLs, ids y consultas de todas las
+ * peticiones, así que se habilita solo donde haga falta con
+ * observabilidad.trazas.admin.habilitado=true.
+ */
+@Tag(name = "Administración", description = "Trazas distribuidas")
+@RestController
+@RequestMapping("/api/v1/admin/trazas")
+@ConditionalOnProperty(name = "observabilidad.trazas.admin.habilitado", havingValue = "true", matchIfMissing = false)
+@ConditionalOnExpression("'${observabilidad.trazas.exportador:memoria}' == 'memoria'")
+public class TrazasController {
+
+    private final MemoriaSpanExporter exportador;
+
+    public TrazasController(MemoriaSpanExporter exportador) {
+        this.exportador = exportador;
+    }
+
+    @Operation(summary = "Spans de una traza", description = "Ordenados por inicio, con duración en microsegundos")
+    @GetMapping("/{traceId}")
+    public List<SpanResumen> obtener(@PathVariable String traceId) {
+        return exportador.buscarTraza(traceId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.uamishop.backend.shared.persistencia;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * @class CacheSegundoNivelConfig
+ * @brief Caché de segundo nivel de Hibernate sobre JCache (Ehcache 3).
+ *
+ * La activación y la fábrica de regiones se configuran en
+ * application.properties (spring.jpa.properties.hibernate.cache.*); las
+ * regiones y sus límites, en ehcache.xml. Cada contexto de Spring
+ * crea su propio CacheManager: el que JCache entrega por URI es compartido
+ * por toda la JVM y Hibernate lo cierra al cerrar cualquiera de las
+ * SessionFactory que lo usan (p. ej. varios contextos de prueba).
+ *
+ * Con hibernate.generate_statistics=true, los aciertos y fallos por región
+ * se publican como hibernate.second.level.cache.requests{region, result}
+ * y los de consultas como hibernate.cache.query.requests.
+ *
+ * - cache-l2.habilitado: false desactiva la caché (p. ej. para comparar).
+ * - cache-l2.configuracion: archivo de regiones de Ehcache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache-l2.habilitado", havingValue = "true", matchIfMissing = true)
+public class CacheSegundoNivelConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(
+            @Value("${cache-l2.configuracion:classpath:ehcache.xml}") Resource configuracion) throws IOException {
+        XmlConfiguration regiones = new XmlConfiguration(configuracion.getURL(), getClass().getClassLoader());
+        EhcacheCachingProvider proveedor = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName(), getClass().getClassLoader());
+        return proveedor.getCacheManager(URI.create("urn:uamishop:cache-l2:" + UUID.randomUUID()), regiones);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+    }
+}
@@ -0,0 +1,75 @@
+package com.uamishop.backend.shared.persistencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Elige la base de cada conexión:
+ * - transacciones de escritura y código sin transacción: primaria;
+ * - transacciones readOnly: una réplica disponible, salvo que el cliente
+ *   acabe de escribir ({@link LecturaPropia}) o ninguna esté al día.
+ *
+ * Debe envolverse en un LazyConnectionDataSourceProxy: la decisión se toma
+ * al pedir la conexión física, cuando la transacción ya marcó si es readOnly.
+ *
+ * Cada decisión se cuenta en datasource.enrutamiento{destino, motivo}.
+ */
+public class EnrutadorDataSource extends AbstractRoutingDataSource {
+
+    private final MonitorReplicas monitor;
+    private final LecturaPropia lecturaPropia;
+    private final Map<String, Counter> decisiones = new HashMap<>();
+
+    public EnrutadorDataSource(PoolsConexiones pools, MonitorReplicas monitor, LecturaPropia lecturaPropia,
+            MeterRegistry meterRegistry) {
+        this.monitor = monitor;
+        this.lecturaPropia = lecturaPropia;
+
+        Map<Object, Object> destinos = new HashMap<>(pools.replicas());
+        destinos.put(PoolsConexiones.PRIMARIA, pools.primaria());
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(pools.primaria());
+        setLenientFallback(false);
+
+        if (meterRegistry != null) {
+            for (String motivo : new String[] {"escritura", "lectura-propia", "sin-replica"}) {
+                decisiones.put(motivo, contador(meterRegistry, PoolsConexiones.PRIMARIA, motivo));
+            }
+            decisiones.put("lectura", contador(meterRegistry, "replica", "lectura"));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return decidir(PoolsConexiones.PRIMARIA, "escritura");
+        }
+        if (lecturaPropia.primariaForzada()) {
+            return decidir(PoolsConexiones.PRIMARIA, "lectura-propia");
+        }
+        return monitor.siguienteReplica()
+                .map(replica -> decidir(replica, "lectura"))
+                .orElseGet(() -> decidir(PoolsConexiones.PRIMARIA, "sin-replica"));
+    }
+
+    private String decidir(String destino, String motivo) {
+        Counter contador = decisiones.get(motivo);
+        if (contador != null) {
+            contador.increment();
+        }
+        return destino;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino, String motivo) {
+        return Counter.builder("datasource.enrutamiento")
+                .description("Conexiones asignadas por el enrutador de lectura/escritura")
+                .tag("destino", destino)
+                .tag("motivo", motivo)
+                .register(meterRegistry);
+    }
+}
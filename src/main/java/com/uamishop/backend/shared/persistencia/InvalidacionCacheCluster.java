@@ -0,0 +1,182 @@
+package com.uamishop.backend.shared.persistencia;
+
+import com.uamishop.backend.catalogo.infrastructure.persistence.ProductoEntity;
+import com.uamishop.backend.shared.event.ProductosActualizadosEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mantiene coherente la caché de segundo nivel cuando hay varios nodos.
+ *
+ * Cada nodo tiene sus propias regiones; Hibernate solo invalida las locales.
+ * Al confirmar una transacción que escribió entidades cacheadas, este
+ * componente publica en el exchange fanout uamishop.cache-l2 un mensaje por
+ * entidad con los ids afectados (uno por transacción, no uno por fila). Los
+ * demás nodos descartan esos ids y sus resultados de consultas cacheadas.
+ *
+ * Los UPDATE masivos no generan eventos de entidad; se cubren con
+ * ProductosActualizadosEvent, que se publica por lote ya confirmado.
+ *
+ * Si el broker no está disponible la invalidación se pierde; el TTL de
+ * cada región (ehcache.xml) limita cuánto puede durar el dato obsoleto.
+ */
+@Component
+@ConditionalOnProperty(name = "cache-l2.invalidacion-cluster.habilitado", havingValue = "true")
+public class InvalidacionCacheCluster
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    public static final String EXCHANGE = "uamishop.cache-l2";
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidacionCacheCluster.class);
+
+    private final String nodo = UUID.randomUUID().toString();
+    private final EntityManagerFactory entityManagerFactory;
+    private final RabbitTemplate rabbitTemplate;
+
+    public InvalidacionCacheCluster(EntityManagerFactory entityManagerFactory, RabbitTemplate rabbitTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    @PostConstruct
+    void registrar() {
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, this);
+        registro.appendListeners(EventType.POST_UPDATE, this);
+        registro.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    // ── Escrituras locales ──
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // Una fila nueva no está en la caché de nadie; solo cambian las consultas
+        anotar(event.getPersister(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        anotar(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        anotar(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @EventListener
+    public void onProductosActualizados(ProductosActualizadosEvent event) {
+        publicar(new Invalidacion(nodo, ProductoEntity.class.getName(), event.productoIds()));
+    }
+
+    private void anotar(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(new Invalidacion(nodo, persister.getEntityName(), ids(id)));
+            return;
+        }
+        Pendientes pendientes = (Pendientes) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            pendientes = new Pendientes();
+            TransactionSynchronizationManager.bindResource(this, pendientes);
+            TransactionSynchronizationManager.registerSynchronization(pendientes);
+        }
+        pendientes.agregar(persister.getEntityName(), id);
+    }
+
+    private static List<UUID> ids(Object id) {
+        return id instanceof UUID uuid ? List.of(uuid) : List.of();
+    }
+
+    private void publicar(Invalidacion invalidacion) {
+        try {
+            rabbitTemplate.convertAndSend(EXCHANGE, "", invalidacion);
+        } catch (AmqpException e) {
+            log.warn("No se pudo publicar la invalidación de {}: {}", invalidacion.entidad(), e.getMessage());
+        }
+    }
+
+    // ── Invalidaciones de otros nodos ──
+
+    @RabbitListener(bindings = @QueueBinding(
+            value = @Queue(exclusive = "true", autoDelete = "true"),
+            exchange = @Exchange(name = EXCHANGE, type = ExchangeTypes.FANOUT)))
+    public void recibir(Invalidacion invalidacion) {
+        if (nodo.equals(invalidacion.nodo())) {
+            return;
+        }
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        invalidacion.ids().forEach(id -> cache.evictEntityData(invalidacion.entidad(), id));
+        cache.evictQueryRegions();
+    }
+
+    /**
+     * Entidad escrita en otro nodo y los ids que ya no son válidos
+     * (vacío si solo hubo inserciones). Las entidades cacheadas usan UUID como id.
+     */
+    public record Invalidacion(String nodo, String entidad, List<UUID> ids) {
+    }
+
+    /**
+     * Ids escritos en la transacción actual, agrupados por entidad;
+     * se publican solo si la transacción confirma.
+     */
+    private final class Pendientes implements TransactionSynchronization {
+        private final Map<String, Set<UUID>> porEntidad = new LinkedHashMap<>();
+
+        void agregar(String entidad, Object id) {
+            Set<UUID> ids = porEntidad.computeIfAbsent(entidad, e -> new LinkedHashSet<>());
+            if (id instanceof UUID uuid) {
+                ids.add(uuid);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int estado) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InvalidacionCacheCluster.this);
+            if (estado == STATUS_COMMITTED) {
+                porEntidad.forEach((entidad, ids) -> publicar(new Invalidacion(nodo, entidad, new ArrayList<>(ids))));
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.uamishop.backend.shared.persistencia;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Lectura de las propias escrituras ("read-your-writes") con réplicas.
+ *
+ * Cuando una transacción de escritura hace commit dentro de una petición
+ * HTTP, el cliente queda ligado a la primaria durante una ventana: el resto
+ * de la petición y las siguientes que traigan la cookie leen de la primaria,
+ * aunque la réplica todavía no haya recibido el cambio.
+ *
+ * La cookie guarda el instante (epoch ms) hasta el que aplica. Los clientes
+ * que no conservan cookies (servicio a servicio) no tienen esta garantía.
+ */
+public class LecturaPropia implements TransactionExecutionListener {
+
+    public static final String COOKIE = "UAMISHOP_PRIMARIA";
+
+    private static final String COOKIE_ENVIADA = LecturaPropia.class.getName() + ".ENVIADA";
+
+    private final ThreadLocal<Long> primariaHasta = new ThreadLocal<>();
+    private final Duration ventana;
+
+    public LecturaPropia(Duration ventana) {
+        this.ventana = ventana;
+    }
+
+    /**
+     * Verdadero si las lecturas de este hilo deben ir a la primaria.
+     */
+    public boolean primariaForzada() {
+        Long hasta = primariaHasta.get();
+        return hasta != null && hasta > System.currentTimeMillis();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaccion, Throwable falla) {
+        if (falla == null && !transaccion.isReadOnly()) {
+            registrarEscritura();
+        }
+    }
+
+    // Solo aplica a peticiones HTTP; en hilos de fondo no hay cliente al que ligar
+    private void registrarEscritura() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            return;
+        }
+        long hasta = System.currentTimeMillis() + ventana.toMillis();
+        primariaHasta.set(hasta);
+
+        HttpServletResponse respuesta = atributos.getResponse();
+        if (respuesta == null || respuesta.isCommitted()
+                || atributos.getAttribute(COOKIE_ENVIADA, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, Long.toString(hasta));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, ventana.toSeconds()));
+        cookie.setAttribute("SameSite", "Lax");
+        respuesta.addCookie(cookie);
+        atributos.setAttribute(COOKIE_ENVIADA, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Toma la ventana de la cookie de la petición, si la trae y sigue vigente.
+     */
+    void iniciarPeticion(HttpServletRequest peticion) {
+        primariaHasta.remove();
+        Cookie[] cookies = peticion.getCookies();
+        if (cookies == null) {
+            return;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    // No se aceptan ventanas más largas que la configurada
+                    long hasta = Math.min(Long.parseLong(cookie.getValue()),
+                            System.currentTimeMillis() + ventana.toMillis());
+                    primariaHasta.set(hasta);
+                } catch (NumberFormatException e) {
+                    // Cookie alterada: se ignora
+                }
+            }
+        }
+    }
+
+    void terminarPeticion() {
+        primariaHasta.remove();
+    }
+}
@@ -0,0 +1,33 @@
+package com.uamishop.backend.shared.persistencia;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Aplica la cookie de {@link LecturaPropia} al hilo de la petición y la
+ * limpia al terminar, para que no se herede entre peticiones del pool.
+ */
+public class LecturaPropiaFilter extends OncePerRequestFilter {
+
+    private final LecturaPropia lecturaPropia;
+
+    public LecturaPropiaFilter(LecturaPropia lecturaPropia) {
+        this.lecturaPropia = lecturaPropia;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        lecturaPropia.iniciarPeticion(request);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            lecturaPropia.terminarPeticion();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.uamishop.backend.shared.persistencia;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vigila el retraso de replicación de cada réplica y decide cuáles pueden
+ * atender lecturas.
+ *
+ * Cada intervalo abre una conexión a cada réplica y ejecuta la consulta de
+ * retraso configurada:
+ * - vacía: solo se comprueba que la réplica responde (retraso 0);
+ * - "SHOW REPLICA STATUS" (o "SHOW SLAVE STATUS"): se lee Seconds_Behind_Source
+ *   (o Seconds_Behind_Master) de MySQL; si la replicación está detenida la
+ *   réplica queda fuera;
+ * - cualquier otra consulta: la primera columna de la primera fila, en segundos.
+ *
+ * Una réplica que no responde o cuyo retraso supera el máximo deja de
+ * recibir lecturas hasta la siguiente verificación que la encuentre al día.
+ * Entre las disponibles se reparte por turnos.
+ */
+public class MonitorReplicas implements AutoCloseable {
+
+    private final Map<String, ? extends DataSource> replicas;
+    private final String consultaRetraso;
+    private final Duration retrasoMaximo;
+    private final ScheduledExecutorService verificador;
+    private final Map<String, Double> retrasos = new ConcurrentHashMap<>();
+    private final AtomicInteger turno = new AtomicInteger();
+    private volatile List<String> disponibles = List.of();
+
+    public MonitorReplicas(Map<String, ? extends DataSource> replicas, String consultaRetraso,
+            Duration retrasoMaximo, Duration intervalo, MeterRegistry meterRegistry) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.consultaRetraso = consultaRetraso == null ? "" : consultaRetraso.trim();
+        this.retrasoMaximo = retrasoMaximo;
+
+        if (meterRegistry != null) {
+            this.replicas.keySet().forEach(nombre -> Gauge
+                    .builder("datasource.replica.retraso", retrasos, r -> r.getOrDefault(nombre, Double.NaN))
+                    .description("Retraso de replicación medido (segundos); NaN si la réplica no responde")
+                    .baseUnit("seconds")
+                    .tag("replica", nombre)
+                    .register(meterRegistry));
+        }
+
+        verificar();
+        this.verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "monitor-replicas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.verificador.scheduleWithFixedDelay(this::verificar,
+                intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Siguiente réplica por turnos entre las disponibles; vacío si ninguna lo está.
+     */
+    public Optional<String> siguienteReplica() {
+        List<String> actuales = disponibles;
+        if (actuales.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(actuales.get(Math.floorMod(turno.getAndIncrement(), actuales.size())));
+    }
+
+    public List<String> disponibles() {
+        return disponibles;
+    }
+
+    /**
+     * Mide el retraso de todas las réplicas y actualiza las disponibles.
+     */
+    public synchronized void verificar() {
+        List<String> nuevas = new ArrayList<>(replicas.size());
+        replicas.forEach((nombre, dataSource) -> {
+            Double retraso = medirRetraso(dataSource);
+            if (retraso == null) {
+                retrasos.remove(nombre);
+            } else {
+                retrasos.put(nombre, retraso);
+                if (retraso <= retrasoMaximo.toMillis() / 1000.0) {
+                    nuevas.add(nombre);
+                }
+            }
+        });
+        disponibles = List.copyOf(nuevas);
+    }
+
+    // Segundos de retraso, o null si la réplica no responde o no está replicando
+    private Double medirRetraso(DataSource dataSource) {
+        try (Connection conexion = dataSource.getConnection()) {
+            if (consultaRetraso.isEmpty()) {
+                return conexion.isValid(2) ? 0.0 : null;
+            }
+            try (Statement sentencia = conexion.createStatement();
+                 ResultSet resultado = sentencia.executeQuery(consultaRetraso)) {
+                if (!resultado.next()) {
+                    return null;
+                }
+                Object valor = esEstadoMysql()
+                        ? columnaRetrasoMysql(resultado)
+                        : resultado.getObject(1);
+                return valor instanceof Number numero ? numero.doubleValue() : null;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private boolean esEstadoMysql() {
+        String consulta = consultaRetraso.toUpperCase();
+        return consulta.startsWith("SHOW REPLICA STATUS") || consulta.startsWith("SHOW SLAVE STATUS");
+    }
+
+    private static Object columnaRetrasoMysql(ResultSet resultado) throws SQLException {
+        try {
+            return resultado.getObject("Seconds_Behind_Source");
+        } catch (SQLException e) {
+            // MySQL anterior a 8.0.22
+            return resultado.getObject("Seconds_Behind_Master");
+        }
+    }
+
+    @Override
+    public void close() {
+        verificador.shutdownNow();
+    }
+}
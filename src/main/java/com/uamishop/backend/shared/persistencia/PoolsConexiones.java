@@ -0,0 +1,28 @@
+package com.uamishop.backend.shared.persistencia;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Map;
+
+/**
+ * Pools de Hikari de la base primaria y de cada réplica de lectura.
+ * Se cierran juntos al detener la aplicación.
+ *
+ * @param primaria pool de escrituras (y de lecturas cuando no hay réplica utilizable)
+ * @param replicas pools de solo lectura por nombre ("replica-1", "replica-2", ...)
+ */
+public record PoolsConexiones(HikariDataSource primaria, Map<String, HikariDataSource> replicas)
+        implements AutoCloseable {
+
+    public static final String PRIMARIA = "primaria";
+
+    public PoolsConexiones {
+        replicas = Map.copyOf(replicas);
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+        primaria.close();
+    }
+}
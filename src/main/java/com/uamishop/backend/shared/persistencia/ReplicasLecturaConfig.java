@@ -0,0 +1,119 @@
+package com.uamishop.backend.shared.persistencia;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @class ReplicasLecturaConfig
+ * @brief Enrutamiento de lecturas a réplicas (datasource.replicas.habilitado=true).
+ *
+ * Sustituye el DataSource de Spring Boot por un enrutador con un pool Hikari
+ * para la primaria (spring.datasource.*) y uno por réplica
+ * (datasource.replicas.urls). Las transacciones @Transactional(readOnly = true)
+ * van a una réplica; todo lo demás, a la primaria.
+ *
+ * Hibernate libera la conexión al terminar cada transacción en lugar de
+ * retenerla toda la petición (open-in-view), para que cada transacción de la
+ * petición pueda ir a un destino distinto.
+ *
+ * - datasource.replicas.urls: URLs JDBC separadas por comas.
+ * - datasource.replicas.username / password: por defecto, los de la primaria.
+ * - datasource.replicas.consulta-retraso: ver {@link MonitorReplicas}.
+ * - datasource.replicas.retraso-maximo: por encima, la réplica no recibe lecturas.
+ * - datasource.replicas.intervalo-verificacion: cada cuánto se mide el retraso.
+ * - datasource.replicas.ventana-lectura-propia: tiempo que un cliente lee de
+ *   la primaria después de escribir.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.habilitado", havingValue = "true")
+public class ReplicasLecturaConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolsConexiones poolsConexiones(
+            DataSourceProperties propiedades,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:}") String usuario,
+            @Value("${datasource.replicas.password:}") String contrasena) {
+
+        Binder binder = Binder.get(environment);
+        HikariDataSource primaria = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaria));
+        primaria.setPoolName(PoolsConexiones.PRIMARIA);
+        primaria.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            String nombre = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(propiedades.determineDriverClassName());
+            replica.setUsername(usuario.isBlank() ? propiedades.determineUsername() : usuario);
+            replica.setPassword(usuario.isBlank() ? propiedades.determinePassword() : contrasena);
+            replica.setReadOnly(true);
+            replica.setPoolName(nombre);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(nombre, replica);
+        }
+        return new PoolsConexiones(primaria, replicas);
+    }
+
+    @Bean(destroyMethod = "close")
+    public MonitorReplicas monitorReplicas(
+            PoolsConexiones pools,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.consulta-retraso:}") String consultaRetraso,
+            @Value("${datasource.replicas.retraso-maximo:5s}") Duration retrasoMaximo,
+            @Value("${datasource.replicas.intervalo-verificacion:2s}") Duration intervalo) {
+        return new MonitorReplicas(pools.replicas(), consultaRetraso, retrasoMaximo, intervalo, meterRegistry);
+    }
+
+    // Como TransactionExecutionListener, Spring Boot lo registra en el JpaTransactionManager
+    @Bean
+    public LecturaPropia lecturaPropia(
+            @Value("${datasource.replicas.ventana-lectura-propia:5s}") Duration ventana) {
+        return new LecturaPropia(ventana);
+    }
+
+    @Bean
+    public LecturaPropiaFilter lecturaPropiaFilter(LecturaPropia lecturaPropia) {
+        return new LecturaPropiaFilter(lecturaPropia);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(PoolsConexiones pools, MonitorReplicas monitor, LecturaPropia lecturaPropia,
+            MeterRegistry meterRegistry) {
+        EnrutadorDataSource enrutador = new EnrutadorDataSource(pools, monitor, lecturaPropia, meterRegistry);
+        enrutador.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer liberarConexionPorTransaccion() {
+        return propiedades -> propiedades.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
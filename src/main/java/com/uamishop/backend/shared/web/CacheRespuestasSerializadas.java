@@ -0,0 +1,242 @@
+package com.uamishop.backend.shared.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @class CacheRespuestasSerializadas
+ * @brief Caché de respuestas ya serializadas (JSON o CBOR, y su variante gzip).
+ *
+ * Cada entrada se identifica por recurso + id + formato y guarda el ETag de la
+ * versión con la que se generó. Si la versión persistida cambia, la entrada
+ * deja de coincidir y se regenera, por lo que nunca se sirve un cuerpo
+ * obsoleto aunque una invalidación llegue tarde. Las invalidaciones
+ * explícitas de los servicios solo liberan memoria antes.
+ *
+ * En un acierto no hay mapeo de dominio a DTO ni serialización Jackson:
+ * se escriben directamente los bytes guardados.
+ *
+ * El formato se negocia con Accept: CBOR solo si el cliente lo pide
+ * explícitamente (tráfico entre servicios); cualquier otro caso recibe JSON.
+ * Cada representación (formato y codificación) lleva su propio ETag, que
+ * los controladores obtienen con etag() para resolver el 304.
+ *
+ * - catalogo.cache-respuestas.max-entradas: número máximo de entradas.
+ * - catalogo.cache-respuestas.max-bytes-entrada: cuerpos más grandes
+ *   no se guardan (p. ej. catálogos completos muy grandes).
+ */
+@Component
+public class CacheRespuestasSerializadas {
+
+    // Por debajo de este tamaño gzip no compensa
+    private static final int MIN_BYTES_GZIP = 512;
+
+    private final ConcurrentHashMap<Clave, Entrada> entradas = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final int maxEntradas;
+    private final int maxBytesEntrada;
+
+    public CacheRespuestasSerializadas(
+            ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            @Value("${catalogo.cache-respuestas.max-entradas:10000}") int maxEntradas,
+            @Value("${catalogo.cache-respuestas.max-bytes-entrada:2097152}") int maxBytesEntrada) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.maxEntradas = maxEntradas;
+        this.maxBytesEntrada = maxBytesEntrada;
+    }
+
+    /**
+     * ETag de la representación que recibiría esta petición: el de la
+     * versión con un sufijo de formato y, si el cliente acepta gzip, de
+     * codificación. Así un ETag de la variante JSON no valida la CBOR ni
+     * la comprimida.
+     *
+     * El sufijo gzip depende de lo que acepta el cliente y no del tamaño
+     * del cuerpo, para poder calcularlo sin cargar el recurso. Un cuerpo
+     * pequeño que se envía sin comprimir lo lleva igualmente; para la
+     * misma versión el resultado es siempre el mismo cuerpo.
+     */
+    public String etag(VersionRecurso version, String accept, String acceptEncoding) {
+        String base = version.etag();
+        String sufijo = Formato.negociar(accept).sufijo + (aceptaGzip(acceptEncoding) ? "-gzip" : "");
+        return base.substring(0, base.length() - 1) + sufijo + "\"";
+    }
+
+    /**
+     * Construye la respuesta 200 para la versión indicada.
+     *
+     * @param recurso         tipo de recurso (p. ej. "producto")
+     * @param id              identificador dentro del recurso ("*" para listados)
+     * @param version         versión persistida ya consultada para el ETag
+     * @param accept          cabecera Accept de la petición (puede ser null)
+     * @param acceptEncoding  cabecera Accept-Encoding de la petición (puede ser null)
+     * @param cacheControl    política Cache-Control de la respuesta
+     * @param cargar          obtiene el DTO si no hay entrada válida
+     */
+    public ResponseEntity<byte[]> responder(String recurso, String id, VersionRecurso version,
+            String accept, String acceptEncoding, CacheControl cacheControl, Supplier<?> cargar) {
+
+        Formato formato = Formato.negociar(accept);
+        Entrada entrada = obtener(new Clave(recurso, id, formato), version.etag(), formato, cargar);
+        boolean gzip = aceptaGzip(acceptEncoding) && entrada.cuerpo.length >= MIN_BYTES_GZIP;
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(formato.tipo)
+                .cacheControl(cacheControl)
+                .eTag(etag(version, accept, acceptEncoding))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (version.ultimaModificacionMillis() >= 0) {
+            respuesta.lastModified(version.ultimaModificacionMillis());
+        }
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return respuesta.body(entrada.gzip());
+        }
+        return respuesta.body(entrada.cuerpo);
+    }
+
+    /**
+     * Descarta las entradas (en todos los formatos) de un recurso concreto.
+     */
+    public void invalidar(String recurso, String id) {
+        for (Formato formato : Formato.values()) {
+            entradas.remove(new Clave(recurso, id, formato));
+        }
+    }
+
+    /**
+     * Descarta todas las entradas de un tipo de recurso.
+     */
+    public void invalidarRecurso(String recurso) {
+        entradas.keySet().removeIf(clave -> clave.recurso().equals(recurso));
+    }
+
+    private Entrada obtener(Clave clave, String etag, Formato formato, Supplier<?> cargar) {
+        Entrada actual = entradas.get(clave);
+        if (actual != null && actual.etag.equals(etag)) {
+            return actual;
+        }
+
+        Entrada nueva = new Entrada(etag, serializar(cargar.get(), formato));
+        if (nueva.cuerpo.length <= maxBytesEntrada) {
+            liberarEspacio();
+            entradas.put(clave, nueva);
+        }
+        return nueva;
+    }
+
+    // Al llegar al límite se descarta una entrada arbitraria (no es LRU estricto)
+    private void liberarEspacio() {
+        Iterator<Clave> it = entradas.keySet().iterator();
+        while (entradas.size() >= maxEntradas && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private byte[] serializar(Object cuerpo, Formato formato) {
+        ObjectMapper mapper = formato == Formato.CBOR ? cborMapper : objectMapper;
+        try {
+            return mapper.writeValueAsBytes(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    /**
+     * Formatos de respuesta soportados.
+     */
+    public enum Formato {
+        JSON(MediaType.APPLICATION_JSON, "-json"),
+        CBOR(MediaType.APPLICATION_CBOR, "-cbor");
+
+        private final MediaType tipo;
+        private final String sufijo;
+
+        Formato(MediaType tipo, String sufijo) {
+            this.tipo = tipo;
+            this.sufijo = sufijo;
+        }
+
+        /**
+         * Elige CBOR solo si aparece de forma explícita en Accept con una
+         * calidad mayor o igual a la de JSON; en otro caso, JSON.
+         */
+        static Formato negociar(String accept) {
+            if (accept == null || !accept.contains("cbor")) {
+                return JSON;
+            }
+            double calidadCbor = -1;
+            double calidadJson = -1;
+            for (MediaType tipo : MediaType.parseMediaTypes(accept)) {
+                if (!tipo.isWildcardType() && !tipo.isWildcardSubtype()
+                        && tipo.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                    calidadCbor = Math.max(calidadCbor, tipo.getQualityValue());
+                } else if (tipo.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    calidadJson = Math.max(calidadJson, tipo.getQualityValue());
+                }
+            }
+            return calidadCbor > 0 && calidadCbor >= calidadJson ? CBOR : JSON;
+        }
+    }
+
+    private record Clave(String recurso, String id, Formato formato) {
+    }
+
+    /**
+     * Cuerpo serializado de una versión; la variante gzip se genera
+     * la primera vez que un cliente la pide.
+     */
+    private static final class Entrada {
+        private final String etag;
+        private final byte[] cuerpo;
+        private volatile byte[] gzip;
+
+        private Entrada(String etag, byte[] cuerpo) {
+            this.etag = etag;
+            this.cuerpo = cuerpo;
+        }
+
+        private byte[] gzip() {
+            byte[] comprimido = gzip;
+            if (comprimido == null) {
+                comprimido = comprimir(cuerpo);
+                gzip = comprimido;
+            }
+            return comprimido;
+        }
+
+        private static byte[] comprimir(byte[] datos) {
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+                gzip.write(datos);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return salida.toByteArray();
+        }
+    }
+}
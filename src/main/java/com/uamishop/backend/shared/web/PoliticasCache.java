@@ -0,0 +1,28 @@
+package com.uamishop.backend.shared.web;
+
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * @class PoliticasCache
+ * @brief Cabeceras Cache-Control compartidas por los endpoints de lectura.
+ *
+ * - CATALOGO: datos públicos que cambian poco; clientes y CDNs pueden
+ *   reutilizarlos un minuto y después revalidar con ETag.
+ * - ORDENES: datos privados del cliente; siempre se revalidan (304 si no cambian).
+ */
+public final class PoliticasCache {
+
+    public static final CacheControl CATALOGO = CacheControl
+            .maxAge(Duration.ofSeconds(60))
+            .cachePublic()
+            .mustRevalidate();
+
+    public static final CacheControl ORDENES = CacheControl
+            .noCache()
+            .cachePrivate();
+
+    private PoliticasCache() {
+    }
+}
@@ -23,7 +23,7 @@ public class CarritoMapper {
                 carrito.getId().value(),              // UUID del carrito
                 carrito.getClienteId().getValor(),    // UUID del cliente
                 items,
-                carrito.calcularTotal().sumar(carrito.getDescuento()).getCantidad(), // Subtotal
+                carrito.calcularSubtotal().getCantidad(), // Subtotal
                 carrito.getDescuento().getCantidad(), // Dscuento
                 carrito.calcularTotal().getCantidad(),// Total
                 carrito.getEstado().name()            // String del Estado del carrito
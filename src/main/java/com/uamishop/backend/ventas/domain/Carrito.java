@@ -6,8 +6,9 @@ import com.uamishop.backend.shared.domain.ProductoId;
 import com.uamishop.backend.shared.exception.DomainException;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +18,9 @@ import java.util.UUID;
 @Table(name = "carritos")
 public class Carrito {
 
+    // Monto mínimo de compra para iniciar el checkout (50 pesos)
+    private static final long MONTO_MINIMO_CHECKOUT_CENTAVOS = 5_000L;
+
     // Atributos
     @Id
     @Column(name = "id")
@@ -45,6 +49,13 @@ public class Carrito {
     // El descuento se almacena como un Money embebido, con columnas personalizadas
     private Money descuento;
 
+    // Subtotal acumulado de los items; se ajusta en cada cambio de items
+    // para que leer el total sea O(1)
+    @Embedded
+    @AttributeOverride(name = "cantidad", column = @Column(name = "subtotal_monto"))
+    @AttributeOverride(name = "moneda", column = @Column(name = "subtotal_moneda"))
+    private Money subtotal;
+
     // Constructor vacío para JPA
     //no tiene que tener parametros, sin logica y sin validaciones. tiene que ser un constructor vacio.
     protected Carrito() { }
@@ -55,7 +66,8 @@ public class Carrito {
         this.clienteId = clienteId;
         this.items = new ArrayList<>();
         this.estado = EstadoCarrito.ACTIVO;
-        this.descuento = Money.pesos(0);
+        this.descuento = Money.CERO;
+        this.subtotal = Money.CERO;
     }
 
     // Metodos de negocio
@@ -71,10 +83,15 @@ public class Carrito {
 
         // Si ya existe, aumenta la cantidad. Si no, agrega un nuevo item al carrito
         if (existente.isPresent()) {
-            existente.get().aumentarCantidad(cantidad);
+            ItemCarrito item = existente.get();
+            long anterior = item.subtotalCentavos();
+            item.aumentarCantidad(cantidad);
+            ajustarSubtotal(item.subtotalCentavos() - anterior);
         } else {
             if (items.size() >= 20) throw new DomainException("Carrito lleno");
-            items.add(new ItemCarrito(productoId, cantidadInt, precio));
+            ItemCarrito nuevo = new ItemCarrito(productoId, cantidadInt, precio);
+            items.add(nuevo);
+            ajustarSubtotal(nuevo.subtotalCentavos());
         }
     }
 
@@ -94,22 +111,33 @@ public class Carrito {
                 .filter(i -> i.getProductoId().equals(productoId))
                 .findFirst()
                 .orElseThrow(() -> new DomainException("Producto no encontrado en el carrito"));
+        long anterior = item.subtotalCentavos();
         item.actualizarCantidad(nuevaCantidad);
+        ajustarSubtotal(item.subtotalCentavos() - anterior);
     }
 
     // Eliminar producto del carrito
     public void eliminarProducto(ProductoId productoId) {
         validarEstadoActivo();
-        // Elimina el producto del carrito usando removeIf y devuelve true si se eliminó algún elemento
-        boolean eliminado = items.removeIf(item -> item.getProductoId().equals(productoId));
-        if (!eliminado) throw new DomainException("Producto no encontrado");
+        // Elimina el producto del carrito y descuenta su subtotal
+        Iterator<ItemCarrito> it = items.iterator();
+        while (it.hasNext()) {
+            ItemCarrito item = it.next();
+            if (item.getProductoId().equals(productoId)) {
+                it.remove();
+                ajustarSubtotal(-item.subtotalCentavos());
+                return;
+            }
+        }
+        throw new DomainException("Producto no encontrado");
     }
 
     // Vaciar el carrito
     public void vaciar() {
         validarEstadoActivo();
         items.clear();
-        this.descuento = Money.pesos(0);
+        this.descuento = Money.CERO;
+        this.subtotal = Money.CERO;
     }
 
     // Iniciar el proceso de checkout
@@ -118,7 +146,7 @@ public class Carrito {
         // Para iniciar el checkout, el carrito debe tener al menos un producto y un total mínimo de 50 pesos
         if (items.isEmpty()) throw new DomainException("No se puede hacer checkout de un carrito vacio");
         // El total se calcula restando el descuento al subtotal, y debe ser al menos 50 pesos para iniciar el checkout
-        if (calcularTotal().getCantidad().compareTo(new BigDecimal("50")) < 0) {
+        if (calcularTotal().getCentavos() < MONTO_MINIMO_CHECKOUT_CENTAVOS) {
             throw new DomainException("El monto minimo de compra es de 50 pesos");
         }
         this.estado = EstadoCarrito.EN_CHECKOUT;
@@ -147,10 +175,9 @@ public class Carrito {
         validarEstadoActivo();
         // El descuento no puede ser negativo ni mayor al 30% del subtotal del carrito
         Money subtotal = calcularSubtotal();
-        // El límite de descuento se calcula como el 30% del subtotal, y se compara con el monto del descuento para validar que no exceda ese límite
-        BigDecimal limite = subtotal.getCantidad().multiply(new BigDecimal("0.30"));
+        // El límite de descuento es el 30% del subtotal; se compara en centavos (descuento * 10 > subtotal * 3)
         // Si el monto del descuento es mayor al límite permitido, se lanza una excepción para indicar que el descuento no es válido
-        if (montoDescuento.getCantidad().compareTo(limite) > 0) {
+        if (Math.multiplyExact(montoDescuento.getCentavos(), 10L) > Math.multiplyExact(subtotal.getCentavos(), 3L)) {
             throw new DomainException("El descuento no puede ser mayor al 30% del subtotal");
         }
         this.descuento = montoDescuento;
@@ -161,12 +188,28 @@ public class Carrito {
         return calcularSubtotal().restar(descuento);
     }
 
-    /* Calcular el subtotal del carrito
-    Utiliza stream para calcular el subtotal de cada item y reducirlo a un único valor total */
-    private Money calcularSubtotal() {
-        return items.stream()
-                .map(ItemCarrito::subtotal)
-                .reduce(Money.pesos(0), Money::sumar);
+    // Subtotal del carrito (valor acumulado, O(1))
+    public Money calcularSubtotal() {
+        // Carritos guardados antes de persistir el subtotal: se recalcula una vez
+        if (subtotal == null) {
+            this.subtotal = recalcularSubtotal();
+        }
+        return subtotal;
+    }
+
+    // Aplica al subtotal acumulado la diferencia en centavos de un cambio de items
+    private void ajustarSubtotal(long diferenciaCentavos) {
+        this.subtotal = Money.centavos(Math.addExact(calcularSubtotal().getCentavos(), diferenciaCentavos));
+    }
+
+    /* Suma los subtotales de cada item en centavos y crea un único Money al final
+    Solo se usa para carritos sin subtotal persistido */
+    private Money recalcularSubtotal() {
+        long centavos = 0L;
+        for (ItemCarrito item : items) {
+            centavos = Math.addExact(centavos, item.subtotalCentavos());
+        }
+        return Money.centavos(centavos);
     }
 
     // valida el estado del carrito 
@@ -188,8 +231,9 @@ public class Carrito {
         return clienteId; 
     }
 
+    // Solo lectura: los cambios pasan por los métodos de negocio para mantener el subtotal
     public List<ItemCarrito> getItems() { 
-        return items; 
+        return Collections.unmodifiableList(items); 
     }
 
     public EstadoCarrito getEstado() { 
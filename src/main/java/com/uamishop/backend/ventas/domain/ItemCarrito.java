@@ -47,19 +47,25 @@ public class ItemCarrito {
     }
 
     // Aumenta la cantidad sumando a la existente (ej: agregar más del mismo producto)
-    public void aumentarCantidad(Cantidad cantidadExtra) {
+    // Solo Carrito la invoca, para mantener su subtotal acumulado
+    void aumentarCantidad(Cantidad cantidadExtra) {
         Cantidad actual = new Cantidad(this.cantidad);
         this.cantidad = actual.sumar(cantidadExtra).valor();
     }
 
     // Actualiza la cantidad a un nuevo valor (ej: modificar desde el carrito)
-    public void actualizarCantidad(Cantidad nuevaCantidad) {
+    void actualizarCantidad(Cantidad nuevaCantidad) {
         this.cantidad = nuevaCantidad.valor();
     }
 
     // Calcula el subtotal multiplicando el precio unitario por la cantidad
     public Money subtotal() {
-        return precioUnitario.multiplicar(cantidad);
+        return Money.centavos(subtotalCentavos());
+    }
+
+    // Subtotal en centavos, sin crear objetos intermedios (usado por Carrito)
+    long subtotalCentavos() {
+        return Math.multiplyExact(precioUnitario.getCentavos(), cantidad);
     }
 
     // Getters
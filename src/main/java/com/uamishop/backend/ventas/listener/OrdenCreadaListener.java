@@ -1,6 +1,9 @@
 package com.uamishop.backend.ventas.listener;
 
 import com.uamishop.backend.shared.event.OrdenCreadaEvent;
+import com.uamishop.backend.shared.observabilidad.ListenerAsyncJfrEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza.TrazaActiva;
 import com.uamishop.backend.ventas.domain.CarritoId;
 import com.uamishop.backend.ventas.service.CarritoService;
 import org.springframework.scheduling.annotation.Async;
@@ -14,15 +17,26 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class OrdenCreadaListener {
 
     private final CarritoService carritoService;
+    private final PropagacionTraza propagacionTraza;
 
-    public OrdenCreadaListener(CarritoService carritoService) {
+    public OrdenCreadaListener(CarritoService carritoService, PropagacionTraza propagacionTraza) {
         this.carritoService = carritoService;
+        this.propagacionTraza = propagacionTraza;
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     @Async
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void onOrdenCreada(OrdenCreadaEvent event) {
-        carritoService.completarCheckout(new CarritoId(event.carritoId()));
+        ListenerAsyncJfrEvent jfr = ListenerAsyncJfrEvent.iniciar(
+                "OrdenCreadaListener", event.eventId(), event.occurredAt());
+        boolean exito = false;
+        // Continúa la traza de quien publicó el evento
+        try (TrazaActiva traza = propagacionTraza.continuar("OrdenCreadaListener", event.traceparent())) {
+            carritoService.completarCheckout(new CarritoId(event.carritoId()));
+            exito = true;
+        } finally {
+            jfr.terminar(exito);
+        }
     }
 }
\ No newline at end of file
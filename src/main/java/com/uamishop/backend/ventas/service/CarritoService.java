@@ -5,6 +5,8 @@ import com.uamishop.backend.catalogo.api.CatalogoApi;
 import com.uamishop.backend.shared.domain.ClienteId; 
 import com.uamishop.backend.shared.domain.ProductoId;
 import com.uamishop.backend.shared.exception.DomainException;
+import com.uamishop.backend.shared.observabilidad.PasoCheckoutJfrEvent;
+import com.uamishop.backend.shared.observabilidad.PropagacionTraza;
 import com.uamishop.backend.ventas.api.CarritoResumen;
 import com.uamishop.backend.ventas.api.VentasApi;
 import com.uamishop.backend.ventas.domain.Carrito;
@@ -23,18 +25,25 @@ import java.util.UUID;
 @Service
 public class CarritoService implements VentasApi {
 
+    // Nombre de la operación en los eventos JFR del checkout
+    private static final String AGREGAR_PRODUCTO = "agregarProducto";
+
     // Toma el repositorio de Carrito para interactuar con la base de datos
     private final CarritoJpaRepository carritoRepository;
     //Enlace entre el CarritoService y Catalogo
     private final CatalogoApi catalogoApi;
     //Inyeccion de eventos
     private final ApplicationEventPublisher eventPublisher;
+    //Contexto de traza que viaja dentro de los eventos
+    private final PropagacionTraza propagacionTraza;
 
     // Constructor para inyectar el repositorio de Carrito y el API de Catálogo
-    public CarritoService(CarritoJpaRepository carritoRepository, CatalogoApi catalogoApi, ApplicationEventPublisher eventPublisher) {
+    public CarritoService(CarritoJpaRepository carritoRepository, CatalogoApi catalogoApi,
+            ApplicationEventPublisher eventPublisher, PropagacionTraza propagacionTraza) {
         this.carritoRepository = carritoRepository;
         this.catalogoApi = catalogoApi; //aquí se "habla" al otro servidor
         this.eventPublisher = eventPublisher;
+        this.propagacionTraza = propagacionTraza;
     }
 
     // --- MÉTODOS PUBLICOS (Lo que ven otros servicios)---
@@ -71,6 +80,7 @@ public class CarritoService implements VentasApi {
     }
 
     // Método para obtener un carrito de compras por su ID
+    @Transactional(readOnly = true)
     public Carrito obtenerCarrito(CarritoId carritoId) {
         // Busca el carrito en la base de datos utilizando su ID
         // Si no se encuentra, lanza una excepción indicando que el carrito no existe
@@ -82,7 +92,11 @@ public class CarritoService implements VentasApi {
     // usando la API pública de Catálogo para el resumen
     @Transactional
     public Carrito agregarProducto(CarritoId carritoId, ProductoId productoId, int cantidad) {
+        PasoCheckoutJfrEvent total = PasoCheckoutJfrEvent.iniciar(AGREGAR_PRODUCTO, PasoCheckoutJfrEvent.TOTAL);
+
+        PasoCheckoutJfrEvent consulta = PasoCheckoutJfrEvent.iniciar(AGREGAR_PRODUCTO, "consultarCatalogo");
         var productoResumen = catalogoApi.obtenerProducto(productoId.valor());
+        consulta.producto(productoId.valor()).terminar();
         // Valida la regla de negocio
         if (!productoResumen.disponible()) {
             throw new DomainException("El producto no está disponible en catálogo");
@@ -90,11 +104,14 @@ public class CarritoService implements VentasApi {
         // El precio viene como un objeto Money desde el Shared Kernel)
         Money precioOficial = productoResumen.precio();
         // Persistencia
+        PasoCheckoutJfrEvent guardado = PasoCheckoutJfrEvent.iniciar(AGREGAR_PRODUCTO, "guardarCarrito");
         Carrito carrito = obtenerCarrito(carritoId);
         carrito.agregarProducto(productoId, cantidad, precioOficial);
 
-        Carrito guardado = carritoRepository.save(carrito);
+        Carrito resultado = carritoRepository.save(carrito);
+        guardado.carrito(carritoId.value()).terminar();
 
+        PasoCheckoutJfrEvent publicacion = PasoCheckoutJfrEvent.iniciar(AGREGAR_PRODUCTO, "publicarEvento");
         eventPublisher.publishEvent(new ProductoAgregadoAlCarritoEvent(
             UUID.randomUUID(),
             Instant.now(),
@@ -102,10 +119,13 @@ public class CarritoService implements VentasApi {
             carritoId.value(),
             cantidad,
             precioOficial.getCantidad(),
-            precioOficial.getMoneda()
+            precioOficial.getMoneda(),
+            propagacionTraza.traceparentActual()
         ));
-        
-        return guardado;
+        publicacion.terminar();
+
+        total.carrito(carritoId.value()).producto(productoId.valor()).terminar();
+        return resultado;
     }
 
     // Método para modificar la cantidad de un producto en el carrito de compras
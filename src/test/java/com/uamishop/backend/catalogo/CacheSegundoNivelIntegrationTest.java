@@ -0,0 +1,171 @@
+package com.uamishop.backend.catalogo;
+
+import com.uamishop.backend.catalogo.domain.Categoria;
+import com.uamishop.backend.catalogo.domain.Producto;
+import com.uamishop.backend.catalogo.infrastructure.persistence.CategoriaEntity;
+import com.uamishop.backend.catalogo.repository.CategoriaRepository;
+import com.uamishop.backend.catalogo.repository.ProductoRepository;
+import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.VersionRecurso;
+import com.uamishop.backend.shared.persistencia.InvalidacionCacheCluster;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CacheSegundoNivelIntegrationTest {
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void limpiarCache() {
+        entityManagerFactory.getCache().evictAll();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void categoriaPorIdSeLeeDeLaCacheSinConsultarLaBase() {
+        // GIVEN
+        Categoria categoria = guardarCategoria("Cacheada");
+        entityManagerFactory.getCache().evictAll();
+        estadisticas.clear();
+
+        // WHEN: primera lectura va a la base; la segunda, a la región
+        categoriaRepository.findById(categoria.getId());
+        long sentencias = estadisticas.getPrepareStatementCount();
+        categoriaRepository.findById(categoria.getId());
+
+        // THEN
+        assertThat(estadisticas.getPrepareStatementCount()).isEqualTo(sentencias);
+        assertThat(estadisticas.getDomainDataRegionStatistics("catalogo.categorias").getHitCount()).isEqualTo(1);
+        assertThat(estadisticas.getDomainDataRegionStatistics("catalogo.categorias").getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void crearProductoValidaLaCategoriaDesdeLaCache() throws Exception {
+        // GIVEN: la categoría ya está en la caché
+        Categoria categoria = guardarCategoria("Para productos");
+        categoriaRepository.findById(categoria.getId());
+        estadisticas.clear();
+
+        // WHEN
+        mockMvc.perform(post("/api/v1/productos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombre": "Producto", "descripcion": "Con caché", "precio": 15, "categoriaId": "%s"}
+                                """.formatted(categoria.getId().valor())))
+                .andExpect(status().isCreated());
+
+        // THEN
+        assertThat(estadisticas.getDomainDataRegionStatistics("catalogo.categorias").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listadoDeCategoriasSeCacheaYSeInvalidaConUnaEscritura() {
+        // GIVEN
+        guardarCategoria("Listado");
+        int antes = categoriaRepository.findAll().size();
+
+        // WHEN: segunda lectura desde la caché de consultas
+        categoriaRepository.findAll();
+        assertThat(estadisticas.getQueryRegionStatistics("catalogo.consultas").getHitCount()).isEqualTo(1);
+
+        // THEN: un alta invalida el resultado guardado
+        guardarCategoria("Nueva");
+        assertThat(categoriaRepository.findAll()).hasSize(antes + 1);
+    }
+
+    @Test
+    void versionDelCatalogoSeInvalidaConLosUpdateMasivos() {
+        // GIVEN
+        Categoria categoria = guardarCategoria("Masivos");
+        Producto producto = productoRepository.save(Producto.crear(
+                "Masivo", "Producto de prueba", Money.pesos(new BigDecimal("100.00")), categoria.getId()));
+        VersionRecurso antes = productoRepository.findVersionColeccion();
+        assertThat(productoRepository.findVersionColeccion()).isEqualTo(antes);
+        assertThat(estadisticas.getQueryRegionStatistics("catalogo.consultas").getHitCount()).isEqualTo(1);
+
+        // WHEN: UPDATE por conjuntos (sin eventos de entidad)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                productoRepository.ajustarPrecioPorMonto(List.of(producto.getId()), new BigDecimal("10.00")));
+
+        // THEN: ni la versión agregada ni la entidad quedan obsoletas
+        assertThat(productoRepository.findVersionColeccion()).isNotEqualTo(antes);
+        assertThat(productoRepository.findById(producto.getId()).orElseThrow().getPrecio())
+                .isEqualTo(Money.pesos(new BigDecimal("110.00")));
+    }
+
+    @Test
+    void invalidacionDeOtroNodoDescartaLaEntidad() {
+        // GIVEN: categoría en la caché local
+        Categoria categoria = guardarCategoria("Remota");
+        categoriaRepository.findById(categoria.getId());
+        UUID id = categoria.getId().valor();
+        assertThat(entityManagerFactory.getCache().contains(CategoriaEntity.class, id)).isTrue();
+
+        // WHEN: otro nodo avisa que la modificó
+        new InvalidacionCacheCluster(entityManagerFactory, mock(RabbitTemplate.class)).recibir(
+                new InvalidacionCacheCluster.Invalidacion("otro-nodo", CategoriaEntity.class.getName(), List.of(id)));
+
+        // THEN
+        assertThat(entityManagerFactory.getCache().contains(CategoriaEntity.class, id)).isFalse();
+    }
+
+    @Test
+    void aciertosYFallosPorRegionSePublicanComoMetricas() {
+        // GIVEN / WHEN
+        Categoria categoria = guardarCategoria("Métricas");
+        categoriaRepository.findById(categoria.getId());
+
+        // THEN
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "catalogo.categorias").tag("result", "hit").functionCounter()).isNotNull();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "catalogo.productos").tag("result", "miss").functionCounter()).isNotNull();
+    }
+
+    private Categoria guardarCategoria(String nombre) {
+        return categoriaRepository.save(new Categoria(CategoriaId.generar(), nombre, "Categoría de prueba"));
+    }
+}
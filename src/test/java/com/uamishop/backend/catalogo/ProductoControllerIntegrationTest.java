@@ -2,22 +2,47 @@ package com.uamishop.backend.catalogo;
 
 import com.uamishop.backend.catalogo.domain.Categoria;
 import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.catalogo.controller.dto.ProductoResponse;
 import com.uamishop.backend.catalogo.repository.CategoriaRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.context.annotation.Import;
+import com.uamishop.backend.shared.sql.PresupuestoSql;
+import com.uamishop.backend.shared.sql.PresupuestoSqlConfig;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(PresupuestoSqlConfig.class)
 class ProductoControllerIntegrationTest {
 
     @Autowired
@@ -26,6 +51,9 @@ class ProductoControllerIntegrationTest {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private Categoria crearCategoriaDePrueba() {
         Categoria categoria = new Categoria(
                 new CategoriaId(UUID.randomUUID()),
@@ -51,9 +79,420 @@ class ProductoControllerIntegrationTest {
         }
         """.formatted(categoria.getId().valor());
 
-        mockMvc.perform(post("/api/v1/productos")
+        // Categoría, verificación del producto y su insert
+        PresupuestoSql.maximo().selects(3).inserts(1).updates(0)
+                .verificar(() -> mockMvc.perform(post("/api/v1/productos")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(json))
+                        .andExpect(status().isCreated()));
+    }
+
+    private String crearProductoDePrueba(Categoria categoria) throws Exception {
+        String json = """
+        {
+            "nombre": "Producto ETag",
+            "descripcion": "Descripción ETag",
+            "precio": 250.0,
+            "categoriaId": "%s"
+        }
+        """.formatted(categoria.getId().valor());
+
+        MvcResult result = mockMvc.perform(post("/api/v1/productos")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(json))
-                .andExpect(status().isCreated());
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+    }
+
+    @Test
+    @DisplayName("GET producto con If-None-Match vigente responde 304 y cambia tras actualizar")
+    void debeResponder304ConETagVigente() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+
+        MvcResult primera = PresupuestoSql.maximo().selects(2).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v1/productos/{id}", id))
+                        .andExpect(status().isOk())
+                        .andExpect(header().exists(HttpHeaders.ETAG))
+                        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, must-revalidate, public"))
+                        .andReturn());
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Un 304 solo consulta la versión
+        PresupuestoSql.maximo().selects(1).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v1/productos/{id}", id)
+                                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified()));
+
+        String actualizacion = """
+        {
+            "nombre": "Producto ETag v2",
+            "descripcion": "Descripción ETag",
+            "precio": 260.0,
+            "categoriaId": "%s"
+        }
+        """.formatted(categoria.getId().valor());
+        mockMvc.perform(put("/api/v1/productos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(actualizacion))
+                .andExpect(status().isOk());
+
+        MvcResult segunda = mockMvc.perform(get("/api/v1/productos/{id}", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, segunda.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("El ETag de una representación no valida las demás (CBOR, gzip)")
+    void etagDebeDistinguirFormatoYCodificacion() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+
+        String etagJson = mockMvc.perform(get("/api/v1/productos/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String etagCbor = mockMvc.perform(get("/api/v1/productos/{id}", id)
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, etagJson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String etagGzip = mockMvc.perform(get("/api/v1/productos/{id}", id)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etagJson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etagJson, etagCbor);
+        assertNotEquals(etagJson, etagGzip);
+
+        // Cada ETag sigue validando su propia representación
+        mockMvc.perform(get("/api/v1/productos/{id}", id)
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, etagCbor))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/productos/{id}", id)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, etagGzip))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET listado de productos responde 304 mientras el catálogo no cambie")
+    void listadoDebeResponder304MientrasNoCambie() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        crearProductoDePrueba(categoria);
+
+        String etag = PresupuestoSql.maximo().selects(2).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v1/productos"))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+
+        PresupuestoSql.maximo().selects(1).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v1/productos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified()));
+
+        crearProductoDePrueba(categoria);
+
+        mockMvc.perform(get("/api/v1/productos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Exportar catálogo transmite un producto por línea en NDJSON")
+    void debeExportarCatalogoEnNdjson() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+
+        MvcResult inicio = mockMvc.perform(get("/api/v1/productos/exportar"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        boolean encontrado = false;
+        for (String linea : cuerpo.split("\n")) {
+            encontrado |= id.equals(objectMapper.readTree(linea).get("id").asText());
+        }
+        assertTrue(encontrado);
+    }
+
+    @Test
+    @DisplayName("La respuesta serializada en caché se renueva al actualizar y se sirve comprimida")
+    void debeServirRespuestaSerializadaVigente() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+        for (int i = 0; i < 5; i++) {
+            crearProductoDePrueba(categoria);
+        }
+
+        mockMvc.perform(get("/api/v1/productos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Producto ETag"));
+
+        String actualizacion = """
+        {
+            "nombre": "Producto Cacheado v2",
+            "descripcion": "Descripción ETag",
+            "precio": 260.0,
+            "categoriaId": "%s"
+        }
+        """.formatted(categoria.getId().valor());
+        mockMvc.perform(put("/api/v1/productos/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(actualizacion))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/productos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Producto Cacheado v2"));
+
+        byte[] comprimido = mockMvc.perform(get("/api/v1/productos")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            String cuerpo = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(cuerpo.contains("Producto Cacheado v2"));
+        }
+    }
+
+    @Test
+    @DisplayName("Con Accept: application/cbor responde en CBOR; sin él, en JSON")
+    void debeNegociarCborParaTraficoInterno() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+
+        byte[] cbor = mockMvc.perform(get("/api/v1/productos")
+                        .param("categoriaId", categoria.getId().valor().toString())
+                        .accept(MediaType.APPLICATION_CBOR, MediaType.parseMediaType("application/json;q=0.5")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ProductoResponse[] productos = new CBORMapper().readValue(cbor, ProductoResponse[].class);
+        assertEquals(1, productos.length);
+        assertEquals(id, productos[0].id().toString());
+        assertEquals(0, new BigDecimal("250.00").compareTo(productos[0].precio()));
+
+        mockMvc.perform(get("/api/v1/productos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.id").value(id));
+    }
+
+    @Test
+    @DisplayName("Exportar catálogo con Accept-Encoding gzip comprime la salida")
+    void debeExportarCatalogoComprimido() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+
+        MvcResult inicio = mockMvc.perform(get("/api/v1/productos/exportar")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] comprimido = mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            String cuerpo = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(cuerpo.contains(id));
+        }
+    }
+
+    @Test
+    @DisplayName("Importar CSV inserta las filas válidas y reporta las inválidas con su línea")
+    void debeImportarCsvConReporteDeErrores() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+
+        String csv = """
+                nombre,descripcion,precio,categoriaId
+                Teclado mecánico,"Switches rojos, RGB",899.90,%s
+                Mouse,Inalámbrico,-10,%s
+                Monitor 27,Panel IPS,4500,%s
+                Cable,USB-C,120,%s
+                """.formatted(
+                categoria.getId().valor(),
+                categoria.getId().valor(),
+                categoria.getId().valor(),
+                UUID.randomUUID());
+
+        // Categorías leídas una vez; los inserts van en un solo batch JDBC
+        PresupuestoSql.maximo().selects(1).inserts(1)
+                .verificar(() -> mockMvc.perform(post("/api/v1/productos/importar")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasProcesadas").value(4))
+                .andExpect(jsonPath("$.productosImportados").value(2))
+                .andExpect(jsonPath("$.filasRechazadas").value(2))
+                .andExpect(jsonPath("$.errores[0].fila").value(3))
+                .andExpect(jsonPath("$.errores[1].fila").value(5))
+                .andExpect(jsonPath("$.errores[1].mensaje").value("La categoría especificada no existe")));
+    }
+
+    @Test
+    @DisplayName("Importar NDJSON inserta un producto por línea")
+    void debeImportarNdjson() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+
+        String ndjson = """
+                {"nombre":"Audífonos","descripcion":"Bluetooth","precio":650.0,"categoriaId":"%s"}
+                {"nombre":"Bocina","descripcion":"Portátil","precio":480.5,"categoriaId":"%s"}
+                {"nombre":
+                """.formatted(categoria.getId().valor(), categoria.getId().valor());
+
+        mockMvc.perform(post("/api/v1/productos/importar")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productosImportados").value(2))
+                .andExpect(jsonPath("$.filasRechazadas").value(1))
+                .andExpect(jsonPath("$.errores[0].fila").value(3));
+    }
+
+    @Test
+    @DisplayName("Importar rechaza solo la fila con un precio que no cabe en Money")
+    void debeRechazarPrecioFueraDeRango() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+
+        String csv = """
+                nombre,descripcion,precio,categoriaId
+                Teclado,Membrana,350,%s
+                Servidor,Rack,1e30,%s
+                Mouse,Óptico,150,%s
+                """.formatted(
+                categoria.getId().valor(),
+                categoria.getId().valor(),
+                categoria.getId().valor());
+
+        mockMvc.perform(post("/api/v1/productos/importar")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productosImportados").value(2))
+                .andExpect(jsonPath("$.filasRechazadas").value(1))
+                .andExpect(jsonPath("$.errores[0].fila").value(3))
+                .andExpect(jsonPath("$.errores[0].mensaje").value("El precio está fuera del rango permitido"));
+    }
+
+    @Test
+    @DisplayName("Cambio de precio masivo por categoría aplica el porcentaje y omite aumentos inválidos")
+    void debeCambiarPrecioMasivoPorCategoria() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+        crearProductoDePrueba(categoria);
+
+        String descuento = """
+        {
+            "tipo": "PORCENTAJE",
+            "valor": -10,
+            "seleccion": { "categoriaId": "%s" }
+        }
+        """.formatted(categoria.getId().valor());
+
+        // Selección por keyset y un solo UPDATE masivo por lote
+        PresupuestoSql.maximo().selects(1).updates(1)
+                .verificar(() -> mockMvc.perform(patch("/api/v1/productos/masivo/precio")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(descuento))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.productosSeleccionados").value(2))
+                        .andExpect(jsonPath("$.productosActualizados").value(2))
+                        .andExpect(jsonPath("$.lotes").value(1)));
+
+        mockMvc.perform(get("/api/v1/productos/{id}", id))
+                .andExpect(jsonPath("$.precio").value(225.0));
+
+        String aumentoExcesivo = """
+        {
+            "tipo": "MONTO",
+            "valor": 200,
+            "seleccion": { "productoIds": ["%s"] }
+        }
+        """.formatted(id);
+
+        mockMvc.perform(patch("/api/v1/productos/masivo/precio")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(aumentoExcesivo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productosActualizados").value(0))
+                .andExpect(jsonPath("$.productosOmitidos").value(1));
+    }
+
+    @Test
+    @DisplayName("Cambio de precio masivo con porcentaje fuera de rango o monto cero (400)")
+    void debeRechazarAjusteDePrecioInvalido() throws Exception {
+
+        String seleccion = "{ \"productoIds\": [\"%s\"] }".formatted(UUID.randomUUID());
+
+        for (String ajuste : List.of(
+                "\"tipo\": \"PORCENTAJE\", \"valor\": 60",
+                "\"tipo\": \"PORCENTAJE\", \"valor\": -100",
+                "\"tipo\": \"MONTO\", \"valor\": 0")) {
+            mockMvc.perform(patch("/api/v1/productos/masivo/precio")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{ " + ajuste + ", \"seleccion\": " + seleccion + " }"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    @DisplayName("Activar y desactivar de forma masiva por lista de ids")
+    void debeCambiarDisponibilidadMasiva() throws Exception {
+
+        Categoria categoria = crearCategoriaDePrueba();
+        String id = crearProductoDePrueba(categoria);
+
+        String seleccion = """
+        { "productoIds": ["%s", "%s"] }
+        """.formatted(id, UUID.randomUUID());
+
+        mockMvc.perform(patch("/api/v1/productos/masivo/activar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(seleccion))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productosSeleccionados").value(1))
+                .andExpect(jsonPath("$.productosActualizados").value(1));
+
+        mockMvc.perform(get("/api/v1/productos/{id}", id))
+                .andExpect(jsonPath("$.activo").value(true));
+
+        mockMvc.perform(patch("/api/v1/productos/masivo/desactivar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(seleccion))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productosActualizados").value(1));
+
+        mockMvc.perform(patch("/api/v1/productos/masivo/desactivar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
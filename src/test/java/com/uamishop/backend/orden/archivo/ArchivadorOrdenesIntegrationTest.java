@@ -0,0 +1,157 @@
+package com.uamishop.backend.orden.archivo;
+
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.ItemOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las órdenes cerradas fuera de la retención pasan a las tablas de archivo
+ * por lotes, y las consultas las ven solo si se pide.
+ */
+@SpringBootTest(properties = {
+        "orden.archivo.habilitado=false",
+        "orden.archivo.retencion=30d",
+        "orden.archivo.tamano-lote=2",
+        "orden.archivo.pausa-entre-lotes=0ms"
+})
+@AutoConfigureMockMvc
+class ArchivadorOrdenesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArchivadorOrdenes archivador;
+
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private ProyeccionOrdenResumen proyeccion;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("Archiva por lotes solo las órdenes cerradas fuera de la retención")
+    void debeArchivarOrdenesCerradasAntiguas() throws Exception {
+        UUID clienteId = ClienteId.generar().getValor();
+        LocalDateTime antigua = LocalDateTime.now().minusDays(60).withNano(0);
+        List<UUID> archivables = List.of(
+                crearOrden(clienteId, true, antigua),
+                crearOrden(clienteId, true, antigua),
+                crearOrden(clienteId, true, antigua));
+        UUID reciente = crearOrden(clienteId, true, null);
+        UUID abierta = crearOrden(clienteId, false, antigua);
+
+        assertThat(archivador.archivar()).isEqualTo(3);
+
+        for (UUID id : archivables) {
+            assertThat(ordenRepository.existsById(id)).isFalse();
+            assertThat(contar("ordenes_archivo", "id", id)).isEqualTo(1);
+            assertThat(contar("items_orden_archivo", "orden_id", id)).isEqualTo(1);
+            assertThat(contar("historial_estados_archivo", "orden_id", id)).isEqualTo(1);
+            assertThat(contar("orden_resumen_archivo", "orden_id", id)).isEqualTo(1);
+            assertThat(contar("orden_resumen", "orden_id", id)).isZero();
+        }
+        assertThat(jdbc.queryForObject("select fecha_creacion_orden from items_orden_archivo where orden_id = ?",
+                Timestamp.class, archivables.get(0)).toLocalDateTime()).isEqualTo(antigua);
+        assertThat(ordenRepository.existsById(reciente)).isTrue();
+        assertThat(ordenRepository.existsById(abierta)).isTrue();
+
+        // Nada más que archivar
+        assertThat(archivador.archivar()).isZero();
+    }
+
+    @Test
+    @DisplayName("Las consultas incluyen las órdenes archivadas solo si se pide")
+    void debeConsultarArchivoSoloSiSePide() throws Exception {
+        UUID clienteId = ClienteId.generar().getValor();
+        UUID archivada = crearOrden(clienteId, true, LocalDateTime.now().minusDays(60));
+        crearOrden(clienteId, false, null);
+        archivador.archivar();
+
+        mockMvc.perform(get("/api/v2/ordenes").param("clienteId", clienteId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/v2/ordenes")
+                        .param("clienteId", clienteId.toString())
+                        .param("incluirArchivadas", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id").value(archivada.toString()))
+                .andExpect(jsonPath("$[1].estado").value("CANCELADA"));
+
+        mockMvc.perform(get("/api/v2/ordenes/" + archivada).param("incluirArchivadas", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CANCELADA"));
+
+        mockMvc.perform(get("/api/v2/ordenes/" + archivada + "/historial"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/v2/ordenes/" + archivada + "/historial").param("incluirArchivadas", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cambios", hasSize(1)))
+                .andExpect(jsonPath("$.cambios[0].secuencia").value(1))
+                .andExpect(jsonPath("$.cambios[0].estadoNuevo").value("CANCELADA"))
+                .andExpect(jsonPath("$.cambios[0].motivo").value("Cliente canceló"));
+    }
+
+    private long contar(String tabla, String columna, UUID id) {
+        return jdbc.queryForObject("select count(*) from " + tabla + " where " + columna + " = ?", Long.class, id);
+    }
+
+    // Orden con una línea, cancelada si se pide; con fecha, creada y modificada por última vez en ella
+    private UUID crearOrden(UUID clienteId, boolean cancelada, LocalDateTime fecha) {
+        UUID id = new TransactionTemplate(transactionManager).execute(status -> {
+            Orden orden = ordenRepository.saveAndFlush(new Orden(numerador.siguiente(), clienteId,
+                    DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678")));
+            orden.agregarItem(ItemOrden.crear(ProductoId.generar().valor(), "Producto", "SKU-1", 1, Money.pesos(10)));
+            if (cancelada) {
+                orden.cancelar("Cliente canceló");
+            }
+            ordenRepository.flush();
+            proyeccion.registrar(orden);
+            return orden.getId().valor();
+        });
+        if (fecha != null) {
+            jdbc.update("update ordenes set fecha_creacion = ?, fecha_actualizacion = ? where id = ?",
+                    Timestamp.valueOf(fecha), Timestamp.valueOf(fecha), id);
+            jdbc.update("update orden_resumen set fecha_creacion = ? where orden_id = ?", Timestamp.valueOf(fecha), id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,148 @@
+package com.uamishop.backend.orden.consulta;
+
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.ItemOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.shared.sql.PresupuestoSql;
+import com.uamishop.backend.shared.sql.PresupuestoSqlConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las consultas de órdenes se sirven desde orden_resumen, que se mantiene
+ * en la misma transacción que los comandos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(PresupuestoSqlConfig.class)
+class OrdenResumenIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private OrdenResumenVistaRepository resumenRepository;
+
+    @Autowired
+    private ProyeccionOrdenResumen proyeccion;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Leer una orden solo consulta orden_resumen")
+    void debeLeerOrdenDesdeElResumen() throws Exception {
+        Orden orden = crearOrden(ClienteId.generar().getValor(), 2);
+
+        // Versión para el ETag y cuerpo: dos lecturas por clave primaria de orden_resumen
+        PresupuestoSql.maximo().selects(2).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v2/ordenes/" + orden.getId().valor()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.id").value(orden.getId().valor().toString()))
+                        .andExpect(jsonPath("$.estado").value("PENDIENTE"))
+                        .andExpect(jsonPath("$.total").value(20.0)));
+    }
+
+    @Test
+    @DisplayName("Un cambio de estado actualiza el resumen y su ETag en la misma transacción")
+    void debeActualizarResumenAlCambiarEstado() throws Exception {
+        Orden orden = crearOrden(ClienteId.generar().getValor(), 1);
+        String url = "/api/v2/ordenes/" + orden.getId().valor();
+
+        String etagAntes = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post(url + "/confirmar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CONFIRMADA"));
+
+        String etagDespues = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CONFIRMADA"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etagAntes, etagDespues);
+    }
+
+    @Test
+    @DisplayName("Filtra por cliente y estado usando los índices del resumen")
+    void debeFiltrarPorClienteYEstado() throws Exception {
+        UUID clienteId = ClienteId.generar().getValor();
+        Orden primera = crearOrden(clienteId, 1);
+        crearOrden(clienteId, 3);
+        crearOrden(ClienteId.generar().getValor(), 1);
+
+        mockMvc.perform(post("/api/v2/ordenes/" + primera.getId().valor() + "/confirmar"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v2/ordenes").param("clienteId", clienteId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        PresupuestoSql.maximo().selects(1)
+                .verificar(() -> mockMvc.perform(get("/api/v2/ordenes")
+                                .param("clienteId", clienteId.toString())
+                                .param("estado", "CONFIRMADA"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(1)))
+                        .andExpect(jsonPath("$[0].id").value(primera.getId().valor().toString())));
+    }
+
+    @Test
+    @DisplayName("Reconstruir rehace las filas que faltan")
+    void debeReconstruirFilasFaltantes() {
+        Orden orden = crearOrden(ClienteId.generar().getValor(), 1);
+        UUID ordenId = orden.getId().valor();
+        resumenRepository.deleteById(ordenId);
+
+        long proyectadas = proyeccion.reconstruir();
+
+        assertTrue(proyectadas >= 1);
+        assertEquals(ordenRepository.count(), resumenRepository.count());
+        assertTrue(resumenRepository.findById(ordenId).isPresent());
+    }
+
+    // Sin pasar por el checkout (requiere el broker): orden y resumen en una transacción
+    private Orden crearOrden(UUID clienteId, int lineas) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Orden orden = new Orden(numerador.siguiente(), clienteId,
+                    DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678"));
+            for (int i = 0; i < lineas; i++) {
+                orden.agregarItem(ItemOrden.crear(ProductoId.generar().valor(), "Producto " + i,
+                        "SKU-" + i, 1, Money.pesos(10)));
+            }
+            Orden guardada = ordenRepository.saveAndFlush(orden);
+            proyeccion.registrar(guardada);
+            return guardada;
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package com.uamishop.backend.orden.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uamishop.backend.RabbitConfig;
+import com.uamishop.backend.orden.api.OrdenesApi;
+import com.uamishop.backend.orden.controller.dto.DireccionEnvioRequest;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.shared.event.ProductoCompradoEvent;
+import com.uamishop.backend.ventas.domain.Carrito;
+import com.uamishop.backend.ventas.repository.CarritoJpaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/v2/ordenes/{id}/checkout con el modo asíncrono: responde 202 con
+ * la URL de estado y los hilos del procesador crean las órdenes.
+ * RabbitTemplate se simula porque no hay broker en las pruebas.
+ */
+@SpringBootTest(properties = {
+        "orden.checkout-asincrono.habilitado=true",
+        "orden.checkout-asincrono.hilos=3",
+        "orden.checkout-asincrono.intervalo-sondeo=100ms"
+})
+@AutoConfigureMockMvc
+class CheckoutAsincronoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarritoJpaRepository carritoRepository;
+
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrdenesApi ordenesApi;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Test
+    @DisplayName("Acepta los checkouts con 202 y los hilos crean una orden por carrito")
+    void debeCrearOrdenesEnSegundoPlano() throws Exception {
+        List<String> estados = new ArrayList<>();
+        List<UUID> carritos = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            UUID carritoId = crearCarritoEnCheckout();
+            carritos.add(carritoId);
+            estados.add(encolar(carritoId)
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.estado").value("PENDIENTE"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.LOCATION));
+        }
+
+        for (int i = 0; i < estados.size(); i++) {
+            String url = estados.get(i);
+            UUID carritoId = carritos.get(i);
+            await().atMost(Duration.ofSeconds(15)).untilAsserted(() ->
+                    mockMvc.perform(get(url))
+                            .andExpect(status().isOk())
+                            .andExpect(jsonPath("$.estado").value("COMPLETADA"))
+                            .andExpect(jsonPath("$.carritoId").value(carritoId.toString())));
+            JsonNode estado = leer(mockMvc.perform(get(url)).andReturn());
+            assertThat(ordenRepository.existsById(UUID.fromString(estado.get("ordenId").asText()))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Dos checkouts del mismo carrito se procesan de a uno y el segundo devuelve la misma orden")
+    void debeSerializarCheckoutsDelMismoCarrito() throws Exception {
+        UUID carritoId = crearCarritoEnCheckout();
+        String primera = encolar(carritoId).andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        String segunda = encolar(carritoId).andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() -> {
+            mockMvc.perform(get(primera)).andExpect(jsonPath("$.estado").value("COMPLETADA"));
+            mockMvc.perform(get(segunda)).andExpect(jsonPath("$.estado").value("COMPLETADA"));
+        });
+        assertThat(leer(mockMvc.perform(get(segunda)).andReturn()).get("ordenId"))
+                .isEqualTo(leer(mockMvc.perform(get(primera)).andReturn()).get("ordenId"));
+    }
+
+    @Test
+    @DisplayName("ProductoComprado se envía al broker solo si la transacción de la orden se confirma")
+    void debeEnviarProductoCompradoSoloTrasElCommit() {
+        DireccionEnvio direccion = DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678");
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        UUID revertida = transaccion.execute(status -> {
+            // Como un intento de ProcesadorCheckout que falla al confirmar
+            status.setRollbackOnly();
+            return ordenesApi.crearDesdeCarrito(crearCarritoEnCheckout(), direccion).ordenId();
+        });
+        UUID confirmada = transaccion.execute(status ->
+                ordenesApi.crearDesdeCarrito(crearCarritoEnCheckout(), direccion).ordenId());
+
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() ->
+                verify(rabbitTemplate).convertAndSend(eq(RabbitConfig.EVENTS_EXCHANGE),
+                        eq(RabbitConfig.RK_PRODUCTO_COMPRADO), argThat((Object evento) -> esDeOrden(evento, confirmada))));
+        verify(rabbitTemplate, never()).convertAndSend(eq(RabbitConfig.EVENTS_EXCHANGE),
+                eq(RabbitConfig.RK_PRODUCTO_COMPRADO), argThat((Object evento) -> esDeOrden(evento, revertida)));
+    }
+
+    @Test
+    @DisplayName("Una solicitud inexistente responde 404")
+    void debeResponder404SiNoExiste() throws Exception {
+        mockMvc.perform(get("/api/v2/ordenes/checkout/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions encolar(UUID carritoId) throws Exception {
+        DireccionEnvioRequest direccion = new DireccionEnvioRequest(
+                "Calle 1", "1", "12345", "Ciudad", "Estado", "5512345678");
+        return mockMvc.perform(post("/api/v2/ordenes/" + carritoId + "/checkout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(direccion)));
+    }
+
+    private UUID crearCarritoEnCheckout() {
+        Carrito carrito = new Carrito(ClienteId.generar());
+        carrito.agregarProducto(ProductoId.generar(), 1, Money.pesos(50));
+        carrito.iniciarCheckout();
+        carritoRepository.save(carrito);
+        return carrito.getId().getValor();
+    }
+
+    private static boolean esDeOrden(Object evento, UUID ordenId) {
+        return evento instanceof ProductoCompradoEvent comprado && comprado.ordenId().equals(ordenId);
+    }
+
+    private JsonNode leer(MvcResult resultado) throws Exception {
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+}
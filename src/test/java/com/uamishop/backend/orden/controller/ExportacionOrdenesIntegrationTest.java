@@ -0,0 +1,153 @@
+package com.uamishop.backend.orden.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.ItemOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/v2/ordenes/exportar: filtros por fecha y estado, CSV y NDJSON,
+ * y órdenes archivadas solo si se piden. Las órdenes se fechan en un día
+ * propio para no mezclarse con las de otras pruebas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportacionOrdenesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private ProyeccionOrdenResumen proyeccion;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Exporta en CSV las órdenes del rango, con el estado pedido y campos entre comillas")
+    void debeExportarCsvFiltrado() throws Exception {
+        UUID primera = crearOrden(LocalDateTime.of(2001, 3, 15, 9, 0), false);
+        UUID segunda = crearOrden(LocalDateTime.of(2001, 3, 16, 18, 30), false);
+        UUID cancelada = crearOrden(LocalDateTime.of(2001, 3, 16, 12, 0), true);
+        UUID fueraDeRango = crearOrden(LocalDateTime.of(2001, 3, 17, 0, 0), false);
+
+        String csv = exportar("2001-03-15", "2001-03-16", "PENDIENTE", false, null);
+
+        String[] lineas = csv.split("\n");
+        assertThat(lineas[0]).startsWith("numero_orden,orden_id,cliente_id,estado,fecha_creacion");
+        assertThat(lineas).hasSize(3);
+        // Por fecha de creación; la dirección trae comas y va entre comillas
+        assertThat(lineas[1]).contains(primera.toString(), ",PENDIENTE,2001-03-15T09:00,10.00,MXN,1,",
+                "\"Calle 1, Ciudad, Estado, CP: 12345, México\"");
+        assertThat(lineas[2]).contains(segunda.toString());
+        assertThat(csv).doesNotContain(cancelada.toString(), fueraDeRango.toString());
+    }
+
+    @Test
+    @DisplayName("Exporta NDJSON con Accept y agrega las archivadas solo si se pide")
+    void debeExportarNdjsonConArchivadas() throws Exception {
+        UUID vigente = crearOrden(LocalDateTime.of(2002, 7, 1, 10, 0), false);
+        UUID archivada = crearOrden(LocalDateTime.of(2002, 7, 1, 8, 0), true);
+        jdbc.update("insert into orden_resumen_archivo select * from orden_resumen where orden_id = ?", archivada);
+        jdbc.update("delete from orden_resumen where orden_id = ?", archivada);
+
+        String sinArchivadas = exportar("2002-07-01", "2002-07-01", null, false, MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(sinArchivadas.split("\n")).hasSize(1);
+        JsonNode fila = objectMapper.readTree(sinArchivadas.split("\n")[0]);
+        assertThat(fila.get("ordenId").asText()).isEqualTo(vigente.toString());
+        assertThat(fila.get("estado").asText()).isEqualTo("PENDIENTE");
+
+        String conArchivadas = exportar("2002-07-01", "2002-07-01", null, true, MediaType.APPLICATION_NDJSON_VALUE);
+        String[] lineas = conArchivadas.split("\n");
+        assertThat(lineas).hasSize(2);
+        assertThat(objectMapper.readTree(lineas[1]).get("ordenId").asText()).isEqualTo(archivada.toString());
+    }
+
+    @Test
+    @DisplayName("Un rango invertido se rechaza con 422 antes de empezar el streaming")
+    void debeRechazarRangoInvertido() throws Exception {
+        mockMvc.perform(get("/api/v2/ordenes/exportar")
+                        .param("desde", "2001-03-16")
+                        .param("hasta", "2001-03-15"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private String exportar(String desde, String hasta, String estado, boolean incluirArchivadas, String accept)
+            throws Exception {
+        var peticion = get("/api/v2/ordenes/exportar")
+                .param("desde", desde)
+                .param("hasta", hasta)
+                .param("incluirArchivadas", Boolean.toString(incluirArchivadas));
+        if (estado != null) {
+            peticion.param("estado", estado);
+        }
+        if (accept != null) {
+            peticion.header(HttpHeaders.ACCEPT, accept);
+        }
+        MvcResult inicio = mockMvc.perform(peticion)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    // Orden con una línea, creada en la fecha dada y cancelada si se pide
+    private UUID crearOrden(LocalDateTime fecha, boolean cancelada) {
+        UUID id = new TransactionTemplate(transactionManager).execute(status -> {
+            Orden orden = ordenRepository.saveAndFlush(new Orden(numerador.siguiente(), ClienteId.generar().getValor(),
+                    DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678")));
+            orden.agregarItem(ItemOrden.crear(ProductoId.generar().valor(), "Producto", "SKU-1", 1, Money.pesos(10)));
+            if (cancelada) {
+                orden.cancelar("Cliente canceló");
+            }
+            ordenRepository.flush();
+            proyeccion.registrar(orden);
+            return orden.getId().valor();
+        });
+        jdbc.update("update orden_resumen set fecha_creacion = ? where orden_id = ?", Timestamp.valueOf(fecha), id);
+        return id;
+    }
+}
@@ -0,0 +1,137 @@
+package com.uamishop.backend.orden.controller;
+
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.ItemOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.shared.sql.PresupuestoSql;
+import com.uamishop.backend.shared.sql.PresupuestoSqlConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Historial de estados append-only: una fila por transición y lectura paginada.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(PresupuestoSqlConfig.class)
+class HistorialEstadosIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private ProyeccionOrdenResumen proyeccion;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("Una transición inserta solo su fila del historial, sin leer ni reescribir las anteriores")
+    void transicionDebeInsertarUnaSolaFila() throws Exception {
+        UUID ordenId = crearOrden(false);
+
+        // Orden (+ items en lote) y su fila de orden_resumen; update de ambas y un insert en el historial
+        PresupuestoSql.maximo().selects(3).inserts(1).updates(2).deletes(0)
+                .verificar(() -> mockMvc.perform(post("/api/v2/ordenes/" + ordenId + "/procesar-pago")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"referenciaPago\":\"PAGO12345678\"}"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.estado").value("PREPARACION")));
+
+        List<Integer> secuencias = jdbc.queryForList(
+                "select secuencia from historial_estados where orden_id = ? order by secuencia", Integer.class, ordenId);
+        assertThat(secuencias).containsExactly(1, 2);
+        assertThat(ordenRepository.findById(ordenId).orElseThrow().getCambiosEstado()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("El historial se lee por páginas, del cambio más antiguo al más reciente")
+    void debePaginarHistorial() throws Exception {
+        UUID ordenId = crearOrden(true);
+        String url = "/api/v2/ordenes/" + ordenId + "/historial";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cambios", hasSize(2)))
+                .andExpect(jsonPath("$.hayMas").value(false))
+                .andExpect(jsonPath("$.cambios[0].estadoAnterior").value("PENDIENTE"))
+                .andExpect(jsonPath("$.cambios[0].estadoNuevo").value("CONFIRMADA"))
+                .andExpect(jsonPath("$.cambios[1].estadoNuevo").value("PREPARACION"));
+
+        // Solo historial_estados: no carga la orden
+        PresupuestoSql.maximo().selects(1)
+                .verificar(() -> mockMvc.perform(get(url).param("pagina", "0").param("tamano", "1"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.hayMas").value(true))
+                        .andExpect(jsonPath("$.cambios", hasSize(1)))
+                        .andExpect(jsonPath("$.cambios[0].secuencia").value(1)));
+
+        mockMvc.perform(get(url).param("pagina", "1").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hayMas").value(false))
+                .andExpect(jsonPath("$.cambios[0].secuencia").value(2))
+                .andExpect(jsonPath("$.cambios[0].motivo").value("Pago procesado con referencia: PAGO12345678"));
+
+        // pagina * tamano no cabe en un int: la página queda vacía en lugar de volver al inicio
+        mockMvc.perform(get(url).param("pagina", String.valueOf(Integer.MAX_VALUE)).param("tamano", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hayMas").value(false))
+                .andExpect(jsonPath("$.cambios", hasSize(0)));
+
+        mockMvc.perform(get(url).param("tamano", "0"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/api/v2/ordenes/" + UUID.randomUUID() + "/historial"))
+                .andExpect(status().isNotFound());
+    }
+
+    // Orden confirmada y, si se pide, con el pago procesado (PREPARACION)
+    private UUID crearOrden(boolean pagada) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Orden orden = ordenRepository.saveAndFlush(new Orden(numerador.siguiente(), ClienteId.generar().getValor(),
+                    DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678")));
+            orden.agregarItem(ItemOrden.crear(ProductoId.generar().valor(), "Producto", "SKU-1", 1, Money.pesos(10)));
+            orden.confirmar();
+            if (pagada) {
+                orden.procesarPago("PAGO12345678");
+            }
+            ordenRepository.flush();
+            proyeccion.registrar(orden);
+            return orden.getId().valor();
+        });
+    }
+}
@@ -15,9 +15,24 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import com.uamishop.backend.shared.domain.ProductoId;
 import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.sql.PresupuestoSql;
+import com.uamishop.backend.shared.sql.PresupuestoSqlConfig;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.ItemOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasItems;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -27,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(PresupuestoSqlConfig.class)
 class OrdenControllerIntegrationTest {
 
     @Autowired
@@ -35,9 +51,21 @@ class OrdenControllerIntegrationTest {
     @Autowired
     private CarritoJpaRepository carritoRepository;
 
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProyeccionOrdenResumen proyeccion;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Test
     @DisplayName("Debe crear una orden desde el carrito correctamente (201) y completar el checkout por evento")
     void debeCrearOrdenDesdeCarrito() throws Exception {
@@ -59,12 +87,16 @@ class OrdenControllerIntegrationTest {
                 "CDMX",
                 "5512345678");
 
-        mockMvc.perform(post("/api/v2/ordenes/" + carrito.getId().getValor() + "/orden")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(direccion)))
-                .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.clienteId").value(clienteId.getValor().toString()))
-                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+        // Carrito, categoría del producto (ArbolCategorias la guarda en memoria tras
+        // la primera consulta) y fila de orden_resumen; inserts de orden, item y
+        // resumen (la orden nueva se persiste sin verificar antes si existe)
+        PresupuestoSql.maximo().selects(4).inserts(3).updates(2)
+                .verificar(() -> mockMvc.perform(post("/api/v2/ordenes/" + carrito.getId().getValor() + "/orden")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(direccion)))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.clienteId").value(clienteId.getValor().toString()))
+                        .andExpect(jsonPath("$.estado").value("PENDIENTE")));
 
         await()
                 .atMost(Duration.ofSeconds(5))
@@ -100,9 +132,11 @@ class OrdenControllerIntegrationTest {
 
         String ordenId = objectMapper.readTree(response).get("id").asText();
 
-        mockMvc.perform(get("/api/v2/ordenes/" + ordenId))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(ordenId));
+        // Versión y cuerpo desde orden_resumen: ni items ni historial
+        PresupuestoSql.maximo().selects(2).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v2/ordenes/" + ordenId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.id").value(ordenId)));
     }
 
     @Test
@@ -112,6 +146,31 @@ class OrdenControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("Listar ordenes no hace una consulta por orden (N+1)")
+    void listarOrdenesNoDebeCrecerConElNumeroDeOrdenes() throws Exception {
+
+        // Cada orden con su fila en orden_resumen, que es lo que lee el listado
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            ids.add(new TransactionTemplate(transactionManager).execute(status -> {
+                Orden orden = ordenRepository.saveAndFlush(new Orden(numerador.siguiente(), ClienteId.generar().getValor(),
+                        DireccionEnvio.crear("Calle " + n, "Ciudad", "Estado", "12345", "5512345678")));
+                orden.agregarItem(ItemOrden.crear(ProductoId.generar().valor(), "Producto", "SKU-" + n, 1, Money.pesos(10)));
+                ordenRepository.flush();
+                proyeccion.registrar(orden);
+                return orden.getId().valor().toString();
+            }));
+        }
+
+        // Una sola consulta a orden_resumen, sin importar cuántas ordenes haya
+        PresupuestoSql.maximo().selects(1).inserts(0).updates(0)
+                .verificar(() -> mockMvc.perform(get("/api/v2/ordenes"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[*].id", hasItems(ids.toArray(new String[0])))));
+    }
+
     @Test
     @DisplayName("Debe procesar el flujo completo de una orden (Pendiente -> Confirmada -> Preparación)")
     void debeProcesarFlujoOrden() throws Exception {
@@ -136,9 +195,11 @@ class OrdenControllerIntegrationTest {
 
         String ordenId = objectMapper.readTree(response).get("id").asText();
 
-        mockMvc.perform(post("/api/v2/ordenes/" + ordenId + "/confirmar"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.estado").value("CONFIRMADA"));
+        // Lectura de la orden y de su resumen, update de ambos (más el insert del historial)
+        PresupuestoSql.maximo().selects(3).inserts(1).updates(2)
+                .verificar(() -> mockMvc.perform(post("/api/v2/ordenes/" + ordenId + "/confirmar"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.estado").value("CONFIRMADA")));
 
         PagoRequest pagoRequest = new PagoRequest("PAGO12345678");
 
@@ -0,0 +1,168 @@
+package com.uamishop.backend.orden.controller;
+
+import com.uamishop.backend.orden.consulta.OrdenResumenVistaRepository;
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.orden.domain.ItemOrden;
+import com.uamishop.backend.orden.domain.Orden;
+import com.uamishop.backend.orden.repository.OrdenJpaRepository;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/v2/ordenes/transiciones con lotes pequeños para cubrir
+ * varios lotes en paralelo dentro de una misma petición.
+ */
+@SpringBootTest(properties = {
+        "orden.transiciones-masivas.tamano-lote=3",
+        "orden.transiciones-masivas.paralelismo=2"
+})
+@AutoConfigureMockMvc
+class TransicionesMasivasIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrdenJpaRepository ordenRepository;
+
+    @Autowired
+    private OrdenResumenVistaRepository resumenRepository;
+
+    @Autowired
+    private ProyeccionOrdenResumen proyeccion;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Aplica las transiciones válidas y reporta cada orden en el orden de la entrada")
+    void debeAplicarTransicionesYReportarPorOrden() throws Exception {
+        List<UUID> enPreparacion = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            enPreparacion.add(crearOrdenEnPreparacion());
+        }
+        UUID pendiente = crearOrden().getId().valor();
+        UUID inexistente = UUID.randomUUID();
+
+        StringBuilder cuerpo = new StringBuilder("[");
+        for (UUID id : enPreparacion) {
+            cuerpo.append(transicion(id, "MARCAR_ENVIADA", "GUIA-" + id.toString().substring(0, 8))).append(',');
+        }
+        // La repetida cae en el mismo lote (7-9) que la original: se ve ya ENVIADA
+        cuerpo.append(transicion(pendiente, "MARCAR_ENTREGADA", null)).append(',')
+                .append(transicion(enPreparacion.get(6), "MARCAR_ENVIADA", "GUIA-OTRA")).append(',')
+                .append(transicion(inexistente, "MARCAR_ENVIADA", "GUIA-12345")).append(',')
+                .append("{\"ordenId\":\"no-es-uuid\",\"transicion\":\"MARCAR_ENVIADA\"}")
+                .append(']');
+
+        mockMvc.perform(post("/api/v2/ordenes/transiciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.procesadas").value(11))
+                .andExpect(jsonPath("$.aplicadas").value(7))
+                .andExpect(jsonPath("$.sinCambios").value(1))
+                .andExpect(jsonPath("$.rechazadas").value(3))
+                .andExpect(jsonPath("$.resultados[0].posicion").value(1))
+                .andExpect(jsonPath("$.resultados[0].resultado").value("APLICADA"))
+                .andExpect(jsonPath("$.resultados[0].estado").value("ENVIADA"))
+                .andExpect(jsonPath("$.resultados[7].resultado").value("RECHAZADA"))
+                .andExpect(jsonPath("$.resultados[7].mensaje").value("Transición de estado inválida: PENDIENTE -> ENTREGADA"))
+                .andExpect(jsonPath("$.resultados[8].resultado").value("SIN_CAMBIOS"))
+                .andExpect(jsonPath("$.resultados[9].mensaje").value("Orden no encontrada"))
+                .andExpect(jsonPath("$.resultados[10].resultado").value("RECHAZADA"));
+
+        for (UUID id : enPreparacion) {
+            assertEquals(EstadoOrden.ENVIADA, ordenRepository.findById(id).orElseThrow().getEstado());
+            assertEquals("ENVIADA", resumenRepository.findById(id).orElseThrow().aResumen().estado());
+        }
+        assertEquals(EstadoOrden.PENDIENTE, ordenRepository.findById(pendiente).orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Acepta NDJSON y deja que el dominio valide la guía")
+    void debeAceptarNdjsonYValidarGuia() throws Exception {
+        UUID conGuia = crearOrdenEnPreparacion();
+        UUID sinGuia = crearOrdenEnPreparacion();
+
+        String cuerpo = transicion(conGuia, "MARCAR_ENVIADA", "GUIA-98765") + "\n"
+                + "\n"
+                + transicion(sinGuia, "MARCAR_ENVIADA", null) + "\n"
+                + "{no es json}\n";
+
+        mockMvc.perform(post("/api/v2/ordenes/transiciones")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aplicadas").value(1))
+                .andExpect(jsonPath("$.rechazadas").value(2))
+                .andExpect(jsonPath("$.resultados[1].posicion").value(3))
+                .andExpect(jsonPath("$.resultados[1].mensaje").value("El número de guía es obligatorio"))
+                .andExpect(jsonPath("$.resultados[1].estado").value("PREPARACION"))
+                .andExpect(jsonPath("$.resultados[2].posicion").value(4));
+
+        assertEquals(EstadoOrden.PREPARACION, ordenRepository.findById(sinGuia).orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("Un cuerpo que no es un arreglo JSON se rechaza completo (422)")
+    void debeRechazarCuerpoQueNoEsArreglo() throws Exception {
+        mockMvc.perform(post("/api/v2/ordenes/transiciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ordenId\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private static String transicion(UUID ordenId, String transicion, String guia) {
+        return "{\"ordenId\":\"" + ordenId + "\",\"transicion\":\"" + transicion + "\""
+                + (guia != null ? ",\"guia\":\"" + guia + "\"" : "") + "}";
+    }
+
+    private UUID crearOrdenEnPreparacion() {
+        Orden orden = crearOrden();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Orden cargada = ordenRepository.findById(orden.getId().valor()).orElseThrow();
+            cargada.confirmar();
+            cargada.procesarPago("PAGO12345678");
+            ordenRepository.flush();
+            proyeccion.registrar(cargada);
+            return cargada.getId().valor();
+        });
+    }
+
+    private Orden crearOrden() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Orden orden = new Orden(numerador.siguiente(), ClienteId.generar().getValor(),
+                    DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678"));
+            orden.agregarItem(ItemOrden.crear(ProductoId.generar().valor(), "Producto", "SKU-1", 1, Money.pesos(10)));
+            Orden guardada = ordenRepository.saveAndFlush(orden);
+            proyeccion.registrar(guardada);
+            return guardada;
+        });
+    }
+}
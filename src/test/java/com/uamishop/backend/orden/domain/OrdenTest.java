@@ -10,7 +10,7 @@ class OrdenTest {
 
     @Test
     void testAplicarDescuentoMontoFijo() {
-        Orden orden = new Orden(UUID.randomUUID(),
+        Orden orden = new Orden("ORD-0000000001", UUID.randomUUID(),
                 DireccionEnvio.crear("Calle 1", "Ciudad 1", "Estado 1", "12345", "5512345678"));
         ItemOrden item = ItemOrden.crear(UUID.randomUUID(), "Producto 1", "SKU1", 1, Money.pesos(100));
         orden.agregarItem(item);
@@ -28,7 +28,7 @@ class OrdenTest {
 
     @Test
     void testAplicarDescuentoPorcentaje() {
-        Orden orden = new Orden(UUID.randomUUID(),
+        Orden orden = new Orden("ORD-0000000001", UUID.randomUUID(),
                 DireccionEnvio.crear("Calle 1", "Ciudad 1", "Estado 1", "12345", "5512345678"));
         ItemOrden item = ItemOrden.crear(UUID.randomUUID(), "Producto 1", "SKU1", 1, Money.pesos(200));
         orden.agregarItem(item);
@@ -43,7 +43,7 @@ class OrdenTest {
 
     @Test
     void testDescuentoMayorQueSubtotal() {
-        Orden orden = new Orden(UUID.randomUUID(),
+        Orden orden = new Orden("ORD-0000000001", UUID.randomUUID(),
                 DireccionEnvio.crear("Calle 1", "Ciudad 1", "Estado 1", "12345", "5512345678"));
         ItemOrden item = ItemOrden.crear(UUID.randomUUID(), "Producto 1", "SKU1", 1, Money.pesos(50));
         orden.agregarItem(item);
@@ -57,7 +57,7 @@ class OrdenTest {
 
     @Test
     void testPorcentajeInvalido() {
-        Orden orden = new Orden(UUID.randomUUID(),
+        Orden orden = new Orden("ORD-0000000001", UUID.randomUUID(),
                 DireccionEnvio.crear("Calle 1", "Ciudad 1", "Estado 1", "12345", "5512345678"));
 
         assertThrows(IllegalArgumentException.class, () -> {
@@ -68,4 +68,18 @@ class OrdenTest {
             orden.aplicarDescuento(105.0);
         });
     }
+
+    @Test
+    void testSubtotalAcumuladoAlAgregarItems() {
+        Orden orden = new Orden("ORD-0000000001", UUID.randomUUID(),
+                DireccionEnvio.crear("Calle 1", "Ciudad 1", "Estado 1", "12345", "5512345678"));
+        orden.agregarItem(ItemOrden.crear(UUID.randomUUID(), "Producto 1", "SKU1", 2, Money.pesos(100)));
+        orden.agregarItem(ItemOrden.crear(UUID.randomUUID(), "Producto 2", "SKU2", 3, Money.pesos(15.5)));
+
+        assertEquals(246.5, orden.getSubtotal().getCantidad().doubleValue());
+        assertEquals(246.5, orden.getTotal().getCantidad().doubleValue());
+
+        orden.aplicarDescuento(Money.pesos(46.5));
+        assertEquals(200.0, orden.getTotal().getCantidad().doubleValue());
+    }
 }
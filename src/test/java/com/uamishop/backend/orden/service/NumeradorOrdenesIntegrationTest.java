@@ -0,0 +1,90 @@
+package com.uamishop.backend.orden.service;
+
+import com.uamishop.backend.orden.repository.ContadorNumeracionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos numeradores sobre el mismo contador simulan dos nodos: los números
+ * no se repiten y cada nodo los entrega en orden creciente.
+ */
+@SpringBootTest
+class NumeradorOrdenesIntegrationTest {
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Autowired
+    private ContadorNumeracionRepository contadores;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Varios nodos e hilos no repiten números de orden")
+    void noDebeRepetirNumerosEntreNodos() throws Exception {
+        NumeradorOrdenes otroNodo = new NumeradorOrdenes(contadores, transactionManager, 10);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> generados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                NumeradorOrdenes nodo = i % 2 == 0 ? numerador : otroNodo;
+                generados.add(hilos.submit(generar(nodo, 250)));
+            }
+
+            Set<String> todos = new HashSet<>();
+            for (Future<List<String>> hilo : generados) {
+                List<String> numeros = hilo.get();
+                assertThat(numeros).allMatch(numero -> numero.matches("ORD-\\d{10}"));
+                // Dentro de un hilo (y por tanto de un nodo) los números solo crecen
+                assertThat(numeros).isSorted();
+                todos.addAll(numeros);
+            }
+            assertThat(todos).hasSize(8 * 250);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Una reserva masiva aparta un rango que los nodos ya no entregan")
+    void reservaMasivaNoDebeChocarConLosBloques() {
+        NumeradorOrdenes nodo = new NumeradorOrdenes(contadores, transactionManager, 5);
+        String antes = nodo.siguiente();
+
+        long primero = numerador.reservar(100);
+
+        Set<String> siguientes = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            siguientes.add(nodo.siguiente());
+        }
+        for (long numero = primero; numero < primero + 100; numero++) {
+            assertThat(siguientes).doesNotContain(NumeradorOrdenes.formatear(numero));
+        }
+        assertThat(siguientes).doesNotContain(antes);
+    }
+
+    private static Callable<List<String>> generar(NumeradorOrdenes nodo, int cantidad) {
+        return () -> {
+            List<String> numeros = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                numeros.add(nodo.siguiente());
+            }
+            return numeros;
+        };
+    }
+}
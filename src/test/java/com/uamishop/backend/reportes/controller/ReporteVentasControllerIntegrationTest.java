@@ -0,0 +1,225 @@
+package com.uamishop.backend.reportes.controller;
+
+import com.uamishop.backend.catalogo.domain.Categoria;
+import com.uamishop.backend.catalogo.domain.Producto;
+import com.uamishop.backend.catalogo.repository.CategoriaRepository;
+import com.uamishop.backend.catalogo.repository.ProductoRepository;
+import com.uamishop.backend.orden.api.OrdenesApi;
+import com.uamishop.backend.orden.domain.DireccionEnvio;
+import com.uamishop.backend.reportes.service.ReportesService;
+import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.shared.event.OrdenCanceladaEvent;
+import com.uamishop.backend.shared.event.ProductoCompradoEvent;
+import com.uamishop.backend.shared.event.ProductoCompradoEvent.ItemComprado;
+import com.uamishop.backend.ventas.domain.Carrito;
+import com.uamishop.backend.ventas.repository.CarritoJpaRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los acumulados diarios se actualizan al confirmarse cada orden o
+ * cancelación, y las categorías suman las ventas de sus subcategorías.
+ * Sin caché del árbol de categorías, para que un cambio en el catálogo se
+ * vea en el siguiente checkout.
+ */
+@SpringBootTest(properties = "orden.categorias.vigencia=0s")
+@AutoConfigureMockMvc
+class ReporteVentasControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CarritoJpaRepository carritoRepository;
+
+    @Autowired
+    private OrdenesApi ordenesApi;
+
+    @Autowired
+    private ReportesService reportesService;
+
+    @Test
+    @DisplayName("Suma ventas por producto y por categoría con sus ancestros, y resta cancelaciones")
+    void debeAcumularVentasYCancelaciones() throws Exception {
+        Categoria raiz = categoriaRepository.save(new Categoria(CategoriaId.generar(), "Electrónica", "Raíz"));
+        Categoria hija = new Categoria(CategoriaId.generar(), "Audio", "Subcategoría");
+        hija.asignarPadre(raiz.getId());
+        categoriaRepository.save(hija);
+        UUID audifonos = crearProducto("Audífonos", hija.getId());
+        UUID bocina = crearProducto("Bocina", raiz.getId());
+        LocalDate hoy = LocalDate.now();
+
+        UUID primera = UUID.randomUUID();
+        List<UUID> rutaAudio = List.of(hija.getId().valor(), raiz.getId().valor());
+        List<ItemComprado> itemsPrimera = List.of(item(audifonos, 2, "100.00", rutaAudio),
+                item(bocina, 1, "300.00", List.of(raiz.getId().valor())));
+        publicar(new ProductoCompradoEvent(UUID.randomUUID(), Instant.now(), primera, UUID.randomUUID(),
+                itemsPrimera, null));
+        publicar(new ProductoCompradoEvent(UUID.randomUUID(), Instant.now(), UUID.randomUUID(), UUID.randomUUID(),
+                List.of(item(audifonos, 1, "100.00", rutaAudio)), null));
+
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() ->
+                mockMvc.perform(get("/api/v1/reportes/ventas/categorias")
+                                .param("desde", hoy.toString())
+                                .param("hasta", hoy.toString())
+                                .param("categoriaId", raiz.getId().valor().toString()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$", hasSize(1)))
+                        .andExpect(jsonPath("$[0].ordenes").value(2))
+                        .andExpect(jsonPath("$[0].unidades").value(4))
+                        .andExpect(jsonPath("$[0].ingresos").value(600.00)));
+
+        mockMvc.perform(get("/api/v1/reportes/ventas/categorias")
+                        .param("desde", hoy.toString())
+                        .param("hasta", hoy.toString())
+                        .param("categoriaId", hija.getId().valor().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].ordenes").value(2))
+                .andExpect(jsonPath("$[0].unidades").value(3));
+
+        publicar(new OrdenCanceladaEvent(UUID.randomUUID(), Instant.now(), primera, UUID.randomUUID(),
+                itemsPrimera, null));
+
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() ->
+                mockMvc.perform(get("/api/v1/reportes/ventas/productos")
+                                .param("desde", hoy.toString())
+                                .param("hasta", hoy.toString())
+                                .param("productoId", bocina.toString()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].ordenes").value(0))
+                        .andExpect(jsonPath("$[0].unidades").value(0)));
+
+        mockMvc.perform(get("/api/v1/reportes/ventas/productos")
+                        .param("desde", hoy.toString())
+                        .param("hasta", hoy.toString())
+                        .param("productoId", audifonos.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].ordenes").value(1))
+                .andExpect(jsonPath("$[0].unidades").value(1))
+                .andExpect(jsonPath("$[0].ingresos").value(100.00));
+    }
+
+    @Test
+    @DisplayName("La cancelación resta de las categorías de la compra aunque el producto ya esté en otra")
+    void debeRestarDeLasCategoriasDeLaCompra() throws Exception {
+        Categoria original = categoriaRepository.save(new Categoria(CategoriaId.generar(), "Cómputo", "Raíz"));
+        Categoria nueva = categoriaRepository.save(new Categoria(CategoriaId.generar(), "Oficina", "Raíz"));
+        UUID teclado = crearProducto("Teclado", original.getId());
+
+        UUID ordenId = ordenesApi.crearDesdeCarrito(crearCarritoEnCheckout(teclado),
+                DireccionEnvio.crear("Calle 1", "Ciudad", "Estado", "12345", "5512345678")).ordenId();
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() ->
+                consultarCategoria(original.getId())
+                        .andExpect(jsonPath("$", hasSize(1)))
+                        .andExpect(jsonPath("$[0].ordenes").value(1)));
+
+        // El producto cambia de categoría entre la compra y la cancelación
+        Producto producto = productoRepository.findById(new ProductoId(teclado)).orElseThrow();
+        productoRepository.save(Producto.reconstruir(producto.getId(), producto.getNombre(),
+                producto.getDescripcion(), producto.getPrecio(), nueva.getId(), producto.isDisponible(),
+                producto.getFechaCreacion()));
+        ordenesApi.cancelar(ordenId, "El cliente ya no lo quiere");
+
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() ->
+                consultarCategoria(original.getId())
+                        .andExpect(jsonPath("$[0].ordenes").value(0))
+                        .andExpect(jsonPath("$[0].unidades").value(0)));
+        consultarCategoria(nueva.getId()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Ignora la cancelación de una orden cuya venta no se sumó")
+    void debeIgnorarCancelacionSinVenta() throws Exception {
+        Categoria categoria = categoriaRepository.save(new Categoria(CategoriaId.generar(), "Jardín", "Raíz"));
+        UUID manguera = crearProducto("Manguera", categoria.getId());
+
+        // Orden anterior a los reportes: nunca pasó por registrarVenta
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                reportesService.registrarCancelacion(UUID.randomUUID(),
+                        List.of(item(manguera, 1, "100.00", List.of(categoria.getId().valor())))));
+
+        mockMvc.perform(get("/api/v1/reportes/ventas/productos")
+                        .param("desde", LocalDate.now().toString())
+                        .param("hasta", LocalDate.now().toString())
+                        .param("productoId", manguera.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        consultarCategoria(categoria.getId()).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Rechaza un rango de fechas invertido con 422")
+    void debeRechazarRangoInvalido() throws Exception {
+        mockMvc.perform(get("/api/v1/reportes/ventas/productos")
+                        .param("desde", "2024-02-01")
+                        .param("hasta", "2024-01-01"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private UUID crearProducto(String nombre, CategoriaId categoriaId) {
+        return productoRepository.save(Producto.crear(nombre, "Producto de prueba", Money.pesos(100), categoriaId))
+                .getId().valor();
+    }
+
+    private static ItemComprado item(UUID productoId, int cantidad, String precio, List<UUID> categorias) {
+        return new ItemComprado(productoId, "SKU-" + productoId, cantidad, new BigDecimal(precio), "MXN",
+                categorias);
+    }
+
+    private UUID crearCarritoEnCheckout(UUID productoId) {
+        Carrito carrito = new Carrito(ClienteId.generar());
+        carrito.agregarProducto(new ProductoId(productoId), 1, Money.pesos(100));
+        carrito.iniciarCheckout();
+        carritoRepository.save(carrito);
+        return carrito.getId().getValor();
+    }
+
+    private ResultActions consultarCategoria(CategoriaId categoriaId) throws Exception {
+        return mockMvc.perform(get("/api/v1/reportes/ventas/categorias")
+                        .param("desde", LocalDate.now().toString())
+                        .param("hasta", LocalDate.now().toString())
+                        .param("categoriaId", categoriaId.valor().toString()))
+                .andExpect(status().isOk());
+    }
+
+    // El listener corre después del commit, así que el evento se publica dentro de una transacción
+    private void publicar(Object evento) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(evento));
+    }
+}
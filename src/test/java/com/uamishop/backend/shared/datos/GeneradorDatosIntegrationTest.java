@@ -0,0 +1,157 @@
+package com.uamishop.backend.shared.datos;
+
+import com.uamishop.backend.orden.consulta.ProyeccionOrdenResumen;
+import com.uamishop.backend.orden.domain.EstadoOrden;
+import com.uamishop.backend.orden.service.NumeradorOrdenes;
+import com.uamishop.backend.ventas.domain.EstadoCarrito;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Genera un conjunto pequeño en una base H2 propia y verifica que los datos
+// respetan las reglas del dominio y que la aplicación los puede leer
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:generador-datos")
+@AutoConfigureMockMvc
+class GeneradorDatosIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProyeccionOrdenResumen proyeccionResumen;
+
+    @Autowired
+    private NumeradorOrdenes numerador;
+
+    @Test
+    void generaDatosConsistentesYLegiblesPorLaAplicacion() throws Exception {
+        // GIVEN / WHEN: 3 raíces x 4 x 4 = 48 hojas, 400 productos, 150 carritos y 300 órdenes
+        GeneradorDatos.Resumen resumen = generar(true);
+
+        // THEN: los conteos coinciden con las tablas
+        assertThat(resumen.categorias()).isEqualTo(3 + 12 + 48);
+        assertThat(contar("categorias")).isEqualTo(resumen.categorias());
+        assertThat(contar("productos")).isEqualTo(400);
+        assertThat(contar("carritos")).isEqualTo(150);
+        assertThat(contar("items_carrito")).isEqualTo(resumen.itemsCarrito());
+        assertThat(contar("ordenes")).isEqualTo(300);
+        assertThat(contar("items_orden")).isEqualTo(resumen.itemsOrden());
+        assertThat(contar("historial_estados")).isEqualTo(resumen.cambiosEstado());
+        assertThat(contar("producto_estadisticas")).isEqualTo(resumen.estadisticas());
+
+        // Los productos solo cuelgan de categorías hoja
+        assertThat(jdbc.queryForObject("select count(*) from productos p where exists "
+                + "(select 1 from categorias c where c.categoria_padre_id = p.categoria_id)", Long.class)).isZero();
+
+        // Aparecen todos los estados de carrito y de orden
+        assertThat(jdbc.queryForList("select distinct estado from carritos", String.class))
+                .containsExactlyInAnyOrder(nombres(EstadoCarrito.values()));
+        assertThat(jdbc.queryForList("select distinct estado from ordenes", String.class))
+                .containsExactlyInAnyOrder(nombres(EstadoOrden.values()));
+
+        // El historial sigue transiciones válidas y termina en el estado de la orden
+        List<Map<String, Object>> cambios = jdbc.queryForList(
+                "select h.estado_anterior, h.estado_nuevo, o.estado from historial_estados h "
+                        + "join ordenes o on o.id = h.orden_id");
+        assertThat(cambios).allSatisfy(cambio -> assertThat(
+                EstadoOrden.valueOf((String) cambio.get("ESTADO_ANTERIOR"))
+                        .puedeTransicionarA(EstadoOrden.valueOf((String) cambio.get("ESTADO_NUEVO")))).isTrue());
+        assertThat(jdbc.queryForObject("select count(*) from ordenes o where o.estado <> 'PENDIENTE' and "
+                + "(select count(*) from historial_estados h where h.orden_id = o.id) <> o.version", Long.class)).isZero();
+        // Secuencias consecutivas desde 1 hasta cambios_estado
+        assertThat(jdbc.queryForObject("select count(*) from ordenes o where o.cambios_estado <> "
+                + "(select coalesce(max(h.secuencia), 0) from historial_estados h where h.orden_id = o.id) "
+                + "or o.cambios_estado <> (select count(*) from historial_estados h where h.orden_id = o.id)",
+                Long.class)).isZero();
+
+        // El total de cada orden es la suma de sus líneas
+        assertThat(jdbc.queryForObject("select count(*) from ordenes o where o.total_cantidad <> "
+                + "(select sum(i.precio_cantidad * i.cantidad) from items_orden i where i.orden_id = o.id)",
+                Long.class)).isZero();
+
+        // Popularidad sesgada: el 10% más vendido concentra gran parte de las líneas
+        List<Long> ventas = jdbc.queryForList(
+                "select ventas_totales from producto_estadisticas order by ventas_totales desc", Long.class);
+        long totalVentas = ventas.stream().mapToLong(Long::longValue).sum();
+        long top = ventas.stream().limit(40).mapToLong(Long::longValue).sum();
+        assertThat(totalVentas).isEqualTo(resumen.itemsOrden());
+        assertThat((double) top / totalVentas).isGreaterThan(0.4);
+
+        // La aplicación lee lo generado por sus endpoints (los listados, tras proyectar orden_resumen)
+        assertThat(proyeccionResumen.reconstruir()).isEqualTo(300);
+        assertThat(contar("orden_resumen")).isEqualTo(300);
+        UUID ordenId = jdbc.queryForObject("select id from ordenes where estado = 'ENTREGADA' limit 1", UUID.class);
+        mockMvc.perform(get("/api/v2/ordenes/{id}", ordenId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("ENTREGADA"));
+        UUID carritoId = jdbc.queryForObject("select id from carritos where estado = 'COMPLETADO' limit 1", UUID.class);
+        mockMvc.perform(get("/api/v1/carritos/{id}", carritoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("COMPLETADO"));
+        UUID productoId = jdbc.queryForObject("select id from productos limit 1", UUID.class);
+        mockMvc.perform(get("/api/v1/productos/{id}", productoId))
+                .andExpect(status().isOk());
+
+        // Misma semilla, mismos datos
+        BigDecimal totalAntes = jdbc.queryForObject("select sum(total_cantidad) from ordenes", BigDecimal.class);
+        List<String> idsAntes = jdbc.queryForList("select cast(id as varchar) from ordenes order by id", String.class);
+        List<String> numerosAntes = jdbc.queryForList("select numero_orden from ordenes", String.class);
+        assertThat(numerosAntes).allMatch(numero -> numero.matches("ORD-\\d{10}"));
+        generar(true);
+        assertThat(jdbc.queryForObject("select sum(total_cantidad) from ordenes", BigDecimal.class)).isEqualTo(totalAntes);
+        assertThat(jdbc.queryForList("select cast(id as varchar) from ordenes order by id", String.class)).isEqualTo(idsAntes);
+        // Los números salen del contador compartido: nunca se repiten, ni entre generaciones
+        assertThat(jdbc.queryForList("select numero_orden from ordenes", String.class))
+                .doesNotContainAnyElementsOf(numerosAntes);
+
+        // Sin limpiar no se mezclan datos con los existentes
+        assertThatThrownBy(() -> generar(false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("generador-datos.limpiar");
+    }
+
+    private GeneradorDatos.Resumen generar(boolean limpiar) {
+        ConfiguracionGeneradorDatos config = new ConfiguracionGeneradorDatos(
+                3, 4, 3, 400, 1.1, 0.9, 50,
+                150, ConfiguracionGeneradorDatos.distribucion(EstadoCarrito.class,
+                        "ACTIVO:30,EN_CHECKOUT:10,COMPLETADO:40,ABANDONADO:20"),
+                300, ConfiguracionGeneradorDatos.distribucion(EstadoOrden.class,
+                        "PENDIENTE:10,CONFIRMADA:10,PREPARACION:15,ENVIADA:15,ENTREGADA:35,CANCELADA:15"),
+                5, 90, 7L, 64, limpiar);
+        return new GeneradorDatos(jdbc, new TransactionTemplate(transactionManager), config, numerador).generar();
+    }
+
+    private long contar(String tabla) {
+        return jdbc.queryForObject("select count(*) from " + tabla, Long.class);
+    }
+
+    private static String[] nombres(Enum<?>[] valores) {
+        String[] nombres = new String[valores.length];
+        for (int i = 0; i < valores.length; i++) {
+            nombres[i] = valores[i].name();
+        }
+        return nombres;
+    }
+}
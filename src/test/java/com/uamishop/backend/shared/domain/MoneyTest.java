@@ -0,0 +1,41 @@
+package com.uamishop.backend.shared.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void conversionDesdeBigDecimalEsExacta() {
+        Money precio = Money.pesos(new BigDecimal("19.99"));
+
+        assertEquals(1999L, precio.getCentavos());
+        assertEquals(new BigDecimal("19.99"), precio.getCantidad());
+        assertEquals(precio, Money.pesos(19.99));
+    }
+
+    @Test
+    void operacionesEnCentavos() {
+        Money total = Money.pesos(new BigDecimal("10.10"))
+                .multiplicar(3)
+                .sumar(Money.centavos(5))
+                .restar(Money.pesos(1));
+
+        assertEquals(new BigDecimal("29.35"), total.getCantidad());
+        assertEquals(1000L, Money.pesos(100).porcentaje(0.10).getCentavos());
+    }
+
+    @Test
+    void pesosEnterosSeReutilizanDesdeCache() {
+        assertSame(Money.CERO, Money.pesos(0));
+        assertSame(Money.pesos(50), Money.centavos(5_000));
+    }
+
+    @Test
+    void noPermiteNegativos() {
+        assertThrows(IllegalArgumentException.class, () -> Money.pesos(1).restar(Money.pesos(2)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import com.uamishop.backend.catalogo.domain.Categoria;
+import com.uamishop.backend.catalogo.domain.Imagen;
+import com.uamishop.backend.catalogo.domain.Producto;
+import com.uamishop.backend.catalogo.repository.CategoriaRepository;
+import com.uamishop.backend.catalogo.repository.ProductoRepository;
+import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.ventas.domain.Carrito;
+import com.uamishop.backend.ventas.service.CarritoService;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Inicia una grabación por el endpoint de administración, ejecuta
+// agregarProducto y verifica que el volcado contiene sus pasos
+
+@SpringBootTest(properties = "observabilidad.jfr.admin.habilitado=true")
+@AutoConfigureMockMvc
+class GrabacionJfrControllerIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/admin/jfr/grabacion";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GrabacionJfrService grabacionService;
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @AfterEach
+    void limpiar() {
+        grabacionService.cerrar();
+    }
+
+    @Test
+    void grabaLosPasosDeAgregarProducto() throws Exception {
+        // GIVEN: un producto activo y un carrito
+        CategoriaId catId = new CategoriaId(UUID.randomUUID());
+        categoriaRepository.save(new Categoria(catId, "General", "Desc"));
+        ProductoId productoId = ProductoId.generar();
+        Producto producto = Producto.reconstruir(productoId, "Laptop", "Desc", Money.pesos(100L), catId, false, LocalDateTime.now());
+        producto.agregarImagen(new Imagen("https://uami.mx/t.jpg", "T", 1));
+        producto.activar();
+        productoRepository.save(producto);
+        Carrito carrito = carritoService.crear(ClienteId.de(UUID.randomUUID()));
+
+        // WHEN: se graba mientras se agrega el producto
+        mockMvc.perform(post(BASE_URL).param("duracion", "PT1M"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("RUNNING"));
+        mockMvc.perform(post(BASE_URL))
+                .andExpect(status().isConflict());
+
+        carritoService.agregarProducto(carrito.getId(), productoId, 1);
+
+        mockMvc.perform(delete(BASE_URL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("STOPPED"));
+
+        MvcResult volcado = mockMvc.perform(get(BASE_URL + "/volcado"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] jfr = mockMvc.perform(asyncDispatch(volcado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // THEN: el archivo contiene el total y los pasos de la operación
+        Path archivo = Files.createTempFile("prueba-", ".jfr");
+        try {
+            Files.write(archivo, jfr);
+            List<String> pasos = RecordingFile.readAllEvents(archivo).stream()
+                    .filter(e -> e.getEventType().getName().equals("uamishop.PasoCheckout"))
+                    .filter(e -> "agregarProducto".equals(e.getString("operacion")))
+                    .map(e -> e.getString("paso"))
+                    .toList();
+            assertTrue(pasos.containsAll(List.of(
+                    "total", "consultarCatalogo", "guardarCarrito", "publicarEvento")), pasos.toString());
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import com.uamishop.backend.catalogo.api.CatalogoApi;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Verifica que /actuator/prometheus expone los timers de las APIs entre
+// módulos junto con las métricas de HikariCP, Hibernate y el executor async
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasPrometheusIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogoApi catalogoApi;
+
+    @Test
+    void exponeMetricasEnFormatoPrometheus() throws Exception {
+        // GIVEN: una llamada a la API del catálogo
+        catalogoApi.listarProductos();
+
+        // THEN: el timer aparece con sus etiquetas y percentiles
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "modulo_api_seconds_count{application=")))
+                .andExpect(content().string(containsString("metodo=\"listarProductos\"")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_")))
+                .andExpect(content().string(containsString("executor_queued_tasks")));
+    }
+}
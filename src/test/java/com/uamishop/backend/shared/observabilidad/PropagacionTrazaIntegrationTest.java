@@ -0,0 +1,94 @@
+package com.uamishop.backend.shared.observabilidad;
+
+import com.uamishop.backend.catalogo.domain.Categoria;
+import com.uamishop.backend.catalogo.domain.Imagen;
+import com.uamishop.backend.catalogo.domain.Producto;
+import com.uamishop.backend.catalogo.repository.CategoriaRepository;
+import com.uamishop.backend.catalogo.repository.ProductoRepository;
+import com.uamishop.backend.shared.domain.CategoriaId;
+import com.uamishop.backend.shared.domain.ClienteId;
+import com.uamishop.backend.shared.domain.Money;
+import com.uamishop.backend.shared.domain.ProductoId;
+import com.uamishop.backend.ventas.domain.Carrito;
+import com.uamishop.backend.ventas.service.CarritoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Verifica que una petición con traceparent W3C conserva el mismo traceId
+// desde el controlador hasta el listener @Async que recibe el evento
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PropagacionTrazaIntegrationTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemoriaSpanExporter exportador;
+
+    @Autowired
+    private CarritoService carritoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Test
+    void elListenerAsyncContinuaLaTrazaDeLaPeticion() throws Exception {
+        // GIVEN: un producto activo y un carrito
+        CategoriaId catId = new CategoriaId(UUID.randomUUID());
+        categoriaRepository.save(new Categoria(catId, "General", "Desc"));
+        ProductoId productoId = ProductoId.generar();
+        Producto producto = Producto.reconstruir(productoId, "Laptop", "Desc", Money.pesos(100L), catId, false, LocalDateTime.now());
+        producto.agregarImagen(new Imagen("https://uami.mx/t.jpg", "T", 1));
+        producto.activar();
+        productoRepository.save(producto);
+        Carrito carrito = carritoService.crear(ClienteId.de(UUID.randomUUID()));
+
+        // WHEN: se agrega el producto con un traceparent entrante
+        mockMvc.perform(post("/api/v1/carritos/{id}/productos", carrito.getId().value())
+                        .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productoId\":\"" + productoId.valor() + "\",\"cantidad\":1,\"precioMonto\":100.00}"))
+                .andExpect(status().isOk());
+
+        // THEN: el span del listener pertenece a la misma traza que la petición
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() -> {
+            var spans = exportador.buscarTraza(TRACE_ID);
+            assertTrue(spans.stream().anyMatch(s -> s.tipo().equals("SERVER")), spans.toString());
+            assertTrue(spans.stream().anyMatch(s -> s.nombre().equalsIgnoreCase("ProductoAgregadoAlCarritoListener")),
+                    spans.toString());
+        });
+    }
+
+    @Test
+    void laConsultaDeTrazasEstaApagadaPorDefecto() {
+        // El exportador en memoria sigue activo; solo el endpoint requiere habilitarse
+        assertNotNull(contexto.getBeanProvider(MemoriaSpanExporter.class).getIfAvailable());
+        assertNull(contexto.getBeanProvider(TrazasController.class).getIfAvailable());
+    }
+}
@@ -0,0 +1,173 @@
+package com.uamishop.backend.shared.persistencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dos bases H2 independientes hacen de primaria y réplica; sin replicación real,
+// un dato que solo existe en una de ellas delata a cuál fue cada lectura
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicasLecturaIntegrationTest.PRIMARIA,
+        "datasource.replicas.habilitado=true",
+        "datasource.replicas.urls=" + ReplicasLecturaIntegrationTest.REPLICA,
+        "datasource.replicas.consulta-retraso=select segundos from retraso_replica",
+        "datasource.replicas.retraso-maximo=5s",
+        "datasource.replicas.intervalo-verificacion=1h",
+        // La caché de segundo nivel respondería sin llegar a ninguna de las dos bases
+        "cache-l2.habilitado=false"
+})
+@AutoConfigureMockMvc
+class ReplicasLecturaIntegrationTest {
+
+    static final String PRIMARIA = "jdbc:h2:mem:rw-primaria;DB_CLOSE_DELAY=-1";
+    static final String REPLICA = "jdbc:h2:mem:rw-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MonitorReplicas monitor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void copiarEsquemaAReplica() throws SQLException {
+        List<String> esquema = new ArrayList<>();
+        try (Connection primaria = DriverManager.getConnection(PRIMARIA, "sa", "");
+             Statement consulta = primaria.createStatement();
+             ResultSet script = consulta.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                esquema.add(script.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String ddl : esquema) {
+                sentencia.execute(ddl);
+            }
+            sentencia.execute("create table retraso_replica (segundos int)");
+            sentencia.execute("insert into retraso_replica values (0)");
+        }
+        monitor.verificar();
+    }
+
+    @Test
+    void lecturasDeSoloLecturaVanALaReplica() throws Exception {
+        // GIVEN: un producto que solo existe en la réplica
+        UUID productoId = insertarProductoEnReplica();
+
+        // WHEN / THEN: el GET (transacción readOnly) lo encuentra
+        mockMvc.perform(get("/api/v1/productos/{id}", productoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Solo en réplica"));
+    }
+
+    @Test
+    void despuesDeEscribirElClienteLeeDeLaPrimaria() throws Exception {
+        // GIVEN: categoría y producto creados por la API (van a la primaria, la réplica no los recibe)
+        String categoriaId = crear("/api/v1/categorias", """
+                {"nombre": "Réplicas", "descripcion": "Categoría de prueba"}
+                """).id();
+        Creado producto = crear("/api/v1/productos", """
+                {"nombre": "Recién creado", "descripcion": "Solo en primaria", "precio": 99.5, "categoriaId": "%s"}
+                """.formatted(categoriaId));
+        assertThat(producto.cookie()).isNotNull();
+
+        // WHEN / THEN: sin la cookie la lectura va a la réplica y no lo encuentra
+        MvcResult sinCookie = mockMvc.perform(get("/api/v1/productos/{id}", producto.id())).andReturn();
+        assertThat(sinCookie.getResponse().getStatus()).isNotEqualTo(200);
+
+        // Con la cookie, dentro de la ventana, lee su propia escritura
+        mockMvc.perform(get("/api/v1/productos/{id}", producto.id()).cookie(producto.cookie()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Recién creado"));
+    }
+
+    @Test
+    void replicaAtrasadaDejaDeRecibirLecturas() throws Exception {
+        // GIVEN: un producto solo en la primaria y la réplica con 60 s de retraso
+        String categoriaId = crear("/api/v1/categorias", """
+                {"nombre": "Retraso", "descripcion": "Categoría de prueba"}
+                """).id();
+        String productoId = crear("/api/v1/productos", """
+                {"nombre": "Con retraso", "descripcion": "Solo en primaria", "precio": 10, "categoriaId": "%s"}
+                """.formatted(categoriaId)).id();
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute("update retraso_replica set segundos = 60");
+        }
+        monitor.verificar();
+        assertThat(monitor.disponibles()).isEmpty();
+
+        // WHEN / THEN: sin cookie, la lectura cae a la primaria
+        mockMvc.perform(get("/api/v1/productos/{id}", productoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Con retraso"));
+    }
+
+    private Creado crear(String ruta, String json) throws Exception {
+        MvcResult resultado = mockMvc.perform(post(ruta)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return new Creado(objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asText(),
+                resultado.getResponse().getCookie(LecturaPropia.COOKIE));
+    }
+
+    private UUID insertarProductoEnReplica() throws SQLException {
+        UUID categoriaId = UUID.randomUUID();
+        UUID productoId = UUID.randomUUID();
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "")) {
+            try (PreparedStatement categoria = replica.prepareStatement(
+                    "insert into categorias (id, nombre, descripcion, version, fecha_actualizacion) "
+                            + "values (?, 'Réplica', 'Categoría de la réplica', 0, current_timestamp)")) {
+                categoria.setBytes(1, bytes(categoriaId));
+                categoria.executeUpdate();
+            }
+            try (PreparedStatement producto = replica.prepareStatement(
+                    "insert into productos (id, nombre, descripcion, precio, categoria_id, disponible, version, "
+                            + "fecha_creacion, fecha_actualizacion) values (?, 'Solo en réplica', 'Prueba', 12.5, ?, "
+                            + "true, 0, current_timestamp, current_timestamp)")) {
+                producto.setBytes(1, bytes(productoId));
+                producto.setBytes(2, bytes(categoriaId));
+                producto.executeUpdate();
+            }
+        }
+        return productoId;
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private record Creado(String id, Cookie cookie) {
+    }
+}
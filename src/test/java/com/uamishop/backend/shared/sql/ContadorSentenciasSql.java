@@ -0,0 +1,47 @@
+package com.uamishop.backend.shared.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * StatementInspector de Hibernate que registra cada sentencia SQL mientras
+ * hay una medición activa (ver {@link PresupuestoSql}).
+ *
+ * Se ignoran los hilos del executor @Async ("task-"): los listeners de
+ * eventos corren fuera de la petición y su costo se mide por separado.
+ */
+public final class ContadorSentenciasSql implements StatementInspector {
+
+    static final ContadorSentenciasSql INSTANCIA = new ContadorSentenciasSql();
+
+    private static final String PREFIJO_HILOS_ASYNC = "task-";
+
+    private final ConcurrentLinkedQueue<String> sentencias = new ConcurrentLinkedQueue<>();
+    private volatile boolean activo;
+
+    private ContadorSentenciasSql() {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (activo && !Thread.currentThread().getName().startsWith(PREFIJO_HILOS_ASYNC)) {
+            sentencias.add(sql);
+        }
+        return sql;
+    }
+
+    void iniciar() {
+        sentencias.clear();
+        activo = true;
+    }
+
+    List<String> detener() {
+        activo = false;
+        List<String> capturadas = new ArrayList<>(sentencias);
+        sentencias.clear();
+        return capturadas;
+    }
+}
@@ -0,0 +1,105 @@
+package com.uamishop.backend.shared.sql;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Presupuesto de sentencias SQL por petición, para que las regresiones de
+ * N+1 o productos cartesianos rompan la build.
+ *
+ * Requiere @Import(PresupuestoSqlConfig.class) en la prueba. Uso:
+ *
+ *   PresupuestoSql.maximo().selects(2).inserts(0).updates(0)
+ *           .verificar(() -> mockMvc.perform(get("/api/v2/ordenes")).andExpect(status().isOk()));
+ *
+ * Los tipos sin límite no se verifican. Al fallar, el mensaje incluye
+ * todas las sentencias capturadas.
+ */
+public final class PresupuestoSql {
+
+    /** Acción medida; puede lanzar excepciones verificadas (MockMvc). */
+    @FunctionalInterface
+    public interface AccionSql<T> {
+        T ejecutar() throws Exception;
+    }
+
+    enum Tipo { SELECT, INSERT, UPDATE, DELETE, OTRA }
+
+    private final Map<Tipo, Integer> limites = new EnumMap<>(Tipo.class);
+
+    private PresupuestoSql() {
+    }
+
+    public static PresupuestoSql maximo() {
+        return new PresupuestoSql();
+    }
+
+    public PresupuestoSql selects(int maximo) {
+        limites.put(Tipo.SELECT, maximo);
+        return this;
+    }
+
+    public PresupuestoSql inserts(int maximo) {
+        limites.put(Tipo.INSERT, maximo);
+        return this;
+    }
+
+    public PresupuestoSql updates(int maximo) {
+        limites.put(Tipo.UPDATE, maximo);
+        return this;
+    }
+
+    public PresupuestoSql deletes(int maximo) {
+        limites.put(Tipo.DELETE, maximo);
+        return this;
+    }
+
+    /**
+     * Ejecuta la acción contando sus sentencias y falla si alguna categoría
+     * supera su límite. Devuelve el resultado de la acción.
+     */
+    public <T> T verificar(AccionSql<T> accion) throws Exception {
+        ContadorSentenciasSql.INSTANCIA.iniciar();
+        T resultado;
+        List<String> sentencias;
+        try {
+            resultado = accion.ejecutar();
+        } finally {
+            sentencias = ContadorSentenciasSql.INSTANCIA.detener();
+        }
+
+        Map<Tipo, Long> conteo = sentencias.stream()
+                .collect(Collectors.groupingBy(PresupuestoSql::clasificar,
+                        () -> new EnumMap<>(Tipo.class), Collectors.counting()));
+        limites.forEach((tipo, maximo) -> {
+            long real = conteo.getOrDefault(tipo, 0L);
+            if (real > maximo) {
+                fail("Presupuesto SQL excedido: " + real + " " + tipo + " (máximo " + maximo + ")\n"
+                        + String.join("\n", sentencias));
+            }
+        });
+        return resultado;
+    }
+
+    static Tipo clasificar(String sql) {
+        String inicio = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (inicio.startsWith("select") || inicio.startsWith("with")) {
+            return Tipo.SELECT;
+        }
+        if (inicio.startsWith("insert")) {
+            return Tipo.INSERT;
+        }
+        if (inicio.startsWith("update")) {
+            return Tipo.UPDATE;
+        }
+        if (inicio.startsWith("delete")) {
+            return Tipo.DELETE;
+        }
+        return Tipo.OTRA;
+    }
+}
@@ -0,0 +1,19 @@
+package com.uamishop.backend.shared.sql;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registra {@link ContadorSentenciasSql} como StatementInspector de Hibernate
+ * para las pruebas que usan {@link PresupuestoSql}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PresupuestoSqlConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer contadorSentenciasSql() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, ContadorSentenciasSql.INSTANCIA);
+    }
+}
@@ -13,6 +13,9 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.context.annotation.Import;
+import com.uamishop.backend.shared.sql.PresupuestoSql;
+import com.uamishop.backend.shared.sql.PresupuestoSqlConfig;
 
 import java.util.UUID;
 
@@ -25,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
  * a nuestra API para ver que todo se conecte bien (Paso 4 de la práctica).
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(PresupuestoSqlConfig.class)
 class CarritoControllerIntegrationTest {
 
     //Se actualizo el versionamiento de la api en este test, para que coincida con el versionamiento del controller
@@ -40,7 +44,7 @@ class CarritoControllerIntegrationTest {
 
         @Test
         @DisplayName("Crea un carrito vacío y retorna 201 Created")
-        void crear_retorna201() {
+        void crear_retorna201() throws Exception {
 
             // 1. Preparamos los datos de la petición (El Request)
 
@@ -50,12 +54,14 @@ class CarritoControllerIntegrationTest {
 
             // 2. Ejecutamos la petición POST al endpoint
 
-            ResponseEntity<CarritoResponseDTO> response = restTemplate.exchange(
-                    BASE_URL,
-                    HttpMethod.POST,
-                    request,
-                    CarritoResponseDTO.class
-            );
+            //    Presupuesto SQL: verificación por id asignado y el insert del carrito
+            ResponseEntity<CarritoResponseDTO> response = PresupuestoSql.maximo().selects(1).inserts(1).updates(0)
+                    .verificar(() -> restTemplate.exchange(
+                            BASE_URL,
+                            HttpMethod.POST,
+                            request,
+                            CarritoResponseDTO.class
+                    ));
 
             // 3. Validamos que la respuesta sea correcta
 
@@ -72,7 +78,7 @@ class CarritoControllerIntegrationTest {
 
         @Test
         @DisplayName("Retorna 400 Bad Request si la cantidad de productos es mayor a 10")
-        void agregar_retorna400_cuandoCantidadEsExcesiva() {
+        void agregar_retorna400_cuandoCantidadEsExcesiva() throws Exception {
 
             // 1. Preparamos un request con datos inválidos (15 unidades)
 
@@ -90,12 +96,14 @@ class CarritoControllerIntegrationTest {
 
             // 2. Ejecutamos la petición POST
 
-            ResponseEntity<String> response = restTemplate.exchange(
-                    BASE_URL + "/" + carritoId + "/productos",
-                    HttpMethod.POST,
-                    request,
-                    String.class // Lo leemos como String para ver el JSON de error
-            );
+            //    La validación rechaza la petición antes de tocar la base de datos
+            ResponseEntity<String> response = PresupuestoSql.maximo().selects(0).inserts(0).updates(0)
+                    .verificar(() -> restTemplate.exchange(
+                            BASE_URL + "/" + carritoId + "/productos",
+                            HttpMethod.POST,
+                            request,
+                            String.class // Lo leemos como String para ver el JSON de error
+                    ));
 
             // 3. Validamos que el servidor nos haya bateado con un 400
 
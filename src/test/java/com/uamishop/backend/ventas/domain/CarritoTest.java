@@ -190,4 +190,26 @@ class CarritoTest {
 
         assertEquals("El descuento no puede ser mayor al 30% del subtotal", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe mantener el subtotal al agregar, modificar y eliminar productos")
+    void deberiaMantenerSubtotalAcumulado() {
+        Carrito carrito = new Carrito(ClienteId.de(UUID.randomUUID()));
+        ProductoId laptop = new ProductoId(UUID.randomUUID());
+        ProductoId mouse = new ProductoId(UUID.randomUUID());
+
+        carrito.agregarProducto(laptop, 1, Money.pesos(100.0));
+        carrito.agregarProducto(mouse, 2, Money.pesos(25.5));
+        carrito.agregarProducto(laptop, 1, Money.pesos(100.0));
+        assertEquals(251.0, carrito.calcularSubtotal().getCantidad().doubleValue());
+
+        carrito.modificarCantidad(mouse, 1);
+        assertEquals(225.5, carrito.calcularSubtotal().getCantidad().doubleValue());
+
+        carrito.eliminarProducto(laptop);
+        assertEquals(25.5, carrito.calcularTotal().getCantidad().doubleValue());
+
+        carrito.vaciar();
+        assertEquals(0.0, carrito.calcularSubtotal().getCantidad().doubleValue());
+    }
+}